@@ -1,14 +1,23 @@
 package com.satori.platform.aop.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 import tech.jhipster.config.JHipsterConstants;
@@ -16,15 +25,30 @@ import tech.jhipster.config.JHipsterConstants;
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
- * By default, it only runs with the "dev" profile.
+ * By default, it only runs with the "dev" profile, where every call is logged
+ * with its arguments at debug level. With {@code app.tracing.enabled} it also
+ * runs in production as a low-overhead tracer: a sampled fraction of calls is
+ * timed into per-method Micrometer timers, and arguments are only logged for
+ * the methods and users switched on in the {@link TracingSettings}.
  */
 @Aspect
 public class LoggingAspect {
 
     private final Environment env;
 
-    public LoggingAspect(Environment env) {
+    private final MeterRegistry meterRegistry;
+
+    private final TracingSettings tracing;
+
+    private final boolean logAllCalls;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public LoggingAspect(Environment env, MeterRegistry meterRegistry, TracingSettings tracing) {
         this.env = env;
+        this.meterRegistry = meterRegistry;
+        this.tracing = tracing;
+        this.logAllCalls = env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT));
     }
 
     /**
@@ -87,7 +111,8 @@ public class LoggingAspect {
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that logs when a method is entered and exited, and samples its
+     * execution time.
      *
      * @param joinPoint join point for advice.
      * @return result.
@@ -95,19 +120,83 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = logger(joinPoint);
-        if (log.isDebugEnabled()) {
-            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+        boolean logCall = logAllCalls || tracing.isTraced(joinPoint);
+        Logger log = logCall ? logger(joinPoint) : null;
+        logCall = logCall && (!logAllCalls || log.isDebugEnabled());
+        if (logCall) {
+            trace(log, "Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
         }
+        boolean sampled = tracing.sample();
+        long start = sampled ? System.nanoTime() : 0;
         try {
             Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+            if (logCall) {
+                trace(log, "Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
+            if (logCall) {
+                log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
+            } else {
+                logger(joinPoint).error("Illegal argument in {}()", joinPoint.getSignature().getName());
+            }
             throw e;
+        } finally {
+            if (sampled) {
+                timer(joinPoint).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
         }
     }
+
+    /**
+     * Calls traced on demand are logged at info level, as production loggers
+     * do not enable debug.
+     */
+    private void trace(Logger log, String format, Object name, Object value) {
+        if (logAllCalls) {
+            log.debug(format, name, value);
+        } else {
+            log.info(format, name, value);
+        }
+    }
+
+    /**
+     * The timer of a method. Micrometer computes the published percentiles
+     * from an HdrHistogram per timer.
+     */
+    private Timer timer(ProceedingJoinPoint joinPoint) {
+        TimerKey key = new TimerKey(componentType(joinPoint), ((MethodSignature) joinPoint.getSignature()).getMethod());
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k ->
+                Timer.builder("app.method.execution")
+                    .tag("class", k.type().getSimpleName())
+                    .tag("method", k.method().getName())
+                    .description("Sampled execution time of application methods")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+            );
+        }
+        return timer;
+    }
+
+    /**
+     * The component a call went to. Repository methods inherited from
+     * {@code CrudRepository} or {@code JpaRepository} are declared there, so
+     * they are attributed to the repository interface the proxy implements.
+     */
+    static Class<?> componentType(JoinPoint joinPoint) {
+        Class<?> declaringType = joinPoint.getSignature().getDeclaringType();
+        Object proxy = joinPoint.getThis();
+        if (declaringType.isInterface() && proxy != null && AopUtils.isJdkDynamicProxy(proxy)) {
+            for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+                if (declaringType.isAssignableFrom(type)) {
+                    return type;
+                }
+            }
+        }
+        return declaringType;
+    }
+
+    private record TimerKey(Class<?> type, Method method) {}
 }
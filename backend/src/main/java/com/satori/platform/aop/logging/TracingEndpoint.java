@@ -0,0 +1,60 @@
+package com.satori.platform.aop.logging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Actuator endpoint ({@code /management/tracing}) to change the
+ * {@link TracingSettings} of a running instance, e.g.
+ * {@code {"traceMethod": "QuizService.submitAnswer"}} to log the arguments of
+ * one method, or {@code {"traceUser": "student1"}} to log every call made on
+ * behalf of one user.
+ */
+@Endpoint(id = "tracing")
+public class TracingEndpoint {
+
+    private final TracingSettings settings;
+
+    public TracingEndpoint(TracingSettings settings) {
+        this.settings = settings;
+    }
+
+    @ReadOperation
+    public Map<String, Object> settings() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("sampleRate", settings.getSampleRate());
+        body.put("tracedMethods", settings.getTracedMethods());
+        body.put("tracedUsers", settings.getTracedUsers());
+        return body;
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(
+        @Nullable Double sampleRate,
+        @Nullable String traceMethod,
+        @Nullable String untraceMethod,
+        @Nullable String traceUser,
+        @Nullable String untraceUser
+    ) {
+        if (sampleRate != null) {
+            settings.setSampleRate(sampleRate);
+        }
+        if (traceMethod != null) {
+            settings.traceMethod(traceMethod);
+        }
+        if (untraceMethod != null) {
+            settings.untraceMethod(untraceMethod);
+        }
+        if (traceUser != null) {
+            settings.traceUser(traceUser);
+        }
+        if (untraceUser != null) {
+            settings.untraceUser(untraceUser);
+        }
+        return settings();
+    }
+}
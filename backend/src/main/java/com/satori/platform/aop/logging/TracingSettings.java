@@ -0,0 +1,97 @@
+package com.satori.platform.aop.logging;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.aspectj.lang.JoinPoint;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Runtime switches of the {@link LoggingAspect}: the fraction of calls whose
+ * execution time is sampled, and the methods and users whose calls are logged
+ * with their arguments. Changed at runtime through the {@link TracingEndpoint}.
+ * <p>
+ * Methods are named by the simple name of their class, or of their repository
+ * interface for inherited repository methods, optionally followed by the
+ * method name: {@code QuizService} or {@code QuizRepository.findById}.
+ * Users are named by login.
+ */
+public class TracingSettings {
+
+    private volatile double sampleRate;
+
+    private final Set<String> tracedMethods = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> tracedUsers = ConcurrentHashMap.newKeySet();
+
+    public TracingSettings(double sampleRate) {
+        setSampleRate(sampleRate);
+    }
+
+    /**
+     * @return whether the execution time of the current call should be
+     *         recorded
+     */
+    public boolean sample() {
+        double rate = sampleRate;
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * Whether a call should be logged with its arguments. Costs two emptiness
+     * checks while nothing is traced.
+     *
+     * @param joinPoint the call
+     * @return true if the method or the current user is traced
+     */
+    public boolean isTraced(JoinPoint joinPoint) {
+        if (!tracedMethods.isEmpty()) {
+            String type = LoggingAspect.componentType(joinPoint).getSimpleName();
+            if (tracedMethods.contains(type) || tracedMethods.contains(type + "." + joinPoint.getSignature().getName())) {
+                return true;
+            }
+        }
+        if (!tracedUsers.isEmpty()) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication != null && tracedUsers.contains(authentication.getName());
+        }
+        return false;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public Set<String> getTracedMethods() {
+        return new TreeSet<>(tracedMethods);
+    }
+
+    public void traceMethod(String method) {
+        tracedMethods.add(method);
+    }
+
+    public void untraceMethod(String method) {
+        tracedMethods.remove(method);
+    }
+
+    public Set<String> getTracedUsers() {
+        return new TreeSet<>(tracedUsers);
+    }
+
+    public void traceUser(String login) {
+        tracedUsers.add(login);
+    }
+
+    public void untraceUser(String login) {
+        tracedUsers.remove(login);
+    }
+}
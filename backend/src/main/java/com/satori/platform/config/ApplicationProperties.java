@@ -1,6 +1,10 @@
 package com.satori.platform.config;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Online Satori Platform.
@@ -13,12 +17,24 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Cache cache = new Cache();
+
+    private final Http http = new Http();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Http getHttp() {
+        return http;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +49,187 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Cache {
+
+        private Boolean statistics = true;
+
+        /**
+         * Per-region policies, keyed by cache name. Entity regions may be given
+         * relative to the domain package, e.g. {@code Quiz.questions}.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Boolean getStatistics() {
+            return statistics;
+        }
+
+        public void setStatistics(Boolean statistics) {
+            this.statistics = statistics;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            /**
+             * Heap tier size. Entries rather than bytes: sizing on-heap objects
+             * requires reflective access the JVM denies to Ehcache.
+             */
+            private Long maxEntries;
+
+            /**
+             * Off-heap tier size, where entries are stored serialized.
+             */
+            private DataSize offHeapSize;
+
+            private Duration timeToLive;
+
+            private Duration timeToIdle;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public DataSize getOffHeapSize() {
+                return offHeapSize;
+            }
+
+            public void setOffHeapSize(DataSize offHeapSize) {
+                this.offHeapSize = offHeapSize;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getTimeToIdle() {
+                return timeToIdle;
+            }
+
+            public void setTimeToIdle(Duration timeToIdle) {
+                this.timeToIdle = timeToIdle;
+            }
+        }
+    }
+
+    public static class Http {
+
+        /**
+         * Outbound HTTP policies, keyed by upstream name. Upstreams not listed
+         * use the defaults of {@link Upstream}.
+         */
+        private final Map<String, Upstream> upstreams = new LinkedHashMap<>();
+
+        public Map<String, Upstream> getUpstreams() {
+            return upstreams;
+        }
+
+        public Upstream getUpstream(String name) {
+            return upstreams.getOrDefault(name, new Upstream());
+        }
+
+        public static class Upstream {
+
+            private Duration connectTimeout = Duration.ofSeconds(5);
+
+            private Duration readTimeout = Duration.ofSeconds(30);
+
+            /**
+             * Bulkhead size: requests allowed in flight at once.
+             */
+            private Integer maxConcurrentCalls = 20;
+
+            /**
+             * How long a caller waits for a bulkhead slot before being rejected.
+             */
+            private Duration maxWait = Duration.ofMillis(500);
+
+            /**
+             * Failure rate, in percent, at which the circuit breaker opens.
+             */
+            private Integer failureRateThreshold = 50;
+
+            private Integer slidingWindowSize = 20;
+
+            private Integer minimumNumberOfCalls = 10;
+
+            private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+            public Duration getConnectTimeout() {
+                return connectTimeout;
+            }
+
+            public void setConnectTimeout(Duration connectTimeout) {
+                this.connectTimeout = connectTimeout;
+            }
+
+            public Duration getReadTimeout() {
+                return readTimeout;
+            }
+
+            public void setReadTimeout(Duration readTimeout) {
+                this.readTimeout = readTimeout;
+            }
+
+            public Integer getMaxConcurrentCalls() {
+                return maxConcurrentCalls;
+            }
+
+            public void setMaxConcurrentCalls(Integer maxConcurrentCalls) {
+                this.maxConcurrentCalls = maxConcurrentCalls;
+            }
+
+            public Duration getMaxWait() {
+                return maxWait;
+            }
+
+            public void setMaxWait(Duration maxWait) {
+                this.maxWait = maxWait;
+            }
+
+            public Integer getFailureRateThreshold() {
+                return failureRateThreshold;
+            }
+
+            public void setFailureRateThreshold(Integer failureRateThreshold) {
+                this.failureRateThreshold = failureRateThreshold;
+            }
+
+            public Integer getSlidingWindowSize() {
+                return slidingWindowSize;
+            }
+
+            public void setSlidingWindowSize(Integer slidingWindowSize) {
+                this.slidingWindowSize = slidingWindowSize;
+            }
+
+            public Integer getMinimumNumberOfCalls() {
+                return minimumNumberOfCalls;
+            }
+
+            public void setMinimumNumberOfCalls(Integer minimumNumberOfCalls) {
+                this.minimumNumberOfCalls = minimumNumberOfCalls;
+            }
+
+            public Duration getWaitDurationInOpenState() {
+                return waitDurationInOpenState;
+            }
+
+            public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+                this.waitDurationInOpenState = waitDurationInOpenState;
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -2,6 +2,7 @@ package com.satori.platform.config;
 
 import java.time.Duration;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.hibernate.cache.jcache.ConfigSettings;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,12 +20,17 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    private static final String DOMAIN_PACKAGE = "com.satori.platform.domain.";
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cacheProperties;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        ehcache = jHipsterProperties.getCache().getEhcache();
+        cacheProperties = applicationProperties.getCache();
 
         jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
             CacheConfigurationBuilder.newCacheConfigurationBuilder(
@@ -39,7 +45,11 @@ public class CacheConfiguration {
 
     @Bean
     public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
-        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            // Every cached entity and collection must have a region declared below
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
     }
 
     @Bean
@@ -53,19 +63,28 @@ public class CacheConfiguration {
             createCache(cm, com.satori.platform.domain.UserProfile.class.getName());
             createCache(cm, com.satori.platform.domain.UserProfile.class.getName() + ".createdCourses");
             createCache(cm, com.satori.platform.domain.UserProfile.class.getName() + ".quizAttempts");
+            createCache(cm, com.satori.platform.domain.UserProfile.class.getName() + ".notificationPreferences");
+            createCache(cm, com.satori.platform.domain.UserProfile.class.getName() + ".createdGiftCodes");
+            createCache(cm, com.satori.platform.domain.UserProfile.class.getName() + ".uploadedFiles");
             createCache(cm, com.satori.platform.domain.SocialAccount.class.getName());
             createCache(cm, com.satori.platform.domain.TeacherProfile.class.getName());
             createCache(cm, com.satori.platform.domain.StudentProfile.class.getName());
             createCache(cm, com.satori.platform.domain.StudentProfile.class.getName() + ".classes");
+            createCache(cm, com.satori.platform.domain.StudentProfile.class.getName() + ".flashcardSessions");
+            createCache(cm, com.satori.platform.domain.StudentProfile.class.getName() + ".studentProgress");
             createCache(cm, com.satori.platform.domain.Course.class.getName());
             createCache(cm, com.satori.platform.domain.Course.class.getName() + ".lessons");
             createCache(cm, com.satori.platform.domain.Course.class.getName() + ".schedules");
             createCache(cm, com.satori.platform.domain.Course.class.getName() + ".quizzes");
+            createCache(cm, com.satori.platform.domain.Course.class.getName() + ".giftCodes");
+            createCache(cm, com.satori.platform.domain.Course.class.getName() + ".studentProgress");
             createCache(cm, com.satori.platform.domain.CourseClass.class.getName());
             createCache(cm, com.satori.platform.domain.CourseClass.class.getName() + ".students");
             createCache(cm, com.satori.platform.domain.Lesson.class.getName());
             createCache(cm, com.satori.platform.domain.Lesson.class.getName() + ".flashcards");
             createCache(cm, com.satori.platform.domain.Lesson.class.getName() + ".quizzes");
+            createCache(cm, com.satori.platform.domain.Lesson.class.getName() + ".fileAttachments");
+            createCache(cm, com.satori.platform.domain.Lesson.class.getName() + ".flashcardSessions");
             createCache(cm, com.satori.platform.domain.Schedule.class.getName());
             createCache(cm, com.satori.platform.domain.Quiz.class.getName());
             createCache(cm, com.satori.platform.domain.Quiz.class.getName() + ".questions");
@@ -76,7 +95,21 @@ public class CacheConfiguration {
             createCache(cm, com.satori.platform.domain.Question.class.getName() + ".quizQuestions");
             createCache(cm, com.satori.platform.domain.QuizQuestion.class.getName());
             createCache(cm, com.satori.platform.domain.StudentQuiz.class.getName());
+            createCache(cm, com.satori.platform.domain.StudentQuiz.class.getName() + ".responses");
+            createCache(cm, com.satori.platform.domain.StudentQuizResponse.class.getName());
             createCache(cm, com.satori.platform.domain.Flashcard.class.getName());
+            createCache(cm, com.satori.platform.domain.FlashcardSession.class.getName());
+            createCache(cm, com.satori.platform.domain.StudentProgress.class.getName());
+            createCache(cm, com.satori.platform.domain.GiftCode.class.getName());
+            createCache(cm, com.satori.platform.domain.FileMetaData.class.getName());
+            createCache(cm, com.satori.platform.domain.NotificationPreference.class.getName());
+            createCache(cm, com.satori.platform.domain.NotificationDelivery.class.getName());
+            createCache(cm, com.satori.platform.domain.UserSession.class.getName());
+            createCache(cm, com.satori.platform.domain.OAuth2Account.class.getName());
+            createCache(cm, com.satori.platform.domain.AuditLog.class.getName());
+            createCache(cm, com.satori.platform.domain.AuthenticationAuditLog.class.getName());
+            createCache(cm, com.satori.platform.service.CalendarService.CALENDAR_FEED_CACHE);
+            createCache(cm, com.satori.platform.security.PrincipalCache.CACHE_NAME);
             // jhipster-needle-ehcache-add-entry
         };
     }
@@ -86,8 +119,46 @@ public class CacheConfiguration {
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, regionConfiguration(cacheName));
+        }
+        // Statistics back the cache.gets/puts/evictions meters bound by Spring Boot
+        cm.enableStatistics(cacheName, cacheProperties.getStatistics());
+    }
+
+    /**
+     * Build the configuration of a region from its policy under
+     * {@code application.cache.regions}, falling back to the JHipster Ehcache
+     * defaults for anything the policy does not set.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> regionConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegions().get(cacheName);
+        if (region == null && cacheName.startsWith(DOMAIN_PACKAGE)) {
+            region = cacheProperties.getRegions().get(cacheName.substring(DOMAIN_PACKAGE.length()));
+        }
+        if (region == null) {
+            return jcacheConfiguration;
         }
+
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(
+            region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries()
+        );
+        if (region.getOffHeapSize() != null) {
+            resourcePools = resourcePools.offheap(Math.max(1, region.getOffHeapSize().toMegabytes()), MemoryUnit.MB);
+        }
+
+        // Time-to-idle, when set, replaces time-to-live
+        Duration timeToLive = region.getTimeToLive() != null
+            ? region.getTimeToLive()
+            : Duration.ofSeconds(ehcache.getTimeToLiveSeconds());
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+                .withExpiry(
+                    region.getTimeToIdle() != null
+                        ? ExpiryPolicyBuilder.timeToIdleExpiration(region.getTimeToIdle())
+                        : ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive)
+                )
+                .build()
+        );
     }
 
     @Autowired(required = false)
@@ -1,6 +1,11 @@
 package com.satori.platform.config;
 
 import com.satori.platform.aop.logging.LoggingAspect;
+import com.satori.platform.aop.logging.TracingEndpoint;
+import com.satori.platform.aop.logging.TracingSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -9,9 +14,26 @@ import tech.jhipster.config.JHipsterConstants;
 @EnableAspectJAutoProxy
 public class LoggingAspectConfiguration {
 
+    @Bean
+    public TracingSettings tracingSettings(@Value("${app.tracing.sample-rate:0.01}") double sampleRate) {
+        return new TracingSettings(sampleRate);
+    }
+
+    @Bean
+    public TracingEndpoint tracingEndpoint(TracingSettings tracingSettings) {
+        return new TracingEndpoint(tracingSettings);
+    }
+
     @Bean
     @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    public LoggingAspect loggingAspect(Environment env, MeterRegistry meterRegistry, TracingSettings tracingSettings) {
+        return new LoggingAspect(env, meterRegistry, tracingSettings);
+    }
+
+    @Bean
+    @Profile("!" + JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
+    @ConditionalOnProperty(prefix = "app.tracing", name = "enabled", havingValue = "true")
+    public LoggingAspect tracingLoggingAspect(Environment env, MeterRegistry meterRegistry, TracingSettings tracingSettings) {
+        return new LoggingAspect(env, meterRegistry, tracingSettings);
     }
 }
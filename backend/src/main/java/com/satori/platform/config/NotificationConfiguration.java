@@ -1,11 +1,9 @@
 package com.satori.platform.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.web.client.RestTemplate;
 
 /**
  * Configuration for notification services.
@@ -15,14 +13,6 @@ import org.springframework.web.client.RestTemplate;
 @EnableScheduling
 public class NotificationConfiguration {
 
-    /**
-     * RestTemplate bean for HTTP requests (used by PushNotificationService)
-     */
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
-
     /**
      * Configuration properties for Firebase
      */
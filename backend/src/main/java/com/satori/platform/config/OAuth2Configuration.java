@@ -17,7 +17,6 @@ import org.springframework.security.oauth2.client.web.DefaultOAuth2AuthorizedCli
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
 import org.springframework.util.StringUtils;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -121,14 +120,6 @@ public class OAuth2Configuration {
         return authorizedClientManager;
     }
 
-    /**
-     * Creates a RestTemplate for OAuth2 HTTP requests.
-     */
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
-
     /**
      * Creates a client registration for a specific OAuth2 provider.
      */
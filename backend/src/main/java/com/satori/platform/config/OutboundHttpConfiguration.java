@@ -0,0 +1,76 @@
+package com.satori.platform.config;
+
+import com.satori.platform.service.http.UpstreamGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.http.HttpClient;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Outbound HTTP clients, one per upstream.
+ * <p>
+ * Each upstream gets its own JDK {@link HttpClient} (HTTP/2 with HTTP/1.1
+ * fallback, with its own connection pool), the timeouts of its policy under
+ * {@code application.http.upstreams}, and an {@link UpstreamGuard} bulkhead and
+ * circuit breaker.
+ */
+@Configuration
+public class OutboundHttpConfiguration {
+
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final ApplicationProperties.Http http;
+    private final MeterRegistry meterRegistry;
+
+    public OutboundHttpConfiguration(
+        RestTemplateBuilder restTemplateBuilder,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.http = applicationProperties.getHttp();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Client for the question generation AI service.
+     */
+    @Bean
+    public RestTemplate aiRestTemplate() {
+        return createRestTemplate("ai");
+    }
+
+    /**
+     * Client for the Gemini embedding API.
+     */
+    @Bean
+    public RestTemplate geminiRestTemplate() {
+        return createRestTemplate("gemini");
+    }
+
+    /**
+     * Client for the OAuth2 providers' token and user info endpoints.
+     */
+    @Bean
+    public RestTemplate oauth2RestTemplate() {
+        return createRestTemplate("oauth2");
+    }
+
+    private RestTemplate createRestTemplate(String upstream) {
+        ApplicationProperties.Http.Upstream policy = http.getUpstream(upstream);
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(policy.getConnectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(policy.getReadTimeout());
+
+        return restTemplateBuilder
+            .requestFactory(() -> requestFactory)
+            .additionalInterceptors(new UpstreamGuard(upstream, policy, meterRegistry))
+            .build();
+    }
+}
@@ -136,6 +136,8 @@ public class SecurityConfiguration {
                                                 .hasAnyAuthority(AuthoritiesConstants.ADMIN,
                                                                 AuthoritiesConstants.TEACHER)
                                                 .requestMatchers(mvc.pattern("/api/ai/practice-tests/**")).permitAll()
+                                                .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/calendar/feed/*/calendar.ics"))
+                                                .permitAll()
                                                 .requestMatchers(mvc.pattern("/api/**")).authenticated()
                                                 .requestMatchers(mvc.pattern("/v3/api-docs/**"))
                                                 .hasAuthority(AuthoritiesConstants.ADMIN)
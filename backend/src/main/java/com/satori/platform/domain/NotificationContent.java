@@ -0,0 +1,162 @@
+package com.satori.platform.domain;
+
+import com.satori.platform.domain.enumeration.NotificationType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Notification content rendered once for one channel and locale and shared by
+ * every delivery of it. Recipient-specific values stay {@code {{name}}}
+ * placeholders that are merged with the variables of each
+ * {@link NotificationDelivery} at send time. Rows are immutable and
+ * deduplicated by the hash of their content.
+ */
+@Entity
+@Table(name = "notification_content")
+public class NotificationContent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 64)
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_type", nullable = false)
+    private NotificationType notificationType;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "delivery_channel", length = 100, nullable = false)
+    private String deliveryChannel;
+
+    @Size(max = 10)
+    @Column(name = "locale", length = 10)
+    private String locale;
+
+    @Size(max = 500)
+    @Column(name = "subject", length = 500)
+    private String subject;
+
+    @Lob
+    @Column(name = "body")
+    private String body;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public NotificationContent() {
+    }
+
+    public NotificationContent(String contentHash, NotificationType notificationType, String deliveryChannel,
+            String locale, String subject, String body) {
+        this.contentHash = contentHash;
+        this.notificationType = notificationType;
+        this.deliveryChannel = deliveryChannel;
+        this.locale = locale;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public NotificationType getNotificationType() {
+        return notificationType;
+    }
+
+    public void setNotificationType(NotificationType notificationType) {
+        this.notificationType = notificationType;
+    }
+
+    public String getDeliveryChannel() {
+        return deliveryChannel;
+    }
+
+    public void setDeliveryChannel(String deliveryChannel) {
+        this.deliveryChannel = deliveryChannel;
+    }
+
+    public String getLocale() {
+        return locale;
+    }
+
+    public void setLocale(String locale) {
+        this.locale = locale;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof NotificationContent))
+            return false;
+        return id != null && id.equals(((NotificationContent) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationContent{" +
+                "id=" + getId() +
+                ", notificationType='" + getNotificationType() + "'" +
+                ", deliveryChannel='" + getDeliveryChannel() + "'" +
+                ", locale='" + getLocale() + "'" +
+                ", subject='" + getSubject() + "'" +
+                "}";
+    }
+}
@@ -59,6 +59,13 @@ public class NotificationDelivery implements Serializable {
     @Column(name = "content")
     private String content;
 
+    @Column(name = "content_id")
+    private Long contentId; // shared NotificationContent, merged with variables at send time
+
+    @Lob
+    @Column(name = "variables")
+    private String variables; // JSON recipient values for the placeholders of the shared content
+
     @Column(name = "scheduled_at")
     private Instant scheduledAt;
 
@@ -222,6 +229,32 @@ public class NotificationDelivery implements Serializable {
         return this;
     }
 
+    public Long getContentId() {
+        return contentId;
+    }
+
+    public void setContentId(Long contentId) {
+        this.contentId = contentId;
+    }
+
+    public NotificationDelivery contentId(Long contentId) {
+        this.setContentId(contentId);
+        return this;
+    }
+
+    public String getVariables() {
+        return variables;
+    }
+
+    public void setVariables(String variables) {
+        this.variables = variables;
+    }
+
+    public NotificationDelivery variables(String variables) {
+        this.setVariables(variables);
+        return this;
+    }
+
     public Instant getScheduledAt() {
         return scheduledAt;
     }
@@ -0,0 +1,128 @@
+package com.satori.platform.domain;
+
+import com.satori.platform.domain.enumeration.ReminderKind;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A reminder computed when its schedule, quiz or student changed, due at
+ * {@code fireAt}. Kind, source and due time are unique, so planning the same
+ * reminder again is a no-op, and {@code firedAt} records that it was sent.
+ */
+@Entity
+@Table(name = "planned_reminder")
+public class PlannedReminder implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", length = 50, nullable = false)
+    private ReminderKind kind;
+
+    @NotNull
+    @Column(name = "source_id", nullable = false)
+    private Long sourceId;
+
+    @NotNull
+    @Column(name = "fire_at", nullable = false)
+    private Instant fireAt;
+
+    @Column(name = "fired_at")
+    private Instant firedAt;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public PlannedReminder() {
+    }
+
+    public PlannedReminder(ReminderKind kind, Long sourceId, Instant fireAt) {
+        this.kind = kind;
+        this.sourceId = sourceId;
+        this.fireAt = fireAt;
+        this.createdAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ReminderKind getKind() {
+        return kind;
+    }
+
+    public void setKind(ReminderKind kind) {
+        this.kind = kind;
+    }
+
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public Instant getFireAt() {
+        return fireAt;
+    }
+
+    public void setFireAt(Instant fireAt) {
+        this.fireAt = fireAt;
+    }
+
+    public Instant getFiredAt() {
+        return firedAt;
+    }
+
+    public void setFiredAt(Instant firedAt) {
+        this.firedAt = firedAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof PlannedReminder))
+            return false;
+        return id != null && id.equals(((PlannedReminder) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PlannedReminder{" +
+                "id=" + getId() +
+                ", kind='" + getKind() + "'" +
+                ", sourceId=" + getSourceId() +
+                ", fireAt='" + getFireAt() + "'" +
+                ", firedAt='" + getFiredAt() + "'" +
+                "}";
+    }
+}
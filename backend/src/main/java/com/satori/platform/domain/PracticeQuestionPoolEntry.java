@@ -0,0 +1,134 @@
+package com.satori.platform.domain;
+
+import com.satori.platform.domain.enumeration.DifficultyLevel;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A validated question kept warm in the practice pool of a lesson and
+ * difficulty, so practice tests can be assembled without calling the AI
+ * service. The content hash deduplicates questions within one pool.
+ */
+@Entity
+@Table(name = "practice_question_pool_entry")
+public class PracticeQuestionPoolEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "lesson_id", nullable = false)
+    private Lesson lesson;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "difficulty_level", nullable = false)
+    private DifficultyLevel difficultyLevel;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "question_id", nullable = false)
+    private Question question;
+
+    @NotNull
+    @Size(max = 64)
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public PracticeQuestionPoolEntry() {
+    }
+
+    public PracticeQuestionPoolEntry(Lesson lesson, DifficultyLevel difficultyLevel, Question question, String contentHash) {
+        this.lesson = lesson;
+        this.difficultyLevel = difficultyLevel;
+        this.question = question;
+        this.contentHash = contentHash;
+        this.createdAt = Instant.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Lesson getLesson() {
+        return lesson;
+    }
+
+    public void setLesson(Lesson lesson) {
+        this.lesson = lesson;
+    }
+
+    public DifficultyLevel getDifficultyLevel() {
+        return difficultyLevel;
+    }
+
+    public void setDifficultyLevel(DifficultyLevel difficultyLevel) {
+        this.difficultyLevel = difficultyLevel;
+    }
+
+    public Question getQuestion() {
+        return question;
+    }
+
+    public void setQuestion(Question question) {
+        this.question = question;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof PracticeQuestionPoolEntry))
+            return false;
+        return id != null && id.equals(((PracticeQuestionPoolEntry) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PracticeQuestionPoolEntry{" +
+                "id=" + getId() +
+                ", difficultyLevel='" + getDifficultyLevel() + "'" +
+                ", contentHash='" + getContentHash() + "'" +
+                ", createdAt='" + getCreatedAt() + "'" +
+                "}";
+    }
+}
@@ -0,0 +1,98 @@
+package com.satori.platform.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The latest live statistics of a quiz, serialized as JSON and replaced on
+ * every snapshot; one per quiz.
+ */
+@Entity
+@Table(name = "quiz_statistics_snapshot")
+public class QuizStatisticsSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "quiz_id", nullable = false, unique = true)
+    private Long quizId;
+
+    @NotNull
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @NotNull
+    @Column(name = "taken_at", nullable = false)
+    private Instant takenAt;
+
+    public QuizStatisticsSnapshot() {
+    }
+
+    public QuizStatisticsSnapshot(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+
+    public void setTakenAt(Instant takenAt) {
+        this.takenAt = takenAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof QuizStatisticsSnapshot))
+            return false;
+        return id != null && id.equals(((QuizStatisticsSnapshot) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "QuizStatisticsSnapshot{" +
+                "id=" + getId() +
+                ", quizId=" + getQuizId() +
+                ", takenAt='" + getTakenAt() + "'" +
+                "}";
+    }
+}
@@ -61,6 +61,13 @@ public class StudentQuiz implements Serializable {
     @Column(name = "correct_answers")
     private Integer correctAnswers = 0;
 
+    /**
+     * When the attempt is submitted automatically; null while paused or
+     * without a time limit.
+     */
+    @Column(name = "deadline")
+    private Instant deadline;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "questions", "assignedTos", "courses", "lessons" }, allowSetters = true)
     private Quiz quiz;
@@ -271,6 +278,19 @@ public class StudentQuiz implements Serializable {
         this.correctAnswers = correctAnswers;
     }
 
+    public Instant getDeadline() {
+        return this.deadline;
+    }
+
+    public StudentQuiz deadline(Instant deadline) {
+        this.setDeadline(deadline);
+        return this;
+    }
+
+    public void setDeadline(Instant deadline) {
+        this.deadline = deadline;
+    }
+
     public Set<StudentQuizResponse> getResponses() {
         return this.responses;
     }
@@ -338,6 +358,7 @@ public class StudentQuiz implements Serializable {
             ", currentQuestionIndex=" + getCurrentQuestionIndex() +
             ", totalQuestions=" + getTotalQuestions() +
             ", correctAnswers=" + getCorrectAnswers() +
+            ", deadline='" + getDeadline() + "'" +
             "}";
     }
 }
@@ -37,4 +37,9 @@ public enum DeliveryStatus {
      * Notification has been scheduled for delivery
      */
     SCHEDULED,
+    /**
+     * Notification was rejected permanently by the recipient's server and is
+     * not retried
+     */
+    BOUNCED,
 }
\ No newline at end of file
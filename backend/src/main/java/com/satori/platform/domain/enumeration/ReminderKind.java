@@ -0,0 +1,29 @@
+package com.satori.platform.domain.enumeration;
+
+/**
+ * The reminders planned ahead for schedules, quizzes and students. The source
+ * ID of a {@link com.satori.platform.domain.PlannedReminder} is the ID of the
+ * schedule, quiz or student profile the kind refers to.
+ */
+public enum ReminderKind {
+    /**
+     * Teacher of a class, a day before it starts
+     */
+    SCHEDULE_TEACHER_DAY_BEFORE,
+    /**
+     * Teacher of a class, an hour before it starts
+     */
+    SCHEDULE_TEACHER_HOUR_BEFORE,
+    /**
+     * Enrolled students of a class, two hours before it starts
+     */
+    SCHEDULE_STUDENTS,
+    /**
+     * Students of the courses of a quiz, a day before it closes
+     */
+    QUIZ_DUE,
+    /**
+     * A student's daily study reminder
+     */
+    DAILY_STUDY,
+}
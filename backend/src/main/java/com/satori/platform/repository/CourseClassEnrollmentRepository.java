@@ -0,0 +1,15 @@
+package com.satori.platform.repository;
+
+/**
+ * Enrollment writes that bypass loading the {@code students} collection of a
+ * {@link com.satori.platform.domain.CourseClass}.
+ */
+public interface CourseClassEnrollmentRepository {
+    /**
+     * Insert a single row in the course class / student join table.
+     *
+     * @param courseClassId the course class ID
+     * @param studentProfileId the student profile ID
+     */
+    void enrollStudent(Long courseClassId, Long studentProfileId);
+}
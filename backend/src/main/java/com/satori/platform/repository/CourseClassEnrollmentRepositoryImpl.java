@@ -0,0 +1,30 @@
+package com.satori.platform.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Native enrollment writes. The join table is registered as the query space so
+ * that Hibernate only invalidates the {@code CourseClass.students} and
+ * {@code StudentProfile.classes} collection caches instead of every cache
+ * region.
+ */
+public class CourseClassEnrollmentRepositoryImpl implements CourseClassEnrollmentRepository {
+
+    private static final String STUDENTS_JOIN_TABLE = "rel_course_class__students";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void enrollStudent(Long courseClassId, Long studentProfileId) {
+        entityManager
+            .createNativeQuery("insert into " + STUDENTS_JOIN_TABLE + " (course_class_id, students_id) values (:courseClassId, :studentId)")
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace(STUDENTS_JOIN_TABLE)
+            .setParameter("courseClassId", courseClassId)
+            .setParameter("studentId", studentProfileId)
+            .executeUpdate();
+    }
+}
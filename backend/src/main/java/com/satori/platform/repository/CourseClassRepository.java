@@ -3,9 +3,11 @@ package com.satori.platform.repository;
 import com.satori.platform.domain.CourseClass;
 import java.util.List;
 import java.util.Optional;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -15,7 +17,8 @@ import org.springframework.stereotype.Repository;
  * For more information refer to https://github.com/jhipster/generator-jhipster/issues/17990.
  */
 @Repository
-public interface CourseClassRepository extends CourseClassRepositoryWithBagRelationships, JpaRepository<CourseClass, Long> {
+public interface CourseClassRepository
+    extends CourseClassRepositoryWithBagRelationships, CourseClassEnrollmentRepository, JpaRepository<CourseClass, Long> {
     default Optional<CourseClass> findOneWithEagerRelationships(Long id) {
         return this.fetchBagRelationships(this.findById(id));
     }
@@ -27,4 +30,35 @@ public interface CourseClassRepository extends CourseClassRepositoryWithBagRelat
     default Page<CourseClass> findAllWithEagerRelationships(Pageable pageable) {
         return this.fetchBagRelationships(this.findAll(pageable));
     }
+
+    /**
+     * Find the IDs of the classes of a course that still have a free seat, oldest first.
+     */
+    @Query(
+        "SELECT cc.id FROM CourseClass cc WHERE cc.course.id = :courseId " +
+        "AND (cc.capacity IS NULL OR SIZE(cc.students) < cc.capacity) ORDER BY cc.startDate, cc.id"
+    )
+    List<Long> findIdsWithFreeSeatByCourseId(@Param("courseId") Long courseId, Pageable pageable);
+
+    /**
+     * Lock a class row so that concurrent enrollments into it are serialized.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT cc FROM CourseClass cc WHERE cc.id = :id")
+    Optional<CourseClass> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Count the students of a class without initializing the collection.
+     */
+    @Query("SELECT SIZE(cc.students) FROM CourseClass cc WHERE cc.id = :id")
+    int countStudentsById(@Param("id") Long id);
+
+    /**
+     * Check whether a student is enrolled in any class of a course.
+     */
+    @Query(
+        "SELECT CASE WHEN COUNT(cc) > 0 THEN true ELSE false END FROM CourseClass cc JOIN cc.students s " +
+        "WHERE cc.course.id = :courseId AND s.id = :studentId"
+    )
+    boolean isStudentEnrolledInCourse(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
 }
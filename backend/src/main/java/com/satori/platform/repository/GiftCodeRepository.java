@@ -1,9 +1,12 @@
 package com.satori.platform.repository;
 
 import com.satori.platform.domain.GiftCode;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,6 +23,15 @@ public interface GiftCodeRepository extends JpaRepository<GiftCode, Long> {
      */
     Optional<GiftCode> findByCode(String code);
 
+    /**
+     * Stream every code string, for building an in-memory membership filter.
+     * The MySQL driver streams row by row only with a fetch size of
+     * {@link Integer#MIN_VALUE}; otherwise it buffers the whole result.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT g.code FROM GiftCode g")
+    Stream<String> streamAllCodes();
+
     /**
      * Find all active gift codes for a specific course
      */
@@ -72,6 +84,19 @@ public interface GiftCodeRepository extends JpaRepository<GiftCode, Long> {
     @Query("UPDATE GiftCode g SET g.currentUses = g.currentUses + 1 WHERE g.id = :giftCodeId")
     void incrementUsageCount(@Param("giftCodeId") Long giftCodeId);
 
+    /**
+     * Atomically claim one use of a gift code. The update only matches while the
+     * code is still active, not expired and below its usage limit, so concurrent
+     * redemptions can never exceed {@code maxUses}.
+     *
+     * @return 1 if a use was claimed, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE GiftCode g SET g.currentUses = COALESCE(g.currentUses, 0) + 1 WHERE g.id = :giftCodeId " +
+            "AND g.active = true AND g.expiryDate > :currentTime " +
+            "AND (g.maxUses IS NULL OR COALESCE(g.currentUses, 0) < g.maxUses)")
+    int claimUse(@Param("giftCodeId") Long giftCodeId, @Param("currentTime") LocalDateTime currentTime);
+
     /**
      * Deactivate expired gift codes
      */
@@ -39,4 +39,10 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
      */
     @Query("SELECT l FROM Lesson l WHERE l.course.id = :courseId AND LOWER(l.title) LIKE LOWER(CONCAT('%', :title, '%'))")
     List<Lesson> findByCourseIdAndTitleContainingIgnoreCase(@Param("courseId") Long courseId, @Param("title") String title);
+
+    /**
+     * Find the IDs of all lessons.
+     */
+    @Query("SELECT l.id FROM Lesson l")
+    List<Long> findAllIds();
 }
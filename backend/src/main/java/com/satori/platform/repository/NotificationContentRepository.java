@@ -0,0 +1,28 @@
+package com.satori.platform.repository;
+
+import com.satori.platform.domain.NotificationContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for the NotificationContent entity.
+ */
+@Repository
+public interface NotificationContentRepository extends JpaRepository<NotificationContent, Long> {
+
+    Optional<NotificationContent> findFirstByContentHash(String contentHash);
+
+    /**
+     * Delete content that no delivery references any more
+     */
+    @Modifying
+    @Query("DELETE FROM NotificationContent c WHERE c.createdAt < :cutoffDate " +
+            "AND NOT EXISTS (SELECT 1 FROM NotificationDelivery nd WHERE nd.contentId = c.id)")
+    int deleteUnreferenced(@Param("cutoffDate") Instant cutoffDate);
+}
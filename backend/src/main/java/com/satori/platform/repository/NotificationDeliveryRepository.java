@@ -75,6 +75,63 @@ public interface NotificationDeliveryRepository extends JpaRepository<Notificati
         List<NotificationDelivery> findExpiredNotifications(@Param("status") DeliveryStatus status,
                         @Param("expiredBefore") Instant expiredBefore);
 
+        /**
+         * Find the IDs and due times of scheduled notifications due before a
+         * given time, including overdue ones
+         */
+        @Query("SELECT nd.id, nd.scheduledAt FROM NotificationDelivery nd WHERE nd.status = :status AND nd.scheduledAt <= :before")
+        List<Object[]> findScheduledDueBefore(@Param("status") DeliveryStatus status, @Param("before") Instant before);
+
+        /**
+         * Move a due scheduled notification to another status, unless it was
+         * already claimed, cancelled or rescheduled
+         *
+         * @return 1 if the notification was claimed, 0 otherwise
+         */
+        @Modifying
+        @Query("UPDATE NotificationDelivery nd SET nd.status = :claimedStatus, nd.sentAt = :now WHERE nd.id = :id " +
+                        "AND nd.status = :scheduledStatus AND nd.scheduledAt <= :now")
+        int claimScheduled(@Param("id") Long id, @Param("scheduledStatus") DeliveryStatus scheduledStatus,
+                        @Param("claimedStatus") DeliveryStatus claimedStatus, @Param("now") Instant now);
+
+        /**
+         * Move a notification to another status, unless another worker
+         * already claimed it
+         *
+         * @return 1 if the notification was claimed, 0 otherwise
+         */
+        @Modifying
+        @Query("UPDATE NotificationDelivery nd SET nd.status = :claimedStatus, nd.sentAt = :now WHERE nd.id = :id " +
+                        "AND nd.status = :expectedStatus")
+        int claim(@Param("id") Long id, @Param("expectedStatus") DeliveryStatus expectedStatus,
+                        @Param("claimedStatus") DeliveryStatus claimedStatus, @Param("now") Instant now);
+
+        /**
+         * Move notifications claimed before a given time back to the pending
+         * status, unless they were scheduled
+         *
+         * @return the number of released notifications
+         */
+        @Modifying
+        @Query("UPDATE NotificationDelivery nd SET nd.status = :releasedStatus WHERE nd.status = :claimedStatus " +
+                        "AND nd.scheduledAt IS NULL AND (nd.sentAt IS NULL OR nd.sentAt < :claimedBefore)")
+        int releaseClaims(@Param("claimedStatus") DeliveryStatus claimedStatus,
+                        @Param("releasedStatus") DeliveryStatus releasedStatus,
+                        @Param("claimedBefore") Instant claimedBefore);
+
+        /**
+         * Move scheduled notifications claimed before a given time back to
+         * the scheduled status
+         *
+         * @return the number of released notifications
+         */
+        @Modifying
+        @Query("UPDATE NotificationDelivery nd SET nd.status = :releasedStatus WHERE nd.status = :claimedStatus " +
+                        "AND nd.scheduledAt IS NOT NULL AND (nd.sentAt IS NULL OR nd.sentAt < :claimedBefore)")
+        int releaseScheduledClaims(@Param("claimedStatus") DeliveryStatus claimedStatus,
+                        @Param("releasedStatus") DeliveryStatus releasedStatus,
+                        @Param("claimedBefore") Instant claimedBefore);
+
         /**
          * Delete old notifications
          */
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +31,12 @@ public interface NotificationPreferenceRepository extends JpaRepository<Notifica
             @Param("userProfile") UserProfile userProfile,
             @Param("notificationType") NotificationType notificationType);
 
+    /**
+     * Find the notification preferences of several users at once
+     */
+    @Query("SELECT np FROM NotificationPreference np WHERE np.userProfile.id IN :userProfileIds")
+    List<NotificationPreference> findByUserProfileIdIn(@Param("userProfileIds") Collection<Long> userProfileIds);
+
     /**
      * Find all enabled notification preferences
      */
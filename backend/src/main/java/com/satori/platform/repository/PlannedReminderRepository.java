@@ -0,0 +1,58 @@
+package com.satori.platform.repository;
+
+import com.satori.platform.domain.PlannedReminder;
+import com.satori.platform.domain.enumeration.ReminderKind;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the PlannedReminder entity.
+ */
+@Repository
+public interface PlannedReminderRepository extends JpaRepository<PlannedReminder, Long> {
+
+    List<PlannedReminder> findByKindInAndSourceId(Collection<ReminderKind> kinds, Long sourceId);
+
+    /**
+     * Find reminders that are due and not fired yet, earliest first
+     */
+    @Query("SELECT r FROM PlannedReminder r WHERE r.firedAt IS NULL AND r.fireAt <= :now ORDER BY r.fireAt")
+    List<PlannedReminder> findDue(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Mark a reminder fired, unless another instance already did
+     *
+     * @return 1 if the reminder was claimed, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE PlannedReminder r SET r.firedAt = :now WHERE r.id = :id AND r.firedAt IS NULL")
+    int claim(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Delete the reminders of a source that have not fired yet
+     */
+    @Modifying
+    @Query("DELETE FROM PlannedReminder r WHERE r.kind IN :kinds AND r.sourceId = :sourceId AND r.firedAt IS NULL")
+    int deleteUnfired(@Param("kinds") Collection<ReminderKind> kinds, @Param("sourceId") Long sourceId);
+
+    /**
+     * Delete reminders fired before a cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM PlannedReminder r WHERE r.firedAt < :cutoffDate")
+    int deleteFiredBefore(@Param("cutoffDate") Instant cutoffDate);
+
+    /**
+     * Find the sources of the reminders of a kind that have not fired yet
+     */
+    @Query("SELECT r.sourceId FROM PlannedReminder r WHERE r.firedAt IS NULL AND r.kind = :kind")
+    List<Long> findUnfiredSourceIds(@Param("kind") ReminderKind kind);
+}
@@ -0,0 +1,45 @@
+package com.satori.platform.repository;
+
+import com.satori.platform.domain.PracticeQuestionPoolEntry;
+import com.satori.platform.domain.enumeration.DifficultyLevel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the PracticeQuestionPoolEntry entity.
+ */
+@Repository
+public interface PracticeQuestionPoolEntryRepository extends JpaRepository<PracticeQuestionPoolEntry, Long> {
+
+    @Query("SELECT e.question.id FROM PracticeQuestionPoolEntry e " +
+            "WHERE e.lesson.id = :lessonId AND e.difficultyLevel = :difficultyLevel")
+    List<Long> findQuestionIds(@Param("lessonId") Long lessonId,
+            @Param("difficultyLevel") DifficultyLevel difficultyLevel);
+
+    @Query("SELECT e.contentHash FROM PracticeQuestionPoolEntry e " +
+            "WHERE e.lesson.id = :lessonId AND e.difficultyLevel = :difficultyLevel")
+    List<String> findContentHashes(@Param("lessonId") Long lessonId,
+            @Param("difficultyLevel") DifficultyLevel difficultyLevel);
+
+    @Query("SELECT e.question.content FROM PracticeQuestionPoolEntry e " +
+            "WHERE e.lesson.id = :lessonId AND e.difficultyLevel = :difficultyLevel ORDER BY e.createdAt DESC")
+    List<String> findRecentQuestionContents(@Param("lessonId") Long lessonId,
+            @Param("difficultyLevel") DifficultyLevel difficultyLevel, Pageable pageable);
+
+    /**
+     * Find the pools of a difficulty level holding fewer entries than a
+     * threshold, including empty ones, for every lesson with content.
+     *
+     * @return rows of lesson ID and entry count, emptiest first
+     */
+    @Query("SELECT l.id, COUNT(e) FROM Lesson l LEFT JOIN PracticeQuestionPoolEntry e " +
+            "ON e.lesson = l AND e.difficultyLevel = :difficultyLevel WHERE l.content IS NOT NULL " +
+            "GROUP BY l.id HAVING COUNT(e) < :threshold ORDER BY COUNT(e), l.id")
+    List<Object[]> findPoolsBelow(@Param("difficultyLevel") DifficultyLevel difficultyLevel,
+            @Param("threshold") long threshold);
+}
@@ -0,0 +1,20 @@
+package com.satori.platform.repository;
+
+import java.util.Map;
+
+/**
+ * Position writes that rewrite many {@link com.satori.platform.domain.QuizQuestion}
+ * rows without loading them.
+ */
+public interface QuizQuestionPositionRepository {
+    /**
+     * Set the positions of several questions of a quiz with one
+     * {@code UPDATE ... CASE} statement per 500 rows. Questions of other
+     * quizzes are left untouched.
+     *
+     * @param quizId the quiz ID
+     * @param positions the new position of each question ID
+     * @return the number of updated rows
+     */
+    int updatePositions(Long quizId, Map<Long, Integer> positions);
+}
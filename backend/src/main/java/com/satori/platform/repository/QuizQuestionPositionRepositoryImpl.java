@@ -0,0 +1,52 @@
+package com.satori.platform.repository;
+
+import com.satori.platform.domain.QuizQuestion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Native position rewrites. The statement is synchronized with the
+ * {@link QuizQuestion} entity so that Hibernate only invalidates its cache
+ * region instead of every cache region.
+ */
+public class QuizQuestionPositionRepositoryImpl implements QuizQuestionPositionRepository {
+
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updatePositions(Long quizId, Map<Long, Integer> positions) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(positions.entrySet());
+        int updated = 0;
+        for (int from = 0; from < entries.size(); from += MAX_ROWS_PER_STATEMENT) {
+            updated += updatePositions(quizId, entries.subList(from, Math.min(entries.size(), from + MAX_ROWS_PER_STATEMENT)));
+        }
+        return updated;
+    }
+
+    private int updatePositions(Long quizId, List<Map.Entry<Long, Integer>> entries) {
+        StringBuilder sql = new StringBuilder("update quiz_question set position = case id");
+        for (int i = 0; i < entries.size(); i++) {
+            sql.append(" when :id").append(i).append(" then :position").append(i);
+        }
+        sql.append(" else position end where quiz_id = :quizId and id in (:ids)");
+
+        NativeQuery<?> query = entityManager
+            .createNativeQuery(sql.toString())
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(QuizQuestion.class)
+            .setParameter("quizId", quizId)
+            .setParameterList("ids", entries.stream().map(Map.Entry::getKey).toList());
+        for (int i = 0; i < entries.size(); i++) {
+            query.setParameter("id" + i, entries.get(i).getKey());
+            query.setParameter("position" + i, entries.get(i).getValue());
+        }
+        return query.executeUpdate();
+    }
+}
@@ -1,8 +1,10 @@
 package com.satori.platform.repository;
 
+import com.satori.platform.domain.Question;
 import com.satori.platform.domain.QuizQuestion;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,11 +13,28 @@ import java.util.Optional;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface QuizQuestionRepository extends JpaRepository<QuizQuestion, Long> {
+public interface QuizQuestionRepository extends QuizQuestionPositionRepository, JpaRepository<QuizQuestion, Long> {
 
     // Find questions by quiz ID ordered by position
     List<QuizQuestion> findByQuizIdOrderByPosition(Long quizId);
 
+    // Find the distinct questions of several quizzes in one query
+    @Query("SELECT DISTINCT qq.question FROM QuizQuestion qq WHERE qq.quiz.id IN :quizIds")
+    List<Question> findDistinctQuestionsByQuizIdIn(
+            @org.springframework.data.repository.query.Param("quizIds") Collection<Long> quizIds);
+
+    // Find the question IDs and positions of a quiz in order, without loading
+    // the questions
+    @Query("SELECT qq.id, qq.position FROM QuizQuestion qq WHERE qq.quiz.id = :quizId ORDER BY qq.position, qq.id")
+    List<Object[]> findPositionsByQuizId(@org.springframework.data.repository.query.Param("quizId") Long quizId);
+
+    // Find the quiz question IDs and positions of a quiz in order, with what
+    // students see of each question, to version the question set
+    @Query("SELECT qq.id, qq.position, q.id, q.type, q.content, q.imageUrl, q.suggestion, q.correctAnswer, " +
+            "q.answerExplanation FROM QuizQuestion qq JOIN qq.question q WHERE qq.quiz.id = :quizId " +
+            "ORDER BY qq.position, qq.id")
+    List<Object[]> findQuestionSetByQuizId(@org.springframework.data.repository.query.Param("quizId") Long quizId);
+
     // Count questions by quiz ID
     long countByQuizId(Long quizId);
 
@@ -45,6 +45,43 @@ public interface QuizRepository extends QuizRepositoryWithBagRelationships, JpaR
     @Query("SELECT q FROM Quiz q WHERE q.isActive = true AND q.deactivationTime <= :now")
     List<Quiz> findQuizzesToDeactivate(@org.springframework.data.repository.query.Param("now") java.time.Instant now);
 
+    /**
+     * The activation instants up to {@code horizon} of inactive quizzes whose
+     * window has not closed yet, including overdue ones.
+     *
+     * @return rows of quiz ID and activation time
+     */
+    @Query("SELECT q.id, q.activationTime FROM Quiz q WHERE q.isActive = false AND q.activationTime <= :horizon " +
+            "AND (q.deactivationTime IS NULL OR q.deactivationTime > :now)")
+    List<Object[]> findPendingActivations(@org.springframework.data.repository.query.Param("now") java.time.Instant now,
+            @org.springframework.data.repository.query.Param("horizon") java.time.Instant horizon);
+
+    /**
+     * The deactivation instants up to {@code horizon} of active quizzes,
+     * including overdue ones.
+     *
+     * @return rows of quiz ID and deactivation time
+     */
+    @Query("SELECT q.id, q.deactivationTime FROM Quiz q WHERE q.isActive = true AND q.deactivationTime <= :horizon")
+    List<Object[]> findPendingDeactivations(@org.springframework.data.repository.query.Param("horizon") java.time.Instant horizon);
+
+    /**
+     * Lock the inactive quizzes whose activation time has come and whose
+     * window is still open, so that only one instance activates them.
+     */
+    @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q FROM Quiz q WHERE q.isActive = false AND q.activationTime <= :now " +
+            "AND (q.deactivationTime IS NULL OR q.deactivationTime > :now)")
+    List<Quiz> findQuizzesToActivateForUpdate(@org.springframework.data.repository.query.Param("now") java.time.Instant now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Quiz q SET q.isActive = true WHERE q.id IN :ids AND q.isActive = false")
+    int activateByIdIn(@org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Quiz q SET q.isActive = false WHERE q.isActive = true AND q.deactivationTime <= :now")
+    int deactivateDue(@org.springframework.data.repository.query.Param("now") java.time.Instant now);
+
     @Query("SELECT q FROM Quiz q JOIN q.courses c WHERE c.id = :courseId AND q.isActive = true")
     List<Quiz> findActiveByCourseId(@org.springframework.data.repository.query.Param("courseId") Long courseId);
 
@@ -0,0 +1,16 @@
+package com.satori.platform.repository;
+
+import com.satori.platform.domain.QuizStatisticsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for the QuizStatisticsSnapshot entity.
+ */
+@Repository
+public interface QuizStatisticsSnapshotRepository extends JpaRepository<QuizStatisticsSnapshot, Long> {
+
+    Optional<QuizStatisticsSnapshot> findByQuizId(Long quizId);
+}
@@ -38,6 +38,26 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
             @Param("startTime") Instant startTime,
             @Param("endTime") Instant endTime);
 
+    /**
+     * Find schedules of a course that have not ended before the given instant
+     */
+    @Query("SELECT s FROM Schedule s WHERE s.course.id = :courseId AND s.endTime > :from")
+    List<Schedule> findByCourseIdAndEndTimeAfter(@Param("courseId") Long courseId, @Param("from") Instant from);
+
+    /**
+     * Find schedules taught by a teacher that have not ended before the given
+     * instant
+     */
+    @Query("SELECT s FROM Schedule s WHERE s.course.teacher.id = :teacherId AND s.endTime > :from")
+    List<Schedule> findByTeacherIdAndEndTimeAfter(@Param("teacherId") Long teacherId, @Param("from") Instant from);
+
+    /**
+     * Find schedules held at a location (trimmed, case-insensitive) that have not ended
+     * before the given instant
+     */
+    @Query("SELECT s FROM Schedule s WHERE LOWER(TRIM(s.location)) = :location AND s.endTime > :from")
+    List<Schedule> findByLocationAndEndTimeAfter(@Param("location") String location, @Param("from") Instant from);
+
     /**
      * Find schedules by course ID
      */
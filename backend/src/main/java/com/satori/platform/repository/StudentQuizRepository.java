@@ -2,6 +2,7 @@ package com.satori.platform.repository;
 
 import com.satori.platform.domain.StudentQuiz;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -34,13 +35,115 @@ public interface StudentQuizRepository extends JpaRepository<StudentQuiz, Long>
     Optional<StudentQuiz> findActiveAttemptByStudentAndQuiz(@Param("studentId") Long studentId, @Param("quizId") Long quizId);
 
     /**
-     * Find all incomplete quiz attempts that should be auto-submitted
+     * Find the deadlines up to the horizon of incomplete attempts, including
+     * overdue ones
+     *
+     * @return rows of attempt ID and deadline
      */
-    @Query("SELECT sq FROM StudentQuiz sq JOIN sq.quiz q WHERE sq.completed = false AND sq.paused = false AND " +
-                    "((q.timeLimitMinutes IS NOT NULL AND sq.startTime < :cutoffTime) OR " +
-                    "(q.deactivationTime IS NOT NULL AND q.deactivationTime < :currentTime))")
-    List<StudentQuiz> findAttemptsToAutoSubmit(@Param("cutoffTime") Instant cutoffTime,
-                    @Param("currentTime") Instant currentTime);
+    @Query("SELECT sq.id, sq.deadline FROM StudentQuiz sq WHERE sq.completed = false AND sq.deadline <= :horizon")
+    List<Object[]> findDeadlinesBefore(@Param("horizon") Instant horizon);
+
+    /**
+     * Find the deadlines up to the horizon of the incomplete attempts of a
+     * quiz, including overdue ones
+     *
+     * @return rows of attempt ID and deadline
+     */
+    @Query("SELECT sq.id, sq.deadline FROM StudentQuiz sq WHERE sq.quiz.id = :quizId AND sq.completed = false " +
+                    "AND sq.deadline <= :horizon")
+    List<Object[]> findDeadlinesByQuizIdBefore(@Param("quizId") Long quizId, @Param("horizon") Instant horizon);
+
+    /**
+     * Set the deadline of the running attempts of a quiz without a time
+     * limit to when the quiz closes
+     *
+     * @return the number of attempts updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StudentQuiz sq SET sq.deadline = :closes " +
+                    "WHERE sq.quiz.id = :quizId AND sq.completed = false AND sq.paused = false")
+    int updateRunningDeadlines(@Param("quizId") Long quizId, @Param("closes") Instant closes);
+
+    /**
+     * Set the deadline of the running attempts of a timed quiz to the end of
+     * their time limit, extended by the time spent paused, or to when the
+     * quiz closes, whichever comes first
+     *
+     * @return the number of attempts updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StudentQuiz sq SET sq.deadline = CASE " +
+                    "WHEN :closes IS NULL OR :closes > TIMESTAMPADD(SECOND, :limitSeconds + COALESCE(sq.totalPauseDurationSeconds, 0), sq.startTime) " +
+                    "THEN TIMESTAMPADD(SECOND, :limitSeconds + COALESCE(sq.totalPauseDurationSeconds, 0), sq.startTime) " +
+                    "ELSE :closes END " +
+                    "WHERE sq.quiz.id = :quizId AND sq.completed = false AND sq.paused = false")
+    int updateRunningTimedDeadlines(@Param("quizId") Long quizId, @Param("limitSeconds") int limitSeconds,
+                    @Param("closes") Instant closes);
+
+    /**
+     * Find running attempts of timed quizzes that have no deadline yet,
+     * i.e. attempts started before deadlines were stored
+     */
+    @Query("SELECT sq FROM StudentQuiz sq JOIN FETCH sq.quiz q WHERE sq.completed = false AND sq.deadline IS NULL " +
+                    "AND sq.paused = false AND (q.timeLimitMinutes IS NOT NULL OR q.deactivationTime IS NOT NULL)")
+    List<StudentQuiz> findRunningWithoutDeadline();
+
+    /**
+     * Find the running attempts that are past their deadline or whose quiz has
+     * closed
+     */
+    @Query("SELECT sq.id FROM StudentQuiz sq WHERE sq.completed = false AND sq.paused = false AND (sq.deadline <= :now " +
+                    "OR sq.quiz.id IN (SELECT q.id FROM Quiz q WHERE q.deactivationTime <= :now))")
+    List<Long> findExpiredIds(@Param("now") Instant now);
+
+    /**
+     * Submit the given attempts that are still running, scoring each from its
+     * responses in the same statement
+     *
+     * @return the number of attempts submitted
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StudentQuiz sq SET sq.completed = true, sq.endTime = :now, sq.submittedAutomatically = true, " +
+                    "sq.correctAnswers = cast((SELECT COUNT(r) FROM StudentQuizResponse r " +
+                    "WHERE r.studentQuiz.id = sq.id AND r.isCorrect = true) as Integer), " +
+                    "sq.score = coalesce((SELECT 100.0 * SUM(CASE WHEN r.isCorrect = true THEN 1 ELSE 0 END) / COUNT(r) " +
+                    "FROM StudentQuizResponse r WHERE r.studentQuiz.id = sq.id), 0.0) " +
+                    "WHERE sq.id IN :ids AND sq.completed = false AND sq.paused = false")
+    int submitExpired(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Find the standings of every attempt of a quiz
+     *
+     * @return rows of attempt ID, quiz ID, student ID, correct answers, score
+     *         and completed flag
+     */
+    @Query("SELECT sq.id, sq.quiz.id, sq.student.id, sq.correctAnswers, sq.score, sq.completed FROM StudentQuiz sq " +
+                    "WHERE sq.quiz.id = :quizId")
+    List<Object[]> findStandingsByQuizId(@Param("quizId") Long quizId);
+
+    /**
+     * Find the standing of one attempt, in the columns of
+     * {@link #findStandingsByQuizId}
+     */
+    @Query("SELECT sq.id, sq.quiz.id, sq.student.id, sq.correctAnswers, sq.score, sq.completed FROM StudentQuiz sq " +
+                    "WHERE sq.id = :id")
+    List<Object[]> findStandingById(@Param("id") Long id);
+
+    /**
+     * Find the standings of several attempts, in the columns of
+     * {@link #findStandingsByQuizId}
+     */
+    @Query("SELECT sq.id, sq.quiz.id, sq.student.id, sq.correctAnswers, sq.score, sq.completed FROM StudentQuiz sq " +
+                    "WHERE sq.id IN :ids")
+    List<Object[]> findStandingsByIdIn(@Param("ids") Collection<Long> ids);
+
+    boolean existsByQuizIdAndCompletedFalse(Long quizId);
+
+    /**
+     * Find when the last attempt of a quiz was submitted
+     */
+    @Query("SELECT MAX(sq.endTime) FROM StudentQuiz sq WHERE sq.quiz.id = :quizId AND sq.completed = true")
+    Optional<Instant> findLastEndTimeByQuizId(@Param("quizId") Long quizId);
 
     /**
      * Count completed attempts for a student and quiz
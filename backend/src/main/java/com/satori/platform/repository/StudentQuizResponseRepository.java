@@ -24,6 +24,21 @@ public interface StudentQuizResponseRepository extends JpaRepository<StudentQuiz
     StudentQuizResponse findByStudentQuizIdAndQuizQuestionId(@Param("studentQuizId") Long studentQuizId,
             @Param("quizQuestionId") Long quizQuestionId);
 
+    /**
+     * Find the IDs of the quiz questions answered in a student quiz attempt
+     */
+    @Query("SELECT sqr.quizQuestion.id FROM StudentQuizResponse sqr WHERE sqr.studentQuiz.id = :studentQuizId")
+    List<Long> findAnsweredQuestionIdsByStudentQuizId(@Param("studentQuizId") Long studentQuizId);
+
+    /**
+     * Find the correctness of every response to a quiz
+     *
+     * @return rows of student quiz ID, quiz question ID and whether the response is correct
+     */
+    @Query("SELECT sqr.studentQuiz.id, sqr.quizQuestion.id, sqr.isCorrect " +
+            "FROM StudentQuizResponse sqr WHERE sqr.studentQuiz.quiz.id = :quizId")
+    List<Object[]> findCorrectnessByQuizId(@Param("quizId") Long quizId);
+
     /**
      * Count correct responses for a student quiz attempt
      */
@@ -15,6 +15,14 @@ import java.util.Optional;
 @SuppressWarnings("unused")
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
+    /**
+     * Lock a user profile row so that concurrent enrollments of the user are
+     * serialized.
+     */
+    @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT up FROM UserProfile up WHERE up.id = :id")
+    Optional<UserProfile> findByIdForUpdate(@Param("id") Long id);
+
     /**
      * Find students enrolled in a specific course
      */
@@ -42,6 +50,12 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
      */
     List<UserProfile> findByRole(Role role);
 
+    /**
+     * Find the IDs of the users with a role
+     */
+    @Query("SELECT up.id FROM UserProfile up WHERE up.role = :role")
+    List<Long> findIdsByRole(@Param("role") Role role);
+
     /**
      * Find user profile by username
      */
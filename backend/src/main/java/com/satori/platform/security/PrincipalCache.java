@@ -0,0 +1,221 @@
+package com.satori.platform.security;
+
+import com.satori.platform.domain.User;
+import com.satori.platform.domain.UserProfile;
+import com.satori.platform.repository.UserProfileRepository;
+import com.satori.platform.repository.UserRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Cache of the {@link ResolvedPrincipal} of the current request, so that hot
+ * endpoints do not look up the user and profile on every call.
+ * <p>
+ * The principal is kept for the rest of the request in a request attribute,
+ * and across requests in the {@value #CACHE_NAME} cache region keyed by the
+ * JWT ID. That region has a short time-to-live. Logout, password changes,
+ * account updates and session invalidation evict the cached principals of
+ * the user. Authentications without a JWT are only cached per request.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrincipalCache.class);
+
+    public static final String CACHE_NAME = "resolvedPrincipals";
+
+    private static final String REQUEST_ATTRIBUTE = PrincipalCache.class.getName() + ".principal";
+
+    private final UserRepository userRepository;
+
+    private final UserProfileRepository userProfileRepository;
+
+    private final CacheManager cacheManager;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final Duration timeToLive;
+
+    /**
+     * When each user's cached principals were last invalidated; principals
+     * resolved before that are ignored. Entries older than the time-to-live are
+     * pruned, as every principal they could reject has expired.
+     */
+    private final Map<String, Instant> invalidations = new ConcurrentHashMap<>();
+
+    public PrincipalCache(
+        UserRepository userRepository,
+        UserProfileRepository userProfileRepository,
+        CacheManager cacheManager,
+        PlatformTransactionManager transactionManager,
+        @Value("${application.cache.regions.resolvedPrincipals.time-to-live:5m}") Duration timeToLive
+    ) {
+        this.userRepository = userRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.cacheManager = cacheManager;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Get the resolved principal of the current request.
+     *
+     * @return the principal, or empty if the request is not authenticated or
+     *         the user no longer exists
+     */
+    public Optional<ResolvedPrincipal> getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        if (login == null || !SecurityUtils.isAuthenticated()) {
+            return Optional.empty();
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof ResolvedPrincipal cached) {
+            if (cached.login().equals(login)) {
+                return Optional.of(cached);
+            }
+        }
+
+        String key = cacheKey(authentication);
+        ResolvedPrincipal principal = key != null ? cache().get(key, ResolvedPrincipal.class) : null;
+        if (principal != null && (!principal.login().equals(login) || isInvalidated(principal))) {
+            principal = null;
+        }
+        if (principal == null) {
+            principal = readOnlyTransactionTemplate.execute(status -> resolve(login));
+            if (principal == null) {
+                return Optional.empty();
+            }
+            if (key != null) {
+                cache().put(key, principal);
+            }
+        }
+
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, principal, RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(principal);
+    }
+
+    /**
+     * Get the user profile ID of the current request.
+     *
+     * @return the ID, or empty if there is no authenticated user with a profile
+     */
+    public Optional<Long> getCurrentUserProfileId() {
+        return getCurrentPrincipal().map(ResolvedPrincipal::userProfileId);
+    }
+
+    /**
+     * Evict the principal cached for the token of the current request, on
+     * logout.
+     */
+    public void evictCurrentToken() {
+        String key = cacheKey(SecurityContextHolder.getContext().getAuthentication());
+        if (key != null) {
+            cache().evictIfPresent(key);
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Stop serving the cached principals of a user, e.g. after a password change
+     * or when all of their sessions are invalidated. When called inside a
+     * transaction they are evicted again after commit, so a principal resolved
+     * concurrently from the pre-commit state is not served either.
+     *
+     * @param login the login of the user
+     */
+    public void evictUser(String login) {
+        invalidate(login);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(login);
+                }
+            });
+        }
+    }
+
+    private void invalidate(String login) {
+        Instant now = Instant.now();
+        invalidations.values().removeIf(invalidatedAt -> invalidatedAt.isBefore(now.minus(timeToLive)));
+        invalidations.put(login, now);
+        LOG.debug("Evicted cached principals of user: {}", login);
+    }
+
+    private boolean isInvalidated(ResolvedPrincipal principal) {
+        Instant invalidatedAt = invalidations.get(principal.login());
+        return invalidatedAt != null && !principal.resolvedAt().isAfter(invalidatedAt);
+    }
+
+    private ResolvedPrincipal resolve(String login) {
+        Optional<User> user = userRepository.findOneWithAuthoritiesByLogin(login);
+        if (user.isEmpty()) {
+            return null;
+        }
+
+        UserProfile profile = userProfileRepository.findByUsername(login).orElse(null);
+        Set<String> authorities = Set.copyOf(
+            SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet())
+        );
+        return new ResolvedPrincipal(
+            user.orElseThrow().getId(),
+            login,
+            profile != null ? profile.getId() : null,
+            profile != null && profile.getStudentProfile() != null ? profile.getStudentProfile().getId() : null,
+            profile != null && profile.getTeacherProfile() != null ? profile.getTeacherProfile().getId() : null,
+            profile != null && profile.getRole() != null ? profile.getRole().name() : null,
+            authorities,
+            Instant.now()
+        );
+    }
+
+    /**
+     * @return the JWT ID, falling back to the token itself for tokens issued
+     *         without one, or null if the request is not authenticated by JWT
+     */
+    private static String cacheKey(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            return jwt.getId() != null ? jwt.getId() : jwt.getTokenValue();
+        }
+        return null;
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+    }
+}
@@ -0,0 +1,30 @@
+package com.satori.platform.security;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * The identity behind an authenticated request, resolved once from the
+ * database and cached by {@link PrincipalCache}.
+ *
+ * @param userId           the {@link com.satori.platform.domain.User} ID
+ * @param login            the login
+ * @param userProfileId    the {@link com.satori.platform.domain.UserProfile} ID, or null
+ * @param studentProfileId the {@link com.satori.platform.domain.StudentProfile} ID, or null
+ * @param teacherProfileId the {@link com.satori.platform.domain.TeacherProfile} ID, or null
+ * @param role             the profile role, or null without a profile
+ * @param authorities      the granted authorities
+ * @param resolvedAt       when the principal was read from the database
+ */
+public record ResolvedPrincipal(
+    Long userId,
+    String login,
+    Long userProfileId,
+    Long studentProfileId,
+    Long teacherProfileId,
+    String role,
+    Set<String> authorities,
+    Instant resolvedAt
+)
+    implements Serializable {}
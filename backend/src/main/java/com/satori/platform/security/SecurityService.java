@@ -22,13 +22,16 @@ public class SecurityService {
     private final CourseRepository courseRepository;
     private final QuizRepository quizRepository;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     public SecurityService(CourseRepository courseRepository,
             QuizRepository quizRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            PrincipalCache principalCache) {
         this.courseRepository = courseRepository;
         this.quizRepository = quizRepository;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -44,10 +47,7 @@ public class SecurityService {
             return true;
         }
 
-        String username = authentication.getName();
-        Optional<User> user = userRepository.findOneByLogin(username);
-
-        if (user.isEmpty()) {
+        if (userId(authentication).isEmpty()) {
             return false;
         }
 
@@ -113,10 +113,21 @@ public class SecurityService {
             return true;
         }
 
-        String username = authentication.getName();
-        Optional<User> user = userRepository.findOneByLogin(username);
+        return userId(authentication).map(userId::equals).orElse(false);
+    }
 
-        return user.isPresent() && user.get().getId().equals(userId);
+    /**
+     * The user ID of an authentication, from the principal cache when it is the
+     * authentication of the current request.
+     */
+    private Optional<Long> userId(Authentication authentication) {
+        Optional<ResolvedPrincipal> principal = principalCache
+            .getCurrentPrincipal()
+            .filter(cached -> cached.login().equals(authentication.getName()));
+        if (principal.isPresent()) {
+            return principal.map(ResolvedPrincipal::userId);
+        }
+        return userRepository.findOneByLogin(authentication.getName()).map(User::getId);
     }
 
     /**
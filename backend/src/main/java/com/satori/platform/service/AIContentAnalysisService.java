@@ -5,6 +5,7 @@ import com.satori.platform.service.dto.*;
 import com.satori.platform.service.exception.AIServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,8 @@ public class AIContentAnalysisService {
 
     private final RestTemplate restTemplate;
 
+    private final AIGenerationCache generationCache;
+
     @Value("${app.ai.service.url:}")
     private String aiServiceUrl;
 
@@ -45,8 +48,10 @@ public class AIContentAnalysisService {
 
     private static final Pattern QUESTION_PATTERN = Pattern.compile("Q\\d+:|Question \\d+:", Pattern.CASE_INSENSITIVE);
 
-    public AIContentAnalysisService(RestTemplate restTemplate) {
+    public AIContentAnalysisService(@Qualifier("aiRestTemplate") RestTemplate restTemplate,
+            AIGenerationCache generationCache) {
         this.restTemplate = restTemplate;
+        this.generationCache = generationCache;
     }
 
     /**
@@ -70,6 +75,15 @@ public class AIContentAnalysisService {
             // Prepare AI prompt
             String prompt = buildQuestionGenerationPrompt(request);
 
+            // Reuse a generation for the same or a very similar prompt, unless the
+            // caller explicitly asks for questions it does not have yet
+            boolean cacheable = request.getExcludedQuestions() == null || request.getExcludedQuestions().isEmpty();
+            AIGenerationCache.Lookup cached = cacheable ? generationCache.lookup(request, prompt) : null;
+            if (cached != null && cached.isHit()) {
+                log.debug("Reusing cached AI generation with {} questions", cached.getQuestions().size());
+                return cached.getQuestions();
+            }
+
             // Call AI service
             String aiResponse = callAIService(prompt);
 
@@ -78,6 +92,9 @@ public class AIContentAnalysisService {
 
             // Validate and enhance questions
             questions = validateAndEnhanceQuestions(questions, request);
+            if (cached != null) {
+                generationCache.put(cached, questions);
+            }
 
             log.info("Successfully generated {} questions using AI service", questions.size());
 
@@ -204,6 +221,13 @@ public class AIContentAnalysisService {
                     .append("\n");
         }
 
+        if (request.getExcludedQuestions() != null && !request.getExcludedQuestions().isEmpty()) {
+            prompt.append("- Do not repeat or rephrase any of these existing questions:\n");
+            for (String excluded : request.getExcludedQuestions()) {
+                prompt.append("  * ").append(excluded).append("\n");
+            }
+        }
+
         prompt.append("\nFormat each question as follows:\n");
         prompt.append("Q1: [Question content]\n");
         prompt.append("A1: [Correct answer]\n");
@@ -0,0 +1,335 @@
+package com.satori.platform.service;
+
+import com.satori.platform.service.dto.AIGeneratedQuestionDTO;
+import com.satori.platform.service.dto.AIQuestionGenerationRequestDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Two-level cache of AI question generations.
+ * <p>
+ * The first level is an exact match on the hash of the normalized prompt. The
+ * second compares the prompt embedding with recent prompts for the same
+ * course, lesson and generation settings, and reuses a generation whose prompt
+ * is similar enough, e.g. when only the weak areas differ slightly. Both levels
+ * share one LRU map with a time-to-live, and entries of a course are dropped
+ * when one of its lessons changes. Questions are copied in and out, so callers
+ * may edit the questions they get without changing the cached generation.
+ */
+@Service
+public class AIGenerationCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AIGenerationCache.class);
+
+    private static final int MAX_EMBEDDED_PROMPT_LENGTH = 8000;
+
+    private final GeminiEmbeddingService embeddingService;
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Duration timeToLive;
+    private final double similarityThreshold;
+
+    private final Map<String, CachedGeneration> entries;
+
+    private final Counter exactHits;
+    private final Counter semanticHits;
+    private final Counter misses;
+
+    public AIGenerationCache(
+            GeminiEmbeddingService embeddingService,
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.cache.enabled:true}") boolean enabled,
+            @Value("${app.ai.cache.max-entries:1000}") int maxEntries,
+            @Value("${app.ai.cache.time-to-live:6h}") Duration timeToLive,
+            @Value("${app.ai.cache.similarity-threshold:0.95}") double similarityThreshold) {
+        this.embeddingService = embeddingService;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.timeToLive = timeToLive;
+        this.similarityThreshold = similarityThreshold;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedGeneration> eldest) {
+                return size() > AIGenerationCache.this.maxEntries;
+            }
+        };
+        this.exactHits = lookupCounter(meterRegistry, "exact_hit");
+        this.semanticHits = lookupCounter(meterRegistry, "semantic_hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * Look up a generation for a prompt.
+     *
+     * @param request the generation request the prompt was built from
+     * @param prompt  the prompt
+     * @return the lookup, holding the cached questions on a hit; pass it to
+     *         {@link #put(Lookup, List)} on a miss
+     */
+    public Lookup lookup(AIQuestionGenerationRequestDTO request, String prompt) {
+        Lookup lookup = new Lookup(hash(normalize(prompt)), scope(request), request.getCourseId(), request.getLessonId());
+        if (!enabled) {
+            return lookup;
+        }
+
+        Instant now = Instant.now();
+        synchronized (entries) {
+            CachedGeneration exact = entries.get(lookup.key);
+            if (exact != null && !exact.isExpired(now, timeToLive)) {
+                exactHits.increment();
+                lookup.questions = copy(exact.questions);
+                return lookup;
+            }
+        }
+
+        if (embeddingService.isConfigured()) {
+            lookup.embedding = embed(prompt);
+            if (lookup.embedding != null) {
+                CachedGeneration similar = findSimilar(lookup, now);
+                if (similar != null) {
+                    semanticHits.increment();
+                    lookup.questions = copy(similar.questions);
+                    return lookup;
+                }
+            }
+        }
+
+        misses.increment();
+        return lookup;
+    }
+
+    /**
+     * Store the generation for a missed lookup.
+     *
+     * @param lookup    the missed lookup
+     * @param questions the generated questions
+     */
+    public void put(Lookup lookup, List<AIGeneratedQuestionDTO> questions) {
+        if (!enabled || questions.isEmpty()) {
+            return;
+        }
+        CachedGeneration generation = new CachedGeneration(lookup, copy(questions), Instant.now());
+        synchronized (entries) {
+            entries.put(lookup.key, generation);
+        }
+    }
+
+    /**
+     * Drop the generations built from a course's content. When called inside a
+     * transaction they are dropped again after commit, so a generation running
+     * concurrently cannot keep the pre-commit content.
+     *
+     * @param courseId the course whose lessons changed
+     */
+    public void evictCourse(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        evictAndRepeatAfterCommit(generation -> courseId.equals(generation.courseId));
+    }
+
+    /**
+     * Drop the generations built from a lesson's content, including those
+     * built from its whole course.
+     *
+     * @param lessonId the changed lesson
+     * @param courseId the lesson's course, may be null
+     */
+    public void evictLesson(Long lessonId, Long courseId) {
+        evictAndRepeatAfterCommit(
+                generation -> Objects.equals(lessonId, generation.lessonId)
+                        || (courseId != null && courseId.equals(generation.courseId)));
+    }
+
+    private void evictAndRepeatAfterCommit(Predicate<CachedGeneration> predicate) {
+        evict(predicate);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(predicate);
+                }
+            });
+        }
+    }
+
+    private void evict(Predicate<CachedGeneration> predicate) {
+        synchronized (entries) {
+            entries.values().removeIf(predicate);
+        }
+    }
+
+    private CachedGeneration findSimilar(Lookup lookup, Instant now) {
+        CachedGeneration best = null;
+        double bestSimilarity = similarityThreshold;
+        synchronized (entries) {
+            for (CachedGeneration generation : entries.values()) {
+                if (generation.embedding == null || !generation.scope.equals(lookup.scope)
+                        || generation.isExpired(now, timeToLive)) {
+                    continue;
+                }
+                double similarity = cosineSimilarity(lookup.embedding, generation.embedding);
+                if (similarity >= bestSimilarity) {
+                    best = generation;
+                    bestSimilarity = similarity;
+                }
+            }
+            if (best != null) {
+                // Refresh its LRU position
+                entries.get(best.key);
+            }
+        }
+        return best;
+    }
+
+    private float[] embed(String prompt) {
+        try {
+            String text = prompt.length() > MAX_EMBEDDED_PROMPT_LENGTH ? prompt.substring(0, MAX_EMBEDDED_PROMPT_LENGTH)
+                    : prompt;
+            List<Double> values = embeddingService.generateEmbedding(text);
+            float[] embedding = new float[values.size()];
+            for (int i = 0; i < embedding.length; i++) {
+                embedding[i] = values.get(i).floatValue();
+            }
+            return embedding;
+        } catch (Exception e) {
+            log.warn("Failed to embed prompt for the AI generation cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.generation.cache.lookups")
+                .tag("result", result)
+                .description("AI question generation cache lookups")
+                .register(meterRegistry);
+    }
+
+    private static List<AIGeneratedQuestionDTO> copy(List<AIGeneratedQuestionDTO> questions) {
+        List<AIGeneratedQuestionDTO> copies = new ArrayList<>(questions.size());
+        for (AIGeneratedQuestionDTO question : questions) {
+            AIGeneratedQuestionDTO copy = new AIGeneratedQuestionDTO();
+            copy.setId(question.getId());
+            copy.setContent(question.getContent());
+            copy.setCorrectAnswer(question.getCorrectAnswer());
+            copy.setType(question.getType());
+            copy.setExplanation(question.getExplanation());
+            copy.setHint(question.getHint());
+            copy.setImageUrl(question.getImageUrl());
+            copy.setDifficultyLevel(question.getDifficultyLevel());
+            copy.setConfidenceScore(question.getConfidenceScore());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    static double cosineSimilarity(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0.0;
+        }
+        double dot = 0.0;
+        double normA = 0.0;
+        double normB = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return normA == 0.0 || normB == 0.0 ? 0.0 : dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    static String normalize(String prompt) {
+        return prompt.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Settings that must match for a similar prompt to be reused.
+     */
+    private static String scope(AIQuestionGenerationRequestDTO request) {
+        return request.getCourseId() + "|" + request.getLessonId() + "|" + request.getDifficultyLevel() + "|"
+                + request.getQuestionCount() + "|" + request.getIncludeImages() + "|"
+                + request.getPreferredQuestionTypes();
+    }
+
+    /**
+     * The result of {@link #lookup(AIQuestionGenerationRequestDTO, String)}.
+     */
+    public static final class Lookup {
+
+        private final String key;
+        private final String scope;
+        private final Long courseId;
+        private final Long lessonId;
+        private float[] embedding;
+        private List<AIGeneratedQuestionDTO> questions;
+
+        private Lookup(String key, String scope, Long courseId, Long lessonId) {
+            this.key = key;
+            this.scope = scope;
+            this.courseId = courseId;
+            this.lessonId = lessonId;
+        }
+
+        public boolean isHit() {
+            return questions != null;
+        }
+
+        public List<AIGeneratedQuestionDTO> getQuestions() {
+            return questions;
+        }
+    }
+
+    private static final class CachedGeneration {
+
+        private final String key;
+        private final String scope;
+        private final Long courseId;
+        private final Long lessonId;
+        private final float[] embedding;
+        private final List<AIGeneratedQuestionDTO> questions;
+        private final Instant createdAt;
+
+        private CachedGeneration(Lookup lookup, List<AIGeneratedQuestionDTO> questions, Instant createdAt) {
+            this.key = lookup.key;
+            this.scope = lookup.scope;
+            this.courseId = lookup.courseId;
+            this.lessonId = lookup.lessonId;
+            this.embedding = lookup.embedding;
+            this.questions = questions;
+            this.createdAt = createdAt;
+        }
+
+        private boolean isExpired(Instant now, Duration timeToLive) {
+            return createdAt.plus(timeToLive).isBefore(now);
+        }
+    }
+}
@@ -11,7 +11,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.*;
@@ -21,6 +24,13 @@ import java.util.stream.Collectors;
  * Service for AI-powered practice test generation.
  * Generates practice tests based on course content and student performance
  * history.
+ * <p>
+ * Generation reads its inputs in one short read-only transaction, calls the AI
+ * service outside any transaction and persists the quiz in a second one, so no
+ * database connection is held during the AI call. Lesson practice tests are
+ * assembled from the lesson's {@link PracticeQuestionPoolService pre-generated
+ * question pool} whenever it holds enough questions, and AI-generated lesson
+ * questions are offered back to that pool.
  */
 @Service
 @Transactional
@@ -37,7 +47,10 @@ public class AIPracticeTestService {
     private final StudentAnalyticsService studentAnalyticsService;
     private final AIContentAnalysisService aiContentAnalysisService;
     private final RAGContentRetrievalService ragContentRetrievalService;
+    private final PracticeQuestionPoolService practiceQuestionPoolService;
     private final QuizMapper quizMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
     @Value("${app.ai.practice-test.default-question-count:10}")
     private int defaultQuestionCount;
@@ -58,7 +71,9 @@ public class AIPracticeTestService {
             StudentAnalyticsService studentAnalyticsService,
             AIContentAnalysisService aiContentAnalysisService,
             RAGContentRetrievalService ragContentRetrievalService,
-            QuizMapper quizMapper) {
+            PracticeQuestionPoolService practiceQuestionPoolService,
+            QuizMapper quizMapper,
+            PlatformTransactionManager transactionManager) {
         this.quizRepository = quizRepository;
         this.questionRepository = questionRepository;
         this.quizQuestionRepository = quizQuestionRepository;
@@ -68,7 +83,11 @@ public class AIPracticeTestService {
         this.studentAnalyticsService = studentAnalyticsService;
         this.aiContentAnalysisService = aiContentAnalysisService;
         this.ragContentRetrievalService = ragContentRetrievalService;
+        this.practiceQuestionPoolService = practiceQuestionPoolService;
         this.quizMapper = quizMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
     /**
@@ -77,35 +96,46 @@ public class AIPracticeTestService {
      * @param request the practice test generation request
      * @return the generated practice test
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public QuizDTO generatePracticeTest(AIPracticeTestRequestDTO request) {
         log.debug("Generating AI practice test for request: {}", request);
 
         validateRequest(request);
 
-        try {
-            // Analyze student performance to determine focus areas
-            StudentPerformanceAnalysisDTO performanceAnalysis = analyzeStudentPerformance(request);
-
-            // Generate questions using AI service with RAG enhancement
-            List<AIGeneratedQuestionDTO> aiQuestions = generateQuestionsWithAI(request, performanceAnalysis);
-
-            // Create the practice quiz
-            Quiz practiceQuiz = createPracticeQuiz(request, aiQuestions);
-
-            log.info("Successfully generated AI practice test with {} questions for student: {}",
-                    aiQuestions.size(), request.getStudentId());
+        // Lesson tests come from the warm question pool when it is large enough
+        if (request.getCourseId() == null) {
+            QuizDTO pooledQuiz = transactionTemplate.execute(status -> generatePooledPracticeTest(request));
+            if (pooledQuiz != null) {
+                log.info("Assembled practice test {} from the question pool of lesson {}", pooledQuiz.getId(),
+                        request.getLessonId());
+                return pooledQuiz;
+            }
+        }
 
-            return quizMapper.toDto(practiceQuiz);
+        // Analyze student performance and gather RAG-enhanced content
+        AIQuestionGenerationRequestDTO aiRequest = readOnlyTransactionTemplate
+                .execute(status -> buildAIRequest(request, analyzeStudentPerformance(request)));
 
+        List<AIGeneratedQuestionDTO> aiQuestions;
+        try {
+            aiQuestions = validateAndFilterQuestions(aiContentAnalysisService.generateQuestions(aiRequest));
         } catch (AIServiceException e) {
             log.warn("AI service failed, attempting fallback generation: {}", e.getMessage());
             if (fallbackEnabled) {
-                return generateFallbackPracticeTest(request);
+                return transactionTemplate.execute(status -> generateFallbackPracticeTest(request));
             } else {
                 throw e;
             }
         }
+
+        // Create the practice quiz
+        QuizDTO practiceQuiz = transactionTemplate
+                .execute(status -> quizMapper.toDto(createPracticeQuiz(request, aiQuestions)));
+
+        log.info("Successfully generated AI practice test with {} questions for student: {}",
+                aiQuestions.size(), request.getStudentId());
+
+        return practiceQuiz;
     }
 
     /**
@@ -116,12 +146,13 @@ public class AIPracticeTestService {
      * @param questionCount the number of questions to generate
      * @return the generated practice test
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public QuizDTO generateLessonPracticeTest(Long lessonId, Long studentId, Integer questionCount) {
         log.debug("Generating lesson-based practice test for lesson: {} and student: {}", lessonId, studentId);
 
-        Lesson lesson = lessonRepository.findById(lessonId)
-                .orElseThrow(() -> new IllegalArgumentException("Lesson not found with id: " + lessonId));
+        if (!lessonRepository.existsById(lessonId)) {
+            throw new IllegalArgumentException("Lesson not found with id: " + lessonId);
+        }
 
         AIPracticeTestRequestDTO request = new AIPracticeTestRequestDTO();
         request.setStudentId(studentId);
@@ -143,13 +174,14 @@ public class AIPracticeTestService {
      * @param difficultyLevel the difficulty level
      * @return the generated practice test
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public QuizDTO generateCoursePracticeTest(Long courseId, Long studentId, Integer questionCount,
             DifficultyLevel difficultyLevel) {
         log.debug("Generating course-based practice test for course: {} and student: {}", courseId, studentId);
 
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("Course not found with id: " + courseId));
+        if (!courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found with id: " + courseId);
+        }
 
         AIPracticeTestRequestDTO request = new AIPracticeTestRequestDTO();
         request.setStudentId(studentId);
@@ -183,7 +215,7 @@ public class AIPracticeTestService {
 
     // Private helper methods
 
-    private void validateRequest(AIPracticeTestRequestDTO request) {
+    void validateRequest(AIPracticeTestRequestDTO request) {
         if (request.getStudentId() == null) {
             throw new IllegalArgumentException("Student ID is required");
         }
@@ -232,9 +264,9 @@ public class AIPracticeTestService {
         return analysis;
     }
 
-    private List<AIGeneratedQuestionDTO> generateQuestionsWithAI(AIPracticeTestRequestDTO request,
+    private AIQuestionGenerationRequestDTO buildAIRequest(AIPracticeTestRequestDTO request,
             StudentPerformanceAnalysisDTO performanceAnalysis) {
-        log.debug("Generating questions using AI service");
+        log.debug("Preparing AI question generation request");
 
         // Prepare content for AI analysis (now includes RAG-enhanced content)
         String contentToAnalyze = gatherContentForAnalysis(request);
@@ -254,12 +286,14 @@ public class AIPracticeTestService {
         aiRequest.setIncludeImages(request.getIncludeImages() != null ? request.getIncludeImages() : false);
         aiRequest.setWeakAreas(performanceAnalysis.getWeakAreas());
         aiRequest.setFocusOnWeakAreas(request.getFocusOnWeakAreas() != null ? request.getFocusOnWeakAreas() : false);
-
-        // Generate questions using AI service
-        List<AIGeneratedQuestionDTO> questions = aiContentAnalysisService.generateQuestions(aiRequest);
-
-        // Validate and filter generated questions
-        return validateAndFilterQuestions(questions);
+        aiRequest.setLessonId(request.getLessonId());
+        aiRequest.setCourseId(request.getCourseId() != null ? request.getCourseId()
+                : lessonRepository.findById(request.getLessonId())
+                        .map(Lesson::getCourse)
+                        .map(Course::getId)
+                        .orElse(null));
+
+        return aiRequest;
     }
 
     private Quiz createPracticeQuiz(AIPracticeTestRequestDTO request, List<AIGeneratedQuestionDTO> aiQuestions) {
@@ -291,10 +325,12 @@ public class AIPracticeTestService {
         practiceQuiz = quizRepository.save(practiceQuiz);
 
         // Create questions and quiz questions
+        List<Question> questions = new ArrayList<>();
         int position = 1;
         for (AIGeneratedQuestionDTO aiQuestion : aiQuestions) {
             Question question = createQuestionFromAI(aiQuestion);
             question = questionRepository.save(question);
+            questions.add(question);
 
             QuizQuestion quizQuestion = new QuizQuestion();
             quizQuestion.setQuiz(practiceQuiz);
@@ -303,9 +339,32 @@ public class AIPracticeTestService {
             quizQuestionRepository.save(quizQuestion);
         }
 
+        // Lesson questions seed the lesson's pool for later tests
+        if (request.getCourseId() == null && request.getLessonId() != null) {
+            practiceQuestionPoolService.offer(request.getLessonId(), poolDifficulty(request), questions);
+        }
+
         return practiceQuiz;
     }
 
+    private QuizDTO generatePooledPracticeTest(AIPracticeTestRequestDTO request) {
+        int questionCount = request.getQuestionCount() != null ? request.getQuestionCount() : defaultQuestionCount;
+        List<Question> pooledQuestions = practiceQuestionPoolService.take(request.getLessonId(),
+                poolDifficulty(request), questionCount);
+        if (pooledQuestions.isEmpty()) {
+            return null;
+        }
+
+        Quiz pooledQuiz = createQuizFromQuestions(request, pooledQuestions,
+                "Practice Test - " + Instant.now().toString(),
+                "Practice test assembled from pre-generated questions for this lesson");
+        return quizMapper.toDto(pooledQuiz);
+    }
+
+    private DifficultyLevel poolDifficulty(AIPracticeTestRequestDTO request) {
+        return request.getDifficultyLevel() != null ? request.getDifficultyLevel() : DifficultyLevel.MEDIUM;
+    }
+
     private QuizDTO generateFallbackPracticeTest(AIPracticeTestRequestDTO request) {
         log.debug("Generating fallback practice test using existing questions");
 
@@ -320,7 +379,9 @@ public class AIPracticeTestService {
         List<Question> selectedQuestions = selectQuestionsForFallback(existingQuestions, request);
 
         // Create fallback quiz
-        Quiz fallbackQuiz = createFallbackQuiz(request, selectedQuestions);
+        Quiz fallbackQuiz = createQuizFromQuestions(request, selectedQuestions,
+                "Practice Test (Fallback) - " + Instant.now().toString(),
+                "Practice test generated from existing questions");
 
         log.info("Generated fallback practice test with {} questions", selectedQuestions.size());
 
@@ -527,33 +588,24 @@ public class AIPracticeTestService {
     }
 
     private List<Question> findExistingQuestions(AIPracticeTestRequestDTO request) {
-        List<Question> questions = new ArrayList<>();
+        List<Long> quizIds = new ArrayList<>();
 
         if (request.getCourseId() != null) {
             // Find questions from quizzes associated with this course
-            List<Quiz> courseQuizzes = quizRepository.findByCourseId(request.getCourseId());
-            for (Quiz quiz : courseQuizzes) {
-                List<QuizQuestion> quizQuestions = quizQuestionRepository.findByQuizIdOrderByPosition(quiz.getId());
-                questions.addAll(quizQuestions.stream()
-                        .map(QuizQuestion::getQuestion)
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toList()));
-            }
+            quizRepository.findByCourseId(request.getCourseId()).forEach(quiz -> quizIds.add(quiz.getId()));
         }
 
         if (request.getLessonId() != null) {
             // Find questions from quizzes associated with this lesson
-            List<Quiz> lessonQuizzes = quizRepository.findByLessonId(request.getLessonId());
-            for (Quiz quiz : lessonQuizzes) {
-                List<QuizQuestion> quizQuestions = quizQuestionRepository.findByQuizIdOrderByPosition(quiz.getId());
-                questions.addAll(quizQuestions.stream()
-                        .map(QuizQuestion::getQuestion)
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toList()));
-            }
+            quizRepository.findByLessonId(request.getLessonId()).forEach(quiz -> quizIds.add(quiz.getId()));
+        }
+
+        if (quizIds.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        return questions.stream().distinct().collect(Collectors.toList());
+        // One query for all quizzes instead of one per quiz
+        return new ArrayList<>(quizQuestionRepository.findDistinctQuestionsByQuizIdIn(quizIds));
     }
 
     private List<Question> selectQuestionsForFallback(List<Question> existingQuestions,
@@ -568,10 +620,11 @@ public class AIPracticeTestService {
                 .collect(Collectors.toList());
     }
 
-    private Quiz createFallbackQuiz(AIPracticeTestRequestDTO request, List<Question> selectedQuestions) {
+    private Quiz createQuizFromQuestions(AIPracticeTestRequestDTO request, List<Question> selectedQuestions,
+            String title, String description) {
         Quiz fallbackQuiz = new Quiz();
-        fallbackQuiz.setTitle("Practice Test (Fallback) - " + Instant.now().toString());
-        fallbackQuiz.setDescription("Practice test generated from existing questions");
+        fallbackQuiz.setTitle(title);
+        fallbackQuiz.setDescription(description);
         fallbackQuiz.setIsTest(false);
         fallbackQuiz.setIsPractice(true);
         fallbackQuiz.setQuizType(request.getCourseId() != null ? QuizType.COURSE : QuizType.LESSON);
@@ -0,0 +1,96 @@
+package com.satori.platform.service;
+
+import com.satori.platform.repository.UserProfileRepository;
+import com.satori.platform.security.AuthoritiesConstants;
+import com.satori.platform.security.SecurityUtils;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Issues and checks the per-user tokens of calendar feed URLs.
+ * <p>
+ * Calendar clients subscribe to a plain URL and cannot send a bearer token,
+ * so the feed URL carries a token instead: an HMAC of the user ID, keyed with
+ * {@code app.calendar.feed-secret}. Changing the secret revokes every issued
+ * URL.
+ */
+@Service
+public class CalendarFeedTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final UserProfileRepository userProfileRepository;
+    private final SecretKeySpec key;
+
+    public CalendarFeedTokenService(
+            UserProfileRepository userProfileRepository,
+            @Value("${app.calendar.feed-secret:${jhipster.security.authentication.jwt.base64-secret}}") String secret) {
+        this.userProfileRepository = userProfileRepository;
+        this.key = new SecretKeySpec(("calendar-feed:" + secret).getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * Get the feed token of the current user, or of any user for an admin.
+     *
+     * @param userId the user ID
+     * @return the feed token
+     * @throws AccessDeniedException if the user ID is someone else's
+     */
+    @Transactional(readOnly = true)
+    public String getTokenForCurrentUser(Long userId) {
+        checkCurrentUserOrAdmin(userId);
+        return tokenFor(userId);
+    }
+
+    /**
+     * Check that a feed is the current user's own, or that the current user is
+     * an admin.
+     *
+     * @param userId the user ID of the feed
+     * @throws AccessDeniedException if the user ID is someone else's
+     */
+    @Transactional(readOnly = true)
+    public void checkCurrentUserOrAdmin(Long userId) {
+        boolean own = SecurityUtils.getCurrentUserLogin()
+                .flatMap(userProfileRepository::findByUsername)
+                .map(profile -> userId.equals(profile.getId()))
+                .orElse(false);
+        if (!own && !SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ADMIN)) {
+            throw new AccessDeniedException("Calendar feeds are only available to their owner");
+        }
+    }
+
+    /**
+     * Check the token of a feed URL, in constant time.
+     *
+     * @param userId the user ID of the feed
+     * @param token  the token of the URL
+     * @return whether the token was issued for the user
+     */
+    public boolean isValid(Long userId, String token) {
+        if (token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(tokenFor(userId).getBytes(StandardCharsets.US_ASCII),
+                token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    String tokenFor(Long userId) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal(userId.toString().getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign calendar feed tokens", e);
+        }
+    }
+}
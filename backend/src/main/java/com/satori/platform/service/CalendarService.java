@@ -2,15 +2,24 @@ package com.satori.platform.service;
 
 import com.satori.platform.domain.*;
 import com.satori.platform.repository.*;
+import com.satori.platform.service.ScheduleConflictService.ConflictScope;
 import com.satori.platform.service.dto.*;
 import com.satori.platform.service.dto.ConflictResolutionDTO.TimeSlotSuggestionDTO;
 import com.satori.platform.service.mapper.CourseMapper;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -29,6 +38,21 @@ public class CalendarService {
 
     private static final Logger LOG = LoggerFactory.getLogger(CalendarService.class);
 
+    public static final String CALENDAR_FEED_CACHE = "calendarFeeds";
+
+    private static final int FEED_LOOKBACK_DAYS = 30;
+    private static final int FEED_LOOKAHEAD_DAYS = 180;
+    private static final String FEED_REFRESH_INTERVAL = "PT15M";
+
+    private static final int MAX_SUGGESTIONS = 5;
+
+    private static final DateTimeFormatter ICS_DATE_TIME_FORMATTER = DateTimeFormatter
+            .ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneId.of("UTC"));
+    private static final DateTimeFormatter FILENAME_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter OUTLOOK_DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final DateTimeFormatter OUTLOOK_TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
     private final ScheduleRepository scheduleRepository;
     private final StudentProgressRepository studentProgressRepository;
     private final UserProfileRepository userProfileRepository;
@@ -36,6 +60,7 @@ public class CalendarService {
     private final CourseRepository courseRepository;
     private final CourseMapper courseMapper;
     private final NotificationService notificationService;
+    private final ScheduleConflictService scheduleConflictService;
 
     public CalendarService(
             ScheduleRepository scheduleRepository,
@@ -44,7 +69,8 @@ public class CalendarService {
             QuizRepository quizRepository,
             CourseRepository courseRepository,
             CourseMapper courseMapper,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            ScheduleConflictService scheduleConflictService) {
         this.scheduleRepository = scheduleRepository;
         this.studentProgressRepository = studentProgressRepository;
         this.userProfileRepository = userProfileRepository;
@@ -52,6 +78,7 @@ public class CalendarService {
         this.courseRepository = courseRepository;
         this.courseMapper = courseMapper;
         this.notificationService = notificationService;
+        this.scheduleConflictService = scheduleConflictService;
     }
 
     /**
@@ -153,34 +180,29 @@ public class CalendarService {
     public ConflictResolutionDTO detectConflictsAndSuggestResolutions(ScheduleDTO scheduleDTO, Long userId) {
         LOG.debug("Request to detect conflicts for schedule: {} by user: {}", scheduleDTO, userId);
 
-        List<ScheduleEventDTO> conflicts = new ArrayList<>();
-
-        // Get user's existing calendar events
-        Instant startDate = scheduleDTO.getStartTime().minus(1, ChronoUnit.DAYS);
-        Instant endDate = scheduleDTO.getEndTime().plus(1, ChronoUnit.DAYS);
-
         UserProfile user = userProfileRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
 
-        List<ScheduleEventDTO> existingEvents;
-        if (isTeacher(user)) {
-            existingEvents = getTeacherCalendar(userId, startDate, endDate);
-        } else {
-            existingEvents = getStudentCalendar(userId, startDate, endDate);
-        }
-
-        // Check for time conflicts
-        for (ScheduleEventDTO event : existingEvents) {
-            if (hasTimeConflict(scheduleDTO.getStartTime(), scheduleDTO.getEndTime(),
-                    event.getStartTime(), event.getEndTime())) {
-                event.setIsConflict(true);
-                conflicts.add(event);
-            }
-        }
-
-        // Generate resolution suggestions
-        List<TimeSlotSuggestionDTO> suggestions = generateTimeSlotSuggestions(
-                scheduleDTO, existingEvents, startDate, endDate);
+        List<ConflictScope> scopes = resolveConflictScopes(user);
+
+        List<Long> conflictIds = scheduleConflictService.findConflicts(
+                scopes, scheduleDTO.getStartTime(), scheduleDTO.getEndTime(), scheduleDTO.getId());
+        List<ScheduleEventDTO> conflicts = conflictIds.isEmpty() ? new ArrayList<>()
+                : scheduleRepository.findAllById(conflictIds).stream()
+                        .map(schedule -> convertScheduleToEvent(schedule, "LESSON"))
+                        .sorted(Comparator.comparing(ScheduleEventDTO::getStartTime))
+                        .collect(Collectors.toList());
+        conflicts.forEach(event -> event.setIsConflict(true));
+
+        // Suggest free slots on the same day, closest to the proposed time first
+        Instant dayStart = scheduleDTO.getStartTime().truncatedTo(ChronoUnit.DAYS);
+        List<TimeSlotSuggestionDTO> suggestions = scheduleConflictService.findFreeSlots(
+                scopes,
+                dayStart,
+                dayStart.plus(1, ChronoUnit.DAYS),
+                Duration.between(scheduleDTO.getStartTime(), scheduleDTO.getEndTime()),
+                scheduleDTO.getStartTime(),
+                MAX_SUGGESTIONS);
 
         String resolutionMessage = conflicts.isEmpty() ? "No conflicts detected"
                 : String.format("Found %d conflicts. Consider the suggested alternative time slots.", conflicts.size());
@@ -188,6 +210,35 @@ public class CalendarService {
         return new ConflictResolutionDTO(conflicts, suggestions, resolutionMessage);
     }
 
+    /**
+     * Find the best free slots of a user across the week starting at the given
+     * date, inside working hours.
+     *
+     * @param userId          the user ID (teacher or student)
+     * @param weekStart       the first day of the week to search
+     * @param durationMinutes the length of the wanted slot
+     * @param limit           the maximum number of slots to return
+     * @return the free slots, earliest first
+     */
+    @Transactional(readOnly = true)
+    public List<TimeSlotSuggestionDTO> findWeeklyFreeSlots(Long userId, Instant weekStart, int durationMinutes,
+            int limit) {
+        LOG.debug("Request to find {} free slots of {} minutes for user: {} from {}", limit, durationMinutes, userId,
+                weekStart);
+
+        UserProfile user = userProfileRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+
+        Instant from = weekStart.truncatedTo(ChronoUnit.DAYS);
+        return scheduleConflictService.findFreeSlots(
+                resolveConflictScopes(user),
+                from,
+                from.plus(7, ChronoUnit.DAYS),
+                Duration.ofMinutes(durationMinutes),
+                null,
+                limit);
+    }
+
     /**
      * Create schedule notification triggers for upcoming classes.
      *
@@ -233,6 +284,10 @@ public class CalendarService {
 
     /**
      * Export calendar to external calendar format (ICS).
+     * <p>
+     * Buffers the whole document in memory; prefer
+     * {@link #writeCalendarExport(Long, Instant, Instant, String, Writer)} for
+     * HTTP downloads.
      *
      * @param userId    the user ID
      * @param startDate the start date for export
@@ -242,49 +297,129 @@ public class CalendarService {
      */
     @Transactional(readOnly = true)
     public CalendarExportDTO exportCalendar(Long userId, Instant startDate, Instant endDate, String format) {
-        LOG.debug("Request to export calendar for user: {} in format: {}", userId, format);
+        CalendarExportDTO export = describeExport(userId, format);
+        StringWriter content = new StringWriter();
+        try {
+            writeCalendarExport(userId, startDate, endDate, format, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        export.setContent(content.toString());
+        return export;
+    }
 
+    /**
+     * Resolve the filename and mime type of a calendar export without rendering
+     * it, so that response headers can be sent before the body is streamed.
+     *
+     * @param userId the user ID
+     * @param format the export format (ICS, GOOGLE, OUTLOOK)
+     * @return calendar export metadata, without content
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    @Transactional(readOnly = true)
+    public CalendarExportDTO describeExport(Long userId, String format) {
         UserProfile user = userProfileRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
 
-        List<ScheduleEventDTO> events;
-        if (isTeacher(user)) {
-            events = getTeacherCalendar(userId, startDate, endDate);
-        } else {
-            events = getStudentCalendar(userId, startDate, endDate);
+        switch (format.toUpperCase()) {
+            case "ICS":
+                return new CalendarExportDTO(format, null,
+                        String.format("calendar_%s_%s.ics", user.getUsername(),
+                                LocalDateTime.now().format(FILENAME_DATE_FORMATTER)),
+                        "text/calendar");
+            case "GOOGLE":
+                return new CalendarExportDTO(format, null, "google_calendar_import.txt", "text/plain");
+            case "OUTLOOK":
+                return new CalendarExportDTO(format, null, "outlook_calendar.csv", "text/csv");
+            default:
+                throw new IllegalArgumentException("Unsupported export format: " + format);
         }
+    }
 
-        String content;
-        String filename;
-        String mimeType;
+    /**
+     * Export calendar to external calendar format, writing events straight to
+     * the given writer instead of building the document in memory.
+     *
+     * @param userId    the user ID
+     * @param startDate the start date for export
+     * @param endDate   the end date for export
+     * @param format    the export format (ICS, GOOGLE, OUTLOOK)
+     * @param writer    the destination of the export
+     * @throws IOException if writing fails
+     */
+    @Transactional(readOnly = true)
+    public void writeCalendarExport(Long userId, Instant startDate, Instant endDate, String format, Writer writer)
+            throws IOException {
+        LOG.debug("Request to export calendar for user: {} in format: {}", userId, format);
+
+        UserProfile user = userProfileRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+
+        List<ScheduleEventDTO> events = getCalendarEvents(user, startDate, endDate);
 
         switch (format.toUpperCase()) {
             case "ICS":
-                content = generateICSContent(events, user);
-                filename = String.format("calendar_%s_%s.ics", user.getUsername(),
-                        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")));
-                mimeType = "text/calendar";
+                writeICSContent(events, writer, false);
                 break;
             case "GOOGLE":
-                content = generateGoogleCalendarUrl(events);
-                filename = "google_calendar_import.txt";
-                mimeType = "text/plain";
+                writeGoogleCalendarUrls(events, writer);
                 break;
             case "OUTLOOK":
-                content = generateOutlookCalendarContent(events);
-                filename = "outlook_calendar.csv";
-                mimeType = "text/csv";
+                writeOutlookCalendarContent(events, writer);
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported export format: " + format);
         }
+        writer.flush();
 
         LOG.info("Exported {} events for user: {} in format: {}", events.size(), userId, format);
-        return new CalendarExportDTO(format, content, filename, mimeType);
+    }
+
+    /**
+     * Get the subscribable ICS feed of a user.
+     * <p>
+     * The rendered feed is cached per user and evicted whenever a schedule
+     * changes, so clients polling with {@code If-None-Match} or
+     * {@code If-Modified-Since} are answered without touching the database.
+     *
+     * @param userId the user ID
+     * @return the rendered feed with its validators
+     */
+    @Cacheable(cacheNames = CALENDAR_FEED_CACHE, key = "#userId")
+    @Transactional(readOnly = true)
+    public CalendarFeedDTO getCalendarFeed(Long userId) {
+        LOG.debug("Request to render calendar feed for user: {}", userId);
+
+        UserProfile user = userProfileRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+
+        Instant now = Instant.now();
+        List<ScheduleEventDTO> events = getCalendarEvents(user,
+                now.minus(FEED_LOOKBACK_DAYS, ChronoUnit.DAYS),
+                now.plus(FEED_LOOKAHEAD_DAYS, ChronoUnit.DAYS));
+
+        StringWriter content = new StringWriter();
+        try {
+            writeICSContent(events, content, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String body = content.toString();
+        String etag = "\"" + DigestUtils.md5DigestAsHex(body.getBytes(StandardCharsets.UTF_8)) + "\"";
+        return new CalendarFeedDTO(body, etag, now.truncatedTo(ChronoUnit.SECONDS));
     }
 
     // Private helper methods
 
+    private List<ScheduleEventDTO> getCalendarEvents(UserProfile user, Instant startDate, Instant endDate) {
+        if (isTeacher(user)) {
+            return getTeacherCalendar(user.getId(), startDate, endDate);
+        }
+        return getStudentCalendar(user.getId(), startDate, endDate);
+    }
+
     private ScheduleEventDTO convertScheduleToEvent(Schedule schedule, String eventType) {
         CourseDTO courseDTO = courseMapper.toDto(schedule.getCourse());
 
@@ -315,87 +450,40 @@ public class CalendarService {
         return new ArrayList<>();
     }
 
+    private List<ConflictScope> resolveConflictScopes(UserProfile user) {
+        if (isTeacher(user)) {
+            return List.of(ConflictScope.teacher(user.getId()));
+        }
+        return studentProgressRepository.findByStudentId(user.getId()).stream()
+                .map(progress -> ConflictScope.course(progress.getCourse().getId()))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
     private boolean isTeacher(UserProfile user) {
         return user.getRole() == com.satori.platform.domain.enumeration.Role.GIANG_VIEN ||
                 user.getRole() == com.satori.platform.domain.enumeration.Role.ADMIN;
     }
 
-    private boolean hasTimeConflict(Instant start1, Instant end1, Instant start2, Instant end2) {
-        return start1.isBefore(end2) && end1.isAfter(start2);
-    }
-
-    private List<TimeSlotSuggestionDTO> generateTimeSlotSuggestions(ScheduleDTO proposedSchedule,
-            List<ScheduleEventDTO> existingEvents,
-            Instant startDate, Instant endDate) {
-        List<TimeSlotSuggestionDTO> suggestions = new ArrayList<>();
-
-        long durationMinutes = ChronoUnit.MINUTES.between(proposedSchedule.getStartTime(),
-                proposedSchedule.getEndTime());
-
-        // Generate suggestions for the same day
-        Instant dayStart = proposedSchedule.getStartTime().truncatedTo(ChronoUnit.DAYS).plus(8, ChronoUnit.HOURS); // 8
-                                                                                                                   // AM
-        Instant dayEnd = proposedSchedule.getStartTime().truncatedTo(ChronoUnit.DAYS).plus(18, ChronoUnit.HOURS); // 6
-                                                                                                                  // PM
-
-        // Find available slots
-        List<Instant> busyTimes = existingEvents.stream()
-                .filter(event -> event.getStartTime().truncatedTo(ChronoUnit.DAYS)
-                        .equals(proposedSchedule.getStartTime().truncatedTo(ChronoUnit.DAYS)))
-                .flatMap(event -> Arrays.stream(new Instant[] { event.getStartTime(), event.getEndTime() }))
-                .sorted()
-                .collect(Collectors.toList());
-
-        // Simple algorithm to find gaps
-        Instant currentTime = dayStart;
-        int priority = 1;
-
-        for (int i = 0; i < busyTimes.size() - 1; i += 2) {
-            Instant busyStart = busyTimes.get(i);
-            Instant busyEnd = busyTimes.get(i + 1);
-
-            // Check if there's a gap before this busy period
-            if (ChronoUnit.MINUTES.between(currentTime, busyStart) >= durationMinutes) {
-                suggestions.add(new TimeSlotSuggestionDTO(
-                        currentTime,
-                        currentTime.plus(durationMinutes, ChronoUnit.MINUTES),
-                        "Available slot before existing event",
-                        priority++));
-            }
-
-            currentTime = busyEnd;
-        }
-
-        // Check for slot after all busy periods
-        if (ChronoUnit.MINUTES.between(currentTime, dayEnd) >= durationMinutes) {
-            suggestions.add(new TimeSlotSuggestionDTO(
-                    currentTime,
-                    currentTime.plus(durationMinutes, ChronoUnit.MINUTES),
-                    "Available slot after existing events",
-                    priority++));
-        }
-
-        return suggestions.stream()
-                .limit(5) // Limit to top 5 suggestions
-                .collect(Collectors.toList());
-    }
-
     private String generateMeetingUrl(Schedule schedule) {
         // This would integrate with meeting platform (Zoom, Teams, etc.)
         // For now, return a placeholder URL
         return String.format("https://meeting.platform.com/join/%s", schedule.getId());
     }
 
-    private String generateICSContent(List<ScheduleEventDTO> events, UserProfile user) {
-        StringBuilder ics = new StringBuilder();
+    private void writeICSContent(List<ScheduleEventDTO> events, Writer ics, boolean feed) throws IOException {
         ics.append("BEGIN:VCALENDAR\r\n");
         ics.append("VERSION:2.0\r\n");
         ics.append("PRODID:-//Satori Platform//Calendar Export//EN\r\n");
         ics.append("CALSCALE:GREGORIAN\r\n");
+        if (feed) {
+            ics.append("REFRESH-INTERVAL;VALUE=DURATION:").append(FEED_REFRESH_INTERVAL).append("\r\n");
+            ics.append("X-PUBLISHED-TTL:").append(FEED_REFRESH_INTERVAL).append("\r\n");
+        }
 
         for (ScheduleEventDTO event : events) {
             ics.append("BEGIN:VEVENT\r\n");
-            ics.append("UID:").append(event.getId()).append("@satori.platform.com\r\n");
+            ics.append("UID:").append(String.valueOf(event.getId())).append("@satori.platform.com\r\n");
             ics.append("DTSTART:").append(formatICSDateTime(event.getStartTime())).append("\r\n");
             ics.append("DTEND:").append(formatICSDateTime(event.getEndTime())).append("\r\n");
             ics.append("SUMMARY:").append(event.getTitle()).append("\r\n");
@@ -410,12 +498,10 @@ public class CalendarService {
         }
 
         ics.append("END:VCALENDAR\r\n");
-        return ics.toString();
     }
 
-    private String generateGoogleCalendarUrl(List<ScheduleEventDTO> events) {
+    private void writeGoogleCalendarUrls(List<ScheduleEventDTO> events, Writer urls) throws IOException {
         // Generate Google Calendar import URLs
-        StringBuilder urls = new StringBuilder();
         urls.append("Google Calendar Import URLs:\n\n");
 
         for (ScheduleEventDTO event : events) {
@@ -428,38 +514,32 @@ public class CalendarService {
                     event.getLocation() != null ? event.getLocation().replace(" ", "+") : "");
             urls.append(url).append("\n\n");
         }
-
-        return urls.toString();
     }
 
-    private String generateOutlookCalendarContent(List<ScheduleEventDTO> events) {
-        StringBuilder csv = new StringBuilder();
+    private void writeOutlookCalendarContent(List<ScheduleEventDTO> events, Writer csv) throws IOException {
         csv.append("Subject,Start Date,Start Time,End Date,End Time,Description,Location\n");
 
+        ZoneId zone = ZoneId.systemDefault();
         for (ScheduleEventDTO event : events) {
-            LocalDateTime startDateTime = LocalDateTime.ofInstant(event.getStartTime(), ZoneId.systemDefault());
-            LocalDateTime endDateTime = LocalDateTime.ofInstant(event.getEndTime(), ZoneId.systemDefault());
+            LocalDateTime startDateTime = LocalDateTime.ofInstant(event.getStartTime(), zone);
+            LocalDateTime endDateTime = LocalDateTime.ofInstant(event.getEndTime(), zone);
 
             csv.append(String.format("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"\n",
                     event.getTitle(),
-                    startDateTime.format(DateTimeFormatter.ofPattern("MM/dd/yyyy")),
-                    startDateTime.format(DateTimeFormatter.ofPattern("HH:mm")),
-                    endDateTime.format(DateTimeFormatter.ofPattern("MM/dd/yyyy")),
-                    endDateTime.format(DateTimeFormatter.ofPattern("HH:mm")),
+                    startDateTime.format(OUTLOOK_DATE_FORMATTER),
+                    startDateTime.format(OUTLOOK_TIME_FORMATTER),
+                    endDateTime.format(OUTLOOK_DATE_FORMATTER),
+                    endDateTime.format(OUTLOOK_TIME_FORMATTER),
                     event.getDescription(),
                     event.getLocation() != null ? event.getLocation() : ""));
         }
-
-        return csv.toString();
     }
 
     private String formatICSDateTime(Instant instant) {
-        return LocalDateTime.ofInstant(instant, ZoneId.of("UTC"))
-                .format(DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'"));
+        return ICS_DATE_TIME_FORMATTER.format(instant);
     }
 
     private String formatGoogleDateTime(Instant instant) {
-        return LocalDateTime.ofInstant(instant, ZoneId.of("UTC"))
-                .format(DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'"));
+        return ICS_DATE_TIME_FORMATTER.format(instant);
     }
-}
\ No newline at end of file
+}
@@ -19,10 +19,14 @@ import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Enhanced Service Implementation for managing
@@ -43,6 +47,7 @@ public class EnhancedCourseService {
     private final StudentProgressRepository studentProgressRepository;
     private final GiftCodeService giftCodeService;
     private final NotificationService notificationService;
+    private final CacheManager cacheManager;
 
     public EnhancedCourseService(
             CourseRepository courseRepository,
@@ -51,7 +56,8 @@ public class EnhancedCourseService {
             StudentProfileRepository studentProfileRepository,
             StudentProgressRepository studentProgressRepository,
             GiftCodeService giftCodeService,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            CacheManager cacheManager) {
         this.courseRepository = courseRepository;
         this.courseMapper = courseMapper;
         this.userProfileRepository = userProfileRepository;
@@ -59,6 +65,7 @@ public class EnhancedCourseService {
         this.studentProgressRepository = studentProgressRepository;
         this.giftCodeService = giftCodeService;
         this.notificationService = notificationService;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -272,6 +279,8 @@ public class EnhancedCourseService {
     private void handleCourseDeletion(Course course) {
         // Remove student progress records
         studentProgressRepository.deleteByCourseId(course.getId());
+        // The course drops out of the feeds of all its students and its teacher
+        evictCalendarFeeds(null);
 
         // Deactivate related gift codes
         course.getGiftCodes().forEach(giftCode -> {
@@ -300,6 +309,29 @@ public class EnhancedCourseService {
             progress.setLastActivityDate(java.time.LocalDateTime.now());
 
             studentProgressRepository.save(progress);
+            evictCalendarFeeds(student.getUserProfile());
+        }
+    }
+
+    /**
+     * Drop the rendered calendar feed of a user whose enrollments changed, or
+     * every feed without a user. Dropped again after commit, so a feed
+     * rendered concurrently cannot keep the pre-commit enrollments.
+     */
+    private void evictCalendarFeeds(UserProfile user) {
+        Cache cache = cacheManager.getCache(CalendarService.CALENDAR_FEED_CACHE);
+        if (cache == null) {
+            return;
+        }
+        Runnable eviction = user != null && user.getId() != null ? () -> cache.evict(user.getId()) : cache::clear;
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
         }
     }
 
@@ -12,12 +12,14 @@ import com.satori.platform.repository.LessonRepository;
 import com.satori.platform.repository.UserProfileRepository;
 import com.satori.platform.service.dto.FileMetaDataDTO;
 import com.satori.platform.service.dto.LessonDTO;
+import com.satori.platform.service.event.LessonContentChangedEvent;
 import com.satori.platform.service.exception.InsufficientPermissionException;
 import com.satori.platform.service.mapper.LessonMapper;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -40,6 +42,8 @@ public class EnhancedLessonService {
     private final LessonMapper lessonMapper;
     private final FileManagementService fileManagementService;
     private final NotificationService notificationService;
+    private final AIGenerationCache aiGenerationCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EnhancedLessonService(
             LessonRepository lessonRepository,
@@ -49,7 +53,9 @@ public class EnhancedLessonService {
             StudentProgressRepository studentProgressRepository,
             LessonMapper lessonMapper,
             FileManagementService fileManagementService,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            AIGenerationCache aiGenerationCache,
+            ApplicationEventPublisher eventPublisher) {
         this.lessonRepository = lessonRepository;
         this.courseRepository = courseRepository;
         this.userProfileRepository = userProfileRepository;
@@ -58,6 +64,8 @@ public class EnhancedLessonService {
         this.lessonMapper = lessonMapper;
         this.fileManagementService = fileManagementService;
         this.notificationService = notificationService;
+        this.aiGenerationCache = aiGenerationCache;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -79,6 +87,8 @@ public class EnhancedLessonService {
 
         lesson = lessonRepository.save(lesson);
         LOG.info("Created new lesson with ID: {} by teacher: {}", lesson.getId(), teacherId);
+        aiGenerationCache.evictCourse(lessonDTO.getCourse().getId());
+        eventPublisher.publishEvent(new LessonContentChangedEvent(lesson.getId()));
 
         // Notify enrolled students of new lesson
         notifyStudentsOfNewLesson(lesson);
@@ -113,6 +123,8 @@ public class EnhancedLessonService {
 
         Lesson updatedLesson = lessonRepository.save(existingLesson);
         LOG.info("Updated lesson with ID: {} by teacher: {}", lessonId, teacherId);
+        aiGenerationCache.evictLesson(lessonId, existingLesson.getCourse().getId());
+        eventPublisher.publishEvent(new LessonContentChangedEvent(lessonId));
 
         // Notify enrolled students of lesson update
         notifyStudentsOfLessonUpdate(updatedLesson);
@@ -141,6 +153,8 @@ public class EnhancedLessonService {
 
         lessonRepository.delete(lesson);
         LOG.info("Deleted lesson with ID: {} by teacher: {}", lessonId, teacherId);
+        aiGenerationCache.evictLesson(lessonId, lesson.getCourse().getId());
+        eventPublisher.publishEvent(new LessonContentChangedEvent(lessonId));
     }
 
     /**
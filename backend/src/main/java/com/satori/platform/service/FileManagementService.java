@@ -8,6 +8,7 @@ import com.satori.platform.repository.LessonRepository;
 import com.satori.platform.repository.UserProfileRepository;
 import com.satori.platform.security.FileSecurityService;
 import com.satori.platform.service.dto.FileMetaDataDTO;
+import com.satori.platform.service.event.LessonContentChangedEvent;
 import com.satori.platform.service.exception.FileUploadException;
 import com.satori.platform.service.exception.InsufficientPermissionException;
 import com.satori.platform.service.mapper.FileMetaDataMapper;
@@ -26,6 +27,7 @@ import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -54,6 +56,7 @@ public class FileManagementService {
     private final UserProfileRepository userProfileRepository;
     private final FileMetaDataMapper fileMetaDataMapper;
     private final FileSecurityService fileSecurityService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${application.file-storage.path:uploads}")
     private String fileStoragePath;
@@ -63,12 +66,14 @@ public class FileManagementService {
             LessonRepository lessonRepository,
             UserProfileRepository userProfileRepository,
             FileMetaDataMapper fileMetaDataMapper,
-            FileSecurityService fileSecurityService) {
+            FileSecurityService fileSecurityService,
+            ApplicationEventPublisher eventPublisher) {
         this.fileMetaDataRepository = fileMetaDataRepository;
         this.lessonRepository = lessonRepository;
         this.userProfileRepository = userProfileRepository;
         this.fileMetaDataMapper = fileMetaDataMapper;
         this.fileSecurityService = fileSecurityService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -135,6 +140,7 @@ public class FileManagementService {
             fileMetadata.setUploadedBy(uploader);
 
             FileMetaData savedFile = fileMetaDataRepository.save(fileMetadata);
+            eventPublisher.publishEvent(new LessonContentChangedEvent(lessonId));
 
             log.debug("File uploaded successfully with ID: {}", savedFile.getId());
             return fileMetaDataMapper.toDto(savedFile);
@@ -207,6 +213,10 @@ public class FileManagementService {
             throw new InsufficientPermissionException("User does not have permission to delete this file");
         }
 
+        if (fileMetadata.getLesson() != null) {
+            eventPublisher.publishEvent(new LessonContentChangedEvent(fileMetadata.getLesson().getId()));
+        }
+
         try {
             // Delete file from disk
             Path filePath = Paths.get(fileMetadata.getFilePath());
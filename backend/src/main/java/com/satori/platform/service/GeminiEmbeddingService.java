@@ -2,6 +2,7 @@ package com.satori.platform.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,8 @@ public class GeminiEmbeddingService {
 
     private static final Logger log = LoggerFactory.getLogger(GeminiEmbeddingService.class);
 
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final RestTemplate restTemplate;
 
     @Value("${app.rag.embedding.gemini.api-key:}")
@@ -31,7 +34,7 @@ public class GeminiEmbeddingService {
     @Value("${app.rag.embedding.gemini.dimensions:768}")
     private int embeddingDimensions;
 
-    public GeminiEmbeddingService(RestTemplate restTemplate) {
+    public GeminiEmbeddingService(@Qualifier("geminiRestTemplate") RestTemplate restTemplate) {
         this.restTemplate = restTemplate;
     }
 
@@ -89,24 +92,71 @@ public class GeminiEmbeddingService {
 
     /**
      * Generate embeddings for multiple texts in batch.
+     * <p>
+     * Uses the {@code batchEmbedContents} endpoint, up to
+     * {@value #MAX_BATCH_SIZE} texts per call, and falls back to one call per
+     * text if a batch fails.
      *
      * @param texts the texts to embed
-     * @return list of embedding vectors
+     * @return list of embedding vectors, in the order of the texts
      */
     public List<List<Double>> generateEmbeddings(List<String> texts) {
         log.debug("Generating Gemini embeddings for {} texts", texts.size());
 
-        List<List<Double>> embeddings = new ArrayList<>();
-
-        // Gemini API doesn't support batch embedding in the same way as OpenAI
-        // So we'll process them individually
-        for (String text : texts) {
-            embeddings.add(generateEmbedding(text));
+        List<List<Double>> embeddings = new ArrayList<>(texts.size());
+        for (int from = 0; from < texts.size(); from += MAX_BATCH_SIZE) {
+            List<String> batch = texts.subList(from, Math.min(texts.size(), from + MAX_BATCH_SIZE));
+            List<List<Double>> batchEmbeddings = isConfigured() ? generateBatchEmbeddings(batch) : null;
+            if (batchEmbeddings == null) {
+                batchEmbeddings = new ArrayList<>(batch.size());
+                for (String text : batch) {
+                    batchEmbeddings.add(generateEmbedding(text));
+                }
+            }
+            embeddings.addAll(batchEmbeddings);
         }
 
         return embeddings;
     }
 
+    @SuppressWarnings("unchecked")
+    private List<List<Double>> generateBatchEmbeddings(List<String> texts) {
+        try {
+            String url = String.format("%s/v1/models/%s:batchEmbedContents?key=%s",
+                    geminiBaseUrl, geminiModel, geminiApiKey);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            List<Map<String, Object>> requests = new ArrayList<>(texts.size());
+            for (String text : texts) {
+                requests.add(Map.of(
+                        "model", "models/" + geminiModel,
+                        "content", Map.of("parts", List.of(Map.of("text", text)))));
+            }
+
+            ResponseEntity<Map<String, Object>> response = restTemplate.postForEntity(
+                    url, new HttpEntity<>(Map.of("requests", requests), headers),
+                    (Class<Map<String, Object>>) (Class<?>) Map.class);
+
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                List<Map<String, Object>> results = (List<Map<String, Object>>) response.getBody().get("embeddings");
+                if (results != null && results.size() == texts.size()) {
+                    List<List<Double>> embeddings = new ArrayList<>(results.size());
+                    for (Map<String, Object> result : results) {
+                        embeddings.add((List<Double>) result.get("values"));
+                    }
+                    return embeddings;
+                }
+            }
+
+            log.warn("Unexpected Gemini batch embedding response: {}", response.getStatusCode());
+        } catch (Exception e) {
+            log.warn("Failed to generate Gemini batch embeddings, embedding one by one: {}", e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Get the embedding dimensions for this model.
      *
@@ -17,16 +17,28 @@ import com.satori.platform.service.exception.GiftCodeException;
 import com.satori.platform.service.exception.GiftCodeInvalidException;
 import com.satori.platform.service.exception.GiftCodeUsageLimitException;
 import com.satori.platform.service.mapper.GiftCodeMapper;
+import com.satori.platform.service.util.BloomFilter;
+import java.io.IOException;
+import java.io.Writer;
 import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service Implementation for managing {@link GiftCode}.
@@ -39,6 +51,13 @@ public class GiftCodeService {
 
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final int DEFAULT_CODE_LENGTH = 8;
+    private static final int SEAT_CANDIDATES = 5;
+    private static final int POOL_BATCH_SIZE = 1000;
+    private static final int POOL_BATCH_ATTEMPTS = 3;
+    private static final double POOL_FALSE_POSITIVE_PROBABILITY = 0.001;
+    private static final String POOL_INSERT_SQL = "INSERT INTO giftcode "
+            + "(code, expiry_date, active, max_uses, current_uses, created_date, course_id, created_by_id) "
+            + "VALUES (?, ?, ?, ?, 0, ?, ?, ?)";
     private static final SecureRandom random = new SecureRandom();
 
     private final GiftCodeRepository giftCodeRepository;
@@ -46,18 +65,24 @@ public class GiftCodeService {
     private final CourseClassRepository courseClassRepository;
     private final UserProfileRepository userProfileRepository;
     private final GiftCodeMapper giftCodeMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
 
     public GiftCodeService(
             GiftCodeRepository giftCodeRepository,
             CourseRepository courseRepository,
             CourseClassRepository courseClassRepository,
             UserProfileRepository userProfileRepository,
-            GiftCodeMapper giftCodeMapper) {
+            GiftCodeMapper giftCodeMapper,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate) {
         this.giftCodeRepository = giftCodeRepository;
         this.courseRepository = courseRepository;
         this.courseClassRepository = courseClassRepository;
         this.userProfileRepository = userProfileRepository;
         this.giftCodeMapper = giftCodeMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
@@ -177,6 +202,133 @@ public class GiftCodeService {
         return giftCodeMapper.toDto(giftCode);
     }
 
+    /**
+     * Check that a code pool can be generated for a course and creator, so
+     * callers streaming the pool can reject the request before responding.
+     *
+     * @param courseId        the course ID
+     * @param createdByUserId the creator's user ID
+     * @throws GiftCodeException if the course or the user does not exist
+     */
+    @Transactional(readOnly = true)
+    public void validateCodePool(Long courseId, Long createdByUserId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new GiftCodeException("Course not found with id: " + courseId);
+        }
+        if (!userProfileRepository.existsById(createdByUserId)) {
+            throw new GiftCodeException("User not found with id: " + createdByUserId);
+        }
+    }
+
+    /**
+     * Generate a pool of gift codes for a promotion campaign and write them as
+     * CSV while they are created.
+     * <p>
+     * Existing codes are loaded once into a Bloom filter, so candidates are
+     * checked in memory instead of with one query each: a candidate the filter
+     * may contain is simply discarded. Codes are inserted with JDBC batches, one
+     * transaction per batch, and a batch is written to the CSV only after it is
+     * committed.
+     *
+     * @param courseId        the course ID
+     * @param count           the number of codes to generate
+     * @param validityDays    number of days the codes should be valid
+     * @param maxUses         maximum number of uses per code (null for unlimited)
+     * @param createdByUserId the user creating the codes
+     * @param prefix          an optional prefix shared by every code of the pool
+     * @param csv             the destination of the generated codes
+     * @return the number of generated codes
+     * @throws IOException if writing the CSV fails
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int generateCodePool(Long courseId, int count, Integer validityDays, Integer maxUses,
+            Long createdByUserId, String prefix, Writer csv) throws IOException {
+        log.debug("Request to generate a pool of {} gift codes for course: {}", count, courseId);
+
+        validateCodePool(courseId, createdByUserId);
+
+        String codePrefix = prefix != null ? prefix.trim().toUpperCase() : "";
+        LocalDateTime createdDate = LocalDateTime.now();
+        LocalDateTime expiryDate = createdDate.plusDays(validityDays != null ? validityDays : 30);
+
+        BloomFilter knownCodes = loadKnownCodes(count);
+
+        csv.append("code,course_id,expiry_date,max_uses\n");
+        int generated = 0;
+        long discarded = 0;
+        while (generated < count) {
+            int batchSize = Math.min(POOL_BATCH_SIZE, count - generated);
+            List<String> batch = null;
+            for (int attempt = 1; batch == null; attempt++) {
+                List<String> candidates = new ArrayList<>(batchSize);
+                while (candidates.size() < batchSize) {
+                    String candidate = codePrefix + generateRandomCode();
+                    if (knownCodes.mightContain(candidate)) {
+                        discarded++;
+                    } else {
+                        knownCodes.put(candidate);
+                        candidates.add(candidate);
+                    }
+                }
+                try {
+                    insertCodeBatch(candidates, expiryDate, maxUses, createdDate, courseId, createdByUserId);
+                    batch = candidates;
+                } catch (DuplicateKeyException e) {
+                    // A code was created elsewhere after the filter was loaded; retry with fresh codes
+                    if (attempt >= POOL_BATCH_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.warn("Gift code batch collided with an existing code, retrying (attempt {})", attempt);
+                }
+            }
+
+            for (String code : batch) {
+                csv.append(code).append(',')
+                        .append(String.valueOf(courseId)).append(',')
+                        .append(expiryDate.toString()).append(',')
+                        .append(maxUses != null ? maxUses.toString() : "")
+                        .append('\n');
+            }
+            csv.flush();
+            generated += batch.size();
+        }
+
+        log.info("Generated a pool of {} gift codes for course {} ({} candidates discarded by the filter)", generated,
+                courseId, discarded);
+        return generated;
+    }
+
+    private BloomFilter loadKnownCodes(int additionalCodes) {
+        return transactionTemplate.execute(status -> {
+            BloomFilter filter = BloomFilter.create(giftCodeRepository.count() + additionalCodes,
+                    POOL_FALSE_POSITIVE_PROBABILITY);
+            try (Stream<String> codes = giftCodeRepository.streamAllCodes()) {
+                codes.forEach(filter::put);
+            }
+            return filter;
+        });
+    }
+
+    private void insertCodeBatch(List<String> codes, LocalDateTime expiryDate, Integer maxUses,
+            LocalDateTime createdDate, Long courseId, Long createdByUserId) {
+        Timestamp expiry = Timestamp.valueOf(expiryDate);
+        Timestamp created = Timestamp.valueOf(createdDate);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(POOL_INSERT_SQL, codes,
+                codes.size(), (ps, code) -> {
+                    ps.setString(1, code);
+                    ps.setTimestamp(2, expiry);
+                    ps.setBoolean(3, true);
+                    if (maxUses != null) {
+                        ps.setInt(4, maxUses);
+                    } else {
+                        ps.setNull(4, Types.INTEGER);
+                    }
+                    ps.setTimestamp(5, created);
+                    ps.setLong(6, courseId);
+                    ps.setLong(7, createdByUserId);
+                }));
+    }
+
     /**
      * Validate a gift code without redeeming it.
      *
@@ -203,6 +355,11 @@ public class GiftCodeService {
         result.setRedemptionDate(LocalDateTime.now());
 
         try {
+            // Lock the student first, so concurrent redemptions by the same student
+            // are serialized and the enrollment check below sees the other's commit
+            UserProfile userProfile = userProfileRepository.findByIdForUpdate(studentUserId)
+                    .orElseThrow(() -> new GiftCodeException("User not found with id: " + studentUserId));
+
             // Find and validate the gift code
             GiftCode giftCode = giftCodeRepository.findValidByCode(code, LocalDateTime.now())
                     .orElseThrow(() -> new GiftCodeInvalidException(code));
@@ -212,10 +369,6 @@ public class GiftCodeService {
                 throw new GiftCodeUsageLimitException(code);
             }
 
-            // Find the student profile
-            UserProfile userProfile = userProfileRepository.findById(studentUserId)
-                    .orElseThrow(() -> new GiftCodeException("User not found with id: " + studentUserId));
-
             StudentProfile studentProfile = userProfile.getStudentProfile();
             if (studentProfile == null) {
                 throw new GiftCodeException("User is not a student");
@@ -223,36 +376,26 @@ public class GiftCodeService {
 
             // Check if student is already enrolled in the course
             Course course = giftCode.getCourse();
-            boolean alreadyEnrolled = studentProfile.getClasses().stream()
-                    .anyMatch(courseClass -> courseClass.getCourse().getId().equals(course.getId()));
-
-            if (alreadyEnrolled) {
+            if (courseClassRepository.isStudentEnrolledInCourse(course.getId(), studentProfile.getId())) {
                 result.setSuccess(false);
                 result.setMessage("Student is already enrolled in this course");
                 return result;
             }
 
-            // Find an active course class for enrollment
-            // For simplicity, we'll find the first available course class
-            // In a real scenario, you might want more sophisticated logic
-            List<CourseClass> availableClasses = courseClassRepository.findAll().stream()
-                    .filter(cc -> cc.getCourse().getId().equals(course.getId()))
-                    .filter(cc -> cc.getCapacity() == null || cc.getStudents().size() < cc.getCapacity())
-                    .toList();
-
-            if (availableClasses.isEmpty()) {
+            // Reserve a seat in the first class that still has one
+            Optional<CourseClass> courseClass = reserveSeat(course.getId());
+            if (courseClass.isEmpty()) {
                 result.setSuccess(false);
                 result.setMessage("No available classes for this course");
                 return result;
             }
 
-            // Enroll student in the first available class
-            CourseClass courseClass = availableClasses.get(0);
-            courseClass.addStudents(studentProfile);
-            courseClassRepository.save(courseClass);
+            // Claim a use atomically; fails if a concurrent redemption took the last one
+            if (giftCodeRepository.claimUse(giftCode.getId(), LocalDateTime.now()) == 0) {
+                throw new GiftCodeUsageLimitException(code);
+            }
 
-            // Increment usage count
-            giftCodeRepository.incrementUsageCount(giftCode.getId());
+            courseClassRepository.enrollStudent(courseClass.get().getId(), studentProfile.getId());
 
             // Set success result
             result.setSuccess(true);
@@ -273,6 +416,28 @@ public class GiftCodeService {
         return result;
     }
 
+    /**
+     * Find a class of the course with a free seat and keep its row locked until
+     * the end of the transaction, so that the seat cannot be taken concurrently.
+     *
+     * @param courseId the course ID
+     * @return the locked class, or empty if every class is full
+     */
+    private Optional<CourseClass> reserveSeat(Long courseId) {
+        List<Long> candidateIds = courseClassRepository.findIdsWithFreeSeatByCourseId(courseId,
+                PageRequest.of(0, SEAT_CANDIDATES));
+
+        for (Long candidateId : candidateIds) {
+            Optional<CourseClass> locked = courseClassRepository.findByIdForUpdate(candidateId);
+            // Re-check under the lock: the candidate query ran without one
+            if (locked.isPresent() && (locked.get().getCapacity() == null
+                    || courseClassRepository.countStudentsById(candidateId) < locked.get().getCapacity())) {
+                return locked;
+            }
+        }
+        return Optional.empty();
+    }
+
     /**
      * Expire a gift code manually.
      *
@@ -3,10 +3,12 @@ package com.satori.platform.service;
 import com.satori.platform.domain.Lesson;
 import com.satori.platform.repository.LessonRepository;
 import com.satori.platform.service.dto.LessonDTO;
+import com.satori.platform.service.event.LessonContentChangedEvent;
 import com.satori.platform.service.mapper.LessonMapper;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,9 +27,20 @@ public class LessonService {
 
     private final LessonMapper lessonMapper;
 
-    public LessonService(LessonRepository lessonRepository, LessonMapper lessonMapper) {
+    private final AIGenerationCache aiGenerationCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LessonService(
+        LessonRepository lessonRepository,
+        LessonMapper lessonMapper,
+        AIGenerationCache aiGenerationCache,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.lessonRepository = lessonRepository;
         this.lessonMapper = lessonMapper;
+        this.aiGenerationCache = aiGenerationCache;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -40,6 +53,7 @@ public class LessonService {
         LOG.debug("Request to save Lesson : {}", lessonDTO);
         Lesson lesson = lessonMapper.toEntity(lessonDTO);
         lesson = lessonRepository.save(lesson);
+        contentChanged(lesson);
         return lessonMapper.toDto(lesson);
     }
 
@@ -53,6 +67,7 @@ public class LessonService {
         LOG.debug("Request to update Lesson : {}", lessonDTO);
         Lesson lesson = lessonMapper.toEntity(lessonDTO);
         lesson = lessonRepository.save(lesson);
+        contentChanged(lesson);
         return lessonMapper.toDto(lesson);
     }
 
@@ -69,6 +84,7 @@ public class LessonService {
             .findById(lessonDTO.getId())
             .map(existingLesson -> {
                 lessonMapper.partialUpdate(existingLesson, lessonDTO);
+                contentChanged(existingLesson);
 
                 return existingLesson;
             })
@@ -107,6 +123,12 @@ public class LessonService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Lesson : {}", id);
+        lessonRepository.findById(id).ifPresent(this::contentChanged);
         lessonRepository.deleteById(id);
     }
+
+    private void contentChanged(Lesson lesson) {
+        aiGenerationCache.evictLesson(lesson.getId(), lesson.getCourse() != null ? lesson.getCourse().getId() : null);
+        eventPublisher.publishEvent(new LessonContentChangedEvent(lesson.getId()));
+    }
 }
@@ -0,0 +1,315 @@
+package com.satori.platform.service;
+
+import com.satori.platform.service.mail.DomainThrottle;
+import com.satori.platform.service.mail.MailSendResult;
+import com.satori.platform.service.mail.MailSendResult.Outcome;
+import com.satori.platform.service.mail.OutgoingMail;
+import com.satori.platform.service.mail.SmtpConnectionPool;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Sends batches of emails over a pool of persistent SMTP connections.
+ * <p>
+ * A batch is interleaved by recipient domain and drained by one worker per
+ * pooled connection; sends to one domain are spaced by a {@link DomainThrottle}.
+ * Every mail gets a {@link MailSendResult}, so callers can record bounces
+ * (5xx replies, invalid addresses) separately from failures worth retrying. A
+ * connection that fails mid-batch is replaced and the mail retried once, and
+ * one that reaches the per-connection message limit is replaced mid-batch.
+ * <p>
+ * Without a {@link JavaMailSenderImpl} (tests with a mocked sender) mails go
+ * through {@link JavaMailSender#send} one by one.
+ */
+@Service
+public class MailTransportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailTransportService.class);
+
+    private static final long MAX_THROTTLE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final JavaMailSender javaMailSender;
+    private final JHipsterProperties jHipsterProperties;
+    private final SmtpConnectionPool pool;
+    private final DomainThrottle throttle;
+    private final int maxConnections;
+    private final ExecutorService executor;
+
+    public MailTransportService(
+            JavaMailSender javaMailSender,
+            JHipsterProperties jHipsterProperties,
+            @Value("${app.mail.pool.max-connections:4}") int maxConnections,
+            @Value("${app.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${app.mail.pool.max-idle:PT1M}") Duration maxIdle,
+            @Value("${app.mail.pool.borrow-timeout:PT30S}") Duration borrowTimeout,
+            @Value("${app.mail.pool.domain-rate-per-second:10}") double domainRatePerSecond) {
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.maxConnections = Math.max(1, maxConnections);
+        this.throttle = new DomainThrottle(domainRatePerSecond);
+        if (javaMailSender instanceof JavaMailSenderImpl sender) {
+            this.pool = new SmtpConnectionPool(sender.getSession(), protocol(sender), sender.getHost(),
+                    sender.getPort(), sender.getUsername(), sender.getPassword(), this.maxConnections,
+                    maxMessagesPerConnection, maxIdle, borrowTimeout);
+        } else {
+            this.pool = null;
+        }
+        this.executor = Executors.newFixedThreadPool(this.maxConnections,
+                new CustomizableThreadFactory("mail-sender-"));
+    }
+
+    /**
+     * Send a batch of emails and wait for the outcome of each.
+     *
+     * @param mails the mails
+     * @return one result per mail, in the order of the mails
+     */
+    public List<MailSendResult> sendBatch(List<OutgoingMail> mails) {
+        if (mails.isEmpty()) {
+            return List.of();
+        }
+        if (pool == null) {
+            return mails.stream().map(this::sendUnpooled).toList();
+        }
+
+        AtomicReferenceArray<MailSendResult> results = new AtomicReferenceArray<>(mails.size());
+        Queue<Integer> queue = new ConcurrentLinkedQueue<>(interleaveByDomain(mails));
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(maxConnections, mails.size()); i++) {
+            workers.add(executor.submit(() -> drain(mails, queue, results)));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                LOG.error("Mail worker failed", e.getCause());
+            }
+        }
+
+        List<MailSendResult> ordered = new ArrayList<>(mails.size());
+        for (int i = 0; i < mails.size(); i++) {
+            MailSendResult result = results.get(i);
+            ordered.add(result != null ? result : new MailSendResult(mails.get(i), Outcome.TRANSIENT_FAILURE, "Not sent"));
+        }
+        return ordered;
+    }
+
+    /**
+     * @return the number of SMTP connections opened so far, or -1 without a
+     *         pool
+     */
+    public long getOpenedConnections() {
+        return pool != null ? pool.getOpenedConnections() : -1;
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.pool.eviction-interval-ms:30000}")
+    public void evictIdleConnections() {
+        if (pool != null) {
+            pool.evictIdle();
+        }
+        throttle.purge();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private static String protocol(JavaMailSenderImpl sender) {
+        // Same fallback as JavaMailSenderImpl#getTransport
+        if (sender.getProtocol() != null) {
+            return sender.getProtocol();
+        }
+        String protocol = sender.getSession().getProperty("mail.transport.protocol");
+        return protocol != null ? protocol : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+    }
+
+    private void drain(List<OutgoingMail> mails, Queue<Integer> queue, AtomicReferenceArray<MailSendResult> results) {
+        SmtpConnectionPool.Connection connection = null;
+        try {
+            Integer index;
+            while ((index = queue.poll()) != null) {
+                OutgoingMail mail = mails.get(index);
+                if (!awaitSlot(mail)) {
+                    results.set(index, new MailSendResult(mail, Outcome.TRANSIENT_FAILURE, "Interrupted"));
+                    continue;
+                }
+
+                MimeMessage message;
+                try {
+                    message = createMessage(mail);
+                } catch (MessagingException e) {
+                    results.set(index, new MailSendResult(mail, Outcome.PERMANENT_FAILURE, e.getMessage()));
+                    continue;
+                }
+
+                for (int attempt = 1;; attempt++) {
+                    try {
+                        if (connection == null) {
+                            connection = pool.borrow();
+                        }
+                        connection.send(message);
+                        results.set(index, MailSendResult.sent(mail));
+                        break;
+                    } catch (MessagingException e) {
+                        if (e instanceof SendFailedException) {
+                            // Rejected by the server; the connection stays usable
+                            results.set(index, new MailSendResult(mail, classify(e), describe(e)));
+                            break;
+                        }
+                        if (connection != null) {
+                            pool.release(connection, false);
+                            connection = null;
+                        }
+                        if (attempt >= 2) {
+                            results.set(index, new MailSendResult(mail, Outcome.TRANSIENT_FAILURE, describe(e)));
+                            break;
+                        }
+                        LOG.debug("SMTP connection failed, retrying on a new one: {}", e.getMessage());
+                    }
+                }
+                if (connection != null && pool.isSpent(connection)) {
+                    // Closed by the pool; the rest of the batch goes over a new connection
+                    pool.release(connection, true);
+                    connection = null;
+                }
+            }
+        } finally {
+            if (connection != null) {
+                pool.release(connection, true);
+            }
+        }
+    }
+
+    private boolean awaitSlot(OutgoingMail mail) {
+        long wait = Math.min(throttle.reserve(mail.domain()), MAX_THROTTLE_WAIT_NANOS);
+        if (wait <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private MimeMessage createMessage(OutgoingMail mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, false, StandardCharsets.UTF_8.name());
+        message.setTo(mail.to());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mail.subject());
+        message.setText(mail.body() != null ? mail.body() : "", mail.html());
+        mimeMessage.saveChanges();
+        return mimeMessage;
+    }
+
+    private MailSendResult sendUnpooled(OutgoingMail mail) {
+        try {
+            javaMailSender.send(createMessage(mail));
+            return MailSendResult.sent(mail);
+        } catch (MessagingException e) {
+            return new MailSendResult(mail, classify(e), describe(e));
+        } catch (MailException e) {
+            return new MailSendResult(mail, Outcome.TRANSIENT_FAILURE, e.getMessage());
+        }
+    }
+
+    /**
+     * Round-robin the mails over their recipient domains, so one large domain
+     * waiting on its throttle does not hold up the others.
+     *
+     * @return the indexes of the mails in sending order
+     */
+    static List<Integer> interleaveByDomain(List<OutgoingMail> mails) {
+        Map<String, List<Integer>> grouped = new LinkedHashMap<>();
+        for (int i = 0; i < mails.size(); i++) {
+            grouped.computeIfAbsent(mails.get(i).domain(), domain -> new ArrayList<>()).add(i);
+        }
+        List<Iterator<Integer>> byDomain = new ArrayList<>();
+        grouped.values().forEach(indexes -> byDomain.add(indexes.iterator()));
+
+        List<Integer> interleaved = new ArrayList<>(mails.size());
+        while (!byDomain.isEmpty()) {
+            Iterator<Iterator<Integer>> domains = byDomain.iterator();
+            while (domains.hasNext()) {
+                Iterator<Integer> domainMails = domains.next();
+                interleaved.add(domainMails.next());
+                if (!domainMails.hasNext()) {
+                    domains.remove();
+                }
+            }
+        }
+        return interleaved;
+    }
+
+    /**
+     * Tell bounces from failures worth retrying by the SMTP reply code.
+     */
+    static Outcome classify(MessagingException e) {
+        Exception current = e;
+        while (current != null) {
+            int code = switch (current) {
+                case SMTPAddressFailedException failed -> failed.getReturnCode();
+                case SMTPSendFailedException failed -> failed.getReturnCode();
+                case SMTPSenderFailedException failed -> failed.getReturnCode();
+                default -> 0;
+            };
+            if (code >= 500) {
+                return Outcome.PERMANENT_FAILURE;
+            }
+            if (code >= 400) {
+                return Outcome.TRANSIENT_FAILURE;
+            }
+            current = current instanceof MessagingException messaging ? messaging.getNextException() : null;
+        }
+        return e instanceof AddressException || e instanceof SendFailedException ? Outcome.PERMANENT_FAILURE
+                : Outcome.TRANSIENT_FAILURE;
+    }
+
+    private static String describe(MessagingException e) {
+        Exception next = e.getNextException();
+        return next != null && next.getMessage() != null ? e.getMessage() + ": " + next.getMessage().trim()
+                : e.getMessage();
+    }
+}
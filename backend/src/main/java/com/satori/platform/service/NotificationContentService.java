@@ -0,0 +1,190 @@
+package com.satori.platform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.satori.platform.domain.NotificationContent;
+import com.satori.platform.domain.NotificationDelivery;
+import com.satori.platform.domain.enumeration.NotificationType;
+import com.satori.platform.repository.NotificationContentRepository;
+import com.satori.platform.service.exception.NotificationDeliveryException;
+import com.satori.platform.service.util.PlaceholderTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Stores notification content rendered once for many recipients and merges it
+ * with each recipient's variables at send time.
+ * <p>
+ * Identical content is stored once: the content hash is unique, and new
+ * content is inserted in its own transaction so that a concurrent send of the
+ * same content can fall back to the row that won. Parsed templates are kept in a small LRU
+ * map keyed by content ID, so a bulk send parses each body once per instance.
+ */
+@Service
+@Transactional
+public class NotificationContentService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationContentService.class);
+
+    private static final TypeReference<Map<String, String>> VARIABLES_TYPE = new TypeReference<>() {
+    };
+
+    private final NotificationContentRepository notificationContentRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate newTransactionTemplate;
+    private final Map<Long, CompiledContent> compiled;
+
+    public NotificationContentService(
+            NotificationContentRepository notificationContentRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.notification.compiled-content-cache-size:256}") int cacheSize) {
+        this.notificationContentRepository = notificationContentRepository;
+        this.objectMapper = objectMapper;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.compiled = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CompiledContent> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Find or store shared content.
+     *
+     * @param type    the notification type
+     * @param channel the delivery channel
+     * @param locale  the language the content is rendered in
+     * @param subject the subject, may contain placeholders
+     * @param body    the body, may contain placeholders
+     * @return the stored content
+     */
+    public NotificationContent share(NotificationType type, String channel, String locale, String subject,
+            String body) {
+        String contentHash = hash(type.name(), channel, locale, subject, body);
+        return notificationContentRepository.findFirstByContentHash(contentHash).orElseGet(() -> {
+            try {
+                return newTransactionTemplate.execute(status -> notificationContentRepository.save(
+                        new NotificationContent(contentHash, type, channel, locale, subject, body)));
+            } catch (DataIntegrityViolationException e) {
+                LOG.debug("Notification content {} was stored concurrently", contentHash);
+                return newTransactionTemplate.execute(status -> notificationContentRepository
+                        .findFirstByContentHash(contentHash).orElseThrow(() -> e));
+            }
+        });
+    }
+
+    /**
+     * @param variables the recipient's placeholder values
+     * @return the values as stored on a delivery
+     */
+    public String writeVariables(Map<String, String> variables) {
+        try {
+            return objectMapper.writeValueAsString(variables);
+        } catch (JsonProcessingException e) {
+            throw new NotificationDeliveryException("Failed to serialize notification variables", e);
+        }
+    }
+
+    /**
+     * Produce the final subject and body of a delivery. Deliveries without
+     * shared content carry their own.
+     *
+     * @param delivery the delivery to send
+     * @return the merged subject and body; values are HTML-escaped in email
+     *         bodies
+     */
+    @Transactional(readOnly = true)
+    public RenderedNotification render(NotificationDelivery delivery) {
+        if (delivery.getContentId() == null) {
+            return new RenderedNotification(delivery.getSubject(), delivery.getContent());
+        }
+
+        CompiledContent content = compiled(delivery.getContentId());
+        Map<String, String> variables = readVariables(delivery.getVariables());
+        boolean html = "EMAIL".equalsIgnoreCase(delivery.getDeliveryChannel());
+        return new RenderedNotification(content.subject().merge(variables, false),
+                content.body().merge(variables, html));
+    }
+
+    /**
+     * Delete content that no delivery references any more.
+     *
+     * @param cutoffDate only content created before this is deleted
+     * @return the number of deleted rows
+     */
+    public int deleteUnreferenced(Instant cutoffDate) {
+        return notificationContentRepository.deleteUnreferenced(cutoffDate);
+    }
+
+    private CompiledContent compiled(Long contentId) {
+        synchronized (compiled) {
+            CompiledContent content = compiled.get(contentId);
+            if (content != null) {
+                return content;
+            }
+        }
+
+        NotificationContent stored = notificationContentRepository.findById(contentId)
+                .orElseThrow(() -> new NotificationDeliveryException("Notification content " + contentId + " not found"));
+        CompiledContent content = new CompiledContent(PlaceholderTemplate.compile(stored.getSubject()),
+                PlaceholderTemplate.compile(stored.getBody()));
+        synchronized (compiled) {
+            compiled.put(contentId, content);
+        }
+        return content;
+    }
+
+    private Map<String, String> readVariables(String variables) {
+        if (variables == null || variables.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(variables, VARIABLES_TYPE);
+        } catch (JsonProcessingException e) {
+            LOG.warn("Ignoring unreadable notification variables: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static String hash(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(Objects.toString(part, "").getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CompiledContent(PlaceholderTemplate subject, PlaceholderTemplate body) {
+    }
+
+    /**
+     * The final subject and body of a delivery.
+     */
+    public record RenderedNotification(String subject, String body) {
+    }
+}
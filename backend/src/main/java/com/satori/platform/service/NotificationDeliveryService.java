@@ -1,22 +1,31 @@
 package com.satori.platform.service;
 
+import com.satori.platform.domain.NotificationContent;
 import com.satori.platform.domain.NotificationDelivery;
 import com.satori.platform.domain.UserProfile;
 import com.satori.platform.domain.enumeration.DeliveryStatus;
 import com.satori.platform.domain.enumeration.NotificationType;
 import com.satori.platform.repository.NotificationDeliveryRepository;
+import com.satori.platform.service.NotificationContentService.RenderedNotification;
 import com.satori.platform.service.dto.NotificationContentDTO;
+import com.satori.platform.service.event.NotificationScheduledEvent;
 import com.satori.platform.service.exception.NotificationDeliveryException;
+import com.satori.platform.service.mail.MailSendResult;
+import com.satori.platform.service.mail.OutgoingMail;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.ZoneId;
@@ -24,6 +33,7 @@ import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +46,13 @@ import java.util.stream.Collectors;
  * Service for managing notification delivery queue, retry mechanism, and
  * tracking.
  * Provides comprehensive notification delivery management with analytics.
+ * <p>
+ * Delivery runs outside of any database transaction: notifications are
+ * claimed and committed first, then sent, and the outcomes are recorded in a
+ * second transaction, so no connection or row lock is held while a mail server
+ * or a throttled domain is waited on. A claim is a lease: notifications left
+ * claimed for longer than {@code app.notification.claim-lease-minutes}, because
+ * the instance sending them went down, are released and delivered again.
  */
 @Service
 @Transactional
@@ -44,9 +61,13 @@ public class NotificationDeliveryService {
     private static final Logger LOG = LoggerFactory.getLogger(NotificationDeliveryService.class);
 
     private final NotificationDeliveryRepository notificationDeliveryRepository;
-    private final MailService mailService;
+    private final MailTransportService mailTransportService;
     private final PushNotificationService pushNotificationService;
+    private final NotificationContentService notificationContentService;
+    private final NotificationTemplateService notificationTemplateService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.notification.batch-size:50}")
     private int batchSize;
@@ -60,15 +81,26 @@ public class NotificationDeliveryService {
     @Value("${app.notification.cleanup-days:30}")
     private int cleanupDays;
 
+    @Value("${app.notification.claim-lease-minutes:15}")
+    private int claimLeaseMinutes;
+
     public NotificationDeliveryService(
             NotificationDeliveryRepository notificationDeliveryRepository,
-            MailService mailService,
+            MailTransportService mailTransportService,
             PushNotificationService pushNotificationService,
-            ObjectMapper objectMapper) {
+            NotificationContentService notificationContentService,
+            NotificationTemplateService notificationTemplateService,
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager) {
         this.notificationDeliveryRepository = notificationDeliveryRepository;
-        this.mailService = mailService;
+        this.mailTransportService = mailTransportService;
         this.pushNotificationService = pushNotificationService;
+        this.notificationContentService = notificationContentService;
+        this.notificationTemplateService = notificationTemplateService;
         this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -86,6 +118,41 @@ public class NotificationDeliveryService {
     public NotificationDelivery queueNotification(UserProfile recipient, NotificationContentDTO content,
             NotificationType type, String channel,
             Instant scheduledAt, String timezone) {
+        return queueNotification(recipient, content, type, channel, scheduledAt, timezone,
+                shareContent(content, type, channel));
+    }
+
+    /**
+     * Queue bulk notifications for batch delivery. Shared content is stored
+     * once and referenced by every delivery.
+     */
+    public List<NotificationDelivery> queueBulkNotifications(List<UserProfile> recipients,
+            NotificationContentDTO content,
+            NotificationType type, String channel) {
+        LOG.debug("Queueing bulk {} notifications for {} recipients via channel: {}",
+                type, recipients.size(), channel);
+
+        NotificationContent sharedContent = shareContent(content, type, channel);
+        List<NotificationDelivery> deliveries = new ArrayList<>();
+
+        for (UserProfile recipient : recipients) {
+            try {
+                NotificationDelivery delivery = queueNotification(recipient, content, type, channel, null, null,
+                        sharedContent);
+                deliveries.add(delivery);
+            } catch (Exception e) {
+                LOG.error("Failed to queue notification for recipient: {}", recipient.getUsername(), e);
+                // Continue with other recipients
+            }
+        }
+
+        LOG.debug("Successfully queued {} out of {} bulk notifications", deliveries.size(), recipients.size());
+        return deliveries;
+    }
+
+    private NotificationDelivery queueNotification(UserProfile recipient, NotificationContentDTO content,
+            NotificationType type, String channel,
+            Instant scheduledAt, String timezone, NotificationContent sharedContent) {
         LOG.debug("Queueing {} notification for user: {} via channel: {}", type, recipient.getUsername(), channel);
 
         try {
@@ -93,15 +160,28 @@ public class NotificationDeliveryService {
             Instant adjustedScheduledAt = adjustForTimezone(scheduledAt, timezone);
 
             String subject = getSubjectForChannel(content, channel);
-            String contentText = getContentForChannel(content, channel);
-
-            NotificationDelivery delivery = new NotificationDelivery(
-                    recipient.getId(),
-                    recipient.getEmail(),
-                    type,
-                    channel,
-                    subject,
-                    contentText);
+            NotificationDelivery delivery;
+            if (sharedContent != null) {
+                // Reference the shared rendering; only the recipient's values are stored
+                delivery = new NotificationDelivery(
+                        recipient.getId(),
+                        recipient.getEmail(),
+                        type,
+                        channel,
+                        subject,
+                        null);
+                delivery.setContentId(sharedContent.getId());
+                delivery.setVariables(notificationContentService
+                        .writeVariables(notificationTemplateService.recipientVariables(recipient)));
+            } else {
+                delivery = new NotificationDelivery(
+                        recipient.getId(),
+                        recipient.getEmail(),
+                        type,
+                        channel,
+                        subject,
+                        getContentForChannel(content, channel));
+            }
 
             delivery.setScheduledAt(adjustedScheduledAt);
             delivery.setMaxRetries(maxRetries);
@@ -118,6 +198,9 @@ public class NotificationDeliveryService {
 
             NotificationDelivery saved = notificationDeliveryRepository.save(delivery);
             LOG.debug("Queued notification with ID: {} for delivery", saved.getId());
+            if (saved.getStatus() == DeliveryStatus.SCHEDULED) {
+                eventPublisher.publishEvent(new NotificationScheduledEvent(saved.getId(), saved.getScheduledAt()));
+            }
 
             return saved;
 
@@ -128,28 +211,16 @@ public class NotificationDeliveryService {
     }
 
     /**
-     * Queue bulk notifications for batch delivery
+     * Store the channel's rendering of shared content, or return null when the
+     * content was rendered for a single recipient
      */
-    public List<NotificationDelivery> queueBulkNotifications(List<UserProfile> recipients,
-            NotificationContentDTO content,
-            NotificationType type, String channel) {
-        LOG.debug("Queueing bulk {} notifications for {} recipients via channel: {}",
-                type, recipients.size(), channel);
-
-        List<NotificationDelivery> deliveries = new ArrayList<>();
-
-        for (UserProfile recipient : recipients) {
-            try {
-                NotificationDelivery delivery = queueNotification(recipient, content, type, channel);
-                deliveries.add(delivery);
-            } catch (Exception e) {
-                LOG.error("Failed to queue notification for recipient: {}", recipient.getUsername(), e);
-                // Continue with other recipients
-            }
+    private NotificationContent shareContent(NotificationContentDTO content, NotificationType type,
+            String channel) {
+        if (!content.isShared()) {
+            return null;
         }
-
-        LOG.debug("Successfully queued {} out of {} bulk notifications", deliveries.size(), recipients.size());
-        return deliveries;
+        return notificationContentService.share(type, channel.toUpperCase(), content.getLocale(),
+                getSubjectForChannel(content, channel), getContentForChannel(content, channel));
     }
 
     /**
@@ -157,15 +228,23 @@ public class NotificationDeliveryService {
      * Runs every 5 minutes
      */
     @Scheduled(fixedRate = 300000) // 5 minutes
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processPendingNotifications() {
         LOG.debug("Processing pending notifications");
 
         try {
-            List<NotificationDelivery> pendingNotifications = notificationDeliveryRepository
-                    .findPendingNotifications(DeliveryStatus.PENDING, Instant.now())
-                    .stream()
-                    .limit(batchSize)
-                    .collect(Collectors.toList());
+            List<NotificationDelivery> pendingNotifications = transactionTemplate.execute(status -> {
+                Instant now = Instant.now();
+                List<Long> claimed = notificationDeliveryRepository
+                        .findPendingNotifications(DeliveryStatus.PENDING, now)
+                        .stream()
+                        .limit(batchSize)
+                        .map(NotificationDelivery::getId)
+                        .filter(id -> notificationDeliveryRepository.claim(id, DeliveryStatus.PENDING,
+                                DeliveryStatus.PROCESSING, now) == 1)
+                        .collect(Collectors.toList());
+                return claimed.isEmpty() ? List.of() : notificationDeliveryRepository.findAllById(claimed);
+            });
 
             if (pendingNotifications.isEmpty()) {
                 LOG.debug("No pending notifications to process");
@@ -174,8 +253,13 @@ public class NotificationDeliveryService {
 
             LOG.debug("Processing {} pending notifications", pendingNotifications.size());
 
-            // Process notifications in parallel for better performance
-            List<CompletableFuture<Void>> futures = pendingNotifications.stream()
+            // Emails go out as one batch over pooled SMTP connections
+            Map<Boolean, List<NotificationDelivery>> byEmail = pendingNotifications.stream()
+                    .collect(Collectors.partitioningBy(NotificationDeliveryService::isEmail));
+            dispatchEmails(byEmail.get(true));
+
+            // Process other notifications in parallel for better performance
+            List<CompletableFuture<Void>> futures = byEmail.get(false).stream()
                     .map(this::processNotificationAsync)
                     .collect(Collectors.toList());
 
@@ -190,35 +274,39 @@ public class NotificationDeliveryService {
     }
 
     /**
-     * Process scheduled notifications
-     * Runs every 10 minutes
+     * Deliver scheduled notifications that have come due. Each one is claimed
+     * first, so a notification that another instance already sent, or that was
+     * cancelled or rescheduled, is skipped.
+     *
+     * @param deliveryIds the IDs of the due notifications
+     * @return the IDs that were not claimed
      */
-    @Scheduled(fixedRate = 600000) // 10 minutes
-    public void processScheduledNotifications() {
-        LOG.debug("Processing scheduled notifications");
-
-        try {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Long> deliverDueScheduled(Collection<Long> deliveryIds) {
+        List<Long> claimed = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        List<NotificationDelivery> notifications = transactionTemplate.execute(status -> {
             Instant now = Instant.now();
-            List<NotificationDelivery> scheduledNotifications = notificationDeliveryRepository
-                    .findScheduledNotifications(DeliveryStatus.SCHEDULED, now.minus(10, ChronoUnit.MINUTES), now);
-
-            if (scheduledNotifications.isEmpty()) {
-                LOG.debug("No scheduled notifications ready for delivery");
-                return;
-            }
-
-            LOG.debug("Processing {} scheduled notifications", scheduledNotifications.size());
-
-            for (NotificationDelivery notification : scheduledNotifications) {
-                notification.setStatus(DeliveryStatus.PENDING);
-                notificationDeliveryRepository.save(notification);
+            for (Long deliveryId : deliveryIds) {
+                if (notificationDeliveryRepository.claimScheduled(deliveryId, DeliveryStatus.SCHEDULED,
+                        DeliveryStatus.PROCESSING, now) == 1) {
+                    claimed.add(deliveryId);
+                } else {
+                    skipped.add(deliveryId);
+                }
             }
-
-            LOG.debug("Moved {} scheduled notifications to pending", scheduledNotifications.size());
-
-        } catch (Exception e) {
-            LOG.error("Error processing scheduled notifications", e);
+            return claimed.isEmpty() ? List.of() : notificationDeliveryRepository.findAllById(claimed);
+        });
+        if (notifications.isEmpty()) {
+            return skipped;
         }
+
+        LOG.debug("Delivering {} scheduled notifications", notifications.size());
+        Map<Boolean, List<NotificationDelivery>> byEmail = notifications.stream()
+                .collect(Collectors.partitioningBy(NotificationDeliveryService::isEmail));
+        dispatchEmails(byEmail.get(true));
+        byEmail.get(false).forEach(this::processNotification);
+        return skipped;
     }
 
     /**
@@ -257,6 +345,27 @@ public class NotificationDeliveryService {
         }
     }
 
+    /**
+     * Release notifications claimed longer than the lease ago, which an
+     * instance claimed and never recorded the outcome of
+     * Runs every 5 minutes
+     */
+    @Scheduled(fixedRate = 300000) // 5 minutes
+    public void releaseExpiredClaims() {
+        try {
+            Instant claimedBefore = Instant.now().minus(claimLeaseMinutes, ChronoUnit.MINUTES);
+            int released = notificationDeliveryRepository.releaseClaims(DeliveryStatus.PROCESSING,
+                    DeliveryStatus.PENDING, claimedBefore)
+                    + notificationDeliveryRepository.releaseScheduledClaims(DeliveryStatus.PROCESSING,
+                            DeliveryStatus.SCHEDULED, claimedBefore);
+            if (released > 0) {
+                LOG.warn("Released {} notifications claimed more than {} minutes ago", released, claimLeaseMinutes);
+            }
+        } catch (Exception e) {
+            LOG.error("Error releasing expired notification claims", e);
+        }
+    }
+
     /**
      * Clean up old notifications
      * Runs daily at 3 AM
@@ -271,10 +380,13 @@ public class NotificationDeliveryService {
                     DeliveryStatus.DELIVERED,
                     DeliveryStatus.FAILED,
                     DeliveryStatus.CANCELLED,
-                    DeliveryStatus.EXPIRED);
+                    DeliveryStatus.EXPIRED,
+                    DeliveryStatus.BOUNCED);
 
             int deletedCount = notificationDeliveryRepository.deleteOldNotifications(cutoffDate, finalStatuses);
-            LOG.info("Cleaned up {} old notifications older than {} days", deletedCount, cleanupDays);
+            int deletedContents = notificationContentService.deleteUnreferenced(cutoffDate);
+            LOG.info("Cleaned up {} old notifications and {} shared contents older than {} days", deletedCount,
+                    deletedContents, cleanupDays);
 
         } catch (Exception e) {
             LOG.error("Error cleaning up old notifications", e);
@@ -324,6 +436,11 @@ public class NotificationDeliveryService {
         LOG.debug("Processing notification ID: {} for recipient: {}",
                 notification.getId(), notification.getRecipientEmail());
 
+        if (isEmail(notification)) {
+            dispatchEmails(List.of(notification));
+            return;
+        }
+
         try {
             notification.setStatus(DeliveryStatus.PROCESSING);
             notification.setSentAt(Instant.now());
@@ -331,13 +448,11 @@ public class NotificationDeliveryService {
 
             boolean success = false;
             String externalId = null;
+            RenderedNotification rendered = notificationContentService.render(notification);
 
             switch (notification.getDeliveryChannel().toUpperCase()) {
-                case "EMAIL":
-                    success = sendEmailNotification(notification);
-                    break;
                 case "PUSH":
-                    externalId = sendPushNotification(notification);
+                    externalId = sendPushNotification(notification, rendered);
                     success = externalId != null;
                     break;
                 case "IN_APP":
@@ -369,27 +484,62 @@ public class NotificationDeliveryService {
     }
 
     /**
-     * Send email notification
+     * Send claimed email notifications as one batch, then record each outcome
+     * in one transaction: sent, failed with a retry, or bounced
      */
-    private boolean sendEmailNotification(NotificationDelivery notification) {
-        try {
-            mailService.sendEmail(
-                    notification.getRecipientEmail(),
-                    notification.getSubject(),
-                    notification.getContent(),
-                    false,
-                    true);
-            return true;
-        } catch (Exception e) {
-            LOG.error("Failed to send email notification", e);
-            return false;
+    private void dispatchEmails(List<NotificationDelivery> notifications) {
+        if (notifications.isEmpty()) {
+            return;
         }
+
+        List<OutgoingMail> mails = new ArrayList<>(notifications.size());
+        Map<Long, NotificationDelivery> byId = new HashMap<>();
+        for (NotificationDelivery notification : notifications) {
+            notification.setStatus(DeliveryStatus.PROCESSING);
+            notification.setSentAt(Instant.now());
+            try {
+                RenderedNotification rendered = notificationContentService.render(notification);
+                mails.add(new OutgoingMail(notification.getId(), notification.getRecipientEmail(),
+                        rendered.subject(), rendered.body(), true));
+                byId.put(notification.getId(), notification);
+            } catch (Exception e) {
+                LOG.error("Error rendering notification ID: {}", notification.getId(), e);
+                handleNotificationFailure(notification, e.getMessage());
+            }
+        }
+
+        for (MailSendResult result : mailTransportService.sendBatch(mails)) {
+            NotificationDelivery notification = byId.get(result.mail().id());
+            switch (result.outcome()) {
+                case SENT:
+                    notification.setStatus(DeliveryStatus.SENT);
+                    notification.setDeliveredAt(Instant.now());
+                    break;
+                case PERMANENT_FAILURE:
+                    notification.setStatus(DeliveryStatus.BOUNCED);
+                    notification.setFailedAt(Instant.now());
+                    notification.setFailureReason(truncate(result.reason()));
+                    LOG.warn("Notification ID: {} bounced: {}", notification.getId(), result.reason());
+                    break;
+                default:
+                    handleNotificationFailure(notification, truncate(result.reason()));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> notificationDeliveryRepository.saveAll(notifications));
+    }
+
+    private static boolean isEmail(NotificationDelivery notification) {
+        return "EMAIL".equalsIgnoreCase(notification.getDeliveryChannel());
+    }
+
+    private static String truncate(String reason) {
+        return reason != null && reason.length() > 1000 ? reason.substring(0, 1000) : reason;
     }
 
     /**
      * Send push notification
      */
-    private String sendPushNotification(NotificationDelivery notification) {
+    private String sendPushNotification(NotificationDelivery notification, RenderedNotification rendered) {
         try {
             // Extract push data from metadata
             Map<String, String> pushData = extractPushDataFromMetadata(notification.getMetadata());
@@ -397,7 +547,8 @@ public class NotificationDeliveryService {
             // For now, we'll use the existing push service which doesn't return external ID
             // In a real implementation, you'd modify PushNotificationService to return FCM
             // message ID
-            // pushNotificationService.sendPushNotification(user, title, message, pushData);
+            // pushNotificationService.sendPushNotification(user, rendered.subject(),
+            // rendered.body(), pushData);
 
             // Simulate external ID for now
             return "fcm_" + UUID.randomUUID().toString();
@@ -0,0 +1,264 @@
+package com.satori.platform.service;
+
+import com.satori.platform.domain.NotificationPreference;
+import com.satori.platform.domain.enumeration.NotificationType;
+import com.satori.platform.repository.NotificationPreferenceRepository;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory matrix of user × {@link NotificationType} notification
+ * preferences, so fan-out checks cost no queries.
+ * <p>
+ * Each user is one row: a bit mask of the types they turned off plus, only
+ * when set, the preferred time of day and its resolved {@link ZoneId} per type.
+ * Rows are loaded in bulk with {@link #preload} and dropped whenever
+ * {@link NotificationPreferenceService} or {@link NotificationService} writes a
+ * preference of the user. A type without a preference is enabled at any time.
+ */
+@Service
+@Transactional(readOnly = true)
+public class NotificationPreferenceMatrix {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationPreferenceMatrix.class);
+
+    /** Notifications are sent within this many seconds of the preferred time */
+    private static final int PREFERRED_TIME_TOLERANCE_SECONDS = 7200;
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private static final NotificationType[] TYPES = NotificationType.values();
+
+    private final NotificationPreferenceRepository notificationPreferenceRepository;
+
+    private final Map<Long, PreferenceRow> rows = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public NotificationPreferenceMatrix(NotificationPreferenceRepository notificationPreferenceRepository) {
+        this.notificationPreferenceRepository = notificationPreferenceRepository;
+    }
+
+    /**
+     * Load the rows of the given users that are not loaded yet, in as few
+     * queries as possible.
+     *
+     * @param userProfileIds the users about to be notified
+     */
+    public void preload(Collection<Long> userProfileIds) {
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long userProfileId : userProfileIds) {
+            if (userProfileId != null && !rows.containsKey(userProfileId)) {
+                missing.add(userProfileId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(missing);
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            load(ids.subList(from, Math.min(ids.size(), from + LOAD_BATCH_SIZE)));
+        }
+    }
+
+    /**
+     * @param userProfileId the user
+     * @param type          the notification type
+     * @return false only if the user turned the type off
+     */
+    public boolean isEnabled(Long userProfileId, NotificationType type) {
+        return row(userProfileId).isEnabled(type);
+    }
+
+    /**
+     * @param userProfileId the user
+     * @param type          the notification type
+     * @param now           the current instant
+     * @return true if the type has no preferred time, or {@code now} is within
+     *         two hours of it in the user's time zone
+     */
+    public boolean isWithinPreferredTime(Long userProfileId, NotificationType type, Instant now) {
+        return row(userProfileId).isWithinPreferredTime(type, now);
+    }
+
+    /**
+     * @param userProfileId the user
+     * @param type          the notification type
+     * @param after         the instant to search from
+     * @return the first occurrence of the user's preferred time for the type
+     *         after {@code after}, or empty if the type has no preferred time
+     */
+    public Optional<Instant> nextPreferredTime(Long userProfileId, NotificationType type, Instant after) {
+        return row(userProfileId).nextPreferredTime(type, after);
+    }
+
+    /**
+     * Drop the row of a user whose preferences changed. When called inside a
+     * transaction the row is dropped again after commit, so a concurrent load
+     * cannot keep the pre-commit state.
+     *
+     * @param userProfileId the user
+     */
+    public void evict(Long userProfileId) {
+        if (userProfileId == null) {
+            return;
+        }
+        evictRow(userProfileId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictRow(userProfileId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop every row, picking up changes made by other instances.
+     */
+    @Scheduled(fixedDelayString = "${app.notification.preference-matrix-refresh-ms:3600000}")
+    public void evictAll() {
+        generation.incrementAndGet();
+        rows.clear();
+    }
+
+    private void evictRow(Long userProfileId) {
+        generation.incrementAndGet();
+        rows.remove(userProfileId);
+    }
+
+    private PreferenceRow row(Long userProfileId) {
+        if (userProfileId == null) {
+            return PreferenceRow.DEFAULT;
+        }
+        PreferenceRow row = rows.get(userProfileId);
+        if (row == null) {
+            row = load(List.of(userProfileId)).get(userProfileId);
+        }
+        return row;
+    }
+
+    private Map<Long, PreferenceRow> load(List<Long> userProfileIds) {
+        long loadedGeneration = generation.get();
+        Map<Long, List<NotificationPreference>> byUser = new HashMap<>();
+        for (NotificationPreference preference : notificationPreferenceRepository.findByUserProfileIdIn(userProfileIds)) {
+            byUser.computeIfAbsent(preference.getUserProfile().getId(), id -> new ArrayList<>()).add(preference);
+        }
+
+        Map<Long, PreferenceRow> loaded = new HashMap<>();
+        for (Long userProfileId : userProfileIds) {
+            List<NotificationPreference> preferences = byUser.get(userProfileId);
+            loaded.put(userProfileId, preferences == null ? PreferenceRow.DEFAULT : PreferenceRow.of(preferences));
+        }
+        // Only publish the rows if no preference changed while they were being loaded
+        if (generation.get() == loadedGeneration) {
+            rows.putAll(loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * The preferences of one user. Bit {@code i} of a mask is
+     * {@code NotificationType.values()[i]}; the time arrays are null when no
+     * type has a preferred time.
+     */
+    static final class PreferenceRow {
+
+        static final PreferenceRow DEFAULT = new PreferenceRow(0, null, null);
+
+        private final int disabled;
+        private final int[] preferredSecondOfDay;
+        private final ZoneId[] zones;
+
+        private PreferenceRow(int disabled, int[] preferredSecondOfDay, ZoneId[] zones) {
+            this.disabled = disabled;
+            this.preferredSecondOfDay = preferredSecondOfDay;
+            this.zones = zones;
+        }
+
+        static PreferenceRow of(List<NotificationPreference> preferences) {
+            int disabled = 0;
+            int[] preferredSecondOfDay = null;
+            ZoneId[] zones = null;
+            for (NotificationPreference preference : preferences) {
+                if (preference.getNotificationType() == null) {
+                    continue;
+                }
+                int bit = preference.getNotificationType().ordinal();
+                if (Boolean.FALSE.equals(preference.getEnabled())) {
+                    disabled |= 1 << bit;
+                }
+                if (preference.getPreferredTime() != null) {
+                    if (preferredSecondOfDay == null) {
+                        preferredSecondOfDay = new int[TYPES.length];
+                        zones = new ZoneId[TYPES.length];
+                    }
+                    preferredSecondOfDay[bit] = preference.getPreferredTime().toSecondOfDay();
+                    zones[bit] = resolveZone(preference.getTimezone());
+                }
+            }
+            return disabled == 0 && preferredSecondOfDay == null ? DEFAULT
+                    : new PreferenceRow(disabled, preferredSecondOfDay, zones);
+        }
+
+        boolean isEnabled(NotificationType type) {
+            return (disabled & (1 << type.ordinal())) == 0;
+        }
+
+        boolean isWithinPreferredTime(NotificationType type, Instant now) {
+            int bit = type.ordinal();
+            if (zones == null || zones[bit] == null) {
+                return true;
+            }
+            int currentSecondOfDay = now.atZone(zones[bit]).toLocalTime().toSecondOfDay();
+            return Math.abs(currentSecondOfDay - preferredSecondOfDay[bit]) <= PREFERRED_TIME_TOLERANCE_SECONDS;
+        }
+
+        Optional<Instant> nextPreferredTime(NotificationType type, Instant after) {
+            int bit = type.ordinal();
+            if (zones == null || zones[bit] == null) {
+                return Optional.empty();
+            }
+            ZonedDateTime next = after.atZone(zones[bit]).toLocalDate()
+                    .atTime(LocalTime.ofSecondOfDay(preferredSecondOfDay[bit]))
+                    .atZone(zones[bit]);
+            if (!next.toInstant().isAfter(after)) {
+                next = next.plusDays(1);
+            }
+            return Optional.of(next.toInstant());
+        }
+
+        private static ZoneId resolveZone(String timezone) {
+            if (timezone == null || timezone.isBlank()) {
+                return ZoneId.systemDefault();
+            }
+            try {
+                return ZoneId.of(timezone);
+            } catch (DateTimeException e) {
+                LOG.warn("Invalid notification timezone {}, using the system default", timezone);
+                return ZoneId.systemDefault();
+            }
+        }
+    }
+}
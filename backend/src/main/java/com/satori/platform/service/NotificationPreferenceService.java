@@ -29,14 +29,17 @@ public class NotificationPreferenceService {
     private final NotificationPreferenceRepository notificationPreferenceRepository;
     private final NotificationPreferenceMapper notificationPreferenceMapper;
     private final UserProfileRepository userProfileRepository;
+    private final NotificationPreferenceMatrix notificationPreferenceMatrix;
 
     public NotificationPreferenceService(
             NotificationPreferenceRepository notificationPreferenceRepository,
             NotificationPreferenceMapper notificationPreferenceMapper,
-            UserProfileRepository userProfileRepository) {
+            UserProfileRepository userProfileRepository,
+            NotificationPreferenceMatrix notificationPreferenceMatrix) {
         this.notificationPreferenceRepository = notificationPreferenceRepository;
         this.notificationPreferenceMapper = notificationPreferenceMapper;
         this.userProfileRepository = userProfileRepository;
+        this.notificationPreferenceMatrix = notificationPreferenceMatrix;
     }
 
     /**
@@ -50,6 +53,7 @@ public class NotificationPreferenceService {
         NotificationPreference notificationPreference = notificationPreferenceMapper
                 .toEntity(notificationPreferenceDTO);
         notificationPreference = notificationPreferenceRepository.save(notificationPreference);
+        evictUserOf(notificationPreference);
         return notificationPreferenceMapper.toDto(notificationPreference);
     }
 
@@ -61,9 +65,12 @@ public class NotificationPreferenceService {
      */
     public NotificationPreferenceDTO update(NotificationPreferenceDTO notificationPreferenceDTO) {
         LOG.debug("Request to update NotificationPreference : {}", notificationPreferenceDTO);
+        // The preference may move to another user
+        notificationPreferenceRepository.findById(notificationPreferenceDTO.getId()).ifPresent(this::evictUserOf);
         NotificationPreference notificationPreference = notificationPreferenceMapper
                 .toEntity(notificationPreferenceDTO);
         notificationPreference = notificationPreferenceRepository.save(notificationPreference);
+        evictUserOf(notificationPreference);
         return notificationPreferenceMapper.toDto(notificationPreference);
     }
 
@@ -79,11 +86,16 @@ public class NotificationPreferenceService {
         return notificationPreferenceRepository
                 .findById(notificationPreferenceDTO.getId())
                 .map(existingNotificationPreference -> {
+                    evictUserOf(existingNotificationPreference);
                     notificationPreferenceMapper.partialUpdate(existingNotificationPreference,
                             notificationPreferenceDTO);
                     return existingNotificationPreference;
                 })
                 .map(notificationPreferenceRepository::save)
+                .map(notificationPreference -> {
+                    evictUserOf(notificationPreference);
+                    return notificationPreference;
+                })
                 .map(notificationPreferenceMapper::toDto);
     }
 
@@ -118,6 +130,7 @@ public class NotificationPreferenceService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete NotificationPreference : {}", id);
+        notificationPreferenceRepository.findById(id).ifPresent(this::evictUserOf);
         notificationPreferenceRepository.deleteById(id);
     }
 
@@ -220,6 +233,7 @@ public class NotificationPreferenceService {
         }
 
         notificationPreference = notificationPreferenceRepository.save(notificationPreference);
+        notificationPreferenceMatrix.evict(userProfileId);
         return notificationPreferenceMapper.toDto(notificationPreference);
     }
 
@@ -247,11 +261,18 @@ public class NotificationPreferenceService {
                 createDefaultPreference(userProfile.get(), NotificationType.SYSTEM_NOTIFICATION, true, 0));
 
         List<NotificationPreference> savedPreferences = notificationPreferenceRepository.saveAll(defaultPreferences);
+        notificationPreferenceMatrix.evict(userProfileId);
         return savedPreferences.stream()
                 .map(notificationPreferenceMapper::toDto)
                 .toList();
     }
 
+    private void evictUserOf(NotificationPreference notificationPreference) {
+        if (notificationPreference.getUserProfile() != null) {
+            notificationPreferenceMatrix.evict(notificationPreference.getUserProfile().getId());
+        }
+    }
+
     private NotificationPreference createDefaultPreference(UserProfile userProfile, NotificationType type,
             boolean enabled, int advanceHours) {
         NotificationPreference preference = new NotificationPreference();
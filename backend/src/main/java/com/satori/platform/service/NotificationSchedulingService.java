@@ -2,22 +2,43 @@ package com.satori.platform.service;
 
 import com.satori.platform.domain.*;
 import com.satori.platform.domain.enumeration.NotificationType;
+import com.satori.platform.domain.enumeration.ReminderKind;
+import com.satori.platform.domain.enumeration.Role;
+import com.satori.platform.repository.PlannedReminderRepository;
 import com.satori.platform.repository.ScheduleRepository;
 import com.satori.platform.repository.QuizRepository;
 import com.satori.platform.repository.UserProfileRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service for scheduling and managing background notification jobs.
- * Handles automatic notification delivery based on schedules and events.
+ * Fires the reminders planned by {@link ReminderPlanner} when schedules,
+ * quizzes and students change; each reminder is claimed before it is sent, so
+ * it fires once. A fired study reminder plans the student's next one.
+ * <p>
+ * Each reminder is claimed and fired in transactions of its own, so one that
+ * fails to fire rolls back alone instead of replaying the whole batch.
  */
 @Service
 @Transactional
@@ -25,169 +46,157 @@ public class NotificationSchedulingService {
 
     private static final Logger LOG = LoggerFactory.getLogger(NotificationSchedulingService.class);
 
+    /** Schedules starting this far ahead get their reminders planned on startup */
+    private static final long PLANNING_HORIZON_DAYS = 366;
+
     private final NotificationService notificationService;
     private final ScheduleRepository scheduleRepository;
     private final QuizRepository quizRepository;
     private final UserProfileRepository userProfileRepository;
+    private final PlannedReminderRepository plannedReminderRepository;
+    private final ReminderPlanner reminderPlanner;
+    private final NotificationPreferenceMatrix notificationPreferenceMatrix;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.notification.reminders.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.notification.cleanup-days:30}")
+    private int cleanupDays;
 
     public NotificationSchedulingService(
             NotificationService notificationService,
             ScheduleRepository scheduleRepository,
             QuizRepository quizRepository,
-            UserProfileRepository userProfileRepository) {
+            UserProfileRepository userProfileRepository,
+            PlannedReminderRepository plannedReminderRepository,
+            ReminderPlanner reminderPlanner,
+            NotificationPreferenceMatrix notificationPreferenceMatrix,
+            PlatformTransactionManager transactionManager) {
         this.notificationService = notificationService;
         this.scheduleRepository = scheduleRepository;
         this.quizRepository = quizRepository;
         this.userProfileRepository = userProfileRepository;
+        this.plannedReminderRepository = plannedReminderRepository;
+        this.reminderPlanner = reminderPlanner;
+        this.notificationPreferenceMatrix = notificationPreferenceMatrix;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
-     * Check for upcoming schedules and send reminders
-     * Runs every 30 minutes
-     * Requirements: 1.1, 1.2
+     * Plan the reminders of upcoming schedules and open quizzes, and the study
+     * reminders of students that have none. Planning is idempotent, so this
+     * only fills in what is missing, such as rows from before reminders were
+     * planned; from then on reminders are planned as their sources change.
      */
-    @Scheduled(fixedRate = 1800000) // 30 minutes
-    public void checkScheduleReminders() {
-        LOG.debug("Checking for schedule reminders");
-
-        Instant now = Instant.now();
-        Instant next24Hours = now.plus(24, ChronoUnit.HOURS);
-        Instant next1Hour = now.plus(1, ChronoUnit.HOURS);
-
+    @EventListener(ApplicationReadyEvent.class)
+    public void planUpcomingReminders() {
         try {
-            // Find schedules in the next 24 hours for teacher reminders
-            List<Schedule> upcomingSchedules24h = scheduleRepository.findByDateBetween(now, next24Hours);
-
-            for (Schedule schedule : upcomingSchedules24h) {
-                // Send teacher reminder 24 hours before
-                if (schedule.getCourse() != null && schedule.getCourse().getTeacher() != null) {
-                    UserProfile teacherUser = schedule.getCourse().getTeacher();
-                    notificationService.sendScheduleReminder(teacherUser, schedule);
-                }
-            }
-
-            // Find schedules in the next 1 hour for urgent teacher reminders
-            List<Schedule> upcomingSchedules1h = scheduleRepository.findByDateBetween(now, next1Hour);
-
-            for (Schedule schedule : upcomingSchedules1h) {
-                // Send urgent teacher reminder 1 hour before
-                if (schedule.getCourse() != null && schedule.getCourse().getTeacher() != null) {
-                    UserProfile teacherUser = schedule.getCourse().getTeacher();
-                    notificationService.sendScheduleReminder(teacherUser, schedule);
-                }
-            }
-
-            LOG.debug("Processed {} schedule reminders for 24h and {} for 1h",
-                    upcomingSchedules24h.size(), upcomingSchedules1h.size());
-
+            Instant now = Instant.now();
+            Instant horizon = now.plus(PLANNING_HORIZON_DAYS, ChronoUnit.DAYS);
+            List<Schedule> schedules = scheduleRepository.findByDateBetween(now.minus(1, ChronoUnit.DAYS), horizon);
+            schedules.forEach(reminderPlanner::planSchedule);
+            List<Quiz> quizzes = quizRepository.findActiveQuizzesWithDueDateBetween(now, horizon);
+            quizzes.forEach(reminderPlanner::planQuiz);
+            LOG.debug("Planned reminders of {} schedules and {} quizzes", schedules.size(), quizzes.size());
         } catch (Exception e) {
-            LOG.error("Error processing schedule reminders", e);
+            LOG.error("Error planning upcoming reminders", e);
         }
+        planMissingStudyReminders();
     }
 
     /**
-     * Check for student lesson reminders
-     * Runs every 15 minutes
-     * Requirements: 2.1
+     * Fire the planned reminders that are due
+     * Runs every minute; only due, unfired reminders are read
+     * Requirements: 1.1, 1.2, 2.1, 2.2, 2.3
      */
-    @Scheduled(fixedRate = 900000) // 15 minutes
-    public void checkStudentLessonReminders() {
-        LOG.debug("Checking for student lesson reminders");
-
+    @Scheduled(fixedDelayString = "${app.notification.reminders.fire-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void fireDueReminders() {
         Instant now = Instant.now();
-        Instant next2Hours = now.plus(2, ChronoUnit.HOURS);
-
-        try {
-            // Find schedules in the next 2 hours for student reminders
-            List<Schedule> upcomingSchedules = scheduleRepository.findByDateBetween(now, next2Hours);
-
-            for (Schedule schedule : upcomingSchedules) {
-                // Get enrolled students for this schedule's course
-                if (schedule.getCourse() != null) {
-                    List<UserProfile> enrolledStudents = userProfileRepository
-                            .findStudentsByCourseId(schedule.getCourse().getId());
-
-                    for (UserProfile student : enrolledStudents) {
-                        notificationService.sendPersonalizedReminder(
-                                student,
-                                NotificationType.SCHEDULE_REMINDER,
-                                schedule);
-                    }
+        List<PlannedReminder> due = plannedReminderRepository.findDue(now, PageRequest.of(0, batchSize));
+        int fired = 0;
+        for (PlannedReminder reminder : due) {
+            try {
+                Integer claimed = transactionTemplate.execute(status -> plannedReminderRepository.claim(reminder.getId(), now));
+                if (claimed == null || claimed == 0) {
+                    continue; // Fired by another instance
                 }
+                transactionTemplate.executeWithoutResult(status -> fire(reminder, now));
+                fired++;
+            } catch (Exception e) {
+                LOG.error("Error firing reminder {}", reminder, e);
             }
-
-            LOG.debug("Processed student lesson reminders for {} schedules", upcomingSchedules.size());
-
-        } catch (Exception e) {
-            LOG.error("Error processing student lesson reminders", e);
+        }
+        if (fired > 0) {
+            LOG.debug("Fired {} reminders", fired);
         }
     }
 
     /**
-     * Check for quiz reminders
-     * Runs every hour
-     * Requirements: 2.2
+     * Plan a study reminder for every student that has none. New students get
+     * theirs from {@link UserProfileService}.
+     * Requirements: 2.3, 2.4
      */
-    @Scheduled(fixedRate = 3600000) // 1 hour
-    public void checkQuizReminders() {
-        LOG.debug("Checking for quiz reminders");
-
-        Instant now = Instant.now();
-        Instant next24Hours = now.plus(24, ChronoUnit.HOURS);
-
+    private void planMissingStudyReminders() {
         try {
-            // Find active quizzes with due dates in the next 24 hours
-            List<Quiz> upcomingQuizzes = quizRepository.findActiveQuizzesWithDueDateBetween(now, next24Hours);
-
-            for (Quiz quiz : upcomingQuizzes) {
-                // Since Quiz doesn't have dueDate, we'll use a default reminder period
-                int hoursUntilDue = 24; // Default 24 hours reminder
-
-                // Get enrolled students for this quiz's courses
-                for (Course course : quiz.getCourses()) {
-                    List<UserProfile> enrolledStudents = userProfileRepository
-                            .findStudentsByCourseId(course.getId());
-
-                    for (UserProfile student : enrolledStudents) {
-                        notificationService.sendQuizReminder(student, quiz, hoursUntilDue);
-                    }
-                }
+            Set<Long> planned = new HashSet<>(plannedReminderRepository.findUnfiredSourceIds(ReminderKind.DAILY_STUDY));
+            List<Long> studentIds = userProfileRepository.findIdsByRole(Role.HOC_VIEN).stream()
+                    .filter(studentId -> !planned.contains(studentId))
+                    .toList();
+            notificationPreferenceMatrix.preload(studentIds);
+            Instant now = Instant.now();
+            for (Long studentId : studentIds) {
+                reminderPlanner.planStudyReminder(studentId, now);
             }
-
-            LOG.debug("Processed quiz reminders for {} quizzes", upcomingQuizzes.size());
-
+            LOG.debug("Planned study reminders for {} students", studentIds.size());
         } catch (Exception e) {
-            LOG.error("Error processing quiz reminders", e);
+            LOG.error("Error planning study reminders", e);
         }
     }
 
-    /**
-     * Send personalized study reminders based on user preferences
-     * Runs every 2 hours
-     * Requirements: 2.3, 2.4
-     */
-    @Scheduled(fixedRate = 7200000) // 2 hours
-    public void sendPersonalizedStudyReminders() {
-        LOG.debug("Sending personalized study reminders");
-
-        try {
-            // Get all active students
-            List<UserProfile> students = userProfileRepository.findAllActiveStudents();
-
-            for (UserProfile student : students) {
-                // Check if student has any pending lessons or assignments
-                // This would be enhanced based on student progress tracking
-                notificationService.sendPersonalizedReminder(
-                        student,
-                        NotificationType.SYSTEM_NOTIFICATION,
-                        "study_reminder");
+    private void fire(PlannedReminder reminder, Instant now) {
+        switch (reminder.getKind()) {
+            case SCHEDULE_TEACHER_DAY_BEFORE, SCHEDULE_TEACHER_HOUR_BEFORE -> upcomingSchedule(reminder, now)
+                    .filter(schedule -> schedule.getCourse() != null && schedule.getCourse().getTeacher() != null)
+                    .ifPresent(schedule -> notificationService.sendScheduleReminder(schedule.getCourse().getTeacher(),
+                            schedule));
+            case SCHEDULE_STUDENTS -> upcomingSchedule(reminder, now)
+                    .filter(schedule -> schedule.getCourse() != null)
+                    .ifPresent(schedule -> {
+                        for (UserProfile student : userProfileRepository
+                                .findStudentsByCourseId(schedule.getCourse().getId())) {
+                            notificationService.sendPersonalizedReminder(student, NotificationType.SCHEDULE_REMINDER,
+                                    schedule);
+                        }
+                    });
+            case QUIZ_DUE -> quizRepository.findById(reminder.getSourceId())
+                    .filter(quiz -> Boolean.TRUE.equals(quiz.getIsActive()))
+                    .filter(quiz -> quiz.getDeactivationTime() != null && quiz.getDeactivationTime().isAfter(now))
+                    .ifPresent(quiz -> fireQuizDue(quiz, now));
+            case DAILY_STUDY -> {
+                userProfileRepository.findById(reminder.getSourceId()).ifPresent(student -> notificationService
+                        .sendPersonalizedReminder(student, NotificationType.SYSTEM_NOTIFICATION, "study_reminder"));
+                reminderPlanner.planStudyReminder(reminder.getSourceId(), now);
             }
+        }
+    }
 
-            LOG.debug("Sent personalized study reminders to {} students", students.size());
+    private Optional<Schedule> upcomingSchedule(PlannedReminder reminder, Instant now) {
+        return scheduleRepository.findById(reminder.getSourceId())
+                .filter(schedule -> schedule.getStartTime() == null || schedule.getStartTime().isAfter(now));
+    }
 
-        } catch (Exception e) {
-            LOG.error("Error sending personalized study reminders", e);
+    private void fireQuizDue(Quiz quiz, Instant now) {
+        int hoursUntilDue = (int) Math.max(1, Duration.between(now, quiz.getDeactivationTime()).toHours());
+        // A student enrolled in several courses of the quiz is reminded once
+        Map<Long, UserProfile> students = new LinkedHashMap<>();
+        for (Course course : quiz.getCourses()) {
+            for (UserProfile student : userProfileRepository.findStudentsByCourseId(course.getId())) {
+                students.putIfAbsent(student.getId(), student);
+            }
         }
+        students.values().forEach(student -> notificationService.sendQuizReminder(student, quiz, hoursUntilDue));
     }
 
     /**
@@ -199,10 +208,10 @@ public class NotificationSchedulingService {
         LOG.debug("Cleaning up old notification data");
 
         try {
-            // This would clean up old notification logs, expired tokens, etc.
-            // Implementation depends on notification history storage
+            Instant cutoffDate = Instant.now().minus(cleanupDays, ChronoUnit.DAYS);
+            int deleted = plannedReminderRepository.deleteFiredBefore(cutoffDate);
 
-            LOG.debug("Completed notification data cleanup");
+            LOG.debug("Completed notification data cleanup, deleted {} fired reminders", deleted);
 
         } catch (Exception e) {
             LOG.error("Error during notification data cleanup", e);
@@ -11,11 +11,17 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing notifications across the platform.
@@ -34,6 +40,7 @@ public class NotificationService {
     private final NotificationTemplateService notificationTemplateService;
     private final NotificationDeliveryService notificationDeliveryService;
     private final LocalizationService localizationService;
+    private final NotificationPreferenceMatrix notificationPreferenceMatrix;
 
     public NotificationService(
             MailService mailService,
@@ -41,13 +48,15 @@ public class NotificationService {
             NotificationPreferenceRepository notificationPreferenceRepository,
             NotificationTemplateService notificationTemplateService,
             NotificationDeliveryService notificationDeliveryService,
-            LocalizationService localizationService) {
+            LocalizationService localizationService,
+            NotificationPreferenceMatrix notificationPreferenceMatrix) {
         this.mailService = mailService;
         this.pushNotificationService = pushNotificationService;
         this.notificationPreferenceRepository = notificationPreferenceRepository;
         this.notificationTemplateService = notificationTemplateService;
         this.notificationDeliveryService = notificationDeliveryService;
         this.localizationService = localizationService;
+        this.notificationPreferenceMatrix = notificationPreferenceMatrix;
     }
 
     /**
@@ -76,17 +85,13 @@ public class NotificationService {
         LOG.debug("Sending content update notification for lesson: {} to {} students", lesson.getTitle(),
                 students.size());
 
-        for (UserProfile student : students) {
-            if (isNotificationEnabled(student, NotificationType.CONTENT_UPDATE)) {
-                NotificationContentDTO content = notificationTemplateService.createContentUpdateContent(student,
-                        lesson);
-                sendNotification(student, content, NotificationType.CONTENT_UPDATE);
-            }
-        }
+        sendSharedNotification(students, NotificationType.CONTENT_UPDATE,
+                locale -> notificationTemplateService.createContentUpdateContent(lesson, locale));
     }
 
     /**
-     * Send personalized learning schedule notification
+     * Send personalized learning schedule notification, even outside the
+     * student's preferred time
      * Requirements: 2.1, 2.2, 2.3
      */
     @Async
@@ -98,10 +103,11 @@ public class NotificationService {
             return;
         }
 
-        // Check if notification should be sent based on user's preferred time
+        // Reminders are planned at the preferred time where there is one, and fire once, so a late one
+        // is sent rather than dropped
         if (!isWithinPreferredTime(student, type)) {
-            LOG.debug("Current time is outside preferred notification time for user: {}", student.getUsername());
-            return;
+            LOG.debug("Sending {} reminder outside preferred notification time for user: {}", type,
+                    student.getUsername());
         }
 
         NotificationContentDTO content = notificationTemplateService.createPersonalizedContent(student, type, context);
@@ -117,19 +123,25 @@ public class NotificationService {
         LOG.debug("Sending bulk notification of type: {} to {} recipients", type, recipients.size());
 
         // Filter enabled recipients
+        notificationPreferenceMatrix.preload(recipientIds(recipients));
         List<UserProfile> enabledRecipients = recipients.stream()
                 .filter(recipient -> isNotificationEnabled(recipient, type))
                 .collect(java.util.stream.Collectors.toList());
 
         // Use bulk queueing for better performance
+        queueForEnabledChannels(enabledRecipients, content, type);
+    }
+
+    private void queueForEnabledChannels(List<UserProfile> recipients, NotificationContentDTO content,
+            NotificationType type) {
         if (content.isEmailEnabled()) {
-            notificationDeliveryService.queueBulkNotifications(enabledRecipients, content, type, "EMAIL");
+            notificationDeliveryService.queueBulkNotifications(recipients, content, type, "EMAIL");
         }
         if (content.isPushEnabled()) {
-            notificationDeliveryService.queueBulkNotifications(enabledRecipients, content, type, "PUSH");
+            notificationDeliveryService.queueBulkNotifications(recipients, content, type, "PUSH");
         }
         if (content.isInAppEnabled()) {
-            notificationDeliveryService.queueBulkNotifications(enabledRecipients, content, type, "IN_APP");
+            notificationDeliveryService.queueBulkNotifications(recipients, content, type, "IN_APP");
         }
     }
 
@@ -191,13 +203,29 @@ public class NotificationService {
         LOG.debug("Sending course announcement for course: {} to {} students", course.getTitle(),
                 enrolledStudents.size());
 
-        for (UserProfile student : enrolledStudents) {
-            if (isNotificationEnabled(student, NotificationType.COURSE_ANNOUNCEMENT)) {
-                NotificationContentDTO content = notificationTemplateService.createCourseAnnouncementContent(student,
-                        course, announcement);
-                sendNotification(student, content, NotificationType.COURSE_ANNOUNCEMENT);
+        sendSharedNotification(enrolledStudents, NotificationType.COURSE_ANNOUNCEMENT,
+                locale -> notificationTemplateService.createCourseAnnouncementContent(course, announcement, locale));
+    }
+
+    /**
+     * Render content once per recipient locale and queue deliveries that
+     * reference it
+     */
+    private void sendSharedNotification(List<UserProfile> recipients, NotificationType type,
+            Function<Locale, NotificationContentDTO> render) {
+        notificationPreferenceMatrix.preload(recipientIds(recipients));
+        Map<Locale, List<UserProfile>> recipientsByLocale = recipients.stream()
+                .filter(recipient -> isNotificationEnabled(recipient, type))
+                .collect(Collectors.groupingBy(notificationTemplateService::getUserLocale, LinkedHashMap::new,
+                        Collectors.toList()));
+
+        recipientsByLocale.forEach((locale, localeRecipients) -> {
+            try {
+                queueForEnabledChannels(localeRecipients, render.apply(locale), type);
+            } catch (Exception e) {
+                LOG.error("Failed to queue {} notification for locale: {}", type, locale, e);
             }
-        }
+        });
     }
 
     /**
@@ -231,32 +259,20 @@ public class NotificationService {
      * Check if notification type is enabled for user
      */
     private boolean isNotificationEnabled(UserProfile user, NotificationType type) {
-        return notificationPreferenceRepository
-                .findByUserProfileAndNotificationType(user, type)
-                .map(NotificationPreference::getEnabled)
-                .orElse(true); // Default to enabled if no preference set
+        // Default to enabled if no preference set
+        return notificationPreferenceMatrix.isEnabled(user.getId(), type);
     }
 
     /**
      * Check if current time is within user's preferred notification time
      */
     private boolean isWithinPreferredTime(UserProfile user, NotificationType type) {
-        return notificationPreferenceRepository
-                .findByUserProfileAndNotificationType(user, type)
-                .map(pref -> {
-                    if (pref.getPreferredTime() == null) {
-                        return true; // No time restriction
-                    }
-
-                    ZoneId userZone = pref.getTimezone() != null ? ZoneId.of(pref.getTimezone())
-                            : ZoneId.systemDefault();
-                    LocalTime currentTime = ZonedDateTime.now(userZone).toLocalTime();
-                    LocalTime preferredTime = pref.getPreferredTime();
-
-                    // Allow notifications within 2 hours of preferred time
-                    return Math.abs(currentTime.toSecondOfDay() - preferredTime.toSecondOfDay()) <= 7200;
-                })
-                .orElse(true); // Default to allow if no preference set
+        // Default to allow if no preference set
+        return notificationPreferenceMatrix.isWithinPreferredTime(user.getId(), type, Instant.now());
+    }
+
+    private static List<Long> recipientIds(List<UserProfile> recipients) {
+        return recipients.stream().map(UserProfile::getId).toList();
     }
 
     /**
@@ -288,6 +304,7 @@ public class NotificationService {
         preference.setAdvanceHours(advanceHours);
         preference.setTimezone(timezone);
 
+        notificationPreferenceMatrix.evict(user.getId());
         return notificationPreferenceRepository.save(preference);
     }
 
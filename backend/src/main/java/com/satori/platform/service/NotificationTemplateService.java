@@ -7,6 +7,7 @@ import com.satori.platform.domain.Schedule;
 import com.satori.platform.domain.UserProfile;
 import com.satori.platform.domain.enumeration.NotificationType;
 import com.satori.platform.service.dto.NotificationContentDTO;
+import com.satori.platform.service.util.PlaceholderTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
@@ -14,21 +15,32 @@ import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Service for creating notification content templates with localization
  * support.
  * Handles content generation for different notification types and languages.
+ * Content for many recipients is rendered once per locale with placeholders
+ * for the recipient variables, which are merged per delivery at send time;
+ * content for one recipient is rendered with their values and not shared.
  */
 @Service
 public class NotificationTemplateService {
 
     private static final Logger LOG = LoggerFactory.getLogger(NotificationTemplateService.class);
 
+    public static final String FULL_NAME_VARIABLE = "fullName";
+    public static final String USERNAME_VARIABLE = "username";
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     private final MessageSource messageSource;
     private final SpringTemplateEngine templateEngine;
 
@@ -44,23 +56,34 @@ public class NotificationTemplateService {
     public NotificationContentDTO createScheduleReminderContent(UserProfile user, Schedule schedule) {
         LOG.debug("Creating schedule reminder content for user: {} and schedule: {}", user.getUsername(),
                 schedule.getId());
+        return createScheduleReminderContent(schedule, Audience.of(user, getUserLocale(user)));
+    }
 
-        Locale locale = getUserLocale(user);
-        Context context = createBaseContext(user, locale);
-        context.setVariable("schedule", schedule);
-        context.setVariable("course", schedule.getCourse());
-        context.setVariable("startTime", schedule.getStartTime().atZone(java.time.ZoneId.systemDefault())
-                .format(DateTimeFormatter.ofPattern("HH:mm")));
-        context.setVariable("date", schedule.getDate().atZone(java.time.ZoneId.systemDefault())
-                .format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+    /**
+     * Create schedule reminder content shared by every recipient with the given
+     * locale
+     */
+    public NotificationContentDTO createScheduleReminderContent(Schedule schedule, Locale locale) {
+        return createScheduleReminderContent(schedule, Audience.shared(locale));
+    }
+
+    private NotificationContentDTO createScheduleReminderContent(Schedule schedule, Audience audience) {
+        Locale locale = audience.locale();
+        Context context = createBaseContext(audience);
+        String courseTitle = audience.text(schedule.getCourse().getTitle());
+        String startTime = schedule.getStartTime().atZone(ZoneId.systemDefault()).format(TIME_FORMAT);
+        context.setVariable("courseTitle", courseTitle);
+        context.setVariable("location", audience.text(schedule.getLocation()));
+        context.setVariable("startTime", startTime);
+        context.setVariable("date", schedule.getDate().atZone(ZoneId.systemDefault()).format(DATE_FORMAT));
 
         String emailSubject = messageSource.getMessage("notification.schedule.reminder.email.subject",
-                new Object[] { schedule.getCourse().getTitle() }, locale);
+                new Object[] { courseTitle }, locale);
         String emailContent = templateEngine.process("notification/scheduleReminderEmail", context);
 
         String pushTitle = messageSource.getMessage("notification.schedule.reminder.push.title", null, locale);
         String pushMessage = messageSource.getMessage("notification.schedule.reminder.push.message",
-                new Object[] { schedule.getCourse().getTitle(), context.getVariable("startTime") }, locale);
+                new Object[] { courseTitle, startTime }, locale);
 
         Map<String, String> pushData = new HashMap<>();
         pushData.put("type", "schedule_reminder");
@@ -73,7 +96,8 @@ public class NotificationTemplateService {
                 .pushTitle(pushTitle)
                 .pushMessage(pushMessage)
                 .pushData(pushData)
-                .locale(locale.getLanguage());
+                .locale(locale.getLanguage())
+                .shared(audience.isShared());
     }
 
     /**
@@ -83,19 +107,31 @@ public class NotificationTemplateService {
     public NotificationContentDTO createContentUpdateContent(UserProfile user, Lesson lesson) {
         LOG.debug("Creating content update notification for user: {} and lesson: {}", user.getUsername(),
                 lesson.getTitle());
+        return createContentUpdateContent(lesson, Audience.of(user, getUserLocale(user)));
+    }
 
-        Locale locale = getUserLocale(user);
-        Context context = createBaseContext(user, locale);
-        context.setVariable("lesson", lesson);
-        context.setVariable("course", lesson.getCourse());
+    /**
+     * Create content update content shared by every recipient with the given
+     * locale
+     */
+    public NotificationContentDTO createContentUpdateContent(Lesson lesson, Locale locale) {
+        return createContentUpdateContent(lesson, Audience.shared(locale));
+    }
+
+    private NotificationContentDTO createContentUpdateContent(Lesson lesson, Audience audience) {
+        Locale locale = audience.locale();
+        Context context = createBaseContext(audience);
+        String lessonTitle = audience.text(lesson.getTitle());
+        context.setVariable("lessonTitle", lessonTitle);
+        context.setVariable("courseTitle", audience.text(lesson.getCourse().getTitle()));
 
         String emailSubject = messageSource.getMessage("notification.content.update.email.subject",
-                new Object[] { lesson.getTitle() }, locale);
+                new Object[] { lessonTitle }, locale);
         String emailContent = templateEngine.process("notification/contentUpdateEmail", context);
 
         String pushTitle = messageSource.getMessage("notification.content.update.push.title", null, locale);
         String pushMessage = messageSource.getMessage("notification.content.update.push.message",
-                new Object[] { lesson.getTitle() }, locale);
+                new Object[] { lessonTitle }, locale);
 
         Map<String, String> pushData = new HashMap<>();
         pushData.put("type", "content_update");
@@ -108,7 +144,8 @@ public class NotificationTemplateService {
                 .pushTitle(pushTitle)
                 .pushMessage(pushMessage)
                 .pushData(pushData)
-                .locale(locale.getLanguage());
+                .locale(locale.getLanguage())
+                .shared(audience.isShared());
     }
 
     /**
@@ -119,7 +156,7 @@ public class NotificationTemplateService {
         LOG.debug("Creating personalized notification content for user: {} and type: {}", user.getUsername(), type);
 
         Locale locale = getUserLocale(user);
-        Context templateContext = createBaseContext(user, locale);
+        Context templateContext = createBaseContext(Audience.of(user, locale));
         templateContext.setVariable("context", context);
 
         String templateName = getTemplateNameForType(type);
@@ -149,19 +186,31 @@ public class NotificationTemplateService {
      */
     public NotificationContentDTO createQuizReminderContent(UserProfile user, Quiz quiz, int hoursUntilDue) {
         LOG.debug("Creating quiz reminder content for user: {} and quiz: {}", user.getUsername(), quiz.getTitle());
+        return createQuizReminderContent(quiz, hoursUntilDue, Audience.of(user, getUserLocale(user)));
+    }
 
-        Locale locale = getUserLocale(user);
-        Context context = createBaseContext(user, locale);
-        context.setVariable("quiz", quiz);
+    /**
+     * Create quiz reminder content shared by every recipient with the given
+     * locale
+     */
+    public NotificationContentDTO createQuizReminderContent(Quiz quiz, int hoursUntilDue, Locale locale) {
+        return createQuizReminderContent(quiz, hoursUntilDue, Audience.shared(locale));
+    }
+
+    private NotificationContentDTO createQuizReminderContent(Quiz quiz, int hoursUntilDue, Audience audience) {
+        Locale locale = audience.locale();
+        Context context = createBaseContext(audience);
+        String quizTitle = audience.text(quiz.getTitle());
+        context.setVariable("quizTitle", quizTitle);
         context.setVariable("hoursUntilDue", hoursUntilDue);
 
         String emailSubject = messageSource.getMessage("notification.quiz.reminder.email.subject",
-                new Object[] { quiz.getTitle() }, locale);
+                new Object[] { quizTitle }, locale);
         String emailContent = templateEngine.process("notification/quizReminderEmail", context);
 
         String pushTitle = messageSource.getMessage("notification.quiz.reminder.push.title", null, locale);
         String pushMessage = messageSource.getMessage("notification.quiz.reminder.push.message",
-                new Object[] { quiz.getTitle(), hoursUntilDue }, locale);
+                new Object[] { quizTitle, hoursUntilDue }, locale);
 
         Map<String, String> pushData = new HashMap<>();
         pushData.put("type", "quiz_reminder");
@@ -174,7 +223,8 @@ public class NotificationTemplateService {
                 .pushTitle(pushTitle)
                 .pushMessage(pushMessage)
                 .pushData(pushData)
-                .locale(locale.getLanguage());
+                .locale(locale.getLanguage())
+                .shared(audience.isShared());
     }
 
     /**
@@ -184,19 +234,33 @@ public class NotificationTemplateService {
             String announcement) {
         LOG.debug("Creating course announcement content for user: {} and course: {}", user.getUsername(),
                 course.getTitle());
+        return createCourseAnnouncementContent(course, announcement, Audience.of(user, getUserLocale(user)));
+    }
 
-        Locale locale = getUserLocale(user);
-        Context context = createBaseContext(user, locale);
-        context.setVariable("course", course);
-        context.setVariable("announcement", announcement);
+    /**
+     * Create course announcement content shared by every recipient with the
+     * given locale
+     */
+    public NotificationContentDTO createCourseAnnouncementContent(Course course, String announcement,
+            Locale locale) {
+        return createCourseAnnouncementContent(course, announcement, Audience.shared(locale));
+    }
+
+    private NotificationContentDTO createCourseAnnouncementContent(Course course, String announcement,
+            Audience audience) {
+        Locale locale = audience.locale();
+        Context context = createBaseContext(audience);
+        String courseTitle = audience.text(course.getTitle());
+        context.setVariable("courseTitle", courseTitle);
+        context.setVariable("announcement", audience.text(announcement));
 
         String emailSubject = messageSource.getMessage("notification.course.announcement.email.subject",
-                new Object[] { course.getTitle() }, locale);
+                new Object[] { courseTitle }, locale);
         String emailContent = templateEngine.process("notification/courseAnnouncementEmail", context);
 
         String pushTitle = messageSource.getMessage("notification.course.announcement.push.title", null, locale);
         String pushMessage = messageSource.getMessage("notification.course.announcement.push.message",
-                new Object[] { course.getTitle() }, locale);
+                new Object[] { courseTitle }, locale);
 
         Map<String, String> pushData = new HashMap<>();
         pushData.put("type", "course_announcement");
@@ -208,24 +272,39 @@ public class NotificationTemplateService {
                 .pushTitle(pushTitle)
                 .pushMessage(pushMessage)
                 .pushData(pushData)
-                .locale(locale.getLanguage());
+                .locale(locale.getLanguage())
+                .shared(audience.isShared());
     }
 
     /**
-     * Create base template context with common variables
+     * Values for the recipient placeholders of shared content
      */
-    private Context createBaseContext(UserProfile user, Locale locale) {
-        Context context = new Context(locale);
-        context.setVariable("user", user);
-        context.setVariable("fullName", user.getFullName());
-        context.setVariable("username", user.getUsername());
+    public Map<String, String> recipientVariables(UserProfile user) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put(FULL_NAME_VARIABLE, Objects.toString(user.getFullName(), ""));
+        variables.put(USERNAME_VARIABLE, Objects.toString(user.getUsername(), ""));
+        return variables;
+    }
+
+    /**
+     * Create base template context: the recipient's own values, or
+     * placeholders for them when one rendering serves every recipient
+     */
+    private Context createBaseContext(Audience audience) {
+        Context context = new Context(audience.locale());
+        if (audience.isShared()) {
+            context.setVariable(FULL_NAME_VARIABLE, PlaceholderTemplate.placeholder(FULL_NAME_VARIABLE));
+            context.setVariable(USERNAME_VARIABLE, PlaceholderTemplate.placeholder(USERNAME_VARIABLE));
+        } else {
+            recipientVariables(audience.recipient()).forEach(context::setVariable);
+        }
         return context;
     }
 
     /**
      * Get user locale from preferences or default to English
      */
-    private Locale getUserLocale(UserProfile user) {
+    public Locale getUserLocale(UserProfile user) {
         // For now, default to English. In the future, this could be retrieved from user
         // preferences
         // or determined from the user's profile settings
@@ -275,4 +354,28 @@ public class NotificationTemplateService {
                 return "notification.generic";
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Who content is rendered for: one recipient, or every recipient with a
+     * locale. Shared content is parsed for placeholders at send time, so
+     * user-authored text rendered into it is escaped.
+     */
+    private record Audience(Locale locale, UserProfile recipient) {
+
+        static Audience of(UserProfile recipient, Locale locale) {
+            return new Audience(locale, recipient);
+        }
+
+        static Audience shared(Locale locale) {
+            return new Audience(locale, null);
+        }
+
+        boolean isShared() {
+            return recipient == null;
+        }
+
+        String text(String value) {
+            return isShared() ? PlaceholderTemplate.escape(value) : value;
+        }
+    }
+}
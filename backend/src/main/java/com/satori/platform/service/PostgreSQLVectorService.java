@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.sql.DataSource;
 import java.sql.ResultSet;
@@ -22,7 +24,14 @@ public class PostgreSQLVectorService {
 
     private static final Logger log = LoggerFactory.getLogger(PostgreSQLVectorService.class);
 
+    /**
+     * Prefix of the content IDs of lesson chunks maintained by
+     * {@link RAGIndexingService}.
+     */
+    public static final String LESSON_CHUNK_PREFIX = "lesson:";
+
     private final JdbcTemplate vectorJdbcTemplate;
+    private final TransactionTemplate searchTransactionTemplate;
 
     @Value("${app.rag.vector-db.postgresql.table-name:content_embeddings}")
     private String tableName;
@@ -30,8 +39,28 @@ public class PostgreSQLVectorService {
     @Value("${app.rag.embedding.gemini.dimensions:768}")
     private int embeddingDimensions;
 
-    public PostgreSQLVectorService(DataSource dataSource) {
+    @Value("${app.rag.vector-db.postgresql.index-type:ivfflat}")
+    private String indexType;
+
+    @Value("${app.rag.vector-db.postgresql.ivfflat-lists:0}")
+    private int ivfflatLists;
+
+    @Value("${app.rag.vector-db.postgresql.hnsw-m:16}")
+    private int hnswM;
+
+    @Value("${app.rag.vector-db.postgresql.hnsw-ef-construction:64}")
+    private int hnswEfConstruction;
+
+    @Value("${app.rag.vector-db.postgresql.probes:10}")
+    private int defaultProbes;
+
+    @Value("${app.rag.vector-db.postgresql.ef-search:40}")
+    private int defaultEfSearch;
+
+    public PostgreSQLVectorService(DataSource dataSource, PlatformTransactionManager transactionManager) {
         this.vectorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.searchTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.searchTransactionTemplate.setReadOnly(true);
     }
 
     /**
@@ -58,6 +87,7 @@ public class PostgreSQLVectorService {
                         course_id BIGINT,
                         lesson_id BIGINT,
                         embedding vector(%d),
+                        content_hash VARCHAR(64),
                         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                         updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                     )
@@ -65,14 +95,12 @@ public class PostgreSQLVectorService {
 
             vectorJdbcTemplate.execute(createTableSql);
 
-            // Create indexes for better performance
-            String indexSql = String.format("""
-                    CREATE INDEX IF NOT EXISTS %s_embedding_idx
-                    ON %s USING ivfflat (embedding vector_cosine_ops)
-                    WITH (lists = 100)
-                    """, tableName, tableName);
+            // Tables created before incremental indexing lack the chunk hash
+            vectorJdbcTemplate.execute(String.format(
+                    "ALTER TABLE %s ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64)", tableName));
 
-            vectorJdbcTemplate.execute(indexSql);
+            // Create the approximate nearest neighbour index
+            vectorJdbcTemplate.execute(buildEmbeddingIndexSql());
 
             // Create additional indexes
             vectorJdbcTemplate.execute(String.format(
@@ -83,6 +111,10 @@ public class PostgreSQLVectorService {
                     "CREATE INDEX IF NOT EXISTS %s_content_type_idx ON %s (content_type)",
                     tableName, tableName));
 
+            vectorJdbcTemplate.execute(String.format(
+                    "CREATE INDEX IF NOT EXISTS %s_lesson_id_idx ON %s (lesson_id)",
+                    tableName, tableName));
+
             log.info("Vector database initialized successfully");
 
         } catch (Exception e) {
@@ -160,46 +192,78 @@ public class PostgreSQLVectorService {
      */
     public List<RAGContentResultDTO> searchSimilarContent(List<Double> queryEmbedding,
             RAGContentRequestDTO request) {
+        return searchSimilarContent(queryEmbedding, request, request.getMaxResults());
+    }
+
+    /**
+     * Search for similar content using vector similarity, returning up to
+     * {@code limit} results.
+     * <p>
+     * The distance is computed once per row and the ANN search parameters
+     * ({@code ivfflat.probes}, {@code hnsw.ef_search}) are set for this query
+     * only, from the request or the configured defaults.
+     *
+     * @param queryEmbedding the query embedding vector
+     * @param request        the search request with filters
+     * @param limit          the maximum number of results
+     * @return list of similar content results, most similar first
+     */
+    public List<RAGContentResultDTO> searchSimilarContent(List<Double> queryEmbedding,
+            RAGContentRequestDTO request, int limit) {
 
         log.debug("Searching for similar content with {} filters",
                 (request.getCourseId() != null ? 1 : 0) +
                         (request.getDifficultyLevel() != null ? 1 : 0));
 
         try {
-            StringBuilder sql = new StringBuilder();
-            sql.append(String.format("""
-                    SELECT content_id, title, content, content_type, source,
-                           difficulty_level, topics, course_id, lesson_id,
-                           1 - (embedding <=> ?) as similarity_score
-                    FROM %s
-                    WHERE 1=1
-                    """, tableName));
-
+            StringBuilder filters = new StringBuilder();
             List<Object> params = new ArrayList<>();
             params.add(formatVectorForPostgreSQL(queryEmbedding));
 
             // Add filters
             if (request.getCourseId() != null) {
-                sql.append(" AND course_id = ?");
+                filters.append(" AND course_id = ?");
                 params.add(request.getCourseId());
             }
 
             if (request.getDifficultyLevel() != null) {
-                sql.append(" AND difficulty_level = ?");
+                filters.append(" AND difficulty_level = ?");
                 params.add(request.getDifficultyLevel());
             }
 
-            // Add similarity threshold
-            sql.append(" AND (1 - (embedding <=> ?)) >= ?");
-            params.add(formatVectorForPostgreSQL(queryEmbedding));
-            params.add(request.getSimilarityThreshold());
-
-            // Order by similarity and limit results
-            sql.append(" ORDER BY embedding <=> ? LIMIT ?");
-            params.add(formatVectorForPostgreSQL(queryEmbedding));
-            params.add(request.getMaxResults());
-
-            return vectorJdbcTemplate.query(sql.toString(), params.toArray(), new ContentRowMapper());
+            // Rank by distance inside, so the ANN index serves the ORDER BY, and
+            // apply the similarity threshold to the ranked candidates outside
+            String sql = String.format("""
+                    SELECT content_id, title, content, content_type, source,
+                           difficulty_level, topics, course_id, lesson_id,
+                           1 - distance AS similarity_score
+                    FROM (
+                        SELECT content_id, title, content, content_type, source,
+                               difficulty_level, topics, course_id, lesson_id,
+                               embedding <=> ?::vector AS distance
+                        FROM %s
+                        WHERE 1=1%s
+                        ORDER BY distance
+                        LIMIT ?
+                    ) ranked
+                    WHERE distance <= ?
+                    ORDER BY distance
+                    """, tableName, filters);
+            params.add(limit);
+            params.add(1 - (request.getSimilarityThreshold() != null ? request.getSimilarityThreshold() : 0.0));
+
+            int probes = request.getProbes() != null ? request.getProbes() : defaultProbes;
+            int efSearch = request.getEfSearch() != null ? request.getEfSearch() : defaultEfSearch;
+            List<RAGContentResultDTO> results = searchTransactionTemplate.execute(status -> {
+                // SET LOCAL only lasts until the end of this transaction
+                if ("hnsw".equalsIgnoreCase(indexType)) {
+                    vectorJdbcTemplate.execute("SET LOCAL hnsw.ef_search = " + Math.max(1, efSearch));
+                } else {
+                    vectorJdbcTemplate.execute("SET LOCAL ivfflat.probes = " + Math.max(1, probes));
+                }
+                return vectorJdbcTemplate.query(sql, new ContentRowMapper(), params.toArray());
+            });
+            return results != null ? results : new ArrayList<>();
 
         } catch (Exception e) {
             log.error("Failed to search similar content: {}", e.getMessage(), e);
@@ -207,6 +271,59 @@ public class PostgreSQLVectorService {
         }
     }
 
+    /**
+     * Compute the similarity of the query to given content, e.g. to hold
+     * candidates found by other means to the similarity threshold. The rows
+     * are read by content ID, so no ANN index is involved.
+     *
+     * @param queryEmbedding the query embedding vector
+     * @param contentIds     the content IDs
+     * @return the similarity by content ID; empty if the lookup fails
+     */
+    public Map<String, Double> findSimilarities(List<Double> queryEmbedding, Collection<String> contentIds) {
+        if (contentIds.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            String sql = String.format("""
+                    SELECT content_id, 1 - (embedding <=> ?::vector) AS similarity_score
+                    FROM %s
+                    WHERE content_id IN (%s)
+                    """, tableName, String.join(", ", Collections.nCopies(contentIds.size(), "?")));
+            List<Object> params = new ArrayList<>();
+            params.add(formatVectorForPostgreSQL(queryEmbedding));
+            params.addAll(contentIds);
+
+            Map<String, Double> similarities = new HashMap<>();
+            vectorJdbcTemplate.query(sql, rs -> {
+                similarities.put(rs.getString("content_id"), rs.getDouble("similarity_score"));
+            }, params.toArray());
+            return similarities;
+        } catch (Exception e) {
+            log.error("Failed to compute content similarities: {}", e.getMessage(), e);
+            return Map.of();
+        }
+    }
+
+    /**
+     * Load every stored content row without its embedding, e.g. to build a
+     * lexical index.
+     *
+     * @return the stored content with its course and lesson
+     */
+    public List<StoredContent> findAllContent() {
+        String sql = String.format("""
+                SELECT content_id, title, content, content_type, source,
+                       difficulty_level, topics, course_id, lesson_id, 0 AS similarity_score
+                FROM %s
+                """, tableName);
+        ContentRowMapper contentMapper = new ContentRowMapper();
+        return vectorJdbcTemplate.query(sql, (rs, rowNum) -> new StoredContent(
+                contentMapper.mapRow(rs, rowNum),
+                rs.getObject("course_id", Long.class),
+                rs.getObject("lesson_id", Long.class)));
+    }
+
     /**
      * Delete content from the vector database.
      *
@@ -231,6 +348,101 @@ public class PostgreSQLVectorService {
         }
     }
 
+    /**
+     * Get the content hashes of the indexed chunks of a lesson.
+     *
+     * @param lessonId the lesson ID
+     * @return the content hash of every chunk, by content ID
+     */
+    public Map<String, String> findLessonChunkHashes(Long lessonId) {
+        String sql = String.format(
+                "SELECT content_id, content_hash FROM %s WHERE lesson_id = ? AND content_id LIKE ?", tableName);
+        Map<String, String> hashes = new HashMap<>();
+        vectorJdbcTemplate.query(sql, rs -> {
+            hashes.put(rs.getString("content_id"), rs.getString("content_hash"));
+        }, lessonId, LESSON_CHUNK_PREFIX + lessonId + ":%");
+        return hashes;
+    }
+
+    /**
+     * Get the IDs of the lessons that have indexed chunks.
+     *
+     * @return the lesson IDs
+     */
+    public List<Long> findIndexedLessonIds() {
+        String sql = String.format(
+                "SELECT DISTINCT lesson_id FROM %s WHERE lesson_id IS NOT NULL AND content_id LIKE ?", tableName);
+        return vectorJdbcTemplate.queryForList(sql, Long.class, LESSON_CHUNK_PREFIX + "%");
+    }
+
+    /**
+     * Insert or update chunks in one batch.
+     *
+     * @param chunks the chunks with their embeddings
+     */
+    public void upsertChunks(List<Chunk> chunks) {
+        if (chunks.isEmpty()) {
+            return;
+        }
+
+        String sql = String.format("""
+                INSERT INTO %s (content_id, title, content, content_type, source,
+                               course_id, lesson_id, content_hash, embedding)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?::vector)
+                ON CONFLICT (content_id)
+                DO UPDATE SET
+                    title = EXCLUDED.title,
+                    content = EXCLUDED.content,
+                    content_type = EXCLUDED.content_type,
+                    source = EXCLUDED.source,
+                    course_id = EXCLUDED.course_id,
+                    lesson_id = EXCLUDED.lesson_id,
+                    content_hash = EXCLUDED.content_hash,
+                    embedding = EXCLUDED.embedding,
+                    updated_at = CURRENT_TIMESTAMP
+                """, tableName);
+
+        vectorJdbcTemplate.batchUpdate(sql, chunks, chunks.size(), (ps, chunk) -> {
+            ps.setString(1, chunk.contentId());
+            ps.setString(2, chunk.title());
+            ps.setString(3, chunk.content());
+            ps.setString(4, chunk.contentType());
+            ps.setString(5, chunk.source());
+            ps.setObject(6, chunk.courseId());
+            ps.setObject(7, chunk.lessonId());
+            ps.setString(8, chunk.contentHash());
+            ps.setString(9, formatVectorForPostgreSQL(chunk.embedding()));
+        });
+        log.debug("Upserted {} chunks", chunks.size());
+    }
+
+    /**
+     * Delete content by ID in one batch.
+     *
+     * @param contentIds the content IDs to delete
+     */
+    public void deleteContents(Collection<String> contentIds) {
+        if (contentIds.isEmpty()) {
+            return;
+        }
+
+        String sql = String.format("DELETE FROM %s WHERE content_id = ?", tableName);
+        List<String> ids = new ArrayList<>(contentIds);
+        vectorJdbcTemplate.batchUpdate(sql, ids, ids.size(), (ps, id) -> ps.setString(1, id));
+        log.debug("Deleted {} chunks", ids.size());
+    }
+
+    /**
+     * Delete every indexed chunk of a lesson.
+     *
+     * @param lessonId the lesson ID
+     * @return the number of deleted chunks
+     */
+    public int deleteLessonChunks(Long lessonId) {
+        String sql = String.format("DELETE FROM %s WHERE lesson_id = ? AND content_id LIKE ?", tableName);
+        return vectorJdbcTemplate.update(sql, lessonId, LESSON_CHUNK_PREFIX + lessonId + ":%");
+    }
+
     /**
      * Get statistics about the vector database.
      *
@@ -267,6 +479,33 @@ public class PostgreSQLVectorService {
 
     // Private helper methods
 
+    /**
+     * IVFFlat with {@code lists} derived from the table size (rows / 1000,
+     * at least 10) unless configured, or HNSW with the configured {@code m}
+     * and {@code ef_construction}.
+     */
+    private String buildEmbeddingIndexSql() {
+        if ("hnsw".equalsIgnoreCase(indexType)) {
+            return String.format("""
+                    CREATE INDEX IF NOT EXISTS %s_embedding_idx
+                    ON %s USING hnsw (embedding vector_cosine_ops)
+                    WITH (m = %d, ef_construction = %d)
+                    """, tableName, tableName, hnswM, hnswEfConstruction);
+        }
+
+        int lists = ivfflatLists;
+        if (lists <= 0) {
+            Long rows = vectorJdbcTemplate.queryForObject(String.format("SELECT COUNT(*) FROM %s", tableName),
+                    Long.class);
+            lists = (int) Math.max(10, (rows != null ? rows : 0) / 1000);
+        }
+        return String.format("""
+                CREATE INDEX IF NOT EXISTS %s_embedding_idx
+                ON %s USING ivfflat (embedding vector_cosine_ops)
+                WITH (lists = %d)
+                """, tableName, tableName, lists);
+    }
+
     private String formatVectorForPostgreSQL(List<Double> embedding) {
         if (embedding == null || embedding.isEmpty()) {
             throw new IllegalArgumentException("Embedding cannot be null or empty");
@@ -282,6 +521,27 @@ public class PostgreSQLVectorService {
         return sb.toString();
     }
 
+    /**
+     * A chunk of lesson content with its embedding.
+     */
+    public record Chunk(
+            String contentId,
+            String title,
+            String content,
+            String contentType,
+            String source,
+            Long courseId,
+            Long lessonId,
+            String contentHash,
+            List<Double> embedding) {
+    }
+
+    /**
+     * Stored content with the course and lesson it belongs to.
+     */
+    public record StoredContent(RAGContentResultDTO content, Long courseId, Long lessonId) {
+    }
+
     private static class ContentRowMapper implements RowMapper<RAGContentResultDTO> {
         @Override
         public RAGContentResultDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -296,9 +556,9 @@ public class PostgreSQLVectorService {
             result.setRelevanceScore(rs.getDouble("similarity_score"));
 
             // Parse topics array
-            String[] topicsArray = (String[]) rs.getArray("topics").getArray();
-            if (topicsArray != null) {
-                result.setTopics(Arrays.asList(topicsArray));
+            java.sql.Array topics = rs.getArray("topics");
+            if (topics != null) {
+                result.setTopics(Arrays.asList((String[]) topics.getArray()));
             }
 
             return result;
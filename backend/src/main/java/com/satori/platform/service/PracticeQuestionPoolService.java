@@ -0,0 +1,344 @@
+package com.satori.platform.service;
+
+import com.satori.platform.domain.Lesson;
+import com.satori.platform.domain.PracticeQuestionPoolEntry;
+import com.satori.platform.domain.Question;
+import com.satori.platform.domain.enumeration.DifficultyLevel;
+import com.satori.platform.repository.LessonRepository;
+import com.satori.platform.repository.PracticeQuestionPoolEntryRepository;
+import com.satori.platform.repository.QuestionRepository;
+import com.satori.platform.service.dto.AIGeneratedQuestionDTO;
+import com.satori.platform.service.dto.AIQuestionGenerationRequestDTO;
+import com.satori.platform.service.exception.AIServiceException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Warm pools of validated practice questions per lesson and difficulty.
+ * <p>
+ * Practice tests for a lesson are assembled from its pool with a couple of
+ * indexed queries. Pools that ran short are remembered and, together with
+ * every pool below the low-water mark in the database, including the empty
+ * pools of lessons with content, topped up by a scheduled off-peak job that
+ * asks the AI service for questions the pool does not contain yet.
+ * Questions are deduplicated per pool by a hash of their normalized content
+ * and answer.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PracticeQuestionPoolService {
+
+    private static final Logger log = LoggerFactory.getLogger(PracticeQuestionPoolService.class);
+
+    private static final int MAX_COLUMN_LENGTH = 255;
+    private static final int MAX_EXCLUDED_QUESTIONS = 30;
+
+    private final PracticeQuestionPoolEntryRepository poolEntryRepository;
+    private final QuestionRepository questionRepository;
+    private final LessonRepository lessonRepository;
+    private final AIContentAnalysisService aiContentAnalysisService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final boolean enabled;
+    private final int targetSize;
+    private final int lowWaterMark;
+    private final int refillBatchSize;
+    private final int maxRefillsPerRun;
+
+    private final Set<PoolKey> pendingRefills = ConcurrentHashMap.newKeySet();
+    private final Set<PoolKey> refilling = ConcurrentHashMap.newKeySet();
+
+    public PracticeQuestionPoolService(
+            PracticeQuestionPoolEntryRepository poolEntryRepository,
+            QuestionRepository questionRepository,
+            LessonRepository lessonRepository,
+            AIContentAnalysisService aiContentAnalysisService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.ai.practice-test.pool.enabled:true}") boolean enabled,
+            @Value("${app.ai.practice-test.pool.target-size:60}") int targetSize,
+            @Value("${app.ai.practice-test.pool.low-water-mark:20}") int lowWaterMark,
+            @Value("${app.ai.practice-test.pool.refill-batch-size:10}") int refillBatchSize,
+            @Value("${app.ai.practice-test.pool.max-refills-per-run:50}") int maxRefillsPerRun) {
+        this.poolEntryRepository = poolEntryRepository;
+        this.questionRepository = questionRepository;
+        this.lessonRepository = lessonRepository;
+        this.aiContentAnalysisService = aiContentAnalysisService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.targetSize = targetSize;
+        this.lowWaterMark = lowWaterMark;
+        this.refillBatchSize = refillBatchSize;
+        this.maxRefillsPerRun = maxRefillsPerRun;
+    }
+
+    /**
+     * Pick distinct random questions from the pool of a lesson. When the pool is
+     * below the low-water mark it is scheduled for the next refill.
+     *
+     * @param lessonId        the lesson ID
+     * @param difficultyLevel the difficulty level
+     * @param count           the number of questions wanted
+     * @return exactly {@code count} questions, or an empty list if the pool
+     *         cannot provide that many
+     */
+    public List<Question> take(Long lessonId, DifficultyLevel difficultyLevel, int count) {
+        if (!enabled || count <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Long> questionIds = new ArrayList<>(poolEntryRepository.findQuestionIds(lessonId, difficultyLevel));
+        if (questionIds.size() < lowWaterMark || questionIds.size() < count) {
+            requestRefill(lessonId, difficultyLevel);
+        }
+        if (questionIds.size() < count) {
+            log.debug("Practice pool {}:{} has {} of {} questions", lessonId, difficultyLevel, questionIds.size(), count);
+            return Collections.emptyList();
+        }
+
+        Collections.shuffle(questionIds, ThreadLocalRandom.current());
+        List<Long> selectedIds = questionIds.subList(0, count);
+        Map<Long, Question> questions = questionRepository.findAllById(selectedIds).stream()
+                .collect(Collectors.toMap(Question::getId, Function.identity()));
+        List<Question> selected = selectedIds.stream().map(questions::get).filter(Objects::nonNull).toList();
+        return selected.size() == count ? selected : Collections.emptyList();
+    }
+
+    /**
+     * Add already persisted questions to the pool of a lesson, skipping
+     * duplicates and questions that do not pass validation. Must be called
+     * inside a transaction.
+     *
+     * @param lessonId        the lesson ID
+     * @param difficultyLevel the difficulty level
+     * @param questions       the candidate questions
+     * @return the number of questions added
+     */
+    @Transactional
+    public int offer(Long lessonId, DifficultyLevel difficultyLevel, Collection<Question> questions) {
+        if (!enabled || questions.isEmpty()) {
+            return 0;
+        }
+
+        Lesson lesson = lessonRepository.getReferenceById(lessonId);
+        Set<String> hashes = new HashSet<>(poolEntryRepository.findContentHashes(lessonId, difficultyLevel));
+        int added = 0;
+        for (Question question : questions) {
+            if (hashes.size() >= targetSize) {
+                break;
+            }
+            if (!isValid(question.getContent(), question.getCorrectAnswer(), question.getType())) {
+                continue;
+            }
+            String hash = contentHash(question.getContent(), question.getCorrectAnswer());
+            if (hashes.add(hash)) {
+                poolEntryRepository.save(new PracticeQuestionPoolEntry(lesson, difficultyLevel, question, hash));
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Remember a pool for the next refill run.
+     *
+     * @param lessonId        the lesson ID
+     * @param difficultyLevel the difficulty level
+     */
+    public void requestRefill(Long lessonId, DifficultyLevel difficultyLevel) {
+        if (enabled) {
+            pendingRefills.add(new PoolKey(lessonId, difficultyLevel));
+        }
+    }
+
+    /**
+     * Top up the pools that ran short since the last run and every pool below
+     * the low-water mark, emptiest first, at most {@code max-refills-per-run}
+     * AI calls per run. Pools below the mark are found in the database, so an
+     * empty pool is refilled even if no instance remembers asking for it.
+     */
+    @Scheduled(cron = "${app.ai.practice-test.pool.refill-cron:0 30 2 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void refillPools() {
+        if (!enabled) {
+            return;
+        }
+
+        Set<PoolKey> keys = new LinkedHashSet<>(pendingRefills);
+        List<PoolCount> lowPools = new ArrayList<>();
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+                for (Object[] row : poolEntryRepository.findPoolsBelow(difficultyLevel, lowWaterMark)) {
+                    lowPools.add(new PoolCount(new PoolKey((Long) row[0], difficultyLevel), ((Number) row[1]).longValue()));
+                }
+            }
+        });
+        lowPools.sort(Comparator.comparingLong(PoolCount::entries));
+        lowPools.forEach(pool -> keys.add(pool.key()));
+
+        int calls = 0;
+        int added = 0;
+        for (PoolKey key : keys) {
+            if (calls++ >= maxRefillsPerRun) {
+                break;
+            }
+            pendingRefills.remove(key);
+            added += refill(key.lessonId, key.difficultyLevel);
+        }
+        if (!keys.isEmpty()) {
+            log.info("Refilled {} of {} practice pools with {} questions", Math.min(calls, keys.size()), keys.size(),
+                    added);
+        }
+    }
+
+    /**
+     * Ask the AI service for one batch of new questions for a pool.
+     *
+     * @param lessonId        the lesson ID
+     * @param difficultyLevel the difficulty level
+     * @return the number of questions added
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int refill(Long lessonId, DifficultyLevel difficultyLevel) {
+        PoolKey key = new PoolKey(lessonId, difficultyLevel);
+        if (!refilling.add(key)) {
+            return 0;
+        }
+        try {
+            AIQuestionGenerationRequestDTO request = readOnlyTransactionTemplate
+                    .execute(status -> buildRefillRequest(lessonId, difficultyLevel));
+            if (request == null) {
+                return 0;
+            }
+
+            List<AIGeneratedQuestionDTO> generated;
+            try {
+                generated = aiContentAnalysisService.generateQuestions(request);
+            } catch (AIServiceException e) {
+                log.warn("Could not refill practice pool {}: {}", key, e.getMessage());
+                return 0;
+            }
+
+            Integer added = transactionTemplate.execute(status -> store(lessonId, difficultyLevel, generated));
+            log.debug("Added {} of {} generated questions to practice pool {}", added, generated.size(), key);
+            return added != null ? added : 0;
+        } finally {
+            refilling.remove(key);
+        }
+    }
+
+    private AIQuestionGenerationRequestDTO buildRefillRequest(Long lessonId, DifficultyLevel difficultyLevel) {
+        Lesson lesson = lessonRepository.findById(lessonId).orElse(null);
+        if (lesson == null || lesson.getContent() == null || lesson.getContent().isBlank()) {
+            return null;
+        }
+
+        int missing = targetSize - poolEntryRepository.findContentHashes(lessonId, difficultyLevel).size();
+        if (missing <= 0) {
+            return null;
+        }
+
+        AIQuestionGenerationRequestDTO request = new AIQuestionGenerationRequestDTO();
+        request.setContent("Lesson: " + lesson.getTitle() + "\n" + lesson.getContent());
+        request.setQuestionCount(Math.min(refillBatchSize, missing));
+        request.setDifficultyLevel(difficultyLevel);
+        request.setIncludeImages(false);
+        request.setFocusOnWeakAreas(false);
+        request.setWeakAreas(new ArrayList<>());
+        request.setLessonId(lessonId);
+        request.setCourseId(lesson.getCourse() != null ? lesson.getCourse().getId() : null);
+        request.setExcludedQuestions(poolEntryRepository.findRecentQuestionContents(
+                lessonId, difficultyLevel, PageRequest.of(0, MAX_EXCLUDED_QUESTIONS)));
+        return request;
+    }
+
+    private int store(Long lessonId, DifficultyLevel difficultyLevel, List<AIGeneratedQuestionDTO> generated) {
+        List<Question> questions = new ArrayList<>();
+        Set<String> hashes = new HashSet<>(poolEntryRepository.findContentHashes(lessonId, difficultyLevel));
+        for (AIGeneratedQuestionDTO candidate : generated) {
+            if (!isValid(candidate.getContent(), candidate.getCorrectAnswer(), candidate.getType())
+                    || !fits(candidate.getExplanation()) || !fits(candidate.getHint()) || !fits(candidate.getImageUrl())) {
+                continue;
+            }
+            // Only persist questions the pool will actually keep
+            if (hashes.add(contentHash(candidate.getContent(), candidate.getCorrectAnswer()))) {
+                Question question = new Question();
+                question.setContent(candidate.getContent().trim());
+                question.setCorrectAnswer(candidate.getCorrectAnswer().trim());
+                question.setType(candidate.getType().trim());
+                question.setAnswerExplanation(candidate.getExplanation());
+                question.setSuggestion(candidate.getHint());
+                question.setImageUrl(candidate.getImageUrl());
+                questions.add(questionRepository.save(question));
+            }
+        }
+        return offer(lessonId, difficultyLevel, questions);
+    }
+
+    static boolean isValid(String content, String correctAnswer, String type) {
+        return content != null && !content.isBlank() && fits(content)
+                && correctAnswer != null && !correctAnswer.isBlank() && fits(correctAnswer)
+                && type != null && !type.isBlank() && fits(type);
+    }
+
+    private static boolean fits(String value) {
+        return value == null || value.length() <= MAX_COLUMN_LENGTH;
+    }
+
+    /**
+     * Hash of the normalized question and answer, so rewordings in case or
+     * whitespace only count as the same question.
+     */
+    static String contentHash(String content, String correctAnswer) {
+        String normalized = normalize(content) + "\n" + normalize(correctAnswer);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record PoolCount(PoolKey key, long entries) {
+    }
+
+    private record PoolKey(Long lessonId, DifficultyLevel difficultyLevel) {
+        @Override
+        public String toString() {
+            return lessonId + ":" + difficultyLevel;
+        }
+    }
+}
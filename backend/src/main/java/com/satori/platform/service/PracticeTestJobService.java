@@ -0,0 +1,194 @@
+package com.satori.platform.service;
+
+import com.satori.platform.repository.UserProfileRepository;
+import com.satori.platform.service.dto.AIPracticeTestRequestDTO;
+import com.satori.platform.service.dto.PracticeTestJobDTO;
+import com.satori.platform.service.dto.QuizDTO;
+import com.satori.platform.service.exception.AIServiceException;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs AI practice test generation as background jobs.
+ * <p>
+ * Submitting returns a job immediately; a bounded worker pool runs the
+ * generation and the student is notified when it finishes. A request for the
+ * same student and course or lesson as a job still queued or running is
+ * coalesced into that job. Finished jobs are kept for polling for
+ * {@link #FINISHED_JOB_RETENTION}.
+ */
+@Service
+public class PracticeTestJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(PracticeTestJobService.class);
+
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    private final AIPracticeTestService aiPracticeTestService;
+    private final UserProfileRepository userProfileRepository;
+    private final PushNotificationService pushNotificationService;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, PracticeTestJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, String> inFlightJobIds = new ConcurrentHashMap<>();
+
+    public PracticeTestJobService(
+            AIPracticeTestService aiPracticeTestService,
+            UserProfileRepository userProfileRepository,
+            PushNotificationService pushNotificationService,
+            @Value("${app.ai.practice-test.workers:4}") int workers,
+            @Value("${app.ai.practice-test.queue-capacity:100}") int queueCapacity) {
+        this.aiPracticeTestService = aiPracticeTestService;
+        this.userProfileRepository = userProfileRepository;
+        this.pushNotificationService = pushNotificationService;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("practice-test-"));
+    }
+
+    /**
+     * Submit a practice test generation job.
+     *
+     * @param request the practice test generation request
+     * @return the new job, or the in-flight job for the same student and content
+     * @throws AIServiceException if the job queue is full
+     */
+    public PracticeTestJobDTO submit(AIPracticeTestRequestDTO request) {
+        log.debug("Submitting practice test generation job for request: {}", request);
+
+        aiPracticeTestService.validateRequest(request);
+
+        PracticeTestJob job = new PracticeTestJob(UUID.randomUUID().toString(), request);
+        String key = coalescingKey(request);
+        jobs.put(job.id, job);
+        String inFlightJobId = inFlightJobIds.putIfAbsent(key, job.id);
+        if (inFlightJobId != null) {
+            jobs.remove(job.id);
+            PracticeTestJob inFlightJob = jobs.get(inFlightJobId);
+            if (inFlightJob != null) {
+                log.debug("Coalesced practice test request into job {}", inFlightJobId);
+                return inFlightJob.toDto();
+            }
+            // The in-flight job finished in the meantime
+            return submit(request);
+        }
+
+        try {
+            executor.execute(() -> run(job, key));
+        } catch (RejectedExecutionException e) {
+            inFlightJobIds.remove(key, job.id);
+            jobs.remove(job.id);
+            throw new AIServiceException("Practice test generation queue is full, try again later", e);
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Get the state of a job.
+     *
+     * @param jobId the job ID
+     * @return the job, if it exists and has not expired
+     */
+    public Optional<PracticeTestJobDTO> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(PracticeTestJob::toDto);
+    }
+
+    /**
+     * Forget finished jobs older than the retention period.
+     */
+    @Scheduled(fixedDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void purgeFinishedJobs() {
+        Instant threshold = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(threshold));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(PracticeTestJob job, String key) {
+        job.status = PracticeTestJobDTO.Status.RUNNING;
+        PracticeTestJobDTO.Status outcome;
+        try {
+            job.quiz = aiPracticeTestService.generatePracticeTest(job.request);
+            outcome = PracticeTestJobDTO.Status.COMPLETED;
+        } catch (Exception e) {
+            log.warn("Practice test generation job {} failed: {}", job.id, e.getMessage());
+            job.errorMessage = e.getMessage();
+            outcome = PracticeTestJobDTO.Status.FAILED;
+        }
+        job.completedAt = Instant.now();
+        // Written last so a poller seeing a final status also sees its result
+        job.status = outcome;
+        inFlightJobIds.remove(key, job.id);
+        notifyStudent(job);
+    }
+
+    private void notifyStudent(PracticeTestJob job) {
+        try {
+            userProfileRepository.findById(job.request.getStudentId()).ifPresent(student -> {
+                Map<String, String> data = job.quiz != null
+                        ? Map.of("jobId", job.id, "quizId", String.valueOf(job.quiz.getId()))
+                        : Map.of("jobId", job.id);
+                if (job.status == PracticeTestJobDTO.Status.COMPLETED) {
+                    pushNotificationService.sendPushNotification(student, "Practice test ready",
+                            "Your practice test is ready to take.", data);
+                } else {
+                    pushNotificationService.sendPushNotification(student, "Practice test failed",
+                            "Your practice test could not be generated.", data);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to notify student about practice test job {}: {}", job.id, e.getMessage());
+        }
+    }
+
+    private static String coalescingKey(AIPracticeTestRequestDTO request) {
+        return request.getStudentId() + ":" + request.getCourseId() + ":" + request.getLessonId();
+    }
+
+    private static final class PracticeTestJob {
+
+        private final String id;
+        private final AIPracticeTestRequestDTO request;
+        private final Instant submittedAt = Instant.now();
+        private volatile PracticeTestJobDTO.Status status = PracticeTestJobDTO.Status.QUEUED;
+        private volatile QuizDTO quiz;
+        private volatile String errorMessage;
+        private volatile Instant completedAt;
+
+        private PracticeTestJob(String id, AIPracticeTestRequestDTO request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        private PracticeTestJobDTO toDto() {
+            PracticeTestJobDTO dto = new PracticeTestJobDTO();
+            dto.setJobId(id);
+            dto.setStudentId(request.getStudentId());
+            dto.setCourseId(request.getCourseId());
+            dto.setLessonId(request.getLessonId());
+            dto.setSubmittedAt(submittedAt);
+            dto.setQuiz(quiz);
+            dto.setErrorMessage(errorMessage);
+            dto.setCompletedAt(completedAt);
+            dto.setStatus(status);
+            return dto;
+        }
+    }
+}
@@ -25,9 +25,15 @@ public class QuestionService {
 
     private final QuestionMapper questionMapper;
 
-    public QuestionService(QuestionRepository questionRepository, QuestionMapper questionMapper) {
+    private final QuestionSetVersionCache questionSetVersionCache;
+
+    public QuestionService(
+            QuestionRepository questionRepository,
+            QuestionMapper questionMapper,
+            QuestionSetVersionCache questionSetVersionCache) {
         this.questionRepository = questionRepository;
         this.questionMapper = questionMapper;
+        this.questionSetVersionCache = questionSetVersionCache;
     }
 
     /**
@@ -53,6 +59,8 @@ public class QuestionService {
         LOG.debug("Request to update Question : {}", questionDTO);
         Question question = questionMapper.toEntity(questionDTO);
         question = questionRepository.save(question);
+        // A question may be part of several quizzes
+        questionSetVersionCache.evictAll();
         return questionMapper.toDto(question);
     }
 
@@ -64,6 +72,7 @@ public class QuestionService {
      */
     public Optional<QuestionDTO> partialUpdate(QuestionDTO questionDTO) {
         LOG.debug("Request to partially update Question : {}", questionDTO);
+        questionSetVersionCache.evictAll();
 
         return questionRepository
             .findById(questionDTO.getId())
@@ -108,5 +117,6 @@ public class QuestionService {
     public void delete(Long id) {
         LOG.debug("Request to delete Question : {}", id);
         questionRepository.deleteById(id);
+        questionSetVersionCache.evictAll();
     }
 }
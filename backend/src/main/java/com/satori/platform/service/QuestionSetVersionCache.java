@@ -0,0 +1,150 @@
+package com.satori.platform.service;
+
+import com.satori.platform.repository.QuizQuestionRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache of the question set versions of quizzes.
+ * <p>
+ * A version is a digest of the full question set, so it is computed once per
+ * quiz and kept until the quiz's questions change. Writes to quiz questions and
+ * questions evict it, and again after commit, so a version computed
+ * concurrently from the pre-commit questions cannot stay cached. The
+ * time-to-live bounds how long a change made through another instance goes
+ * unnoticed.
+ */
+@Service
+public class QuestionSetVersionCache {
+
+    private final QuizQuestionRepository quizQuestionRepository;
+
+    private final Duration timeToLive;
+
+    private final Map<Long, CachedVersion> versions;
+
+    // Bumped by every eviction, so a version computed across one is not kept
+    private final AtomicLong evictions = new AtomicLong();
+
+    public QuestionSetVersionCache(
+            QuizQuestionRepository quizQuestionRepository,
+            @Value("${app.quiz.question-set-version.max-entries:1000}") int maxEntries,
+            @Value("${app.quiz.question-set-version.time-to-live:PT5M}") Duration timeToLive) {
+        this.quizQuestionRepository = quizQuestionRepository;
+        this.timeToLive = timeToLive;
+        this.versions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedVersion> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the version of a quiz's question set, computing it on a miss.
+     *
+     * @param quizId the quiz ID
+     * @return the question set version
+     */
+    public String get(Long quizId) {
+        Instant now = Instant.now();
+        synchronized (versions) {
+            CachedVersion cached = versions.get(quizId);
+            if (cached != null && !cached.isExpired(now, timeToLive)) {
+                return cached.version();
+            }
+        }
+
+        long evictionsBefore = evictions.get();
+        String version = questionSetVersion(quizId, quizQuestionRepository.findQuestionSetByQuizId(quizId));
+        synchronized (versions) {
+            if (evictions.get() == evictionsBefore) {
+                versions.put(quizId, new CachedVersion(version, now));
+            }
+        }
+        return version;
+    }
+
+    /**
+     * Drop the version of a quiz whose questions were added, removed or
+     * reordered.
+     *
+     * @param quizId the quiz ID, may be null
+     */
+    public void evictQuiz(Long quizId) {
+        if (quizId == null) {
+            return;
+        }
+        evictAndRepeatAfterCommit(() -> versions.remove(quizId));
+    }
+
+    /**
+     * Drop every version, e.g. when a question that may be shared by several
+     * quizzes is edited.
+     */
+    public void evictAll() {
+        evictAndRepeatAfterCommit(versions::clear);
+    }
+
+    private void evictAndRepeatAfterCommit(Runnable eviction) {
+        evict(eviction);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(eviction);
+                }
+            });
+        }
+    }
+
+    private void evict(Runnable eviction) {
+        synchronized (versions) {
+            evictions.incrementAndGet();
+            eviction.run();
+        }
+    }
+
+    /**
+     * A version of a quiz's question set that changes when questions are
+     * added, removed, reordered or edited: a digest of every column of the
+     * question set rows.
+     */
+    static String questionSetVersion(Long quizId, List<Object[]> questionSet) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object[] row : questionSet) {
+                for (Object column : row) {
+                    // Null and empty columns differ, so no value can shift into its neighbour
+                    if (column != null) {
+                        digest.update((byte) 1);
+                        digest.update(column.toString().getBytes(StandardCharsets.UTF_8));
+                    }
+                    digest.update((byte) 0);
+                }
+                digest.update((byte) '\n');
+            }
+            return quizId + "-" + HexFormat.of().formatHex(digest.digest(), 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedVersion(String version, Instant computedAt) {
+        private boolean isExpired(Instant now, Duration timeToLive) {
+            return computedAt.plus(timeToLive).isBefore(now);
+        }
+    }
+}
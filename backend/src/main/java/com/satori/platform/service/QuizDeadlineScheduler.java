@@ -0,0 +1,183 @@
+package com.satori.platform.service;
+
+import com.satori.platform.repository.StudentQuizRepository;
+import com.satori.platform.service.event.QuizDeadlineChangedEvent;
+import com.satori.platform.service.event.QuizTimingChangedEvent;
+import com.satori.platform.service.util.TimingWheel;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Submits quiz attempts within one tick of their deadline.
+ * <p>
+ * Every running attempt has a timer on an in-memory {@link TimingWheel}:
+ * deadlines within the look-ahead window are loaded on startup and on every
+ * look-ahead interval, and attempts that start or resume in between are added
+ * as they commit. When a quiz's time limit or close time changes, the deadlines
+ * of its running attempts are recomputed and put on the wheel. When timers
+ * expire, one
+ * {@link StudentQuizService#submitExpiredAttempts} call submits and scores
+ * every attempt that is due, so all students of an exam are submitted in the
+ * same pass. A timer left from before a pause is harmless: a paused attempt has
+ * no deadline and is not submitted.
+ */
+@Service
+public class QuizDeadlineScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QuizDeadlineScheduler.class);
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 3;
+
+    private final StudentQuizService studentQuizService;
+    private final StudentQuizRepository studentQuizRepository;
+    private final long tickMillis;
+    private final Duration lookAhead;
+
+    // Guarded by this
+    private final TimingWheel<Long> wheel;
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("quiz-deadline-"));
+
+    public QuizDeadlineScheduler(
+            StudentQuizService studentQuizService,
+            StudentQuizRepository studentQuizRepository,
+            @Value("${app.quiz.deadlines.tick:PT1S}") Duration tick,
+            @Value("${app.quiz.deadlines.look-ahead:PT15M}") Duration lookAhead) {
+        this.studentQuizService = studentQuizService;
+        this.studentQuizRepository = studentQuizRepository;
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.lookAhead = lookAhead;
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    /**
+     * Give attempts from before deadlines were stored a deadline, load the
+     * wheel and start ticking.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            int assigned = studentQuizService.assignMissingDeadlines();
+            if (assigned > 0) {
+                LOG.info("Set the deadline of {} running quiz attempts", assigned);
+            }
+        } catch (Exception e) {
+            LOG.error("Error setting missing quiz attempt deadlines", e);
+        }
+        loadAhead();
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Put every deadline within the look-ahead window on the wheel, including
+     * overdue ones, which also catches attempts whose quiz was closed early.
+     */
+    @Scheduled(fixedDelayString = "${app.quiz.deadlines.load-interval-ms:300000}",
+            initialDelayString = "${app.quiz.deadlines.load-interval-ms:300000}")
+    public void loadAhead() {
+        try {
+            List<Object[]> deadlines = studentQuizRepository.findDeadlinesBefore(Instant.now().plus(lookAhead));
+            synchronized (this) {
+                for (Object[] row : deadlines) {
+                    wheel.schedule((Long) row[0], ((Instant) row[1]).toEpochMilli());
+                }
+            }
+            LOG.debug("Loaded {} quiz attempt deadlines onto the timing wheel", deadlines.size());
+        } catch (Exception e) {
+            LOG.error("Error loading quiz attempt deadlines", e);
+        }
+    }
+
+    /**
+     * Set the timer of an attempt that started or resumed once its transaction
+     * has committed, if it is due within the look-ahead window.
+     *
+     * @param event the deadline change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDeadlineChanged(QuizDeadlineChangedEvent event) {
+        if (event.getDeadline() != null && event.getDeadline().isBefore(Instant.now().plus(lookAhead))) {
+            synchronized (this) {
+                wheel.schedule(event.getStudentQuizId(), event.getDeadline().toEpochMilli());
+            }
+        }
+    }
+
+    /**
+     * Recompute the deadlines of the running attempts of a quiz whose timing
+     * changed once its transaction has committed, and set the timers of those
+     * due within the look-ahead window. Timers left at an earlier deadline
+     * only cost an empty update.
+     *
+     * @param event the timing change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onQuizTimingChanged(QuizTimingChangedEvent event) {
+        try {
+            if (studentQuizService.recomputeDeadlines(event.getQuizId()) == 0) {
+                return;
+            }
+            List<Object[]> deadlines = studentQuizRepository.findDeadlinesByQuizIdBefore(event.getQuizId(),
+                    Instant.now().plus(lookAhead));
+            synchronized (this) {
+                for (Object[] row : deadlines) {
+                    wheel.schedule((Long) row[0], ((Instant) row[1]).toEpochMilli());
+                }
+            }
+        } catch (Exception e) {
+            LOG.error("Error recomputing the attempt deadlines of quiz {}", event.getQuizId(), e);
+        }
+    }
+
+    /**
+     * @return the number of timers waiting on the wheel
+     */
+    public synchronized int getPendingCount() {
+        return wheel.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Advance the wheel and, if any timer expired, submit every attempt that
+     * is due. A timer loaded twice only costs an empty update.
+     */
+    void tick() {
+        int expired;
+        synchronized (this) {
+            int[] count = new int[1];
+            wheel.advance(System.currentTimeMillis(), id -> count[0]++);
+            expired = count[0];
+        }
+        if (expired == 0) {
+            return;
+        }
+
+        try {
+            studentQuizService.submitExpiredAttempts(Instant.now());
+        } catch (Exception e) {
+            // Runs on the ticker thread, which must survive any failure; the next load retries
+            LOG.error("Error submitting {} expired quiz attempts", expired, e);
+        }
+    }
+}
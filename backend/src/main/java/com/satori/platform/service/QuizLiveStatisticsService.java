@@ -0,0 +1,568 @@
+package com.satori.platform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.satori.platform.domain.QuizStatisticsSnapshot;
+import com.satori.platform.repository.QuizStatisticsSnapshotRepository;
+import com.satori.platform.repository.StudentQuizRepository;
+import com.satori.platform.repository.StudentQuizResponseRepository;
+import com.satori.platform.service.dto.QuizLiveStatisticsDTO;
+import com.satori.platform.service.event.QuizAnswerSubmittedEvent;
+import com.satori.platform.service.event.QuizAttemptsSubmittedEvent;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live results of running quizzes, aggregated in memory from answer and
+ * submission events.
+ * <p>
+ * The statistics of a quiz are seeded from the database the first time they
+ * are asked for, then kept up to date by every answer and submission: the
+ * score histogram, per-question correctness and the leaderboard each cost
+ * constant or logarithmic work per event, so watching a large exam runs no
+ * aggregate queries. Changed statistics are pushed to open streams every push
+ * interval and written as a snapshot every snapshot interval; a quiz that
+ * nobody watched for an interval is dropped from memory. A finished quiz
+ * whose snapshot was taken after its last submission is served from the
+ * snapshot.
+ * <p>
+ * Answers are counted by attempt and question, so an event that is replayed or
+ * that the seed already saw changes nothing. Events that arrive while a quiz is
+ * being seeded are held back and applied once the seed is in.
+ * <p>
+ * The statistics are local to the instance: each one counts the events of the
+ * requests it served on top of the seed, so behind a load balancer two
+ * instances can show different statistics until one of them seeds again.
+ */
+@Service
+public class QuizLiveStatisticsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QuizLiveStatisticsService.class);
+
+    static final int HISTOGRAM_BUCKETS = 10;
+
+    private final StudentQuizRepository studentQuizRepository;
+    private final StudentQuizResponseRepository studentQuizResponseRepository;
+    private final QuizStatisticsSnapshotRepository quizStatisticsSnapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final int leaderboardSize;
+    private final Duration snapshotInterval;
+    private final long streamTimeoutMillis;
+
+    private final Map<Long, Aggregate> aggregates = new ConcurrentHashMap<>();
+    private final Map<Long, List<SseEmitter>> streams = new ConcurrentHashMap<>();
+
+    public QuizLiveStatisticsService(
+            StudentQuizRepository studentQuizRepository,
+            StudentQuizResponseRepository studentQuizResponseRepository,
+            QuizStatisticsSnapshotRepository quizStatisticsSnapshotRepository,
+            ObjectMapper objectMapper,
+            @Value("${app.quiz.statistics.leaderboard-size:10}") int leaderboardSize,
+            @Value("${app.quiz.statistics.snapshot-interval-ms:60000}") long snapshotIntervalMs,
+            @Value("${app.quiz.statistics.stream-timeout:PT3H}") Duration streamTimeout) {
+        this.studentQuizRepository = studentQuizRepository;
+        this.studentQuizResponseRepository = studentQuizResponseRepository;
+        this.quizStatisticsSnapshotRepository = quizStatisticsSnapshotRepository;
+        this.objectMapper = objectMapper;
+        this.leaderboardSize = leaderboardSize;
+        this.snapshotInterval = Duration.ofMillis(snapshotIntervalMs);
+        this.streamTimeoutMillis = streamTimeout.toMillis();
+    }
+
+    /**
+     * Get the live statistics of a quiz.
+     *
+     * @param quizId the quiz ID
+     * @return the statistics
+     */
+    public QuizLiveStatisticsDTO getStatistics(Long quizId) {
+        return aggregate(quizId).toDto(quizId, leaderboardSize);
+    }
+
+    /**
+     * Open a stream of the live statistics of a quiz. The first event is the
+     * current statistics; later ones are sent when they change.
+     *
+     * @param quizId the quiz ID
+     * @return the emitter of the stream
+     */
+    public SseEmitter subscribe(Long quizId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        List<SseEmitter> emitters = streams.computeIfAbsent(quizId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        send(emitter, getStatistics(quizId));
+        return emitter;
+    }
+
+    /**
+     * Count an answer towards its question and attempt, if the statistics of
+     * its quiz are in memory.
+     *
+     * @param event the answer
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAnswerSubmitted(QuizAnswerSubmittedEvent event) {
+        Aggregate aggregate = liveAggregate(event.getQuizId());
+        if (aggregate == null) {
+            return;
+        }
+        aggregate.answer(new Answer(event.getStudentQuizId(), event.getQuizQuestionId(), event.isCorrect()));
+        aggregate.standing(new Standing(event.getStudentQuizId(), event.getStudentId(), event.getCorrectAnswers(),
+                null, false));
+    }
+
+    /**
+     * Count the final scores of submitted attempts of quizzes whose statistics
+     * are in memory.
+     *
+     * @param event the submission
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAttemptsSubmitted(QuizAttemptsSubmittedEvent event) {
+        if (aggregates.isEmpty()) {
+            return;
+        }
+        if (event.getStudentQuizId() == null && event.getExpiredIds().isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = event.getStudentQuizId() != null
+                ? studentQuizRepository.findStandingById(event.getStudentQuizId())
+                : studentQuizRepository.findStandingsByIdIn(event.getExpiredIds());
+        for (Object[] row : rows) {
+            Aggregate aggregate = liveAggregate((Long) row[1]);
+            if (aggregate != null) {
+                aggregate.standing(standing(row));
+            }
+        }
+    }
+
+    /**
+     * Push the statistics that changed to their open streams.
+     */
+    @Scheduled(fixedDelayString = "${app.quiz.statistics.push-interval-ms:2000}")
+    public void push() {
+        streams.forEach((quizId, emitters) -> {
+            Aggregate aggregate = aggregates.get(quizId);
+            if (emitters.isEmpty() || aggregate == null || !aggregate.takePushChange()) {
+                return;
+            }
+            QuizLiveStatisticsDTO statistics = aggregate.toDto(quizId, leaderboardSize);
+            for (SseEmitter emitter : emitters) {
+                if (!send(emitter, statistics)) {
+                    emitters.remove(emitter);
+                }
+            }
+        });
+    }
+
+    /**
+     * Write a snapshot of the statistics that changed, and drop those nobody
+     * watched or changed for an interval.
+     */
+    @Scheduled(fixedDelayString = "${app.quiz.statistics.snapshot-interval-ms:60000}",
+            initialDelayString = "${app.quiz.statistics.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        Instant now = Instant.now();
+        aggregates.forEach((quizId, aggregate) -> {
+            try {
+                if (aggregate.takeSnapshotChange()) {
+                    saveSnapshot(quizId, aggregate.toDto(quizId, leaderboardSize), now);
+                } else if (aggregate.isIdleSince(now.minus(snapshotInterval)) && !isStreamed(quizId)) {
+                    aggregates.remove(quizId, aggregate);
+                }
+            } catch (Exception e) {
+                LOG.error("Error writing the statistics snapshot of quiz {}", quizId, e);
+            }
+        });
+    }
+
+    /**
+     * @return the number of quizzes whose statistics are in memory
+     */
+    public int getAggregatedQuizCount() {
+        return aggregates.size();
+    }
+
+    /**
+     * The statistics of a quiz, seeded if they are not in memory. The
+     * statistics are put in memory before the database is read, so the events
+     * committed while seeding are held back rather than lost, and other
+     * readers wait for the seed.
+     */
+    private Aggregate aggregate(Long quizId) {
+        while (true) {
+            Aggregate aggregate = aggregates.get(quizId);
+            if (aggregate != null) {
+                if (aggregate.awaitSeeded()) {
+                    return aggregate;
+                }
+                continue;
+            }
+
+            Aggregate frozen = frozen(quizId);
+            if (frozen != null) {
+                aggregate = aggregates.putIfAbsent(quizId, frozen);
+                return aggregate != null ? aggregate : frozen;
+            }
+
+            Aggregate seeding = Aggregate.seeding();
+            if (aggregates.putIfAbsent(quizId, seeding) != null) {
+                continue;
+            }
+            try {
+                seed(quizId, seeding);
+            } catch (RuntimeException e) {
+                aggregates.remove(quizId, seeding);
+                seeding.abandon();
+                throw e;
+            }
+            return seeding;
+        }
+    }
+
+    /**
+     * The statistics of a quiz that follow its events, or null if they are not
+     * in memory. Statistics served from a snapshot are dropped, so the next
+     * read seeds them again.
+     */
+    private Aggregate liveAggregate(Long quizId) {
+        Aggregate aggregate = aggregates.get(quizId);
+        if (aggregate != null && aggregate.isFrozen()) {
+            aggregates.remove(quizId, aggregate);
+            return null;
+        }
+        return aggregate;
+    }
+
+    /**
+     * The statistics of a finished quiz restored from its snapshot, or null
+     * if they have to be aggregated.
+     */
+    private Aggregate frozen(Long quizId) {
+        Optional<QuizStatisticsSnapshot> snapshot = quizStatisticsSnapshotRepository.findByQuizId(quizId);
+        if (snapshot.isPresent() && isFinal(quizId, snapshot.get())) {
+            try {
+                return Aggregate.frozen(objectMapper.readValue(snapshot.get().getPayload(), QuizLiveStatisticsDTO.class));
+            } catch (JsonProcessingException e) {
+                LOG.warn("Unreadable statistics snapshot of quiz {}, aggregating again", quizId, e);
+            }
+        }
+        return null;
+    }
+
+    private void seed(Long quizId, Aggregate aggregate) {
+        List<Standing> standings = studentQuizRepository.findStandingsByQuizId(quizId).stream()
+                .map(QuizLiveStatisticsService::standing)
+                .toList();
+        List<Answer> answers = studentQuizResponseRepository.findCorrectnessByQuizId(quizId).stream()
+                .map(row -> new Answer((Long) row[0], (Long) row[1], Boolean.TRUE.equals(row[2])))
+                .toList();
+        aggregate.seed(standings, answers);
+        LOG.debug("Seeded the live statistics of quiz {}", quizId);
+    }
+
+    /**
+     * Whether a snapshot still holds: no attempt of the quiz is running and
+     * none was submitted after it was taken.
+     */
+    private boolean isFinal(Long quizId, QuizStatisticsSnapshot snapshot) {
+        return !studentQuizRepository.existsByQuizIdAndCompletedFalse(quizId)
+                && studentQuizRepository.findLastEndTimeByQuizId(quizId)
+                        .map(lastEnd -> !snapshot.getTakenAt().isBefore(lastEnd))
+                        .orElse(true);
+    }
+
+    private void saveSnapshot(Long quizId, QuizLiveStatisticsDTO statistics, Instant now) throws JsonProcessingException {
+        QuizStatisticsSnapshot snapshot = quizStatisticsSnapshotRepository.findByQuizId(quizId)
+                .orElseGet(() -> new QuizStatisticsSnapshot(quizId));
+        snapshot.setPayload(objectMapper.writeValueAsString(statistics));
+        snapshot.setTakenAt(now);
+        quizStatisticsSnapshotRepository.save(snapshot);
+    }
+
+    private boolean isStreamed(Long quizId) {
+        List<SseEmitter> emitters = streams.get(quizId);
+        return emitters != null && !emitters.isEmpty();
+    }
+
+    private static Standing standing(Object[] row) {
+        Integer correctAnswers = (Integer) row[3];
+        return new Standing((Long) row[0], (Long) row[2], correctAnswers != null ? correctAnswers : 0,
+                (Double) row[4], Boolean.TRUE.equals(row[5]));
+    }
+
+    private static boolean send(SseEmitter emitter, QuizLiveStatisticsDTO statistics) {
+        try {
+            emitter.send(SseEmitter.event().name("statistics").data(statistics));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the emitter's callbacks drop it
+            LOG.debug("Could not push the statistics of quiz {}: {}", statistics.getQuizId(), e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * The standing of one attempt: its correct answers while it runs, and its
+     * final score once submitted.
+     */
+    record Standing(Long studentQuizId, Long studentId, int correctAnswers, Double score, boolean submitted) {
+    }
+
+    /**
+     * The current answer of an attempt to a question.
+     */
+    record Answer(Long studentQuizId, Long quizQuestionId, boolean correct) {
+    }
+
+    /**
+     * The running statistics of one quiz, or the statistics restored from a
+     * snapshot, which no longer change. While the statistics are being seeded,
+     * the events they receive are held back and replayed after the seed.
+     */
+    static final class Aggregate {
+
+        private static final Comparator<Standing> RANKING = Comparator.comparingInt(Standing::correctAnswers).reversed()
+                .thenComparing(standing -> standing.score() != null ? standing.score() : -1.0, Comparator.reverseOrder())
+                .thenComparing(Standing::studentQuizId);
+
+        private final QuizLiveStatisticsDTO frozen;
+
+        // Guarded by this
+        private final Map<Long, Standing> standings = new HashMap<>();
+        private final TreeSet<Standing> ranking = new TreeSet<>(RANKING);
+        private final int[] histogram = new int[HISTOGRAM_BUCKETS];
+        private final Map<Long, int[]> questions = new TreeMap<>();
+        private final Map<Long, Map<Long, Boolean>> answers = new HashMap<>();
+        private List<Runnable> heldBack;
+        private boolean abandoned;
+        private int submitted;
+        private double scoreSum;
+        private Double bestScore;
+        private boolean changedSincePush;
+        private boolean changedSinceSnapshot = true;
+        private Instant lastUsedAt = Instant.now();
+
+        Aggregate() {
+            this(null);
+        }
+
+        private Aggregate(QuizLiveStatisticsDTO frozen) {
+            this.frozen = frozen;
+            this.changedSinceSnapshot = frozen == null;
+        }
+
+        static Aggregate frozen(QuizLiveStatisticsDTO statistics) {
+            return new Aggregate(statistics);
+        }
+
+        static Aggregate seeding() {
+            Aggregate aggregate = new Aggregate();
+            aggregate.heldBack = new ArrayList<>();
+            return aggregate;
+        }
+
+        /**
+         * Apply the seed read from the database, then the events held back
+         * while it was read.
+         */
+        synchronized void seed(List<Standing> standings, List<Answer> answers) {
+            standings.forEach(this::applyStanding);
+            answers.forEach(this::applyAnswer);
+            heldBack.forEach(Runnable::run);
+            heldBack = null;
+            changed();
+            notifyAll();
+        }
+
+        /**
+         * Give up seeding after the database could not be read. Waiting
+         * readers seed the statistics again.
+         */
+        synchronized void abandon() {
+            heldBack = null;
+            abandoned = true;
+            notifyAll();
+        }
+
+        /**
+         * Wait until the statistics are seeded.
+         *
+         * @return false if seeding was abandoned
+         */
+        synchronized boolean awaitSeeded() {
+            while (heldBack != null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the statistics seed", e);
+                }
+            }
+            return !abandoned;
+        }
+
+        boolean isFrozen() {
+            return frozen != null;
+        }
+
+        /**
+         * Replace the standing of an attempt. A submitted standing is final
+         * and counted once.
+         */
+        synchronized void standing(Standing standing) {
+            if (heldBack != null) {
+                heldBack.add(() -> applyStanding(standing));
+            } else {
+                applyStanding(standing);
+            }
+        }
+
+        private void applyStanding(Standing standing) {
+            Standing previous = standings.get(standing.studentQuizId());
+            if (previous != null) {
+                if (previous.submitted()) {
+                    return;
+                }
+                ranking.remove(previous);
+            }
+            standings.put(standing.studentQuizId(), standing);
+            ranking.add(standing);
+
+            if (standing.submitted()) {
+                double score = standing.score() != null ? standing.score() : 0.0;
+                histogram[bucket(score)]++;
+                submitted++;
+                scoreSum += score;
+                bestScore = bestScore == null ? score : Math.max(bestScore, score);
+            }
+            changed();
+        }
+
+        /**
+         * Replace the answer of an attempt to a question, counting a first
+         * answer once and a changed one from the answer it replaces.
+         */
+        synchronized void answer(Answer answer) {
+            if (heldBack != null) {
+                heldBack.add(() -> applyAnswer(answer));
+            } else {
+                applyAnswer(answer);
+            }
+        }
+
+        private void applyAnswer(Answer answer) {
+            Boolean previous = answers.computeIfAbsent(answer.studentQuizId(), id -> new HashMap<>())
+                    .put(answer.quizQuestionId(), answer.correct());
+            if (previous != null && previous == answer.correct()) {
+                return;
+            }
+            int[] counts = questions.computeIfAbsent(answer.quizQuestionId(), id -> new int[2]);
+            if (previous == null) {
+                counts[0]++;
+            }
+            counts[1] += (answer.correct() ? 1 : 0) - (Boolean.TRUE.equals(previous) ? 1 : 0);
+            changed();
+        }
+
+        synchronized QuizLiveStatisticsDTO toDto(Long quizId, int leaderboardSize) {
+            lastUsedAt = Instant.now();
+            if (frozen != null) {
+                return frozen;
+            }
+
+            QuizLiveStatisticsDTO statistics = new QuizLiveStatisticsDTO();
+            statistics.setQuizId(quizId);
+            statistics.setStartedCount(standings.size());
+            statistics.setSubmittedCount(submitted);
+            statistics.setAverageScore(submitted > 0 ? scoreSum / submitted : null);
+            statistics.setBestScore(bestScore);
+            statistics.setScoreHistogram(histogram.clone());
+
+            List<QuizLiveStatisticsDTO.QuestionStatistics> questionStatistics = new ArrayList<>(questions.size());
+            questions.forEach((quizQuestionId, counts) -> {
+                QuizLiveStatisticsDTO.QuestionStatistics question = new QuizLiveStatisticsDTO.QuestionStatistics();
+                question.setQuizQuestionId(quizQuestionId);
+                question.setAnswered(counts[0]);
+                question.setCorrect(counts[1]);
+                question.setCorrectRate(counts[0] > 0 ? counts[1] * 100.0 / counts[0] : null);
+                questionStatistics.add(question);
+            });
+            statistics.setQuestions(questionStatistics);
+
+            List<QuizLiveStatisticsDTO.LeaderboardEntry> leaderboard = new ArrayList<>(leaderboardSize);
+            for (Standing standing : ranking) {
+                if (leaderboard.size() == leaderboardSize) {
+                    break;
+                }
+                QuizLiveStatisticsDTO.LeaderboardEntry entry = new QuizLiveStatisticsDTO.LeaderboardEntry();
+                entry.setRank(leaderboard.size() + 1);
+                entry.setStudentQuizId(standing.studentQuizId());
+                entry.setStudentId(standing.studentId());
+                entry.setCorrectAnswers(standing.correctAnswers());
+                entry.setScore(standing.score());
+                entry.setSubmitted(standing.submitted());
+                leaderboard.add(entry);
+            }
+            statistics.setLeaderboard(leaderboard);
+            statistics.setUpdatedAt(Instant.now());
+            return statistics;
+        }
+
+        synchronized boolean takePushChange() {
+            if (heldBack != null) {
+                return false;
+            }
+            boolean changed = changedSincePush;
+            changedSincePush = false;
+            return changed;
+        }
+
+        synchronized boolean takeSnapshotChange() {
+            if (heldBack != null) {
+                return false;
+            }
+            boolean changed = changedSinceSnapshot;
+            changedSinceSnapshot = false;
+            return changed;
+        }
+
+        synchronized boolean isIdleSince(Instant since) {
+            return heldBack == null && lastUsedAt.isBefore(since);
+        }
+
+        private void changed() {
+            changedSincePush = true;
+            changedSinceSnapshot = true;
+            lastUsedAt = Instant.now();
+        }
+
+        static int bucket(double score) {
+            return Math.min(HISTOGRAM_BUCKETS - 1, Math.max(0, (int) (score / (100.0 / HISTOGRAM_BUCKETS))));
+        }
+    }
+}
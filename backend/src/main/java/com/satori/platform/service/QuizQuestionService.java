@@ -5,7 +5,9 @@ import com.satori.platform.repository.QuizQuestionRepository;
 import com.satori.platform.service.dto.QuizQuestionDTO;
 import com.satori.platform.service.mapper.QuizQuestionMapper;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -28,13 +30,28 @@ public class QuizQuestionService {
 
     private static final Logger LOG = LoggerFactory.getLogger(QuizQuestionService.class);
 
+    /**
+     * Gap between consecutive positions after a renumbering. Positions only
+     * order the questions of a quiz, so a question is usually moved or
+     * inserted by giving it a position between its new neighbours, touching a
+     * single row. Only when a gap is used up is the quiz renumbered, with one
+     * update statement.
+     */
+    static final int POSITION_GAP = 1024;
+
     private final QuizQuestionRepository quizQuestionRepository;
 
     private final QuizQuestionMapper quizQuestionMapper;
 
-    public QuizQuestionService(QuizQuestionRepository quizQuestionRepository, QuizQuestionMapper quizQuestionMapper) {
+    private final QuestionSetVersionCache questionSetVersionCache;
+
+    public QuizQuestionService(
+            QuizQuestionRepository quizQuestionRepository,
+            QuizQuestionMapper quizQuestionMapper,
+            QuestionSetVersionCache questionSetVersionCache) {
         this.quizQuestionRepository = quizQuestionRepository;
         this.quizQuestionMapper = quizQuestionMapper;
+        this.questionSetVersionCache = questionSetVersionCache;
     }
 
     /**
@@ -47,6 +64,8 @@ public class QuizQuestionService {
         LOG.debug("Request to save QuizQuestion : {}", quizQuestionDTO);
         QuizQuestion quizQuestion = quizQuestionMapper.toEntity(quizQuestionDTO);
         quizQuestion = quizQuestionRepository.save(quizQuestion);
+        // The question may have been moved out of another quiz
+        questionSetVersionCache.evictAll();
         return quizQuestionMapper.toDto(quizQuestion);
     }
 
@@ -60,6 +79,7 @@ public class QuizQuestionService {
         LOG.debug("Request to update QuizQuestion : {}", quizQuestionDTO);
         QuizQuestion quizQuestion = quizQuestionMapper.toEntity(quizQuestionDTO);
         quizQuestion = quizQuestionRepository.save(quizQuestion);
+        questionSetVersionCache.evictAll();
         return quizQuestionMapper.toDto(quizQuestion);
     }
 
@@ -71,6 +91,7 @@ public class QuizQuestionService {
      */
     public Optional<QuizQuestionDTO> partialUpdate(QuizQuestionDTO quizQuestionDTO) {
         LOG.debug("Request to partially update QuizQuestion : {}", quizQuestionDTO);
+        questionSetVersionCache.evictAll();
 
         return quizQuestionRepository
                 .findById(quizQuestionDTO.getId())
@@ -115,6 +136,7 @@ public class QuizQuestionService {
     public void delete(Long id) {
         LOG.debug("Request to delete QuizQuestion : {}", id);
         quizQuestionRepository.deleteById(id);
+        questionSetVersionCache.evictAll();
     }
 
     /**
@@ -135,7 +157,8 @@ public class QuizQuestionService {
     /**
      * Add a question to a quiz at a specific position.
      *
-     * @param quizQuestionDTO the question to add.
+     * @param quizQuestionDTO the question to add; its position is the 1-based
+     *                        place in the quiz, or null to append.
      * @return the saved question.
      */
     @Transactional
@@ -143,28 +166,23 @@ public class QuizQuestionService {
         LOG.debug("Request to add QuizQuestion at position : {}", quizQuestionDTO);
 
         Long quizId = quizQuestionDTO.getQuiz().getId();
+        List<Slot> slots = findSlots(quizId);
         Integer targetPosition = quizQuestionDTO.getPosition();
-
-        // If no position specified, add at the end
-        if (targetPosition == null) {
-            Optional<Integer> maxPosition = quizQuestionRepository.findMaxPositionByQuizId(quizId);
-            targetPosition = maxPosition.orElse(0) + 1;
-            quizQuestionDTO.setPosition(targetPosition);
-        } else {
-            // Shift existing questions to make room
-            shiftQuestionsDown(quizId, targetPosition);
-        }
+        int index = targetPosition == null ? slots.size() : clampIndex(targetPosition - 1, slots.size());
+        quizQuestionDTO.setPosition(claimPosition(quizId, slots, index));
 
         QuizQuestion quizQuestion = quizQuestionMapper.toEntity(quizQuestionDTO);
         quizQuestion = quizQuestionRepository.save(quizQuestion);
+        questionSetVersionCache.evictQuiz(quizId);
         return quizQuestionMapper.toDto(quizQuestion);
     }
 
     /**
-     * Move a question to a new position within the quiz.
+     * Move a question to a new position within the quiz. Usually only the
+     * moved question is updated.
      *
      * @param questionId  the question id.
-     * @param newPosition the new position.
+     * @param newPosition the new 1-based place in the quiz.
      * @return the updated question.
      */
     @Transactional
@@ -175,24 +193,25 @@ public class QuizQuestionService {
                 .orElseThrow(() -> new IllegalArgumentException("QuizQuestion not found with id: " + questionId));
 
         Long quizId = question.getQuiz().getId();
-        Integer currentPosition = question.getPosition();
+        List<Slot> slots = findSlots(quizId);
+        int currentIndex = indexOf(slots, questionId);
+        slots.remove(currentIndex);
+        int targetIndex = clampIndex(newPosition - 1, slots.size());
 
-        if (currentPosition.equals(newPosition)) {
+        if (targetIndex == currentIndex) {
             return quizQuestionMapper.toDto(question);
         }
 
-        // Reorder questions
-        reorderQuestions(quizId, currentPosition, newPosition);
-
-        // Update the moved question
-        question.setPosition(newPosition);
+        question.setPosition(claimPosition(quizId, slots, targetIndex));
         question = quizQuestionRepository.save(question);
+        questionSetVersionCache.evictQuiz(quizId);
 
         return quizQuestionMapper.toDto(question);
     }
 
     /**
-     * Remove a question and reorder remaining questions.
+     * Remove a question. The remaining questions keep their positions, since
+     * gaps between positions are expected.
      *
      * @param questionId the question id to remove.
      */
@@ -202,19 +221,14 @@ public class QuizQuestionService {
 
         QuizQuestion question = quizQuestionRepository.findById(questionId)
                 .orElseThrow(() -> new IllegalArgumentException("QuizQuestion not found with id: " + questionId));
-
-        Long quizId = question.getQuiz().getId();
-        Integer removedPosition = question.getPosition();
-
-        // Delete the question
-        quizQuestionRepository.deleteById(questionId);
-
-        // Shift remaining questions up
-        shiftQuestionsUp(quizId, removedPosition);
+        quizQuestionRepository.delete(question);
+        questionSetVersionCache.evictQuiz(question.getQuiz() != null ? question.getQuiz().getId() : null);
     }
 
     /**
-     * Reorder all questions in a quiz based on provided question IDs.
+     * Reorder all questions in a quiz based on provided question IDs, with a
+     * single update statement. Questions missing from the list keep their
+     * relative order after the listed ones.
      *
      * @param quizId             the quiz id.
      * @param orderedQuestionIds the list of question IDs in desired order.
@@ -223,19 +237,19 @@ public class QuizQuestionService {
     public void reorderQuestions(Long quizId, List<Long> orderedQuestionIds) {
         LOG.debug("Request to reorder questions for quiz : {} with order : {}", quizId, orderedQuestionIds);
 
-        for (int i = 0; i < orderedQuestionIds.size(); i++) {
-            Long questionId = orderedQuestionIds.get(i);
-            Optional<QuizQuestion> questionOpt = quizQuestionRepository.findById(questionId);
-
-            if (questionOpt.isPresent()) {
-                QuizQuestion question = questionOpt.get();
-                if (!question.getQuiz().getId().equals(quizId)) {
-                    throw new IllegalArgumentException("Question " + questionId + " does not belong to quiz " + quizId);
-                }
-                question.setPosition(i + 1);
-                quizQuestionRepository.save(question);
+        List<Slot> slots = findSlots(quizId);
+        Set<Long> quizQuestionIds = slots.stream().map(Slot::id).collect(Collectors.toSet());
+        Set<Long> order = new LinkedHashSet<>();
+        for (Long questionId : orderedQuestionIds) {
+            if (!quizQuestionIds.contains(questionId)) {
+                throw new IllegalArgumentException("Question " + questionId + " does not belong to quiz " + quizId);
             }
+            order.add(questionId);
         }
+        slots.forEach(slot -> order.add(slot.id()));
+
+        renumber(quizId, slots, new ArrayList<>(order));
+        questionSetVersionCache.evictQuiz(quizId);
     }
 
     /**
@@ -248,7 +262,7 @@ public class QuizQuestionService {
     public Integer getNextPosition(Long quizId) {
         LOG.debug("Request to get next position for quiz : {}", quizId);
         Optional<Integer> maxPosition = quizQuestionRepository.findMaxPositionByQuizId(quizId);
-        return maxPosition.orElse(0) + 1;
+        return maxPosition.map(position -> position + POSITION_GAP).orElse(POSITION_GAP);
     }
 
     /**
@@ -264,7 +278,8 @@ public class QuizQuestionService {
     }
 
     /**
-     * Validate question ordering for a quiz.
+     * Validate question ordering for a quiz. Positions only order the
+     * questions, so gaps are not an issue; duplicates are.
      *
      * @param quizId the quiz id.
      * @return validation result with any ordering issues.
@@ -274,30 +289,10 @@ public class QuizQuestionService {
         LOG.debug("Request to validate question ordering for quiz : {}", quizId);
 
         List<String> issues = new ArrayList<>();
-        List<QuizQuestion> questions = quizQuestionRepository.findByQuizIdOrderByPosition(quizId);
-
-        if (questions.isEmpty()) {
-            return issues;
-        }
-
-        // Check for duplicate positions
         Set<Integer> positions = new HashSet<>();
-        for (QuizQuestion question : questions) {
-            if (!positions.add(question.getPosition())) {
-                issues.add("Duplicate position found: " + question.getPosition());
-            }
-        }
-
-        // Check for gaps in positions
-        List<Integer> sortedPositions = questions.stream()
-                .map(QuizQuestion::getPosition)
-                .sorted()
-                .collect(Collectors.toList());
-
-        for (int i = 0; i < sortedPositions.size(); i++) {
-            if (sortedPositions.get(i) != i + 1) {
-                issues.add("Gap in positions detected - expected position " + (i + 1) + " but found "
-                        + sortedPositions.get(i));
+        for (Slot slot : findSlots(quizId)) {
+            if (!positions.add(slot.position())) {
+                issues.add("Duplicate position found: " + slot.position());
             }
         }
 
@@ -305,7 +300,8 @@ public class QuizQuestionService {
     }
 
     /**
-     * Fix question ordering by reassigning positions sequentially.
+     * Fix question ordering by reassigning evenly spaced positions in the
+     * current order, with a single update statement.
      *
      * @param quizId the quiz id.
      * @return the number of questions reordered.
@@ -314,22 +310,14 @@ public class QuizQuestionService {
     public int fixQuestionOrdering(Long quizId) {
         LOG.debug("Request to fix question ordering for quiz : {}", quizId);
 
-        List<QuizQuestion> questions = quizQuestionRepository.findByQuizIdOrderByPosition(quizId);
-
-        for (int i = 0; i < questions.size(); i++) {
-            QuizQuestion question = questions.get(i);
-            int expectedPosition = i + 1;
-            if (question.getPosition() != expectedPosition) {
-                question.setPosition(expectedPosition);
-                quizQuestionRepository.save(question);
-            }
-        }
-
-        return questions.size();
+        List<Slot> slots = findSlots(quizId);
+        renumber(quizId, slots, slots.stream().map(Slot::id).toList());
+        questionSetVersionCache.evictQuiz(quizId);
+        return slots.size();
     }
 
     /**
-     * Bulk update question positions.
+     * Bulk update question positions with a single update statement.
      *
      * @param quizId          the quiz id.
      * @param positionUpdates map of question ID to new position.
@@ -338,67 +326,96 @@ public class QuizQuestionService {
     public void bulkUpdatePositions(Long quizId, Map<Long, Integer> positionUpdates) {
         LOG.debug("Request to bulk update positions for quiz : {} with updates : {}", quizId, positionUpdates);
 
-        for (Map.Entry<Long, Integer> entry : positionUpdates.entrySet()) {
-            Long questionId = entry.getKey();
-            Integer newPosition = entry.getValue();
-
-            Optional<QuizQuestion> questionOpt = quizQuestionRepository.findById(questionId);
-            if (questionOpt.isPresent()) {
-                QuizQuestion question = questionOpt.get();
-                if (!question.getQuiz().getId().equals(quizId)) {
-                    throw new IllegalArgumentException("Question " + questionId + " does not belong to quiz " + quizId);
-                }
-                question.setPosition(newPosition);
-                quizQuestionRepository.save(question);
+        Set<Long> quizQuestionIds = findSlots(quizId).stream().map(Slot::id).collect(Collectors.toSet());
+        for (Long questionId : positionUpdates.keySet()) {
+            if (!quizQuestionIds.contains(questionId)) {
+                throw new IllegalArgumentException("Question " + questionId + " does not belong to quiz " + quizId);
             }
         }
+        if (!positionUpdates.isEmpty()) {
+            quizQuestionRepository.updatePositions(quizId, positionUpdates);
+            questionSetVersionCache.evictQuiz(quizId);
+        }
     }
 
     // Private helper methods
 
-    private void shiftQuestionsDown(Long quizId, Integer fromPosition) {
-        List<QuizQuestion> questionsToShift = quizQuestionRepository
-                .findByQuizIdAndPositionGreaterThanEqual(quizId, fromPosition);
+    private List<Slot> findSlots(Long quizId) {
+        return quizQuestionRepository.findPositionsByQuizId(quizId)
+                .stream()
+                .map(row -> new Slot((Long) row[0], (Integer) row[1]))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
 
-        for (QuizQuestion question : questionsToShift) {
-            question.setPosition(question.getPosition() + 1);
-            quizQuestionRepository.save(question);
+    /**
+     * Find a position for a question inserted before {@code slots[index]},
+     * renumbering the quiz first if the neighbours leave no room.
+     */
+    private Integer claimPosition(Long quizId, List<Slot> slots, int index) {
+        Integer before = index > 0 ? slots.get(index - 1).position() : null;
+        Integer after = index < slots.size() ? slots.get(index).position() : null;
+        Integer position = positionBetween(before, after);
+        if (position != null) {
+            return position;
         }
+
+        List<Long> order = new ArrayList<>(slots.stream().map(Slot::id).toList());
+        order.add(index, null);
+        renumber(quizId, slots, order);
+        return (index + 1) * POSITION_GAP;
     }
 
-    private void shiftQuestionsUp(Long quizId, Integer fromPosition) {
-        List<QuizQuestion> questionsToShift = quizQuestionRepository
-                .findByQuizIdAndPositionGreaterThanEqual(quizId, fromPosition + 1);
+    /**
+     * Give the questions evenly spaced positions in the given order, updating
+     * only those whose position changes. Null entries reserve a position.
+     */
+    private void renumber(Long quizId, List<Slot> slots, List<Long> order) {
+        Map<Long, Integer> current = new HashMap<>();
+        slots.forEach(slot -> current.put(slot.id(), slot.position()));
+
+        Map<Long, Integer> changes = new HashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            Long questionId = order.get(i);
+            int position = (i + 1) * POSITION_GAP;
+            if (questionId != null && !Integer.valueOf(position).equals(current.get(questionId))) {
+                changes.put(questionId, position);
+            }
+        }
+        if (!changes.isEmpty()) {
+            quizQuestionRepository.updatePositions(quizId, changes);
+        }
+    }
 
-        for (QuizQuestion question : questionsToShift) {
-            question.setPosition(question.getPosition() - 1);
-            quizQuestionRepository.save(question);
+    /**
+     * @return a position strictly between the two neighbours (null meaning no
+     *         neighbour), or null if there is none
+     */
+    static Integer positionBetween(Integer before, Integer after) {
+        if (before == null && after == null) {
+            return POSITION_GAP;
+        }
+        if (before == null) {
+            return after > 1 ? after / 2 : null;
         }
+        if (after == null) {
+            return (long) before + POSITION_GAP <= Integer.MAX_VALUE ? before + POSITION_GAP : null;
+        }
+        long gap = (long) after - before;
+        return gap > 1 ? (int) (before + gap / 2) : null;
     }
 
-    private void reorderQuestions(Long quizId, Integer oldPosition, Integer newPosition) {
-        if (oldPosition < newPosition) {
-            // Moving down: shift questions up between old and new position
-            List<QuizQuestion> questionsToShift = quizQuestionRepository
-                    .findByQuizIdAndPositionGreaterThanEqual(quizId, oldPosition + 1);
-
-            for (QuizQuestion question : questionsToShift) {
-                if (question.getPosition() <= newPosition) {
-                    question.setPosition(question.getPosition() - 1);
-                    quizQuestionRepository.save(question);
-                }
-            }
-        } else {
-            // Moving up: shift questions down between new and old position
-            List<QuizQuestion> questionsToShift = quizQuestionRepository
-                    .findByQuizIdAndPositionGreaterThanEqual(quizId, newPosition);
-
-            for (QuizQuestion question : questionsToShift) {
-                if (question.getPosition() < oldPosition) {
-                    question.setPosition(question.getPosition() + 1);
-                    quizQuestionRepository.save(question);
-                }
+    private static int indexOf(List<Slot> slots, Long questionId) {
+        for (int i = 0; i < slots.size(); i++) {
+            if (slots.get(i).id().equals(questionId)) {
+                return i;
             }
         }
+        throw new IllegalStateException("QuizQuestion " + questionId + " is missing from its quiz");
     }
+
+    private static int clampIndex(int index, int size) {
+        return Math.max(0, Math.min(index, size));
+    }
+
+    private record Slot(Long id, Integer position) {}
 }
@@ -1,12 +1,38 @@
 package com.satori.platform.service;
 
+import com.satori.platform.repository.QuizRepository;
+import com.satori.platform.service.event.QuizTimingChangedEvent;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Service for handling scheduled quiz operations.
+ * <p>
+ * Upcoming activation and deactivation instants are kept in a time-ordered
+ * trigger index, rebuilt from the database on startup and on every reload
+ * interval and extended as quizzes are saved. A single timer is armed for the
+ * earliest trigger, so a quiz opens at its activation time rather than on the
+ * next polling round; {@link QuizService#processAutomaticActivation} then flips
+ * every due quiz in bulk.
  */
 @Service
 public class QuizSchedulingService {
@@ -14,21 +40,149 @@ public class QuizSchedulingService {
     private static final Logger LOG = LoggerFactory.getLogger(QuizSchedulingService.class);
 
     private final QuizService quizService;
+    private final QuizRepository quizRepository;
+    private final Duration lookAhead;
 
-    public QuizSchedulingService(QuizService quizService) {
+    // Guarded by this
+    private final PriorityQueue<Trigger> triggers = new PriorityQueue<>(Comparator.comparing(Trigger::at));
+    private ScheduledFuture<?> armed;
+    private Instant armedAt;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("quiz-trigger-"));
+
+    public QuizSchedulingService(
+            QuizService quizService,
+            QuizRepository quizRepository,
+            @Value("${app.quiz.triggers.look-ahead:PT1H}") Duration lookAhead) {
         this.quizService = quizService;
+        this.quizRepository = quizRepository;
+        this.lookAhead = lookAhead;
+    }
+
+    /**
+     * Build the trigger index and arm the timer.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+    }
+
+    /**
+     * Rebuild the trigger index from every pending activation and
+     * deactivation within the look-ahead window, including overdue ones.
+     */
+    @Scheduled(fixedDelayString = "${app.quiz.triggers.reload-interval-ms:300000}",
+            initialDelayString = "${app.quiz.triggers.reload-interval-ms:300000}")
+    public void reload() {
+        try {
+            Instant now = Instant.now();
+            Instant horizon = now.plus(lookAhead);
+            List<Object[]> activations = quizRepository.findPendingActivations(now, horizon);
+            List<Object[]> deactivations = quizRepository.findPendingDeactivations(horizon);
+            synchronized (this) {
+                triggers.clear();
+                activations.forEach(row -> triggers.add(Trigger.of((Instant) row[1], (Long) row[0])));
+                deactivations.forEach(row -> triggers.add(Trigger.of((Instant) row[1], (Long) row[0])));
+                arm();
+            }
+            LOG.debug("Indexed {} quiz activation triggers", activations.size() + deactivations.size());
+        } catch (Exception e) {
+            LOG.error("Error loading quiz activation triggers", e);
+        }
+    }
+
+    /**
+     * Index the triggers of a saved quiz once its transaction has committed.
+     *
+     * @param event the timing change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onQuizTimingChanged(QuizTimingChangedEvent event) {
+        Instant horizon = Instant.now().plus(lookAhead);
+        synchronized (this) {
+            for (Instant at : new Instant[] { event.getActivationTime(), event.getDeactivationTime() }) {
+                if (at != null && at.isBefore(horizon)) {
+                    triggers.add(Trigger.of(at, event.getQuizId()));
+                }
+            }
+            arm();
+        }
+    }
+
+    /**
+     * @return the instant the timer fires at next, or null if it is not armed
+     */
+    synchronized Instant getArmedAt() {
+        return armedAt;
+    }
+
+    /**
+     * @return the number of indexed triggers
+     */
+    public synchronized int getPendingCount() {
+        return triggers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
     }
 
     /**
-     * Process automatic quiz activation/deactivation every minute.
+     * Drop the triggers that came due and flip the due quizzes. A trigger
+     * whose quiz changed meanwhile is harmless: the bulk updates only touch
+     * quizzes that are due at this instant.
      */
-    @Scheduled(fixedRate = 60000) // Run every minute
-    public void processAutomaticQuizActivation() {
-        LOG.debug("Running scheduled quiz activation/deactivation check");
+    void fire() {
+        Instant now = Instant.now();
+        int due = 0;
+        synchronized (this) {
+            armed = null;
+            armedAt = null;
+            while (!triggers.isEmpty() && !triggers.peek().at().isAfter(now)) {
+                triggers.poll();
+                due++;
+            }
+        }
+
         try {
-            quizService.processAutomaticActivation();
+            if (due > 0) {
+                quizService.processAutomaticActivation(now);
+            }
         } catch (Exception e) {
+            // Runs on the timer thread, which must survive any failure; the next reload retries
             LOG.error("Error during automatic quiz activation/deactivation", e);
+        } finally {
+            synchronized (this) {
+                arm();
+            }
+        }
+    }
+
+    private void arm() {
+        Trigger next = triggers.peek();
+        if (next == null || (armedAt != null && !next.at().isBefore(armedAt))) {
+            return;
+        }
+        if (armed != null) {
+            armed.cancel(false);
+        }
+        long delay = Math.max(0, Duration.between(Instant.now(), next.at()).toNanos());
+        armedAt = next.at();
+        armed = timer.schedule(this::fire, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private record Trigger(Instant at, Long quizId) {
+
+        /**
+         * A trigger at the instant as stored: activation and deactivation
+         * times are stored to the second, possibly rounded up, so the timer
+         * waits for the whole second the bulk updates will compare against.
+         */
+        private static Trigger of(Instant at, Long quizId) {
+            Instant stored = at.truncatedTo(ChronoUnit.SECONDS);
+            return new Trigger(stored.equals(at) ? at : stored.plusSeconds(1), quizId);
         }
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,8 @@ import com.satori.platform.repository.QuizRepository;
 import com.satori.platform.repository.QuizQuestionRepository;
 import com.satori.platform.service.dto.*;
 
+import com.satori.platform.service.event.QuizTimingChangedEvent;
+import com.satori.platform.service.event.QuizzesActivatedEvent;
 import com.satori.platform.service.exception.QuizValidationException;
 import com.satori.platform.service.mapper.QuizMapper;
 import java.time.Instant;
@@ -16,10 +18,15 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Service Implementation for managing {@link com.satori.platform.domain.Quiz}.
@@ -38,11 +45,17 @@ public class QuizService {
 
     private final NotificationService notificationService;
 
-    public QuizService(QuizRepository quizRepository, QuizQuestionRepository quizQuestionRepository, QuizMapper quizMapper, NotificationService notificationService) {
+    private final ReminderPlanner reminderPlanner;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public QuizService(QuizRepository quizRepository, QuizQuestionRepository quizQuestionRepository, QuizMapper quizMapper, NotificationService notificationService, ReminderPlanner reminderPlanner, ApplicationEventPublisher eventPublisher) {
         this.quizRepository = quizRepository;
         this.quizQuestionRepository = quizQuestionRepository;
         this.quizMapper = quizMapper;
         this.notificationService = notificationService;
+        this.reminderPlanner = reminderPlanner;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -55,6 +68,7 @@ public class QuizService {
         LOG.debug("Request to save Quiz : {}", quizDTO);
         Quiz quiz = quizMapper.toEntity(quizDTO);
         quiz = quizRepository.save(quiz);
+        timingChanged(quiz);
         return quizMapper.toDto(quiz);
     }
 
@@ -68,6 +82,7 @@ public class QuizService {
         LOG.debug("Request to update Quiz : {}", quizDTO);
         Quiz quiz = quizMapper.toEntity(quizDTO);
         quiz = quizRepository.save(quiz);
+        timingChanged(quiz);
         return quizMapper.toDto(quiz);
     }
 
@@ -88,6 +103,10 @@ public class QuizService {
                 return existingQuiz;
             })
             .map(quizRepository::save)
+            .map(quiz -> {
+                timingChanged(quiz);
+                return quiz;
+            })
             .map(quizMapper::toDto);
     }
 
@@ -132,6 +151,7 @@ public class QuizService {
     public void delete(Long id) {
         LOG.debug("Request to delete Quiz : {}", id);
         quizRepository.deleteById(id);
+        reminderPlanner.cancelQuiz(id);
     }
 
     /**
@@ -158,6 +178,7 @@ public class QuizService {
         quiz.setDeactivationTime(activationDTO.getDeactivationTime());
 
         quiz = quizRepository.save(quiz);
+        timingChanged(quiz);
 
         // Send notifications to students if requested
         if (activationDTO.getNotifyStudents() && activationDTO.getActivate()) {
@@ -275,30 +296,44 @@ public class QuizService {
     }
 
     /**
-     * Process automatic quiz activation/deactivation based on timing.
+     * Process automatic quiz activation/deactivation based on timing. Due
+     * quizzes are flipped with one bulk update each way; students of the
+     * activated quizzes are notified after commit.
+     *
+     * @param now the current instant.
+     * @return the IDs of the activated quizzes.
      */
     @Transactional
-    public void processAutomaticActivation() {
+    public List<Long> processAutomaticActivation(Instant now) {
         LOG.debug("Processing automatic quiz activation/deactivation");
 
-        Instant now = Instant.now();
-
-        // Activate quizzes that should be activated
-        List<Quiz> quizzesToActivate = quizRepository.findQuizzesToActivate(now);
-        for (Quiz quiz : quizzesToActivate) {
-            quiz.setIsActive(true);
-            quizRepository.save(quiz);
-            notifyStudentsOfQuizActivation(quiz);
-            LOG.info("Automatically activated quiz: {}", quiz.getId());
+        // Locked, so an instance firing at the same instant waits and then finds nothing to activate
+        List<Quiz> quizzesToActivate = quizRepository.findQuizzesToActivateForUpdate(now);
+        List<Long> activatedIds = quizzesToActivate.stream().map(Quiz::getId).toList();
+        if (!activatedIds.isEmpty()) {
+            quizRepository.activateByIdIn(activatedIds);
+            eventPublisher.publishEvent(new QuizzesActivatedEvent(activatedIds));
+            LOG.info("Automatically activated quizzes: {}", activatedIds);
         }
 
-        // Deactivate quizzes that should be deactivated
-        List<Quiz> quizzesToDeactivate = quizRepository.findQuizzesToDeactivate(now);
-        for (Quiz quiz : quizzesToDeactivate) {
-            quiz.setIsActive(false);
-            quizRepository.save(quiz);
-            LOG.info("Automatically deactivated quiz: {}", quiz.getId());
+        int deactivated = quizRepository.deactivateDue(now);
+        if (deactivated > 0) {
+            LOG.info("Automatically deactivated {} quizzes", deactivated);
         }
+        return activatedIds;
+    }
+
+    /**
+     * Notify the students of automatically activated quizzes once the
+     * activation has committed.
+     *
+     * @param event the activation event.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onQuizzesActivated(QuizzesActivatedEvent event) {
+        quizRepository.findAllById(event.getQuizIds()).forEach(this::notifyStudentsOfQuizActivation);
     }
 
     /**
@@ -462,6 +497,13 @@ public class QuizService {
         return result;
     }
 
+    private void timingChanged(Quiz quiz) {
+        reminderPlanner.planQuiz(quiz);
+        // Also published without times, so deadlines set by a removed close time are lifted
+        eventPublisher.publishEvent(
+                new QuizTimingChangedEvent(quiz.getId(), quiz.getActivationTime(), quiz.getDeactivationTime()));
+    }
+
     private void notifyStudentsOfQuizActivation(Quiz quiz) {
         try {
             LOG.info("Sending quiz activation notifications for quiz: {}", quiz.getId());
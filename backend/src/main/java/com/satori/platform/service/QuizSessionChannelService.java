@@ -0,0 +1,358 @@
+package com.satori.platform.service;
+
+import com.satori.platform.domain.StudentQuiz;
+import com.satori.platform.repository.StudentQuizRepository;
+import com.satori.platform.service.dto.QuizChannelAnswerDTO;
+import com.satori.platform.service.dto.QuizChannelEventDTO;
+import com.satori.platform.service.dto.QuizChannelEventDTO.Type;
+import com.satori.platform.service.dto.StudentQuizResponseDTO;
+import com.satori.platform.service.event.QuizAttemptsSubmittedEvent;
+import com.satori.platform.service.event.QuizDeadlineChangedEvent;
+import com.satori.platform.service.exception.QuizNotActiveException;
+import com.satori.platform.service.exception.QuizSessionException;
+import com.satori.platform.service.exception.QuizTimeExpiredException;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-push session channels of running quiz attempts, over server-sent
+ * events.
+ * <p>
+ * A channel is opened once per attempt and then pushes the remaining time,
+ * pauses and resumes, teacher announcements, the submission and the
+ * acknowledgements of answers sent to the channel, so clients no longer poll
+ * the session. The remaining time is kept in memory from the attempt's
+ * deadline and its change events; ticks cost no queries. Ticks are written to
+ * each connection by a dedicated pool, so a slow connection holds up neither
+ * the shared scheduler nor other connections; a connection still writing its
+ * previous tick skips the next one. Channels are local to the instance that
+ * holds the connection.
+ */
+@Service
+public class QuizSessionChannelService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QuizSessionChannelService.class);
+
+    private final StudentQuizRepository studentQuizRepository;
+    private final StudentQuizService studentQuizService;
+    private final long timeoutMillis;
+
+    private final ExecutorService pushExecutor;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    public QuizSessionChannelService(
+            StudentQuizRepository studentQuizRepository,
+            StudentQuizService studentQuizService,
+            @Value("${app.quiz.channel.timeout:PT3H}") Duration timeout,
+            @Value("${app.quiz.channel.push-threads:4}") int pushThreads) {
+        this.studentQuizRepository = studentQuizRepository;
+        this.studentQuizService = studentQuizService;
+        this.timeoutMillis = timeout.toMillis();
+        this.pushExecutor = Executors.newFixedThreadPool(Math.max(1, pushThreads),
+                new CustomizableThreadFactory("quiz-channel-"));
+    }
+
+    /**
+     * Open a channel to a quiz attempt. The first event is the state of the
+     * attempt; a completed attempt gets its submission and the channel closes.
+     *
+     * @param studentQuizId the student quiz attempt ID
+     * @return the emitter of the channel
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long studentQuizId) {
+        StudentQuiz studentQuiz = studentQuizRepository.findById(studentQuizId)
+                .orElseThrow(() -> new IllegalArgumentException("StudentQuiz not found with id: " + studentQuizId));
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        if (Boolean.TRUE.equals(studentQuiz.getCompleted())) {
+            QuizChannelEventDTO submitted = new QuizChannelEventDTO(Type.SUBMITTED, studentQuizId);
+            submitted.setCompleted(true);
+            submitted.setAutoSubmitted(studentQuiz.getSubmittedAutomatically());
+            send(emitter, submitted);
+            emitter.complete();
+            return emitter;
+        }
+
+        Channel channel = channels.computeIfAbsent(studentQuizId,
+                id -> new Channel(id, studentQuiz.getQuiz().getId()));
+        channel.update(studentQuiz, Instant.now());
+        channel.emitters.add(emitter);
+        emitter.onCompletion(() -> remove(channel, emitter));
+        emitter.onTimeout(() -> remove(channel, emitter));
+        emitter.onError(e -> remove(channel, emitter));
+
+        send(emitter, channel.event(Type.SESSION, Instant.now()));
+        return emitter;
+    }
+
+    /**
+     * Save an answer sent over the channel and push its acknowledgement, or
+     * the reason it was rejected.
+     *
+     * @param studentQuizId the student quiz attempt ID
+     * @param answer        the answer
+     * @return the pushed event
+     */
+    public QuizChannelEventDTO answer(Long studentQuizId, QuizChannelAnswerDTO answer) {
+        QuizChannelEventDTO event;
+        try {
+            StudentQuizResponseDTO response = studentQuizService.submitAnswer(studentQuizId,
+                    answer.getQuizQuestionId(), answer.getAnswer());
+            event = new QuizChannelEventDTO(Type.ACK, studentQuizId);
+            event.setResponseId(response.getId());
+        } catch (QuizSessionException | QuizNotActiveException | QuizTimeExpiredException e) {
+            event = new QuizChannelEventDTO(Type.ERROR, studentQuizId);
+            event.setMessage(e.getMessage());
+        }
+        event.setQuizQuestionId(answer.getQuizQuestionId());
+        event.setClientSeq(answer.getClientSeq());
+
+        Channel channel = channels.get(studentQuizId);
+        if (channel != null) {
+            channel.push(event);
+        }
+        return event;
+    }
+
+    /**
+     * Push a teacher's message to every open attempt of a quiz.
+     *
+     * @param quizId  the quiz ID
+     * @param message the message
+     * @return the number of attempts reached
+     */
+    public int announce(Long quizId, String message) {
+        int reached = 0;
+        for (Channel channel : channels.values()) {
+            if (quizId.equals(channel.quizId)) {
+                QuizChannelEventDTO event = new QuizChannelEventDTO(Type.ANNOUNCEMENT, channel.studentQuizId);
+                event.setMessage(message);
+                channel.push(event);
+                reached++;
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Push the remaining time to every channel; also keeps idle connections
+     * open through proxies.
+     */
+    @Scheduled(fixedRateString = "${app.quiz.channel.tick-ms:5000}")
+    public void tick() {
+        Instant now = Instant.now();
+        try {
+            for (Channel channel : channels.values()) {
+                channel.pushTick(channel.event(Type.TICK, now), pushExecutor);
+            }
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Not pushing ticks while shutting down");
+        }
+    }
+
+    /**
+     * Follow pauses and resumes of attempts with an open channel.
+     *
+     * @param event the deadline change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDeadlineChanged(QuizDeadlineChangedEvent event) {
+        Channel channel = channels.get(event.getStudentQuizId());
+        if (channel == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (event.isPaused()) {
+            channel.pause(now);
+            channel.push(channel.event(Type.PAUSED, now));
+        } else {
+            channel.resume(event.getDeadline());
+            channel.push(channel.event(Type.RESUMED, now));
+        }
+    }
+
+    /**
+     * Push the submission to the channels of submitted attempts and close
+     * them.
+     *
+     * @param event the submission
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAttemptsSubmitted(QuizAttemptsSubmittedEvent event) {
+        if (event.getStudentQuizId() != null) {
+            Channel channel = channels.get(event.getStudentQuizId());
+            if (channel != null) {
+                close(channel, false);
+            }
+            return;
+        }
+        for (Channel channel : channels.values()) {
+            if (channel.isDue(event.getSubmittedAt())) {
+                close(channel, true);
+            }
+        }
+    }
+
+    /**
+     * @return the number of attempts with an open channel
+     */
+    public int getOpenChannelCount() {
+        return channels.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdownNow();
+    }
+
+    private void close(Channel channel, boolean automatically) {
+        QuizChannelEventDTO submitted = new QuizChannelEventDTO(Type.SUBMITTED, channel.studentQuizId);
+        submitted.setCompleted(true);
+        submitted.setAutoSubmitted(automatically);
+        channel.push(submitted);
+        channels.remove(channel.studentQuizId, channel);
+        channel.emitters.forEach(SseEmitter::complete);
+    }
+
+    private void remove(Channel channel, SseEmitter emitter) {
+        channel.emitters.remove(emitter);
+        if (channel.emitters.isEmpty()) {
+            channels.remove(channel.studentQuizId, channel);
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, QuizChannelEventDTO event) {
+        try {
+            emitter.send(SseEmitter.event().name(event.getType().name().toLowerCase()).data(event));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // The client went away; the emitter's callbacks drop it
+            LOG.debug("Could not push {} to attempt {}: {}", event.getType(), event.getStudentQuizId(), e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * The open connections and timing of one attempt. The remaining time runs
+     * down to the deadline, or is frozen while paused.
+     */
+    static final class Channel {
+
+        private final Long studentQuizId;
+        private final Long quizId;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final Set<SseEmitter> writingTick = ConcurrentHashMap.newKeySet();
+
+        // Guarded by this
+        private boolean paused;
+        private Instant deadline;
+        private Integer frozenRemainingSeconds;
+
+        Channel(Long studentQuizId, Long quizId) {
+            this.studentQuizId = studentQuizId;
+            this.quizId = quizId;
+        }
+
+        synchronized void update(StudentQuiz studentQuiz, Instant now) {
+            paused = Boolean.TRUE.equals(studentQuiz.getPaused());
+            if (paused) {
+                Instant limit = StudentQuizService.computeDeadline(studentQuiz);
+                Instant pausedAt = studentQuiz.getPauseTime() != null ? studentQuiz.getPauseTime() : now;
+                deadline = null;
+                frozenRemainingSeconds = limit != null ? secondsBetween(pausedAt, limit) : null;
+            } else {
+                deadline = studentQuiz.getDeadline() != null ? studentQuiz.getDeadline()
+                        : StudentQuizService.computeDeadline(studentQuiz);
+                frozenRemainingSeconds = null;
+            }
+        }
+
+        synchronized void pause(Instant now) {
+            paused = true;
+            if (deadline != null) {
+                frozenRemainingSeconds = secondsBetween(now, deadline);
+                deadline = null;
+            }
+        }
+
+        synchronized void resume(Instant newDeadline) {
+            paused = false;
+            deadline = newDeadline;
+            frozenRemainingSeconds = null;
+        }
+
+        synchronized boolean isDue(Instant now) {
+            return deadline != null && !deadline.isAfter(now);
+        }
+
+        synchronized QuizChannelEventDTO event(Type type, Instant now) {
+            QuizChannelEventDTO event = new QuizChannelEventDTO(type, studentQuizId);
+            event.setPaused(paused);
+            event.setCompleted(false);
+            event.setRemainingTimeSeconds(deadline != null ? secondsBetween(now, deadline) : frozenRemainingSeconds);
+            return event;
+        }
+
+        /**
+         * Write a tick to every connection on its own task, except to those
+         * still writing the previous one.
+         */
+        void pushTick(QuizChannelEventDTO event, Executor executor) {
+            for (SseEmitter emitter : emitters) {
+                if (!writingTick.add(emitter)) {
+                    continue;
+                }
+                try {
+                    executor.execute(() -> {
+                        try {
+                            if (!send(emitter, event)) {
+                                emitters.remove(emitter);
+                            }
+                        } finally {
+                            writingTick.remove(emitter);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    writingTick.remove(emitter);
+                    throw e;
+                }
+            }
+        }
+
+        void push(QuizChannelEventDTO event) {
+            for (SseEmitter emitter : emitters) {
+                if (!send(emitter, event)) {
+                    emitters.remove(emitter);
+                }
+            }
+        }
+
+        private static int secondsBetween(Instant from, Instant to) {
+            return (int) Math.max(0, Duration.between(from, to).getSeconds());
+        }
+    }
+}
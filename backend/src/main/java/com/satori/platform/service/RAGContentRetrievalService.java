@@ -2,6 +2,7 @@ package com.satori.platform.service;
 
 import com.satori.platform.service.dto.RAGContentRequestDTO;
 import com.satori.platform.service.dto.RAGContentResultDTO;
+import com.satori.platform.service.util.ReciprocalRankFusion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,6 +14,13 @@ import java.util.*;
  * Service for RAG-based content retrieval.
  * Integrates with vector databases and embedding services for semantic content
  * search.
+ * <p>
+ * Retrieval is hybrid by default: the vector ANN candidates and the BM25
+ * candidates of {@link RAGLexicalIndexService} are merged by reciprocal rank
+ * fusion, so exact grammar points and vocabulary are found even when their
+ * embeddings are not close to the query's. Lexical candidates are held to the
+ * request's similarity threshold too; only when the query cannot be embedded
+ * are they returned unchecked.
  */
 @Service
 public class RAGContentRetrievalService {
@@ -21,6 +29,7 @@ public class RAGContentRetrievalService {
 
     private final GeminiEmbeddingService geminiEmbeddingService;
     private final PostgreSQLVectorService postgreSQLVectorService;
+    private final RAGLexicalIndexService ragLexicalIndexService;
 
     @Value("${app.rag.enabled:false}")
     private boolean ragEnabled;
@@ -31,10 +40,18 @@ public class RAGContentRetrievalService {
     @Value("${app.rag.vector-db.type:postgresql}")
     private String vectorDbType;
 
+    @Value("${app.rag.hybrid.rrf-k:60}")
+    private int rrfK = ReciprocalRankFusion.DEFAULT_K;
+
+    @Value("${app.rag.hybrid.candidate-multiplier:3}")
+    private int candidateMultiplier = 3;
+
     public RAGContentRetrievalService(GeminiEmbeddingService geminiEmbeddingService,
-            PostgreSQLVectorService postgreSQLVectorService) {
+            PostgreSQLVectorService postgreSQLVectorService,
+            RAGLexicalIndexService ragLexicalIndexService) {
         this.geminiEmbeddingService = geminiEmbeddingService;
         this.postgreSQLVectorService = postgreSQLVectorService;
+        this.ragLexicalIndexService = ragLexicalIndexService;
     }
 
     /**
@@ -51,20 +68,95 @@ public class RAGContentRetrievalService {
             return new ArrayList<>();
         }
 
+        int limit = request.getMaxResults() != null ? request.getMaxResults() : 10;
+        boolean hybrid = !Boolean.FALSE.equals(request.getHybrid());
+        int candidates = hybrid ? limit * candidateMultiplier : limit;
+
+        List<RAGContentResultDTO> vectorResults = new ArrayList<>();
+        List<Double> queryEmbedding = null;
         try {
             // Step 1: Generate embedding for the query using Gemini
-            List<Double> queryEmbedding = geminiEmbeddingService.generateEmbedding(request.getQuery());
+            queryEmbedding = geminiEmbeddingService.generateEmbedding(request.getQuery());
 
             // Step 2: Search PostgreSQL vector database for similar content
-            List<RAGContentResultDTO> results = postgreSQLVectorService.searchSimilarContent(queryEmbedding, request);
+            vectorResults = postgreSQLVectorService.searchSimilarContent(queryEmbedding, request, candidates);
+        } catch (Exception e) {
+            log.error("Failed to retrieve content using vector search: {}", e.getMessage(), e);
+        }
 
-            log.info("Retrieved {} relevant content pieces for query: {}", results.size(), request.getQuery());
-            return results;
+        if (!hybrid) {
+            return vectorResults.subList(0, Math.min(limit, vectorResults.size()));
+        }
 
+        // Step 3: Lexical candidates, which still work when embedding fails
+        List<RAGContentResultDTO> lexicalResults = new ArrayList<>();
+        try {
+            lexicalResults = ragLexicalIndexService.search(request, candidates);
+            if (queryEmbedding != null && request.getSimilarityThreshold() != null) {
+                lexicalResults = withinSimilarityThreshold(lexicalResults, vectorResults, queryEmbedding,
+                        request.getSimilarityThreshold());
+            }
         } catch (Exception e) {
-            log.error("Failed to retrieve content using RAG: {}", e.getMessage(), e);
-            return new ArrayList<>();
+            log.error("Failed to retrieve content using lexical search: {}", e.getMessage(), e);
+        }
+
+        List<RAGContentResultDTO> results = fuse(List.of(vectorResults, lexicalResults), limit, rrfK);
+        log.info("Retrieved {} relevant content pieces ({} vector, {} lexical candidates) for query: {}",
+                results.size(), vectorResults.size(), lexicalResults.size(), request.getQuery());
+        return results;
+    }
+
+    /**
+     * Drop lexical candidates less similar to the query than the threshold.
+     * Candidates also found by vector search already passed it; the others are
+     * looked up by ID.
+     */
+    private List<RAGContentResultDTO> withinSimilarityThreshold(List<RAGContentResultDTO> lexicalResults,
+            List<RAGContentResultDTO> vectorResults, List<Double> queryEmbedding, double threshold) {
+        Set<String> vectorIds = new HashSet<>();
+        vectorResults.forEach(result -> vectorIds.add(result.getContentId()));
+        List<String> lexicalOnly = lexicalResults.stream()
+                .map(RAGContentResultDTO::getContentId)
+                .filter(id -> !vectorIds.contains(id))
+                .toList();
+        if (lexicalOnly.isEmpty()) {
+            return lexicalResults;
         }
+
+        Map<String, Double> similarities = postgreSQLVectorService.findSimilarities(queryEmbedding, lexicalOnly);
+        return lexicalResults.stream()
+                .filter(result -> vectorIds.contains(result.getContentId())
+                        || similarities.getOrDefault(result.getContentId(), 0.0) >= threshold)
+                .toList();
+    }
+
+    /**
+     * Merge rankings by reciprocal rank fusion; the relevance score becomes the
+     * fused score scaled to {@code [0, 1]}.
+     */
+    static List<RAGContentResultDTO> fuse(List<List<RAGContentResultDTO>> rankings, int limit, int k) {
+        Map<String, RAGContentResultDTO> byId = new HashMap<>();
+        List<List<String>> idRankings = new ArrayList<>();
+        for (List<RAGContentResultDTO> ranking : rankings) {
+            List<String> ids = new ArrayList<>(ranking.size());
+            for (RAGContentResultDTO result : ranking) {
+                byId.putIfAbsent(result.getContentId(), result);
+                ids.add(result.getContentId());
+            }
+            idRankings.add(ids);
+        }
+
+        double maxScore = ReciprocalRankFusion.maxScore(rankings.size(), k);
+        List<RAGContentResultDTO> fused = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : ReciprocalRankFusion.fuse(idRankings, k).entrySet()) {
+            if (fused.size() >= limit) {
+                break;
+            }
+            RAGContentResultDTO result = byId.get(entry.getKey());
+            result.setRelevanceScore(entry.getValue() / maxScore);
+            fused.add(result);
+        }
+        return fused;
     }
 
     /**
@@ -150,6 +242,16 @@ public class RAGContentRetrievalService {
                     contentId, title, content, contentType, source,
                     difficultyLevel, topics, courseId, lessonId, embedding);
 
+            RAGContentResultDTO stored = new RAGContentResultDTO();
+            stored.setContentId(contentId);
+            stored.setTitle(title);
+            stored.setContent(content);
+            stored.setContentType(contentType);
+            stored.setSource(source);
+            stored.setDifficultyLevel(difficultyLevel);
+            stored.setTopics(topics);
+            ragLexicalIndexService.put(new PostgreSQLVectorService.StoredContent(stored, courseId, lessonId));
+
             log.debug("Successfully stored content: {}", contentId);
 
         } catch (Exception e) {
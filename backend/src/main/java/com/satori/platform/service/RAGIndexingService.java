@@ -0,0 +1,298 @@
+package com.satori.platform.service;
+
+import com.satori.platform.domain.FileMetaData;
+import com.satori.platform.domain.Lesson;
+import com.satori.platform.repository.FileMetaDataRepository;
+import com.satori.platform.repository.LessonRepository;
+import com.satori.platform.service.PostgreSQLVectorService.Chunk;
+import com.satori.platform.service.PostgreSQLVectorService.StoredContent;
+import com.satori.platform.service.dto.RAGContentResultDTO;
+import com.satori.platform.service.event.LessonContentChangedEvent;
+import com.satori.platform.service.util.TextChunker;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the vector store in sync with lesson content.
+ * <p>
+ * Lesson and attachment mutations publish a {@link LessonContentChangedEvent};
+ * after commit the lesson is queued, and a background worker re-chunks it,
+ * embeds only the chunks whose content hash changed and upserts or deletes
+ * chunks in batches. Chunks are keyed by their content hash, so an edit only
+ * re-embeds the chunks it touches rather than every chunk after it. Repeated
+ * changes to a lesson before the worker runs are indexed once, and lessons
+ * whose indexing failed are re-queued on a short retry interval. A nightly
+ * reconciliation drops chunks of deleted lessons and re-queues every lesson,
+ * which costs one hash comparison per unchanged lesson.
+ */
+@Service
+public class RAGIndexingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RAGIndexingService.class);
+
+    static final String LESSON_CONTENT_TYPE = "lesson";
+    static final String ATTACHMENT_CONTENT_TYPE = "lesson_attachment";
+
+    private static final Set<String> TEXT_ATTACHMENT_TYPES = Set.of("txt", "md", "csv");
+
+    private final LessonRepository lessonRepository;
+    private final FileMetaDataRepository fileMetaDataRepository;
+    private final GeminiEmbeddingService geminiEmbeddingService;
+    private final PostgreSQLVectorService postgreSQLVectorService;
+    private final RAGLexicalIndexService ragLexicalIndexService;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final boolean ragEnabled;
+    private final TextChunker chunker;
+    private final int batchSize;
+    private final long maxAttachmentSize;
+    private final int maxRetries;
+
+    private final Set<Long> pendingLessons = ConcurrentHashMap.newKeySet();
+
+    // Failed attempts by lesson ID, cleared once the lesson indexes
+    private final Map<Long, Integer> failedLessons = new ConcurrentHashMap<>();
+
+    public RAGIndexingService(
+            LessonRepository lessonRepository,
+            FileMetaDataRepository fileMetaDataRepository,
+            GeminiEmbeddingService geminiEmbeddingService,
+            PostgreSQLVectorService postgreSQLVectorService,
+            RAGLexicalIndexService ragLexicalIndexService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.rag.enabled:false}") boolean ragEnabled,
+            @Value("${app.rag.indexing.chunk-size:1200}") int chunkSize,
+            @Value("${app.rag.indexing.chunk-overlap:200}") int chunkOverlap,
+            @Value("${app.rag.indexing.batch-size:50}") int batchSize,
+            @Value("${app.rag.indexing.max-attachment-size:1048576}") long maxAttachmentSize,
+            @Value("${app.rag.indexing.max-retries:5}") int maxRetries) {
+        this.lessonRepository = lessonRepository;
+        this.fileMetaDataRepository = fileMetaDataRepository;
+        this.geminiEmbeddingService = geminiEmbeddingService;
+        this.postgreSQLVectorService = postgreSQLVectorService;
+        this.ragLexicalIndexService = ragLexicalIndexService;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.ragEnabled = ragEnabled;
+        this.chunker = new TextChunker(chunkSize, chunkOverlap);
+        this.batchSize = batchSize;
+        this.maxAttachmentSize = maxAttachmentSize;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Queue a changed lesson once its transaction has committed; changes that
+     * roll back are never indexed.
+     *
+     * @param event the change event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLessonContentChanged(LessonContentChangedEvent event) {
+        if (ragEnabled && event.getLessonId() != null) {
+            pendingLessons.add(event.getLessonId());
+        }
+    }
+
+    /**
+     * Index the queued lessons.
+     */
+    @Scheduled(fixedDelayString = "${app.rag.indexing.flush-interval-ms:5000}")
+    public void processPendingLessons() {
+        if (!ragEnabled || pendingLessons.isEmpty()) {
+            return;
+        }
+
+        for (Long lessonId : new ArrayList<>(pendingLessons)) {
+            pendingLessons.remove(lessonId);
+            try {
+                indexLesson(lessonId);
+                failedLessons.remove(lessonId);
+            } catch (Exception e) {
+                recordFailure(lessonId, e);
+            }
+        }
+    }
+
+    /**
+     * Re-queue the lessons whose indexing failed, e.g. while the embedding
+     * service was unavailable.
+     */
+    @Scheduled(fixedDelayString = "${app.rag.indexing.retry-interval-ms:60000}")
+    public void retryFailedLessons() {
+        if (!ragEnabled || failedLessons.isEmpty()) {
+            return;
+        }
+        pendingLessons.addAll(failedLessons.keySet());
+    }
+
+    private void recordFailure(Long lessonId, Exception e) {
+        int attempts = failedLessons.merge(lessonId, 1, Integer::sum);
+        if (attempts < maxRetries) {
+            log.warn("Failed to index lesson {} (attempt {}), will retry: {}", lessonId, attempts, e.getMessage());
+            return;
+        }
+        // The next reconciliation retries the lesson
+        failedLessons.remove(lessonId);
+        log.error("Failed to index lesson {} after {} attempts: {}", lessonId, attempts, e.getMessage(), e);
+    }
+
+    /**
+     * Repair drift between lessons and the vector store: drop the chunks of
+     * lessons that no longer exist and queue every lesson for an incremental
+     * re-index.
+     */
+    @Scheduled(cron = "${app.rag.indexing.reconcile-cron:0 0 3 * * ?}")
+    public void reconcile() {
+        if (!ragEnabled) {
+            return;
+        }
+
+        Set<Long> lessonIds = new HashSet<>(readOnlyTransactionTemplate.execute(status -> lessonRepository.findAllIds()));
+        int orphaned = 0;
+        for (Long indexedLessonId : postgreSQLVectorService.findIndexedLessonIds()) {
+            if (!lessonIds.contains(indexedLessonId)) {
+                orphaned += postgreSQLVectorService.deleteLessonChunks(indexedLessonId);
+                ragLexicalIndexService.removeLesson(indexedLessonId);
+            }
+        }
+        pendingLessons.addAll(lessonIds);
+        log.info("Reconciled vector store: removed {} orphaned chunks, queued {} lessons", orphaned, lessonIds.size());
+    }
+
+    /**
+     * Bring the chunks of one lesson up to date, embedding only new or changed
+     * chunks.
+     *
+     * @param lessonId the lesson ID
+     */
+    public void indexLesson(Long lessonId) {
+        List<Chunk> chunks = readOnlyTransactionTemplate.execute(status -> buildChunks(lessonId));
+        if (chunks == null) {
+            int deleted = postgreSQLVectorService.deleteLessonChunks(lessonId);
+            ragLexicalIndexService.removeLesson(lessonId);
+            log.debug("Lesson {} is gone, deleted {} chunks", lessonId, deleted);
+            return;
+        }
+
+        Map<String, String> indexedHashes = postgreSQLVectorService.findLessonChunkHashes(lessonId);
+        List<Chunk> changed = chunks.stream()
+                .filter(chunk -> !chunk.contentHash().equals(indexedHashes.get(chunk.contentId())))
+                .toList();
+        Set<String> stale = new HashSet<>(indexedHashes.keySet());
+        chunks.forEach(chunk -> stale.remove(chunk.contentId()));
+
+        for (int from = 0; from < changed.size(); from += batchSize) {
+            List<Chunk> batch = changed.subList(from, Math.min(changed.size(), from + batchSize));
+            List<List<Double>> embeddings = geminiEmbeddingService
+                    .generateEmbeddings(batch.stream().map(Chunk::content).toList());
+            List<Chunk> embedded = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Chunk chunk = batch.get(i);
+                embedded.add(new Chunk(chunk.contentId(), chunk.title(), chunk.content(), chunk.contentType(),
+                        chunk.source(), chunk.courseId(), chunk.lessonId(), chunk.contentHash(), embeddings.get(i)));
+            }
+            postgreSQLVectorService.upsertChunks(embedded);
+            embedded.forEach(chunk -> ragLexicalIndexService.put(toStoredContent(chunk)));
+        }
+        postgreSQLVectorService.deleteContents(stale);
+        ragLexicalIndexService.remove(stale);
+
+        log.debug("Indexed lesson {}: {} chunks, {} embedded, {} deleted", lessonId, chunks.size(), changed.size(),
+                stale.size());
+    }
+
+    /**
+     * @return the chunks of the lesson without embeddings, or null if the lesson
+     *         does not exist
+     */
+    private List<Chunk> buildChunks(Long lessonId) {
+        Lesson lesson = lessonRepository.findById(lessonId).orElse(null);
+        if (lesson == null) {
+            return null;
+        }
+
+        Long courseId = lesson.getCourse() != null ? lesson.getCourse().getId() : null;
+        Map<String, Chunk> chunks = new LinkedHashMap<>();
+        addChunks(chunks, lesson, courseId, "body", lesson.getTitle(), LESSON_CONTENT_TYPE,
+                "lesson:" + lessonId, lesson.getContent());
+
+        for (FileMetaData file : fileMetaDataRepository.findByLessonId(lessonId)) {
+            String text = readTextAttachment(file);
+            if (text != null) {
+                addChunks(chunks, lesson, courseId, "file-" + file.getId(),
+                        lesson.getTitle() + " - " + file.getOriginalName(), ATTACHMENT_CONTENT_TYPE,
+                        "file:" + file.getId(), text);
+            }
+        }
+        return new ArrayList<>(chunks.values());
+    }
+
+    private void addChunks(Map<String, Chunk> chunks, Lesson lesson, Long courseId, String part, String title,
+            String contentType, String source, String text) {
+        for (String content : chunker.chunk(text)) {
+            // Identical chunks of one part share a key and are stored once
+            String contentHash = hash(Objects.toString(title, "") + "\n" + content);
+            String contentId = PostgreSQLVectorService.LESSON_CHUNK_PREFIX + lesson.getId() + ":" + part + ":"
+                    + contentHash;
+            chunks.put(contentId, new Chunk(contentId, title, content, contentType, source, courseId, lesson.getId(),
+                    contentHash, null));
+        }
+    }
+
+    private static StoredContent toStoredContent(Chunk chunk) {
+        RAGContentResultDTO content = new RAGContentResultDTO();
+        content.setContentId(chunk.contentId());
+        content.setTitle(chunk.title());
+        content.setContent(chunk.content());
+        content.setContentType(chunk.contentType());
+        content.setSource(chunk.source());
+        return new StoredContent(content, chunk.courseId(), chunk.lessonId());
+    }
+
+    private String readTextAttachment(FileMetaData file) {
+        if (file.getFileType() == null || !TEXT_ATTACHMENT_TYPES.contains(file.getFileType().toLowerCase())
+                || file.getFileSize() == null || file.getFileSize() > maxAttachmentSize) {
+            return null;
+        }
+
+        try {
+            Path path = Paths.get(file.getFilePath());
+            return Files.exists(path) ? Files.readString(path, StandardCharsets.UTF_8) : null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read attachment {} for indexing: {}", file.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
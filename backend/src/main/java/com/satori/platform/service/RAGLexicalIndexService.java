@@ -0,0 +1,204 @@
+package com.satori.platform.service;
+
+import com.satori.platform.service.PostgreSQLVectorService.StoredContent;
+import com.satori.platform.service.dto.RAGContentRequestDTO;
+import com.satori.platform.service.dto.RAGContentResultDTO;
+import com.satori.platform.service.util.Bm25Index;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * BM25 index over the content of the vector store, the lexical half of hybrid
+ * retrieval.
+ * <p>
+ * The index lives in memory. It is loaded from the vector store on first use,
+ * kept current by {@link RAGIndexingService} and
+ * {@link RAGContentRetrievalService#storeContent}, and rebuilt periodically to
+ * pick up writes made by other instances.
+ */
+@Service
+public class RAGLexicalIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(RAGLexicalIndexService.class);
+
+    private final PostgreSQLVectorService postgreSQLVectorService;
+
+    private final boolean ragEnabled;
+
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean loaded;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    /** Writes made while a rebuild loads the store, replayed onto the new snapshot. */
+    private List<Consumer<Snapshot>> pendingWrites;
+
+    public RAGLexicalIndexService(
+            PostgreSQLVectorService postgreSQLVectorService,
+            @Value("${app.rag.enabled:false}") boolean ragEnabled) {
+        this.postgreSQLVectorService = postgreSQLVectorService;
+        this.ragEnabled = ragEnabled;
+    }
+
+    /**
+     * Find the best lexical matches for a request, honouring its course and
+     * difficulty filters.
+     *
+     * @param request the retrieval request
+     * @param limit   the maximum number of results
+     * @return the matches, best first, with the BM25 score as relevance
+     */
+    public List<RAGContentResultDTO> search(RAGContentRequestDTO request, int limit) {
+        ensureLoaded();
+
+        Snapshot current = snapshot;
+        List<RAGContentResultDTO> results = new ArrayList<>();
+        for (Bm25Index.Match match : current.index.search(request.getQuery(), limit,
+                id -> matches(current.contents.get(id), request))) {
+            StoredContent stored = current.contents.get(match.id());
+            if (stored != null) {
+                results.add(copy(stored.content(), match.score()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Add or replace indexed content.
+     *
+     * @param content the stored content
+     */
+    public void put(StoredContent content) {
+        write(target -> target.put(content));
+    }
+
+    /**
+     * @param contentIds the IDs of content removed from the vector store
+     */
+    public void remove(Collection<String> contentIds) {
+        List<String> ids = List.copyOf(contentIds);
+        write(target -> ids.forEach(target::remove));
+    }
+
+    /**
+     * @param lessonId the lesson whose chunks were all removed
+     */
+    public void removeLesson(Long lessonId) {
+        write(target -> target.contents.values().stream()
+                .filter(content -> lessonId.equals(content.lessonId()))
+                .map(content -> content.content().getContentId())
+                .toList()
+                .forEach(target::remove));
+    }
+
+    /**
+     * Rebuild the index from the vector store. The new index is built aside
+     * and swapped in whole, so searches never see a partly built index.
+     */
+    @Scheduled(fixedDelayString = "${app.rag.lexical-index.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.rag.lexical-index.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!ragEnabled) {
+            return;
+        }
+
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                pendingWrites = new ArrayList<>();
+            }
+            Snapshot rebuilt = new Snapshot();
+            List<StoredContent> stored;
+            try {
+                stored = postgreSQLVectorService.findAllContent();
+                stored.forEach(rebuilt::put);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingWrites = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                pendingWrites.forEach(write -> write.accept(rebuilt));
+                pendingWrites = null;
+                snapshot = rebuilt;
+                loaded = true;
+            }
+            log.info("Built lexical index over {} content pieces", stored.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private synchronized void write(Consumer<Snapshot> write) {
+        write.accept(snapshot);
+        if (pendingWrites != null) {
+            pendingWrites.add(write);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuildLock.lock();
+            try {
+                if (!loaded) {
+                    rebuild();
+                    loaded = true;
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+    }
+
+    private static boolean matches(StoredContent content, RAGContentRequestDTO request) {
+        return content != null
+                && (request.getCourseId() == null || request.getCourseId().equals(content.courseId()))
+                && (request.getDifficultyLevel() == null
+                        || request.getDifficultyLevel().equals(content.content().getDifficultyLevel()));
+    }
+
+    private static String indexedText(RAGContentResultDTO content) {
+        return Objects.toString(content.getTitle(), "") + "\n" + Objects.toString(content.getContent(), "");
+    }
+
+    private static final class Snapshot {
+
+        private final Bm25Index index = new Bm25Index();
+        private final Map<String, StoredContent> contents = new ConcurrentHashMap<>();
+
+        private void put(StoredContent content) {
+            String id = content.content().getContentId();
+            contents.put(id, content);
+            index.put(id, indexedText(content.content()));
+        }
+
+        private void remove(String id) {
+            contents.remove(id);
+            index.remove(id);
+        }
+    }
+
+    private static RAGContentResultDTO copy(RAGContentResultDTO content, double score) {
+        RAGContentResultDTO result = new RAGContentResultDTO();
+        result.setContentId(content.getContentId());
+        result.setTitle(content.getTitle());
+        result.setContent(content.getContent());
+        result.setContentType(content.getContentType());
+        result.setSource(content.getSource());
+        result.setDifficultyLevel(content.getDifficultyLevel());
+        result.setTopics(content.getTopics());
+        result.setRelevanceScore(score);
+        return result;
+    }
+}
@@ -0,0 +1,198 @@
+package com.satori.platform.service;
+
+import com.satori.platform.domain.PlannedReminder;
+import com.satori.platform.domain.Quiz;
+import com.satori.platform.domain.Schedule;
+import com.satori.platform.domain.enumeration.NotificationType;
+import com.satori.platform.domain.enumeration.ReminderKind;
+import com.satori.platform.repository.PlannedReminderRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Computes the concrete reminder instants of schedules, quizzes and students
+ * when they change, and stores them as {@link PlannedReminder}s.
+ * <p>
+ * Planning is idempotent: reminders that are still wanted are kept, reminders
+ * that no longer apply are deleted unless they already fired, and a reminder
+ * that fired is never planned again. A reminder whose time has passed is only
+ * planned (and fires at once) if it is the last one before its event.
+ */
+@Service
+@Transactional
+public class ReminderPlanner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReminderPlanner.class);
+
+    static final List<Offset> SCHEDULE_OFFSETS = List.of(
+            new Offset(ReminderKind.SCHEDULE_TEACHER_DAY_BEFORE, Duration.ofHours(24), false),
+            new Offset(ReminderKind.SCHEDULE_TEACHER_HOUR_BEFORE, Duration.ofHours(1), true),
+            new Offset(ReminderKind.SCHEDULE_STUDENTS, Duration.ofHours(2), true));
+
+    static final List<Offset> QUIZ_OFFSETS = List.of(
+            new Offset(ReminderKind.QUIZ_DUE, Duration.ofHours(24), true));
+
+    private static final List<ReminderKind> SCHEDULE_KINDS = SCHEDULE_OFFSETS.stream().map(Offset::kind).toList();
+    private static final List<ReminderKind> QUIZ_KINDS = QUIZ_OFFSETS.stream().map(Offset::kind).toList();
+    private static final List<ReminderKind> STUDY_KINDS = List.of(ReminderKind.DAILY_STUDY);
+
+    private final PlannedReminderRepository plannedReminderRepository;
+    private final NotificationPreferenceMatrix notificationPreferenceMatrix;
+    private final LocalTime defaultStudyTime;
+
+    public ReminderPlanner(
+            PlannedReminderRepository plannedReminderRepository,
+            NotificationPreferenceMatrix notificationPreferenceMatrix,
+            @Value("${app.notification.reminders.study-time:19:00}") LocalTime defaultStudyTime) {
+        this.plannedReminderRepository = plannedReminderRepository;
+        this.notificationPreferenceMatrix = notificationPreferenceMatrix;
+        this.defaultStudyTime = defaultStudyTime;
+    }
+
+    /**
+     * Plan the teacher and student reminders of a created or changed
+     * schedule.
+     *
+     * @param schedule the schedule
+     */
+    public void planSchedule(Schedule schedule) {
+        Instant start = schedule.getStartTime() != null ? schedule.getStartTime() : schedule.getDate();
+        sync(SCHEDULE_KINDS, schedule.getId(), fireTimes(start, SCHEDULE_OFFSETS, Instant.now()));
+    }
+
+    /**
+     * Plan the due reminder of a created or changed quiz. Templates and
+     * quizzes that are neither active nor due to be activated get none.
+     *
+     * @param quiz the quiz
+     */
+    public void planQuiz(Quiz quiz) {
+        boolean open = !Boolean.TRUE.equals(quiz.getIsTemplate())
+                && (Boolean.TRUE.equals(quiz.getIsActive()) || quiz.getActivationTime() != null);
+        sync(QUIZ_KINDS, quiz.getId(),
+                open ? fireTimes(quiz.getDeactivationTime(), QUIZ_OFFSETS, Instant.now()) : Map.of());
+    }
+
+    /**
+     * Plan a student's next daily study reminder, at their preferred time for
+     * system notifications or the default study time.
+     *
+     * @param userProfileId the student
+     * @param after         the reminder is planned after this instant
+     */
+    public void planStudyReminder(Long userProfileId, Instant after) {
+        Instant fireAt = notificationPreferenceMatrix
+                .nextPreferredTime(userProfileId, NotificationType.SYSTEM_NOTIFICATION, after)
+                .orElseGet(() -> nextDefaultStudyTime(after));
+        sync(STUDY_KINDS, userProfileId, Map.of(ReminderKind.DAILY_STUDY, fireAt));
+    }
+
+    /**
+     * Delete the study reminder of a user that is no longer a student, if it
+     * has not fired.
+     *
+     * @param userProfileId the user
+     */
+    public void cancelStudyReminder(Long userProfileId) {
+        plannedReminderRepository.deleteUnfired(STUDY_KINDS, userProfileId);
+    }
+
+    /**
+     * Delete the reminders of a deleted schedule that have not fired.
+     *
+     * @param scheduleId the schedule ID
+     */
+    public void cancelSchedule(Long scheduleId) {
+        plannedReminderRepository.deleteUnfired(SCHEDULE_KINDS, scheduleId);
+    }
+
+    /**
+     * Delete the reminders of a deleted quiz that have not fired.
+     *
+     * @param quizId the quiz ID
+     */
+    public void cancelQuiz(Long quizId) {
+        plannedReminderRepository.deleteUnfired(QUIZ_KINDS, quizId);
+    }
+
+    /**
+     * Compute the reminder instants of an event.
+     *
+     * @param eventAt the start or due time of the event
+     * @param offsets the reminders, each some time before the event
+     * @param now     the current instant
+     * @return the fire time per reminder kind; empty once the event has passed
+     */
+    static Map<ReminderKind, Instant> fireTimes(Instant eventAt, List<Offset> offsets, Instant now) {
+        Map<ReminderKind, Instant> fireTimes = new LinkedHashMap<>();
+        if (eventAt == null || !eventAt.isAfter(now)) {
+            return fireTimes;
+        }
+        for (Offset offset : offsets) {
+            // A passed reminder keeps its nominal time, so re-planning matches the fired row
+            Instant fireAt = eventAt.minus(offset.before());
+            if (!fireAt.isBefore(now) || offset.catchUp()) {
+                fireTimes.put(offset.kind(), fireAt);
+            }
+        }
+        return fireTimes;
+    }
+
+    private Instant nextDefaultStudyTime(Instant after) {
+        ZonedDateTime next = after.atZone(ZoneId.systemDefault()).toLocalDate().atTime(defaultStudyTime)
+                .atZone(ZoneId.systemDefault());
+        return next.toInstant().isAfter(after) ? next.toInstant() : next.plusDays(1).toInstant();
+    }
+
+    private void sync(Collection<ReminderKind> kinds, Long sourceId, Map<ReminderKind, Instant> wanted) {
+        if (sourceId == null) {
+            return;
+        }
+        // Whole seconds, as stored, so planned times compare equal to stored ones
+        Map<ReminderKind, Instant> missing = new LinkedHashMap<>();
+        wanted.forEach((kind, fireAt) -> missing.put(kind, fireAt.truncatedTo(ChronoUnit.SECONDS)));
+        List<PlannedReminder> obsolete = new ArrayList<>();
+        for (PlannedReminder existing : plannedReminderRepository.findByKindInAndSourceId(kinds, sourceId)) {
+            Instant stored = existing.getFireAt().truncatedTo(ChronoUnit.SECONDS);
+            if (stored.equals(missing.get(existing.getKind()))) {
+                missing.remove(existing.getKind());
+            } else if (existing.getFiredAt() == null) {
+                obsolete.add(existing);
+            }
+        }
+
+        plannedReminderRepository.deleteAll(obsolete);
+        plannedReminderRepository.saveAll(missing.entrySet().stream()
+                .map(entry -> new PlannedReminder(entry.getKey(), sourceId, entry.getValue()))
+                .toList());
+        if (!obsolete.isEmpty() || !missing.isEmpty()) {
+            LOG.debug("Planned {} and dropped {} reminders of {} {}", missing.size(), obsolete.size(), kinds,
+                    sourceId);
+        }
+    }
+
+    /**
+     * A reminder some time before an event.
+     *
+     * @param kind    the reminder kind
+     * @param before  how long before the event it fires
+     * @param catchUp whether it still fires, at once, when planned after its
+     *                time but before the event
+     */
+    record Offset(ReminderKind kind, Duration before, boolean catchUp) {
+    }
+}
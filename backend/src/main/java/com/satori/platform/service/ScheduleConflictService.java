@@ -0,0 +1,357 @@
+package com.satori.platform.service;
+
+import com.satori.platform.domain.Schedule;
+import com.satori.platform.repository.ScheduleRepository;
+import com.satori.platform.service.dto.ConflictResolutionDTO.TimeSlotSuggestionDTO;
+import com.satori.platform.service.util.IntervalIndex;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Conflict engine for schedules, backed by one in-memory {@link IntervalIndex}
+ * per teacher, course and location.
+ * <p>
+ * Indexes are built lazily from the database on first use and dropped whenever
+ * a schedule in their scope changes, so repeated checks (recurring timetables,
+ * free-slot searches) never hit the database. An index holds every schedule
+ * that ends after {@value #INDEX_LOOKBACK_HOURS} hours ago, however long ago
+ * it started; checks of ranges that begin earlier than that query the
+ * database.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ScheduleConflictService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScheduleConflictService.class);
+
+    private static final long INDEX_LOOKBACK_HOURS = 24;
+    private static final int WORKDAY_START_HOUR = 8;
+    private static final int WORKDAY_END_HOUR = 18;
+    private static final int SLOT_GRANULARITY_MINUTES = 30;
+
+    private final ScheduleRepository scheduleRepository;
+
+    private final Map<ConflictScope, CoveredIndex> indexes = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ScheduleConflictService(ScheduleRepository scheduleRepository) {
+        this.scheduleRepository = scheduleRepository;
+    }
+
+    /**
+     * Find the schedules overlapping {@code [start, end)} in any of the given
+     * scopes.
+     *
+     * @param scopes    the teacher, course or location scopes to check
+     * @param start     the start of the proposed slot
+     * @param end       the end of the proposed slot
+     * @param excludeId a schedule ID to ignore (for updates), may be null
+     * @return the IDs of the conflicting schedules, ordered by start time
+     */
+    public List<Long> findConflicts(Collection<ConflictScope> scopes, Instant start, Instant end, Long excludeId) {
+        Map<Long, ScheduleSlot> conflicts = new LinkedHashMap<>();
+        for (ConflictScope scope : scopes) {
+            for (ScheduleSlot slot : overlapping(scope, start.toEpochMilli(), end.toEpochMilli())) {
+                if (!slot.id.equals(excludeId)) {
+                    conflicts.putIfAbsent(slot.id, slot);
+                }
+            }
+        }
+        return conflicts.values().stream()
+                .sorted(Comparator.comparingLong(slot -> slot.start))
+                .map(slot -> slot.id)
+                .toList();
+    }
+
+    /**
+     * Find the best free slots of the given duration inside working hours.
+     * <p>
+     * Candidates start on a {@value #SLOT_GRANULARITY_MINUTES}-minute grid; when
+     * a preferred start is given, slots closest to it rank first, otherwise the
+     * earliest slots do.
+     *
+     * @param scopes         the scopes that must all be free
+     * @param from           the start of the search range
+     * @param to             the end of the search range
+     * @param duration       the length of the slot
+     * @param preferredStart the preferred start time, may be null
+     * @param limit          the maximum number of slots to return
+     * @return the free slots, best first
+     */
+    public List<TimeSlotSuggestionDTO> findFreeSlots(
+            Collection<ConflictScope> scopes,
+            Instant from,
+            Instant to,
+            Duration duration,
+            Instant preferredStart,
+            int limit) {
+        Instant now = Instant.now();
+        long rangeStart = (from.isBefore(now) ? now : from).toEpochMilli();
+        long rangeEnd = to.toEpochMilli();
+        long length = duration.toMillis();
+        if (limit <= 0 || length <= 0 || rangeStart >= rangeEnd) {
+            return new ArrayList<>();
+        }
+
+        List<long[]> busy = mergeBusyIntervals(scopes, rangeStart, rangeEnd);
+        long granularity = Duration.ofMinutes(SLOT_GRANULARITY_MINUTES).toMillis();
+
+        // Bounded max-heap on score: keeps the best `limit` candidates seen so far
+        Comparator<long[]> byScore = Comparator.comparingLong(candidate -> candidate[1]);
+        PriorityQueue<long[]> best = new PriorityQueue<>(limit + 1, byScore.reversed());
+
+        int busyIndex = 0;
+        for (Instant day = Instant.ofEpochMilli(rangeStart).truncatedTo(ChronoUnit.DAYS); day.toEpochMilli() < rangeEnd; day = day
+                .plus(1, ChronoUnit.DAYS)) {
+            long windowStart = Math.max(rangeStart, day.plus(WORKDAY_START_HOUR, ChronoUnit.HOURS).toEpochMilli());
+            long windowEnd = Math.min(rangeEnd, day.plus(WORKDAY_END_HOUR, ChronoUnit.HOURS).toEpochMilli());
+
+            long cursor = windowStart;
+            while (busyIndex < busy.size() && busy.get(busyIndex)[1] <= windowStart) {
+                busyIndex++;
+            }
+            int index = busyIndex;
+            while (cursor < windowEnd) {
+                long gapEnd = index < busy.size() ? Math.min(windowEnd, busy.get(index)[0]) : windowEnd;
+                for (long candidate = alignUp(cursor, granularity); candidate + length <= gapEnd; candidate += granularity) {
+                    long score = preferredStart != null ? Math.abs(candidate - preferredStart.toEpochMilli()) : candidate;
+                    best.offer(new long[] { candidate, score });
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+                if (index >= busy.size() || busy.get(index)[0] >= windowEnd) {
+                    break;
+                }
+                cursor = Math.max(cursor, busy.get(index)[1]);
+                index++;
+            }
+        }
+
+        List<long[]> ranked = new ArrayList<>(best);
+        ranked.sort(byScore.thenComparingLong(candidate -> candidate[0]));
+
+        List<TimeSlotSuggestionDTO> suggestions = new ArrayList<>(ranked.size());
+        int priority = 1;
+        for (long[] candidate : ranked) {
+            suggestions.add(new TimeSlotSuggestionDTO(
+                    Instant.ofEpochMilli(candidate[0]),
+                    Instant.ofEpochMilli(candidate[0] + length),
+                    "Available slot with no conflicts",
+                    priority++));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Drop the indexes a schedule belongs to. When called inside a transaction
+     * the indexes are dropped again after commit, so a concurrent rebuild cannot
+     * keep the pre-commit state.
+     *
+     * @param schedule the created, updated or deleted schedule
+     */
+    public void evict(Schedule schedule) {
+        List<ConflictScope> scopes = new ArrayList<>();
+        if (schedule.getCourse() != null) {
+            scopes.add(ConflictScope.course(schedule.getCourse().getId()));
+            if (schedule.getCourse().getTeacher() != null) {
+                scopes.add(ConflictScope.teacher(schedule.getCourse().getTeacher().getId()));
+            }
+        }
+        if (schedule.getLocation() != null && !schedule.getLocation().isBlank()) {
+            scopes.add(ConflictScope.location(schedule.getLocation()));
+        }
+
+        evict(scopes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(scopes);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop every index.
+     */
+    public void evictAll() {
+        generation.incrementAndGet();
+        indexes.clear();
+    }
+
+    private void evict(List<ConflictScope> scopes) {
+        generation.incrementAndGet();
+        scopes.forEach(indexes::remove);
+    }
+
+    private List<ScheduleSlot> overlapping(ConflictScope scope, long start, long end) {
+        CoveredIndex covered = getIndex(scope);
+        if (start >= covered.from) {
+            return covered.index.overlapping(start, end);
+        }
+        // The range begins before the index covers: ask the database
+        return loadSlots(scope, Instant.ofEpochMilli(start)).stream()
+                .filter(slot -> slot.start < end && slot.end > start)
+                .toList();
+    }
+
+    private CoveredIndex getIndex(ConflictScope scope) {
+        CoveredIndex index = indexes.get(scope);
+        if (index != null) {
+            return index;
+        }
+
+        long loadedGeneration = generation.get();
+        index = loadIndex(scope);
+        // Only publish the index if no schedule changed while it was being loaded
+        if (generation.get() == loadedGeneration) {
+            indexes.putIfAbsent(scope, index);
+        }
+        return index;
+    }
+
+    private CoveredIndex loadIndex(ConflictScope scope) {
+        Instant from = Instant.now().minus(INDEX_LOOKBACK_HOURS, ChronoUnit.HOURS);
+        List<ScheduleSlot> slots = loadSlots(scope, from);
+        LOG.debug("Built schedule index for {} with {} entries", scope, slots.size());
+        return new CoveredIndex(from.toEpochMilli(), IntervalIndex.of(slots, slot -> slot.start, slot -> slot.end));
+    }
+
+    /**
+     * The schedules of a scope that end after {@code from}.
+     */
+    private List<ScheduleSlot> loadSlots(ConflictScope scope, Instant from) {
+        List<Schedule> schedules = switch (scope.kind) {
+            case TEACHER -> scheduleRepository.findByTeacherIdAndEndTimeAfter(Long.valueOf(scope.key), from);
+            case COURSE -> scheduleRepository.findByCourseIdAndEndTimeAfter(Long.valueOf(scope.key), from);
+            case LOCATION -> scheduleRepository.findByLocationAndEndTimeAfter(scope.key, from);
+        };
+
+        return schedules.stream()
+                .filter(schedule -> schedule.getStartTime() != null && schedule.getEndTime() != null)
+                .map(schedule -> new ScheduleSlot(
+                        schedule.getId(),
+                        schedule.getStartTime().toEpochMilli(),
+                        schedule.getEndTime().toEpochMilli()))
+                .toList();
+    }
+
+    private List<long[]> mergeBusyIntervals(Collection<ConflictScope> scopes, long start, long end) {
+        List<long[]> intervals = new ArrayList<>();
+        for (ConflictScope scope : scopes) {
+            for (ScheduleSlot slot : overlapping(scope, start, end)) {
+                intervals.add(new long[] { slot.start, slot.end });
+            }
+        }
+        intervals.sort(Comparator.comparingLong(interval -> interval[0]));
+
+        List<long[]> merged = new ArrayList<>();
+        for (long[] interval : intervals) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && interval[0] <= last[1]) {
+                last[1] = Math.max(last[1], interval[1]);
+            } else {
+                merged.add(new long[] { interval[0], interval[1] });
+            }
+        }
+        return merged;
+    }
+
+    private static long alignUp(long value, long granularity) {
+        long remainder = Math.floorMod(value, granularity);
+        return remainder == 0 ? value : value + granularity - remainder;
+    }
+
+    /**
+     * A teacher, course or location whose schedules must not overlap.
+     */
+    public static final class ConflictScope {
+
+        enum Kind {
+            TEACHER,
+            COURSE,
+            LOCATION,
+        }
+
+        private final Kind kind;
+        private final String key;
+
+        private ConflictScope(Kind kind, String key) {
+            this.kind = kind;
+            this.key = key;
+        }
+
+        public static ConflictScope teacher(Long teacherId) {
+            return new ConflictScope(Kind.TEACHER, String.valueOf(teacherId));
+        }
+
+        public static ConflictScope course(Long courseId) {
+            return new ConflictScope(Kind.COURSE, String.valueOf(courseId));
+        }
+
+        public static ConflictScope location(String location) {
+            return new ConflictScope(Kind.LOCATION, location.trim().toLowerCase(Locale.ROOT));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConflictScope)) {
+                return false;
+            }
+            ConflictScope that = (ConflictScope) o;
+            return kind == that.kind && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, key);
+        }
+
+        @Override
+        public String toString() {
+            return kind + ":" + key;
+        }
+    }
+
+    /**
+     * An index of the schedules that end after {@code from}, in epoch millis.
+     */
+    private record CoveredIndex(long from, IntervalIndex<ScheduleSlot> index) {
+    }
+
+    private static final class ScheduleSlot {
+
+        private final Long id;
+        private final long start;
+        private final long end;
+
+        private ScheduleSlot(Long id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
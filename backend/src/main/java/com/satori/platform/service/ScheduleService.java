@@ -8,16 +8,27 @@ import com.satori.platform.repository.CourseRepository;
 import com.satori.platform.repository.ScheduleRepository;
 import com.satori.platform.repository.StudentProgressRepository;
 import com.satori.platform.repository.UserProfileRepository;
+import com.satori.platform.service.ScheduleConflictService.ConflictScope;
+import com.satori.platform.service.dto.RecurringConflictDTO;
 import com.satori.platform.service.dto.ScheduleDTO;
 import com.satori.platform.service.exception.InsufficientPermissionException;
 import com.satori.platform.service.mapper.ScheduleMapper;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -38,6 +49,9 @@ public class ScheduleService {
     private final StudentProgressRepository studentProgressRepository;
     private final ScheduleMapper scheduleMapper;
     private final NotificationService notificationService;
+    private final CacheManager cacheManager;
+    private final ScheduleConflictService scheduleConflictService;
+    private final ReminderPlanner reminderPlanner;
 
      public ScheduleService(
             ScheduleRepository scheduleRepository,
@@ -45,13 +59,19 @@ public class ScheduleService {
             UserProfileRepository userProfileRepository,
             StudentProgressRepository studentProgressRepository,
             ScheduleMapper scheduleMapper,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            CacheManager cacheManager,
+            ScheduleConflictService scheduleConflictService,
+            ReminderPlanner reminderPlanner) {
         this.scheduleRepository = scheduleRepository;
         this.courseRepository = courseRepository;
         this.userProfileRepository = userProfileRepository;
         this.studentProgressRepository = studentProgressRepository;
         this.scheduleMapper = scheduleMapper;
         this.notificationService = notificationService;
+        this.cacheManager = cacheManager;
+        this.scheduleConflictService = scheduleConflictService;
+        this.reminderPlanner = reminderPlanner;
     }
 
     /**
@@ -75,6 +95,9 @@ public class ScheduleService {
 
         schedule = scheduleRepository.save(schedule);
         LOG.info("Created new schedule with ID: {} by teacher: {}", schedule.getId(), teacherId);
+        scheduleConflictService.evict(schedule);
+        reminderPlanner.planSchedule(schedule);
+        clearCalendarFeedCache();
 
         // Notify enrolled students of new schedule
         notifyStudentsOfScheduleChange(schedule, "NEW_SCHEDULE");
@@ -102,6 +125,7 @@ public class ScheduleService {
         validateTeacherPermission(teacherId, existingSchedule.getCourse().getId());
         validateScheduleData(scheduleDTO);
         checkForConflicts(scheduleDTO, scheduleId);
+        scheduleConflictService.evict(existingSchedule);
 
         // Update fields
         existingSchedule.setDate(scheduleDTO.getDate());
@@ -111,6 +135,9 @@ public class ScheduleService {
 
         Schedule updatedSchedule = scheduleRepository.save(existingSchedule);
         LOG.info("Updated schedule with ID: {} by teacher: {}", scheduleId, teacherId);
+        scheduleConflictService.evict(updatedSchedule);
+        reminderPlanner.planSchedule(updatedSchedule);
+        clearCalendarFeedCache();
 
         // Notify enrolled students of schedule update
         notifyStudentsOfScheduleChange(updatedSchedule, "SCHEDULE_UPDATE");
@@ -139,6 +166,9 @@ public class ScheduleService {
 
         scheduleRepository.delete(schedule);
         LOG.info("Deleted schedule with ID: {} by teacher: {}", scheduleId, teacherId);
+        scheduleConflictService.evict(schedule);
+        reminderPlanner.cancelSchedule(scheduleId);
+        clearCalendarFeedCache();
     }
 
     /**
@@ -239,18 +269,78 @@ public class ScheduleService {
     public List<ScheduleDTO> checkScheduleConflicts(ScheduleDTO scheduleDTO, Long excludeId) {
         LOG.debug("Request to check conflicts for schedule: {}", scheduleDTO);
 
-        List<Schedule> conflicts = scheduleRepository.findConflictingSchedules(
-                scheduleDTO.getCourse().getId(),
+        List<Long> conflictIds = scheduleConflictService.findConflicts(
+                List.of(ConflictScope.course(scheduleDTO.getCourse().getId())),
                 scheduleDTO.getStartTime(),
-                scheduleDTO.getEndTime());
+                scheduleDTO.getEndTime(),
+                excludeId);
 
-        if (excludeId != null) {
-            conflicts = conflicts.stream()
-                    .filter(schedule -> !schedule.getId().equals(excludeId))
-                    .toList();
+        return findSchedulesInOrder(conflictIds);
+    }
+
+    /**
+     * Check every occurrence of a recurring schedule for conflicts with the
+     * course, its teacher and the location in one pass.
+     *
+     * @param scheduleDTO  the first occurrence of the recurring schedule
+     * @param occurrences  the number of occurrences
+     * @param intervalDays the number of days between two occurrences
+     * @return the occurrences that have conflicts
+     */
+    @Transactional(readOnly = true)
+    public List<RecurringConflictDTO> checkRecurringScheduleConflicts(ScheduleDTO scheduleDTO, int occurrences,
+            int intervalDays) {
+        LOG.debug("Request to check {} recurring occurrences every {} days for schedule: {}", occurrences, intervalDays,
+                scheduleDTO);
+
+        Course course = courseRepository.findById(scheduleDTO.getCourse().getId())
+                .orElseThrow(() -> new EntityNotFoundException("Course not found"));
+
+        List<ConflictScope> scopes = new ArrayList<>();
+        scopes.add(ConflictScope.course(course.getId()));
+        if (course.getTeacher() != null) {
+            scopes.add(ConflictScope.teacher(course.getTeacher().getId()));
+        }
+        if (scheduleDTO.getLocation() != null && !scheduleDTO.getLocation().isBlank()) {
+            scopes.add(ConflictScope.location(scheduleDTO.getLocation()));
         }
 
-        return conflicts.stream()
+        List<RecurringConflictDTO> results = new ArrayList<>();
+        List<List<Long>> conflictIdsPerResult = new ArrayList<>();
+        Set<Long> allConflictIds = new LinkedHashSet<>();
+        for (int occurrence = 0; occurrence < occurrences; occurrence++) {
+            Instant start = scheduleDTO.getStartTime().plus((long) occurrence * intervalDays, ChronoUnit.DAYS);
+            Instant end = scheduleDTO.getEndTime().plus((long) occurrence * intervalDays, ChronoUnit.DAYS);
+            List<Long> conflictIds = scheduleConflictService.findConflicts(scopes, start, end, scheduleDTO.getId());
+            if (!conflictIds.isEmpty()) {
+                results.add(new RecurringConflictDTO(occurrence, start, end, null));
+                conflictIdsPerResult.add(conflictIds);
+                allConflictIds.addAll(conflictIds);
+            }
+        }
+
+        // Load all conflicting schedules with a single query
+        Map<Long, ScheduleDTO> conflicts = findSchedulesInOrder(new ArrayList<>(allConflictIds)).stream()
+                .collect(Collectors.toMap(ScheduleDTO::getId, Function.identity()));
+        for (int i = 0; i < results.size(); i++) {
+            results.get(i).setConflicts(conflictIdsPerResult.get(i).stream()
+                    .map(conflicts::get)
+                    .toList());
+        }
+
+        LOG.info("Found conflicts for {} of {} recurring occurrences", results.size(), occurrences);
+        return results;
+    }
+
+    private List<ScheduleDTO> findSchedulesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Schedule> schedules = scheduleRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Schedule::getId, Function.identity()));
+        return ids.stream()
+                .map(schedules::get)
+                .filter(Objects::nonNull)
                 .map(scheduleMapper::toDto)
                 .toList();
     }
@@ -311,6 +401,14 @@ public class ScheduleService {
         }
     }
 
+    private void clearCalendarFeedCache() {
+        // A schedule appears in the feeds of every enrolled student, so drop all rendered feeds
+        Cache cache = cacheManager.getCache(CalendarService.CALENDAR_FEED_CACHE);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
     private void notifyStudentsOfScheduleChange(Schedule schedule, String changeType) {
         Course course = schedule.getCourse();
         List<StudentProfile> enrolledStudents = studentProgressRepository.findStudentsByCourseId(course.getId());
@@ -380,6 +478,7 @@ public class ScheduleService {
         if (scheduleDTO.getId() != null) {
             Schedule existingSchedule = scheduleRepository.findById(scheduleDTO.getId())
                     .orElseThrow(() -> new EntityNotFoundException("Schedule not found"));
+            scheduleConflictService.evict(existingSchedule);
 
             // Update only non-null fields
             if (scheduleDTO.getDate() != null) {
@@ -396,6 +495,9 @@ public class ScheduleService {
             }
 
             Schedule updatedSchedule = scheduleRepository.save(existingSchedule);
+            scheduleConflictService.evict(updatedSchedule);
+            reminderPlanner.planSchedule(updatedSchedule);
+            clearCalendarFeedCache();
             return Optional.of(scheduleMapper.toDto(updatedSchedule));
         }
         return Optional.empty();
@@ -0,0 +1,188 @@
+package com.satori.platform.service;
+
+import com.satori.platform.domain.enumeration.DeliveryStatus;
+import com.satori.platform.repository.NotificationDeliveryRepository;
+import com.satori.platform.service.event.NotificationScheduledEvent;
+import com.satori.platform.service.util.TimingWheel;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Fires scheduled notification deliveries within one tick of their due time.
+ * <p>
+ * Deliveries due within the look-ahead window are held on an in-memory
+ * {@link TimingWheel}: they are loaded on startup and on every look-ahead
+ * interval, and deliveries scheduled in between are added as they are queued.
+ * The wheel advances every tick without touching the database; due deliveries
+ * are handed to {@link NotificationDeliveryService#deliverDueScheduled} on a
+ * bounded pool of workers, so slow or throttled sends never hold up the tick.
+ * Each delivery is claimed so that several instances never send the same
+ * notification.
+ */
+@Service
+public class ScheduledNotificationDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScheduledNotificationDispatcher.class);
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 3;
+
+    private final NotificationDeliveryService notificationDeliveryService;
+    private final NotificationDeliveryRepository notificationDeliveryRepository;
+    private final long tickMillis;
+    private final Duration lookAhead;
+
+    // Guarded by this
+    private final TimingWheel<Long> wheel;
+    private final Set<Long> onWheel = new HashSet<>();
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("notification-wheel-"));
+    private final ThreadPoolExecutor workers;
+
+    public ScheduledNotificationDispatcher(
+            NotificationDeliveryService notificationDeliveryService,
+            NotificationDeliveryRepository notificationDeliveryRepository,
+            @Value("${app.notification.timing-wheel.tick:PT1S}") Duration tick,
+            @Value("${app.notification.timing-wheel.look-ahead:PT15M}") Duration lookAhead,
+            @Value("${app.notification.timing-wheel.workers:4}") int workers,
+            @Value("${app.notification.timing-wheel.queue-capacity:100}") int queueCapacity) {
+        this.notificationDeliveryService = notificationDeliveryService;
+        this.notificationDeliveryRepository = notificationDeliveryRepository;
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.lookAhead = lookAhead;
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("notification-delivery-"));
+    }
+
+    /**
+     * Rebuild the wheel from the database and start ticking.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loadAhead();
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Put every scheduled delivery due within the look-ahead window on the
+     * wheel, including overdue ones.
+     */
+    @Scheduled(fixedDelayString = "${app.notification.timing-wheel.load-interval-ms:300000}",
+            initialDelayString = "${app.notification.timing-wheel.load-interval-ms:300000}")
+    public void loadAhead() {
+        try {
+            List<Object[]> due = notificationDeliveryRepository.findScheduledDueBefore(DeliveryStatus.SCHEDULED,
+                    Instant.now().plus(lookAhead));
+            int added = 0;
+            for (Object[] row : due) {
+                if (add((Long) row[0], (Instant) row[1])) {
+                    added++;
+                }
+            }
+            LOG.debug("Loaded {} scheduled notifications onto the timing wheel", added);
+        } catch (Exception e) {
+            LOG.error("Error loading scheduled notifications", e);
+        }
+    }
+
+    /**
+     * Put a newly scheduled delivery on the wheel once its transaction has
+     * committed, if it is due within the look-ahead window.
+     *
+     * @param event the scheduling event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationScheduled(NotificationScheduledEvent event) {
+        if (event.getScheduledAt() != null && event.getScheduledAt().isBefore(Instant.now().plus(lookAhead))) {
+            add(event.getDeliveryId(), event.getScheduledAt());
+        }
+    }
+
+    /**
+     * @return the number of deliveries waiting on the wheel
+     */
+    public synchronized int getPendingCount() {
+        return wheel.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Advance the wheel and hand what came due to the workers. Deliveries the
+     * workers have no room for, could not claim or failed to send are dropped
+     * from the wheel; if they are still scheduled the next look-ahead load
+     * picks them up again.
+     */
+    void tick() {
+        List<Long> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        try {
+            workers.execute(() -> deliver(due));
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Notification delivery queue is full, leaving {} scheduled notifications to the next load",
+                    due.size());
+            release(due);
+        }
+    }
+
+    private void deliver(List<Long> due) {
+        try {
+            List<Long> skipped = notificationDeliveryService.deliverDueScheduled(due);
+            if (!skipped.isEmpty()) {
+                LOG.debug("Skipped {} scheduled notifications that were sent, cancelled or rescheduled elsewhere",
+                        skipped.size());
+            }
+        } catch (Exception e) {
+            LOG.error("Error delivering {} scheduled notifications", due.size(), e);
+        } finally {
+            release(due);
+        }
+    }
+
+    private synchronized void release(List<Long> deliveryIds) {
+        deliveryIds.forEach(onWheel::remove);
+    }
+
+    private synchronized boolean add(Long deliveryId, Instant scheduledAt) {
+        if (deliveryId == null || scheduledAt == null || !onWheel.add(deliveryId)) {
+            return false;
+        }
+        // scheduled_at is stored to the second, possibly rounded up, so the timer
+        // waits for the whole second the claim will compare against
+        wheel.schedule(deliveryId, Math.ceilDiv(scheduledAt.toEpochMilli(), 1000L) * 1000L);
+        return true;
+    }
+}
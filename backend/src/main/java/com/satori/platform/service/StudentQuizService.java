@@ -11,6 +11,9 @@ import com.satori.platform.repository.StudentQuizRepository;
 import com.satori.platform.repository.StudentQuizResponseRepository;
 import com.satori.platform.repository.UserProfileRepository;
 import com.satori.platform.service.dto.*;
+import com.satori.platform.service.event.QuizAnswerSubmittedEvent;
+import com.satori.platform.service.event.QuizAttemptsSubmittedEvent;
+import com.satori.platform.service.event.QuizDeadlineChangedEvent;
 import com.satori.platform.service.exception.QuizNotActiveException;
 import com.satori.platform.service.exception.QuizSessionException;
 import com.satori.platform.service.exception.QuizTimeExpiredException;
@@ -20,15 +23,21 @@ import com.satori.platform.service.mapper.StudentQuizResponseMapper;
 import com.satori.platform.service.mapper.QuizQuestionMapper;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -49,6 +58,8 @@ public class StudentQuizService {
     private final StudentQuizMapper studentQuizMapper;
     private final StudentQuizResponseMapper studentQuizResponseMapper;
     private final QuizQuestionMapper quizQuestionMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuestionSetVersionCache questionSetVersionCache;
 
     public StudentQuizService(
             StudentQuizRepository studentQuizRepository,
@@ -58,7 +69,9 @@ public class StudentQuizService {
             UserProfileRepository userProfileRepository,
             StudentQuizMapper studentQuizMapper,
             StudentQuizResponseMapper studentQuizResponseMapper,
-            QuizQuestionMapper quizQuestionMapper) {
+            QuizQuestionMapper quizQuestionMapper,
+            ApplicationEventPublisher eventPublisher,
+            QuestionSetVersionCache questionSetVersionCache) {
         this.studentQuizRepository = studentQuizRepository;
         this.studentQuizResponseRepository = studentQuizResponseRepository;
         this.quizRepository = quizRepository;
@@ -67,6 +80,8 @@ public class StudentQuizService {
         this.studentQuizMapper = studentQuizMapper;
         this.studentQuizResponseMapper = studentQuizResponseMapper;
         this.quizQuestionMapper = quizQuestionMapper;
+        this.eventPublisher = eventPublisher;
+        this.questionSetVersionCache = questionSetVersionCache;
     }
 
     /**
@@ -190,8 +205,10 @@ public class StudentQuizService {
         // Set total questions
         List<QuizQuestion> questions = quizQuestionRepository.findByQuizIdOrderByPosition(quizId);
         studentQuiz.setTotalQuestions(questions.size());
+        studentQuiz.setDeadline(computeDeadline(studentQuiz));
 
         studentQuiz = studentQuizRepository.save(studentQuiz);
+        deadlineChanged(studentQuiz);
 
         LOG.info("Started quiz attempt {} for student {} on quiz {}", studentQuiz.getId(), studentId, quizId);
         return buildQuizSessionDTO(studentQuiz);
@@ -240,10 +257,27 @@ public class StudentQuizService {
 
         // Update student quiz progress
         updateQuizProgress(studentQuiz);
+        eventPublisher.publishEvent(new QuizAnswerSubmittedEvent(studentQuiz.getQuiz().getId(), studentQuizId,
+                studentQuiz.getStudent() != null ? studentQuiz.getStudent().getId() : null, quizQuestionId,
+                Boolean.TRUE.equals(existingResponse.getIsCorrect()),
+                studentQuiz.getCorrectAnswers()));
 
         return studentQuizResponseMapper.toDto(existingResponse);
     }
 
+    /**
+     * Submit an answer for a quiz question.
+     *
+     * @param studentQuizId  the student quiz attempt ID
+     * @param quizQuestionId the quiz question ID
+     * @param answer         the student's answer
+     * @return the updated session state
+     */
+    public QuizSessionDeltaDTO submitAnswerDelta(Long studentQuizId, Long quizQuestionId, String answer) {
+        submitAnswer(studentQuizId, quizQuestionId, answer);
+        return getQuizSessionDelta(studentQuizId);
+    }
+
     /**
      * Pause a quiz attempt.
      *
@@ -252,7 +286,21 @@ public class StudentQuizService {
      */
     public QuizSessionDTO pauseQuizAttempt(Long studentQuizId) {
         LOG.debug("Request to pause quiz attempt: {}", studentQuizId);
+        return buildQuizSessionDTO(pause(studentQuizId));
+    }
 
+    /**
+     * Pause a quiz attempt.
+     *
+     * @param studentQuizId the student quiz attempt ID
+     * @return the updated session state
+     */
+    public QuizSessionDeltaDTO pauseQuizAttemptDelta(Long studentQuizId) {
+        LOG.debug("Request to pause quiz attempt: {}", studentQuizId);
+        return buildQuizSessionDeltaDTO(pause(studentQuizId));
+    }
+
+    private StudentQuiz pause(Long studentQuizId) {
         StudentQuiz studentQuiz = studentQuizRepository.findById(studentQuizId)
                 .orElseThrow(() -> new IllegalArgumentException("StudentQuiz not found with id: " + studentQuizId));
 
@@ -264,10 +312,13 @@ public class StudentQuizService {
 
         studentQuiz.setPaused(true);
         studentQuiz.setPauseTime(Instant.now());
+        // The clock stops while paused; resuming sets a new deadline
+        studentQuiz.setDeadline(null);
         studentQuiz = studentQuizRepository.save(studentQuiz);
+        deadlineChanged(studentQuiz);
 
         LOG.info("Paused quiz attempt {}", studentQuizId);
-        return buildQuizSessionDTO(studentQuiz);
+        return studentQuiz;
     }
 
     /**
@@ -278,7 +329,21 @@ public class StudentQuizService {
      */
     public QuizSessionDTO resumeQuizAttempt(Long studentQuizId) {
         LOG.debug("Request to resume quiz attempt: {}", studentQuizId);
+        return buildQuizSessionDTO(resume(studentQuizId));
+    }
+
+    /**
+     * Resume a paused quiz attempt.
+     *
+     * @param studentQuizId the student quiz attempt ID
+     * @return the updated session state
+     */
+    public QuizSessionDeltaDTO resumeQuizAttemptDelta(Long studentQuizId) {
+        LOG.debug("Request to resume quiz attempt: {}", studentQuizId);
+        return buildQuizSessionDeltaDTO(resume(studentQuizId));
+    }
 
+    private StudentQuiz resume(Long studentQuizId) {
         StudentQuiz studentQuiz = studentQuizRepository.findById(studentQuizId)
                 .orElseThrow(() -> new IllegalArgumentException("StudentQuiz not found with id: " + studentQuizId));
 
@@ -298,10 +363,12 @@ public class StudentQuizService {
         studentQuiz.setPaused(false);
         studentQuiz.setResumeTime(Instant.now());
         studentQuiz.setPauseTime(null);
+        studentQuiz.setDeadline(computeDeadline(studentQuiz));
         studentQuiz = studentQuizRepository.save(studentQuiz);
+        deadlineChanged(studentQuiz);
 
         LOG.info("Resumed quiz attempt {}", studentQuizId);
-        return buildQuizSessionDTO(studentQuiz);
+        return studentQuiz;
     }
 
     /**
@@ -328,36 +395,61 @@ public class StudentQuizService {
         calculateAndSetFinalScore(studentQuiz);
 
         studentQuiz = studentQuizRepository.save(studentQuiz);
+        eventPublisher.publishEvent(new QuizAttemptsSubmittedEvent(studentQuizId, studentQuiz.getEndTime()));
 
         LOG.info("Submitted quiz attempt {} with score {}", studentQuizId, studentQuiz.getScore());
         return buildQuizResultDTO(studentQuiz);
     }
 
     /**
-     * Auto-submit quiz attempts that have exceeded time limits.
+     * Auto-submit every running attempt whose deadline has passed or whose
+     * quiz has closed, scoring all of them in one statement.
+     *
+     * @param now the current instant
+     * @return the IDs of the expired attempts, including any another instance
+     *         submitted concurrently
      */
-    @Async
-    public void autoSubmitExpiredQuizzes() {
-        LOG.debug("Running auto-submit for expired quizzes");
-
-        Instant now = Instant.now();
-        Instant cutoffTime = now.minus(Duration.ofHours(24)); // Look back 24 hours for time limits
-
-        List<StudentQuiz> expiredAttempts = studentQuizRepository.findAttemptsToAutoSubmit(cutoffTime, now);
+    public List<Long> submitExpiredAttempts(Instant now) {
+        List<Long> expired = studentQuizRepository.findExpiredIds(now);
+        if (!expired.isEmpty()) {
+            int submitted = studentQuizRepository.submitExpired(expired, now);
+            LOG.info("Auto-submitted {} expired quiz attempts", submitted);
+        }
+        // Published even if another instance submitted them, so every instance closes its channels
+        eventPublisher.publishEvent(new QuizAttemptsSubmittedEvent(expired, now));
+        return expired;
+    }
 
-        for (StudentQuiz attempt : expiredAttempts) {
-            try {
-                attempt.setCompleted(true);
-                attempt.setEndTime(now);
-                attempt.setSubmittedAutomatically(true);
-                calculateAndSetFinalScore(attempt);
-                studentQuizRepository.save(attempt);
+    /**
+     * Recompute the deadlines of the running attempts of a quiz from its
+     * stored time limit and close time, in one statement, after the quiz
+     * changed. Paused attempts get theirs when they resume.
+     *
+     * @param quizId the quiz ID
+     * @return the number of attempts updated
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int recomputeDeadlines(Long quizId) {
+        return quizRepository.findById(quizId)
+                .map(quiz -> quiz.getTimeLimitMinutes() != null
+                        ? studentQuizRepository.updateRunningTimedDeadlines(quizId, quiz.getTimeLimitMinutes() * 60,
+                                quiz.getDeactivationTime())
+                        : studentQuizRepository.updateRunningDeadlines(quizId, quiz.getDeactivationTime()))
+                .orElse(0);
+    }
 
-                LOG.info("Auto-submitted expired quiz attempt {}", attempt.getId());
-            } catch (Exception e) {
-                LOG.error("Error auto-submitting quiz attempt {}: {}", attempt.getId(), e.getMessage());
-            }
+    /**
+     * Set the deadline of running attempts started before deadlines were
+     * stored.
+     *
+     * @return the number of attempts updated
+     */
+    public int assignMissingDeadlines() {
+        List<StudentQuiz> attempts = studentQuizRepository.findRunningWithoutDeadline();
+        for (StudentQuiz attempt : attempts) {
+            attempt.setDeadline(computeDeadline(attempt));
         }
+        return attempts.size();
     }
 
     /**
@@ -435,6 +527,52 @@ public class StudentQuizService {
         return activeAttempt.map(this::buildQuizSessionDTO);
     }
 
+    /**
+     * Get the compact state of a quiz session.
+     *
+     * @param studentQuizId the student quiz attempt ID
+     * @return the session state
+     */
+    @Transactional(readOnly = true)
+    public QuizSessionDeltaDTO getQuizSessionDelta(Long studentQuizId) {
+        LOG.debug("Request to get quiz session state: {}", studentQuizId);
+
+        StudentQuiz studentQuiz = studentQuizRepository.findById(studentQuizId)
+                .orElseThrow(() -> new IllegalArgumentException("StudentQuiz not found with id: " + studentQuizId));
+        return buildQuizSessionDeltaDTO(studentQuiz);
+    }
+
+    /**
+     * Get the version of the question set of a quiz session, without loading
+     * the questions.
+     *
+     * @param studentQuizId the student quiz attempt ID
+     * @return the question set version
+     */
+    @Transactional(readOnly = true)
+    public String getQuestionSetVersion(Long studentQuizId) {
+        StudentQuiz studentQuiz = studentQuizRepository.findById(studentQuizId)
+                .orElseThrow(() -> new IllegalArgumentException("StudentQuiz not found with id: " + studentQuizId));
+        return questionSetVersionCache.get(studentQuiz.getQuiz().getId());
+    }
+
+    /**
+     * Get the questions of a quiz session in position order.
+     *
+     * @param studentQuizId the student quiz attempt ID
+     * @return the questions
+     */
+    @Transactional(readOnly = true)
+    public List<QuizQuestionDTO> getQuizSessionQuestions(Long studentQuizId) {
+        LOG.debug("Request to get quiz session questions: {}", studentQuizId);
+
+        StudentQuiz studentQuiz = studentQuizRepository.findById(studentQuizId)
+                .orElseThrow(() -> new IllegalArgumentException("StudentQuiz not found with id: " + studentQuizId));
+        return quizQuestionRepository.findByQuizIdOrderByPosition(studentQuiz.getQuiz().getId()).stream()
+                .map(quizQuestionMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
     // Helper methods
 
     private void validateQuizActive(Quiz quiz) {
@@ -459,17 +597,48 @@ public class StudentQuizService {
 
         // Check if quiz time limit exceeded
         Quiz quiz = studentQuiz.getQuiz();
-        if (quiz.getTimeLimitMinutes() != null && studentQuiz.getStartTime() != null) {
-            Instant timeLimit = studentQuiz.getStartTime().plus(Duration.ofMinutes(quiz.getTimeLimitMinutes()));
-            if (Instant.now().isAfter(timeLimit)) {
-                throw new QuizTimeExpiredException("Quiz time limit exceeded");
-            }
+        Instant timeLimit = timeLimitOf(studentQuiz);
+        if (timeLimit != null && !Boolean.TRUE.equals(studentQuiz.getPaused()) && Instant.now().isAfter(timeLimit)) {
+            throw new QuizTimeExpiredException("Quiz time limit exceeded");
         }
 
         // Check if quiz is still active
         validateQuizActive(quiz);
     }
 
+    /**
+     * The end of an attempt's time limit, extended by the time it spent
+     * paused; null without a time limit.
+     */
+    static Instant timeLimitOf(StudentQuiz studentQuiz) {
+        Quiz quiz = studentQuiz.getQuiz();
+        if (quiz.getTimeLimitMinutes() == null || studentQuiz.getStartTime() == null) {
+            return null;
+        }
+        int pausedSeconds = studentQuiz.getTotalPauseDurationSeconds() != null
+                ? studentQuiz.getTotalPauseDurationSeconds()
+                : 0;
+        return studentQuiz.getStartTime().plus(Duration.ofMinutes(quiz.getTimeLimitMinutes())).plusSeconds(pausedSeconds);
+    }
+
+    /**
+     * When a running attempt is submitted automatically: at the end of its
+     * time limit or when its quiz closes, whichever comes first.
+     */
+    static Instant computeDeadline(StudentQuiz studentQuiz) {
+        Instant deadline = timeLimitOf(studentQuiz);
+        Instant closes = studentQuiz.getQuiz().getDeactivationTime();
+        if (closes != null && (deadline == null || closes.isBefore(deadline))) {
+            deadline = closes;
+        }
+        return deadline;
+    }
+
+    private void deadlineChanged(StudentQuiz studentQuiz) {
+        eventPublisher.publishEvent(new QuizDeadlineChangedEvent(studentQuiz.getId(), studentQuiz.getDeadline(),
+                Boolean.TRUE.equals(studentQuiz.getPaused())));
+    }
+
     private boolean isAnswerCorrect(QuizQuestion quizQuestion, String studentAnswer) {
         if (studentAnswer == null || quizQuestion.getQuestion() == null) {
             return false;
@@ -523,17 +692,13 @@ public class StudentQuizService {
         Quiz quiz = studentQuiz.getQuiz();
         session.setTimeLimitMinutes(quiz.getTimeLimitMinutes());
 
-        if (quiz.getTimeLimitMinutes() != null && studentQuiz.getStartTime() != null
-                && !Boolean.TRUE.equals(studentQuiz.getCompleted())) {
-            Instant timeLimit = studentQuiz.getStartTime().plus(Duration.ofMinutes(quiz.getTimeLimitMinutes()));
-            long remainingSeconds = Duration.between(Instant.now(), timeLimit).getSeconds();
-            session.setRemainingTimeSeconds(Math.max(0, (int) remainingSeconds));
-        }
+        session.setRemainingTimeSeconds(remainingTimeSeconds(studentQuiz));
 
         // Set questions and responses
         List<QuizQuestion> questions = quizQuestionRepository
                 .findByQuizIdOrderByPosition(studentQuiz.getQuiz().getId());
         session.setQuestions(questions.stream().map(quizQuestionMapper::toDto).collect(Collectors.toList()));
+        session.setQuestionSetVersion(questionSetVersionCache.get(quiz.getId()));
 
         List<StudentQuizResponse> responses = studentQuizResponseRepository
                 .findByStudentQuizIdOrderByQuizQuestionPosition(studentQuiz.getId());
@@ -548,6 +713,62 @@ public class StudentQuizService {
         return session;
     }
 
+    private QuizSessionDeltaDTO buildQuizSessionDeltaDTO(StudentQuiz studentQuiz) {
+        Long quizId = studentQuiz.getQuiz().getId();
+        BitSet answered = answeredQuestions(quizQuestionRepository.findPositionsByQuizId(quizId),
+                new HashSet<>(studentQuizResponseRepository.findAnsweredQuestionIdsByStudentQuizId(studentQuiz.getId())));
+        String encodedAnswered = Base64.getEncoder().encodeToString(answered.toByteArray());
+        boolean completed = Boolean.TRUE.equals(studentQuiz.getCompleted());
+        boolean paused = Boolean.TRUE.equals(studentQuiz.getPaused());
+
+        QuizSessionDeltaDTO delta = new QuizSessionDeltaDTO();
+        delta.setStudentQuizId(studentQuiz.getId());
+        delta.setQuestionSetVersion(questionSetVersionCache.get(quizId));
+        delta.setCurrentQuestionIndex(studentQuiz.getCurrentQuestionIndex());
+        delta.setTotalQuestions(studentQuiz.getTotalQuestions());
+        delta.setAnsweredCount(answered.cardinality());
+        delta.setAnswered(encodedAnswered);
+        delta.setRemainingTimeSeconds(remainingTimeSeconds(studentQuiz));
+        delta.setPaused(paused);
+        delta.setCompleted(completed);
+        delta.setCanPause(!completed && !paused);
+        delta.setCanResume(!completed && paused);
+        // The remaining time is left out: it follows from the time limit and pauses
+        delta.setVersion(Integer.toHexString(Objects.hash(studentQuiz.getCurrentQuestionIndex(), encodedAnswered,
+                paused, completed, studentQuiz.getDeadline(), studentQuiz.getTotalPauseDurationSeconds())));
+        return delta;
+    }
+
+    /**
+     * The time an attempt has left, or null without a time limit or once
+     * completed. A paused attempt keeps the time it had left when it was
+     * paused.
+     */
+    private static Integer remainingTimeSeconds(StudentQuiz studentQuiz) {
+        Instant timeLimit = timeLimitOf(studentQuiz);
+        if (timeLimit == null || Boolean.TRUE.equals(studentQuiz.getCompleted())) {
+            return null;
+        }
+        Instant reference = Boolean.TRUE.equals(studentQuiz.getPaused()) && studentQuiz.getPauseTime() != null
+                ? studentQuiz.getPauseTime()
+                : Instant.now();
+        return Math.max(0, (int) Duration.between(reference, timeLimit).getSeconds());
+    }
+
+    /**
+     * The questions answered, as a bitset over the quiz questions in position
+     * order.
+     */
+    static BitSet answeredQuestions(List<Object[]> positions, Set<Long> answeredQuestionIds) {
+        BitSet answered = new BitSet(positions.size());
+        for (int i = 0; i < positions.size(); i++) {
+            if (answeredQuestionIds.contains((Long) positions.get(i)[0])) {
+                answered.set(i);
+            }
+        }
+        return answered;
+    }
+
     private QuizResultDTO buildQuizResultDTO(StudentQuiz studentQuiz) {
         QuizResultDTO result = new QuizResultDTO();
         result.setStudentQuizId(studentQuiz.getId());
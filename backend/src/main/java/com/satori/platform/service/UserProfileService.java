@@ -1,9 +1,11 @@
 package com.satori.platform.service;
 
 import com.satori.platform.domain.UserProfile;
+import com.satori.platform.domain.enumeration.Role;
 import com.satori.platform.repository.UserProfileRepository;
 import com.satori.platform.service.dto.UserProfileDTO;
 import com.satori.platform.service.mapper.UserProfileMapper;
+import java.time.Instant;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,9 +27,16 @@ public class UserProfileService {
 
     private final UserProfileMapper userProfileMapper;
 
-    public UserProfileService(UserProfileRepository userProfileRepository, UserProfileMapper userProfileMapper) {
+    private final ReminderPlanner reminderPlanner;
+
+    public UserProfileService(
+        UserProfileRepository userProfileRepository,
+        UserProfileMapper userProfileMapper,
+        ReminderPlanner reminderPlanner
+    ) {
         this.userProfileRepository = userProfileRepository;
         this.userProfileMapper = userProfileMapper;
+        this.reminderPlanner = reminderPlanner;
     }
 
     /**
@@ -40,6 +49,7 @@ public class UserProfileService {
         LOG.debug("Request to save UserProfile : {}", userProfileDTO);
         UserProfile userProfile = userProfileMapper.toEntity(userProfileDTO);
         userProfile = userProfileRepository.save(userProfile);
+        planStudyReminder(userProfile);
         return userProfileMapper.toDto(userProfile);
     }
 
@@ -53,6 +63,7 @@ public class UserProfileService {
         LOG.debug("Request to update UserProfile : {}", userProfileDTO);
         UserProfile userProfile = userProfileMapper.toEntity(userProfileDTO);
         userProfile = userProfileRepository.save(userProfile);
+        planStudyReminder(userProfile);
         return userProfileMapper.toDto(userProfile);
     }
 
@@ -73,7 +84,10 @@ public class UserProfileService {
                 return existingUserProfile;
             })
             .map(userProfileRepository::save)
-            .map(userProfileMapper::toDto);
+            .map(userProfile -> {
+                planStudyReminder(userProfile);
+                return userProfileMapper.toDto(userProfile);
+            });
     }
 
     /**
@@ -108,5 +122,18 @@ public class UserProfileService {
     public void delete(Long id) {
         LOG.debug("Request to delete UserProfile : {}", id);
         userProfileRepository.deleteById(id);
+        reminderPlanner.cancelStudyReminder(id);
+    }
+
+    /**
+     * Plan the daily study reminder of a student, or drop it when the user is
+     * not a student (any more).
+     */
+    private void planStudyReminder(UserProfile userProfile) {
+        if (userProfile.getRole() == Role.HOC_VIEN) {
+            reminderPlanner.planStudyReminder(userProfile.getId(), Instant.now());
+        } else {
+            reminderPlanner.cancelStudyReminder(userProfile.getId());
+        }
     }
 }
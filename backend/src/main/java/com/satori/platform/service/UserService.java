@@ -7,6 +7,7 @@ import com.satori.platform.domain.enumeration.AuthenticationEventType;
 import com.satori.platform.repository.AuthorityRepository;
 import com.satori.platform.repository.UserRepository;
 import com.satori.platform.security.AuthoritiesConstants;
+import com.satori.platform.security.PrincipalCache;
 import com.satori.platform.security.SecurityUtils;
 import com.satori.platform.service.dto.AdminUserDTO;
 import com.satori.platform.service.dto.UserDTO;
@@ -48,13 +49,16 @@ public class UserService {
 
     private final MailService mailService;
 
+    private final PrincipalCache principalCache;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
         CacheManager cacheManager,
         AuthenticationAuditService auditService,
-        MailService mailService
+        MailService mailService,
+        PrincipalCache principalCache
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
@@ -62,6 +66,7 @@ public class UserService {
         this.cacheManager = cacheManager;
         this.auditService = auditService;
         this.mailService = mailService;
+        this.principalCache = principalCache;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -538,6 +543,7 @@ public class UserService {
 
     private void clearUserCaches(User user) {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evictIfPresent(user.getLogin());
+        principalCache.evictUser(user.getLogin());
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evictIfPresent(user.getEmail());
         }
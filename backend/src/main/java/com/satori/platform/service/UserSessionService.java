@@ -3,6 +3,7 @@ package com.satori.platform.service;
 import com.satori.platform.domain.User;
 import com.satori.platform.domain.UserSession;
 import com.satori.platform.repository.UserSessionRepository;
+import com.satori.platform.security.PrincipalCache;
 import com.satori.platform.service.dto.UserSessionDTO;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -28,9 +29,11 @@ public class UserSessionService {
     private static final int SESSION_TIMEOUT_HOURS = 24;
 
     private final UserSessionRepository userSessionRepository;
+    private final PrincipalCache principalCache;
 
-    public UserSessionService(UserSessionRepository userSessionRepository) {
+    public UserSessionService(UserSessionRepository userSessionRepository, PrincipalCache principalCache) {
         this.userSessionRepository = userSessionRepository;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -96,6 +99,7 @@ public class UserSessionService {
     public void invalidateAllUserSessions(User user) {
         LOG.debug("Invalidating all sessions for user: {}", user.getLogin());
         userSessionRepository.deactivateAllUserSessions(user);
+        principalCache.evictUser(user.getLogin());
     }
 
     /**
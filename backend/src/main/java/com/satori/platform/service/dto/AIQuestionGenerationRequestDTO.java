@@ -19,6 +19,9 @@ public class AIQuestionGenerationRequestDTO implements Serializable {
     private List<String> weakAreas;
     private Boolean focusOnWeakAreas;
     private List<String> preferredQuestionTypes;
+    private Long courseId;
+    private Long lessonId;
+    private List<String> excludedQuestions;
 
     public AIQuestionGenerationRequestDTO() {
         // Default constructor
@@ -80,6 +83,30 @@ public class AIQuestionGenerationRequestDTO implements Serializable {
         this.preferredQuestionTypes = preferredQuestionTypes;
     }
 
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public void setLessonId(Long lessonId) {
+        this.lessonId = lessonId;
+    }
+
+    public List<String> getExcludedQuestions() {
+        return excludedQuestions;
+    }
+
+    public void setExcludedQuestions(List<String> excludedQuestions) {
+        this.excludedQuestions = excludedQuestions;
+    }
+
     @Override
     public String toString() {
         return "AIQuestionGenerationRequestDTO{" +
@@ -90,6 +117,9 @@ public class AIQuestionGenerationRequestDTO implements Serializable {
                 ", weakAreas=" + weakAreas +
                 ", focusOnWeakAreas=" + focusOnWeakAreas +
                 ", preferredQuestionTypes=" + preferredQuestionTypes +
+                ", courseId=" + courseId +
+                ", lessonId=" + lessonId +
+                ", excludedQuestions=" + (excludedQuestions != null ? excludedQuestions.size() : 0) +
                 '}';
     }
 }
\ No newline at end of file
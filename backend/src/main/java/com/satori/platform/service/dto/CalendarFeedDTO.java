@@ -0,0 +1,72 @@
+package com.satori.platform.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A rendered, subscribable ICS calendar feed together with its HTTP validators.
+ */
+public class CalendarFeedDTO implements Serializable {
+
+    private String content;
+    private String etag;
+    private Instant lastModified;
+
+    public CalendarFeedDTO() {
+    }
+
+    public CalendarFeedDTO(String content, String etag, Instant lastModified) {
+        this.content = content;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    // Getters and Setters
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof CalendarFeedDTO))
+            return false;
+        CalendarFeedDTO that = (CalendarFeedDTO) o;
+        return Objects.equals(etag, that.etag);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(etag);
+    }
+
+    @Override
+    public String toString() {
+        return "CalendarFeedDTO{" +
+                "etag='" + etag + '\'' +
+                ", lastModified=" + lastModified +
+                '}';
+    }
+}
@@ -25,6 +25,10 @@ public class NotificationContentDTO {
     private String inAppMessage;
     private boolean inAppEnabled = true;
 
+    // Rendered once for many recipients, with {{name}} placeholders merged per
+    // recipient at send time
+    private boolean shared;
+
     // Constructors
     public NotificationContentDTO() {
     }
@@ -123,6 +127,14 @@ public class NotificationContentDTO {
         this.inAppEnabled = inAppEnabled;
     }
 
+    public boolean isShared() {
+        return shared;
+    }
+
+    public void setShared(boolean shared) {
+        this.shared = shared;
+    }
+
     // Fluent builder methods
     public NotificationContentDTO emailSubject(String emailSubject) {
         this.emailSubject = emailSubject;
@@ -164,6 +176,11 @@ public class NotificationContentDTO {
         return this;
     }
 
+    public NotificationContentDTO shared(boolean shared) {
+        this.shared = shared;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "NotificationContentDTO{" +
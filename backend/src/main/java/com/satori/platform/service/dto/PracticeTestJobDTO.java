@@ -0,0 +1,118 @@
+package com.satori.platform.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * DTO for the state of an asynchronous practice test generation job.
+ */
+public class PracticeTestJobDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+    }
+
+    private String jobId;
+    private Status status;
+    private Long studentId;
+    private Long courseId;
+    private Long lessonId;
+    private QuizDTO quiz;
+    private String errorMessage;
+    private Instant submittedAt;
+    private Instant completedAt;
+
+    public PracticeTestJobDTO() {
+        // Default constructor
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public void setLessonId(Long lessonId) {
+        this.lessonId = lessonId;
+    }
+
+    public QuizDTO getQuiz() {
+        return quiz;
+    }
+
+    public void setQuiz(QuizDTO quiz) {
+        this.quiz = quiz;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "PracticeTestJobDTO{" +
+                "jobId='" + jobId + '\'' +
+                ", status=" + status +
+                ", studentId=" + studentId +
+                ", courseId=" + courseId +
+                ", lessonId=" + lessonId +
+                ", submittedAt=" + submittedAt +
+                ", completedAt=" + completedAt +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.satori.platform.service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+
+/**
+ * An answer sent over the session channel of a quiz attempt. The
+ * {@code clientSeq} is echoed in the acknowledgement, so the client can match
+ * it to the answer.
+ */
+public class QuizChannelAnswerDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    private Long quizQuestionId;
+
+    @NotNull
+    private String answer;
+
+    private Long clientSeq;
+
+    public Long getQuizQuestionId() {
+        return quizQuestionId;
+    }
+
+    public void setQuizQuestionId(Long quizQuestionId) {
+        this.quizQuestionId = quizQuestionId;
+    }
+
+    public String getAnswer() {
+        return answer;
+    }
+
+    public void setAnswer(String answer) {
+        this.answer = answer;
+    }
+
+    public Long getClientSeq() {
+        return clientSeq;
+    }
+
+    public void setClientSeq(Long clientSeq) {
+        this.clientSeq = clientSeq;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizChannelAnswerDTO{quizQuestionId=" + quizQuestionId + ", clientSeq=" + clientSeq + "}";
+    }
+}
@@ -0,0 +1,161 @@
+package com.satori.platform.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * An event pushed to the client of a quiz attempt over its session channel.
+ * Only the fields relevant to the {@link Type} are set.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class QuizChannelEventDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        /** The state of the attempt, sent when the channel opens */
+        SESSION,
+        /** The remaining time, sent periodically */
+        TICK,
+        PAUSED,
+        RESUMED,
+        /** A message from the teacher to every attempt of the quiz */
+        ANNOUNCEMENT,
+        /** The attempt was submitted; the channel closes */
+        SUBMITTED,
+        /** An answer sent over the channel was saved */
+        ACK,
+        /** An answer sent over the channel was rejected */
+        ERROR,
+    }
+
+    private Type type;
+
+    private Long studentQuizId;
+
+    private Integer remainingTimeSeconds;
+
+    private Boolean paused;
+
+    private Boolean completed;
+
+    private Boolean autoSubmitted;
+
+    private String message;
+
+    private Long quizQuestionId;
+
+    private Long responseId;
+
+    private Long clientSeq;
+
+    private Instant sentAt;
+
+    public QuizChannelEventDTO() {}
+
+    public QuizChannelEventDTO(Type type, Long studentQuizId) {
+        this.type = type;
+        this.studentQuizId = studentQuizId;
+        this.sentAt = Instant.now();
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getStudentQuizId() {
+        return studentQuizId;
+    }
+
+    public void setStudentQuizId(Long studentQuizId) {
+        this.studentQuizId = studentQuizId;
+    }
+
+    public Integer getRemainingTimeSeconds() {
+        return remainingTimeSeconds;
+    }
+
+    public void setRemainingTimeSeconds(Integer remainingTimeSeconds) {
+        this.remainingTimeSeconds = remainingTimeSeconds;
+    }
+
+    public Boolean getPaused() {
+        return paused;
+    }
+
+    public void setPaused(Boolean paused) {
+        this.paused = paused;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public Boolean getAutoSubmitted() {
+        return autoSubmitted;
+    }
+
+    public void setAutoSubmitted(Boolean autoSubmitted) {
+        this.autoSubmitted = autoSubmitted;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Long getQuizQuestionId() {
+        return quizQuestionId;
+    }
+
+    public void setQuizQuestionId(Long quizQuestionId) {
+        this.quizQuestionId = quizQuestionId;
+    }
+
+    public Long getResponseId() {
+        return responseId;
+    }
+
+    public void setResponseId(Long responseId) {
+        this.responseId = responseId;
+    }
+
+    public Long getClientSeq() {
+        return clientSeq;
+    }
+
+    public void setClientSeq(Long clientSeq) {
+        this.clientSeq = clientSeq;
+    }
+
+    public Instant getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(Instant sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizChannelEventDTO{" +
+            "type=" + getType() +
+            ", studentQuizId=" + getStudentQuizId() +
+            ", remainingTimeSeconds=" + getRemainingTimeSeconds() +
+            ", paused=" + getPaused() +
+            ", completed=" + getCompleted() +
+            ", clientSeq=" + getClientSeq() +
+            "}";
+    }
+}
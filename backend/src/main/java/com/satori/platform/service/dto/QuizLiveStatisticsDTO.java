@@ -0,0 +1,225 @@
+package com.satori.platform.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Live results of a quiz: attempt counts, the distribution of submitted
+ * scores in ten buckets of ten points, the correctness of each question and
+ * the leaderboard.
+ * <p>
+ * Each instance aggregates the statistics from the answers and submissions it
+ * handles itself, on top of a seed read from the database, so instances behind
+ * a load balancer may return different statistics for the same quiz.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class QuizLiveStatisticsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long quizId;
+    private Integer startedCount;
+    private Integer submittedCount;
+    private Double averageScore;
+    private Double bestScore;
+    private int[] scoreHistogram;
+    private List<QuestionStatistics> questions = new ArrayList<>();
+    private List<LeaderboardEntry> leaderboard = new ArrayList<>();
+    private Instant updatedAt;
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public Integer getStartedCount() {
+        return startedCount;
+    }
+
+    public void setStartedCount(Integer startedCount) {
+        this.startedCount = startedCount;
+    }
+
+    public Integer getSubmittedCount() {
+        return submittedCount;
+    }
+
+    public void setSubmittedCount(Integer submittedCount) {
+        this.submittedCount = submittedCount;
+    }
+
+    public Double getAverageScore() {
+        return averageScore;
+    }
+
+    public void setAverageScore(Double averageScore) {
+        this.averageScore = averageScore;
+    }
+
+    public Double getBestScore() {
+        return bestScore;
+    }
+
+    public void setBestScore(Double bestScore) {
+        this.bestScore = bestScore;
+    }
+
+    public int[] getScoreHistogram() {
+        return scoreHistogram;
+    }
+
+    public void setScoreHistogram(int[] scoreHistogram) {
+        this.scoreHistogram = scoreHistogram;
+    }
+
+    public List<QuestionStatistics> getQuestions() {
+        return questions;
+    }
+
+    public void setQuestions(List<QuestionStatistics> questions) {
+        this.questions = questions;
+    }
+
+    public List<LeaderboardEntry> getLeaderboard() {
+        return leaderboard;
+    }
+
+    public void setLeaderboard(List<LeaderboardEntry> leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "QuizLiveStatisticsDTO{" +
+                "quizId=" + getQuizId() +
+                ", startedCount=" + getStartedCount() +
+                ", submittedCount=" + getSubmittedCount() +
+                ", averageScore=" + getAverageScore() +
+                ", bestScore=" + getBestScore() +
+                ", updatedAt='" + getUpdatedAt() + "'" +
+                "}";
+    }
+
+    /**
+     * How often a question was answered, and answered correctly.
+     */
+    public static class QuestionStatistics implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long quizQuestionId;
+        private Integer answered;
+        private Integer correct;
+        private Double correctRate;
+
+        public Long getQuizQuestionId() {
+            return quizQuestionId;
+        }
+
+        public void setQuizQuestionId(Long quizQuestionId) {
+            this.quizQuestionId = quizQuestionId;
+        }
+
+        public Integer getAnswered() {
+            return answered;
+        }
+
+        public void setAnswered(Integer answered) {
+            this.answered = answered;
+        }
+
+        public Integer getCorrect() {
+            return correct;
+        }
+
+        public void setCorrect(Integer correct) {
+            this.correct = correct;
+        }
+
+        public Double getCorrectRate() {
+            return correctRate;
+        }
+
+        public void setCorrectRate(Double correctRate) {
+            this.correctRate = correctRate;
+        }
+    }
+
+    /**
+     * An attempt on the leaderboard, ranked by correct answers; the score is
+     * set once the attempt is submitted.
+     */
+    public static class LeaderboardEntry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Integer rank;
+        private Long studentQuizId;
+        private Long studentId;
+        private Integer correctAnswers;
+        private Double score;
+        private Boolean submitted;
+
+        public Integer getRank() {
+            return rank;
+        }
+
+        public void setRank(Integer rank) {
+            this.rank = rank;
+        }
+
+        public Long getStudentQuizId() {
+            return studentQuizId;
+        }
+
+        public void setStudentQuizId(Long studentQuizId) {
+            this.studentQuizId = studentQuizId;
+        }
+
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        public void setStudentId(Long studentId) {
+            this.studentId = studentId;
+        }
+
+        public Integer getCorrectAnswers() {
+            return correctAnswers;
+        }
+
+        public void setCorrectAnswers(Integer correctAnswers) {
+            this.correctAnswers = correctAnswers;
+        }
+
+        public Double getScore() {
+            return score;
+        }
+
+        public void setScore(Double score) {
+            this.score = score;
+        }
+
+        public Boolean getSubmitted() {
+            return submitted;
+        }
+
+        public void setSubmitted(Boolean submitted) {
+            this.submitted = submitted;
+        }
+    }
+}
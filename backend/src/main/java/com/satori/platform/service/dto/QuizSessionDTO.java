@@ -24,6 +24,7 @@ public class QuizSessionDTO implements Serializable {
     private Integer remainingTimeSeconds;
     private Double score;
     private Integer correctAnswers;
+    private String questionSetVersion;
     private List<QuizQuestionDTO> questions;
     private List<StudentQuizResponseDTO> responses;
     private Boolean canPause;
@@ -150,6 +151,14 @@ public class QuizSessionDTO implements Serializable {
         this.responses = responses;
     }
 
+    public String getQuestionSetVersion() {
+        return questionSetVersion;
+    }
+
+    public void setQuestionSetVersion(String questionSetVersion) {
+        this.questionSetVersion = questionSetVersion;
+    }
+
     public Boolean getCanPause() {
         return canPause;
     }
@@ -212,6 +221,7 @@ public class QuizSessionDTO implements Serializable {
                 ", remainingTimeSeconds=" + getRemainingTimeSeconds() +
                 ", score=" + getScore() +
                 ", correctAnswers=" + getCorrectAnswers() +
+                ", questionSetVersion='" + getQuestionSetVersion() + "'" +
                 ", canPause='" + getCanPause() + "'" +
                 ", canResume='" + getCanResume() + "'" +
                 ", autoSubmitted='" + getAutoSubmitted() + "'" +
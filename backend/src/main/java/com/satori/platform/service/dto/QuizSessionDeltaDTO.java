@@ -0,0 +1,170 @@
+package com.satori.platform.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A compact view of a quiz session: the state that changes while the attempt
+ * runs, without the questions and responses of {@link QuizSessionDTO}.
+ * <p>
+ * {@code answered} is a bitset over the quiz questions in position order, bit
+ * {@code i} set when question {@code i} has a response, encoded as the Base64
+ * of its little-endian bytes. {@code questionSetVersion} matches the ETag of
+ * the session's question set, so clients know when their cached copy is
+ * stale; {@code version} changes whenever the rest of the state does.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class QuizSessionDeltaDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long studentQuizId;
+    private String version;
+    private String questionSetVersion;
+    private Integer currentQuestionIndex;
+    private Integer totalQuestions;
+    private Integer answeredCount;
+    private String answered;
+    private Integer remainingTimeSeconds;
+    private Boolean paused;
+    private Boolean completed;
+    private Boolean canPause;
+    private Boolean canResume;
+
+    public Long getStudentQuizId() {
+        return studentQuizId;
+    }
+
+    public void setStudentQuizId(Long studentQuizId) {
+        this.studentQuizId = studentQuizId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getQuestionSetVersion() {
+        return questionSetVersion;
+    }
+
+    public void setQuestionSetVersion(String questionSetVersion) {
+        this.questionSetVersion = questionSetVersion;
+    }
+
+    public Integer getCurrentQuestionIndex() {
+        return currentQuestionIndex;
+    }
+
+    public void setCurrentQuestionIndex(Integer currentQuestionIndex) {
+        this.currentQuestionIndex = currentQuestionIndex;
+    }
+
+    public Integer getTotalQuestions() {
+        return totalQuestions;
+    }
+
+    public void setTotalQuestions(Integer totalQuestions) {
+        this.totalQuestions = totalQuestions;
+    }
+
+    public Integer getAnsweredCount() {
+        return answeredCount;
+    }
+
+    public void setAnsweredCount(Integer answeredCount) {
+        this.answeredCount = answeredCount;
+    }
+
+    public String getAnswered() {
+        return answered;
+    }
+
+    public void setAnswered(String answered) {
+        this.answered = answered;
+    }
+
+    public Integer getRemainingTimeSeconds() {
+        return remainingTimeSeconds;
+    }
+
+    public void setRemainingTimeSeconds(Integer remainingTimeSeconds) {
+        this.remainingTimeSeconds = remainingTimeSeconds;
+    }
+
+    public Boolean getPaused() {
+        return paused;
+    }
+
+    public void setPaused(Boolean paused) {
+        this.paused = paused;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public Boolean getCanPause() {
+        return canPause;
+    }
+
+    public void setCanPause(Boolean canPause) {
+        this.canPause = canPause;
+    }
+
+    public Boolean getCanResume() {
+        return canResume;
+    }
+
+    public void setCanResume(Boolean canResume) {
+        this.canResume = canResume;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QuizSessionDeltaDTO)) {
+            return false;
+        }
+
+        QuizSessionDeltaDTO quizSessionDeltaDTO = (QuizSessionDeltaDTO) o;
+        if (this.studentQuizId == null) {
+            return false;
+        }
+        return Objects.equals(this.studentQuizId, quizSessionDeltaDTO.studentQuizId)
+                && Objects.equals(this.version, quizSessionDeltaDTO.version);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.studentQuizId, this.version);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "QuizSessionDeltaDTO{" +
+                "studentQuizId=" + getStudentQuizId() +
+                ", version='" + getVersion() + "'" +
+                ", questionSetVersion='" + getQuestionSetVersion() + "'" +
+                ", currentQuestionIndex=" + getCurrentQuestionIndex() +
+                ", totalQuestions=" + getTotalQuestions() +
+                ", answeredCount=" + getAnsweredCount() +
+                ", answered='" + getAnswered() + "'" +
+                ", remainingTimeSeconds=" + getRemainingTimeSeconds() +
+                ", paused='" + getPaused() + "'" +
+                ", completed='" + getCompleted() + "'" +
+                ", canPause='" + getCanPause() + "'" +
+                ", canResume='" + getCanResume() + "'" +
+                "}";
+    }
+}
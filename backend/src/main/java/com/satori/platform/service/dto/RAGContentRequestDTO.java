@@ -18,10 +18,14 @@ public class RAGContentRequestDTO implements Serializable {
     private String difficultyLevel;
     private Integer maxResults;
     private Double similarityThreshold;
+    private Boolean hybrid;
+    private Integer probes;
+    private Integer efSearch;
 
     public RAGContentRequestDTO() {
         this.maxResults = 10;
         this.similarityThreshold = 0.7;
+        this.hybrid = true;
     }
 
     // Getters and setters
@@ -88,4 +92,36 @@ public class RAGContentRequestDTO implements Serializable {
     public void setSimilarityThreshold(Double similarityThreshold) {
         this.similarityThreshold = similarityThreshold;
     }
-}
\ No newline at end of file
+
+    public Boolean getHybrid() {
+        return hybrid;
+    }
+
+    public void setHybrid(Boolean hybrid) {
+        this.hybrid = hybrid;
+    }
+
+    /**
+     * @return the number of IVFFlat lists to probe for this request, or null
+     *         for the configured default
+     */
+    public Integer getProbes() {
+        return probes;
+    }
+
+    public void setProbes(Integer probes) {
+        this.probes = probes;
+    }
+
+    /**
+     * @return the HNSW candidate list size for this request, or null for the
+     *         configured default
+     */
+    public Integer getEfSearch() {
+        return efSearch;
+    }
+
+    public void setEfSearch(Integer efSearch) {
+        this.efSearch = efSearch;
+    }
+}
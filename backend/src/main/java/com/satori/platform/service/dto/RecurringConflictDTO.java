@@ -0,0 +1,86 @@
+package com.satori.platform.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO for the conflicts of one occurrence of a recurring schedule.
+ */
+public class RecurringConflictDTO implements Serializable {
+
+    private Integer occurrence; // 0-based index of the occurrence
+    private Instant startTime;
+    private Instant endTime;
+    private List<ScheduleDTO> conflicts;
+
+    public RecurringConflictDTO() {
+    }
+
+    public RecurringConflictDTO(Integer occurrence, Instant startTime, Instant endTime, List<ScheduleDTO> conflicts) {
+        this.occurrence = occurrence;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.conflicts = conflicts;
+    }
+
+    // Getters and Setters
+    public Integer getOccurrence() {
+        return occurrence;
+    }
+
+    public void setOccurrence(Integer occurrence) {
+        this.occurrence = occurrence;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public Instant getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Instant endTime) {
+        this.endTime = endTime;
+    }
+
+    public List<ScheduleDTO> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<ScheduleDTO> conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof RecurringConflictDTO))
+            return false;
+        RecurringConflictDTO that = (RecurringConflictDTO) o;
+        return Objects.equals(occurrence, that.occurrence) &&
+                Objects.equals(startTime, that.startTime);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(occurrence, startTime);
+    }
+
+    @Override
+    public String toString() {
+        return "RecurringConflictDTO{" +
+                "occurrence=" + occurrence +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", conflicts=" + conflicts +
+                '}';
+    }
+}
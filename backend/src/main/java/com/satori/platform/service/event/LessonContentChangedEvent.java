@@ -0,0 +1,24 @@
+package com.satori.platform.service.event;
+
+/**
+ * Published when the indexable content of a lesson changes: the lesson was
+ * created, updated or deleted, or one of its attachments was added or removed.
+ * Listeners re-read the lesson, so one event type covers every mutation.
+ */
+public class LessonContentChangedEvent {
+
+    private final Long lessonId;
+
+    public LessonContentChangedEvent(Long lessonId) {
+        this.lessonId = lessonId;
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    @Override
+    public String toString() {
+        return "LessonContentChangedEvent{lessonId=" + lessonId + "}";
+    }
+}
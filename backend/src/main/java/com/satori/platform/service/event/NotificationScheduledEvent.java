@@ -0,0 +1,31 @@
+package com.satori.platform.service.event;
+
+import java.time.Instant;
+
+/**
+ * Published when a notification delivery is queued for a later time, so it can
+ * be put on the timing wheel without waiting for the next look-ahead load.
+ */
+public class NotificationScheduledEvent {
+
+    private final Long deliveryId;
+    private final Instant scheduledAt;
+
+    public NotificationScheduledEvent(Long deliveryId, Instant scheduledAt) {
+        this.deliveryId = deliveryId;
+        this.scheduledAt = scheduledAt;
+    }
+
+    public Long getDeliveryId() {
+        return deliveryId;
+    }
+
+    public Instant getScheduledAt() {
+        return scheduledAt;
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationScheduledEvent{deliveryId=" + deliveryId + ", scheduledAt=" + scheduledAt + "}";
+    }
+}
@@ -0,0 +1,56 @@
+package com.satori.platform.service.event;
+
+/**
+ * Published when a student answers a quiz question, or changes an answer, with
+ * the attempt's number of correct answers afterwards.
+ */
+public class QuizAnswerSubmittedEvent {
+
+    private final Long quizId;
+    private final Long studentQuizId;
+    private final Long studentId;
+    private final Long quizQuestionId;
+    private final boolean correct;
+    private final int correctAnswers;
+
+    public QuizAnswerSubmittedEvent(Long quizId, Long studentQuizId, Long studentId, Long quizQuestionId,
+            boolean correct, int correctAnswers) {
+        this.quizId = quizId;
+        this.studentQuizId = studentQuizId;
+        this.studentId = studentId;
+        this.quizQuestionId = quizQuestionId;
+        this.correct = correct;
+        this.correctAnswers = correctAnswers;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public Long getStudentQuizId() {
+        return studentQuizId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public Long getQuizQuestionId() {
+        return quizQuestionId;
+    }
+
+    public boolean isCorrect() {
+        return correct;
+    }
+
+    public int getCorrectAnswers() {
+        return correctAnswers;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizAnswerSubmittedEvent{quizId=" + quizId + ", studentQuizId=" + studentQuizId +
+                ", quizQuestionId=" + quizQuestionId + ", correct=" + correct +
+ ", correctAnswers=" + correctAnswers + "}";
+    }
+}
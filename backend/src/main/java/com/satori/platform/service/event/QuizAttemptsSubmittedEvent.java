@@ -0,0 +1,46 @@
+package com.satori.platform.service.event;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Published when quiz attempts are submitted: one attempt by its student, or,
+ * without an attempt ID, every attempt whose deadline had passed at
+ * {@code submittedAt}, listed in {@code expiredIds}.
+ */
+public class QuizAttemptsSubmittedEvent {
+
+    private final Long studentQuizId;
+    private final List<Long> expiredIds;
+    private final Instant submittedAt;
+
+    public QuizAttemptsSubmittedEvent(Long studentQuizId, Instant submittedAt) {
+        this.studentQuizId = studentQuizId;
+        this.expiredIds = List.of();
+        this.submittedAt = submittedAt;
+    }
+
+    public QuizAttemptsSubmittedEvent(List<Long> expiredIds, Instant submittedAt) {
+        this.studentQuizId = null;
+        this.expiredIds = List.copyOf(expiredIds);
+        this.submittedAt = submittedAt;
+    }
+
+    public Long getStudentQuizId() {
+        return studentQuizId;
+    }
+
+    public List<Long> getExpiredIds() {
+        return expiredIds;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizAttemptsSubmittedEvent{studentQuizId=" + studentQuizId + ", expiredIds=" + expiredIds.size() +
+                ", submittedAt=" + submittedAt + "}";
+    }
+}
@@ -0,0 +1,38 @@
+package com.satori.platform.service.event;
+
+import java.time.Instant;
+
+/**
+ * Published when a quiz attempt starts, pauses or resumes, so its timer can be
+ * set without waiting for the next look-ahead load. A paused attempt, or one
+ * without a time limit, has no deadline.
+ */
+public class QuizDeadlineChangedEvent {
+
+    private final Long studentQuizId;
+    private final Instant deadline;
+    private final boolean paused;
+
+    public QuizDeadlineChangedEvent(Long studentQuizId, Instant deadline, boolean paused) {
+        this.studentQuizId = studentQuizId;
+        this.deadline = deadline;
+        this.paused = paused;
+    }
+
+    public Long getStudentQuizId() {
+        return studentQuizId;
+    }
+
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizDeadlineChangedEvent{studentQuizId=" + studentQuizId + ", deadline=" + deadline + ", paused=" + paused + "}";
+    }
+}
@@ -0,0 +1,39 @@
+package com.satori.platform.service.event;
+
+import java.time.Instant;
+
+/**
+ * Published when a quiz is saved, so its activation and deactivation triggers
+ * can be indexed without waiting for the next reload and the deadlines of its
+ * running attempts follow its time limit and close time.
+ */
+public class QuizTimingChangedEvent {
+
+    private final Long quizId;
+    private final Instant activationTime;
+    private final Instant deactivationTime;
+
+    public QuizTimingChangedEvent(Long quizId, Instant activationTime, Instant deactivationTime) {
+        this.quizId = quizId;
+        this.activationTime = activationTime;
+        this.deactivationTime = deactivationTime;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public Instant getActivationTime() {
+        return activationTime;
+    }
+
+    public Instant getDeactivationTime() {
+        return deactivationTime;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizTimingChangedEvent{quizId=" + quizId + ", activationTime=" + activationTime +
+                ", deactivationTime=" + deactivationTime + "}";
+    }
+}
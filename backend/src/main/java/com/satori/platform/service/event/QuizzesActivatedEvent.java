@@ -0,0 +1,25 @@
+package com.satori.platform.service.event;
+
+import java.util.List;
+
+/**
+ * Published when quizzes are activated automatically, so students are notified
+ * after the activation has committed and off the activating thread.
+ */
+public class QuizzesActivatedEvent {
+
+    private final List<Long> quizIds;
+
+    public QuizzesActivatedEvent(List<Long> quizIds) {
+        this.quizIds = List.copyOf(quizIds);
+    }
+
+    public List<Long> getQuizIds() {
+        return quizIds;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizzesActivatedEvent{quizIds=" + quizIds + "}";
+    }
+}
@@ -0,0 +1,127 @@
+package com.satori.platform.service.http;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker.
+ * <p>
+ * While closed, the outcome of the last {@code slidingWindowSize} calls is
+ * recorded; once at least {@code minimumNumberOfCalls} are recorded and the
+ * failure rate reaches the threshold, the breaker opens and rejects calls. After
+ * the open duration a single trial call is let through: its success closes the
+ * breaker, its failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN,
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumNumberOfCalls;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] outcomes;
+    private int nextOutcome;
+    private int recordedCalls;
+    private int recordedFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumNumberOfCalls, Duration openDuration) {
+        this(failureRateThreshold, slidingWindowSize, minimumNumberOfCalls, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(
+        int failureRateThreshold,
+        int slidingWindowSize,
+        int minimumNumberOfCalls,
+        Duration openDuration,
+        LongSupplier nanoClock
+    ) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.outcomes = new boolean[Math.max(1, slidingWindowSize)];
+        this.minimumNumberOfCalls = Math.max(1, Math.min(minimumNumberOfCalls, outcomes.length));
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return whether a call may proceed; every permitted call must be followed
+     *         by {@link #onSuccess()} or {@link #onFailure()}
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recordedCalls >= minimumNumberOfCalls && recordedFailures * 100L >= (long) failureRateThreshold * recordedCalls) {
+                open();
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recordedCalls == outcomes.length) {
+            if (outcomes[nextOutcome]) {
+                recordedFailures--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        outcomes[nextOutcome] = failure;
+        if (failure) {
+            recordedFailures++;
+        }
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        trialInFlight = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        trialInFlight = false;
+        recordedCalls = 0;
+        recordedFailures = 0;
+        nextOutcome = 0;
+    }
+}
@@ -0,0 +1,209 @@
+package com.satori.platform.service.http;
+
+import com.satori.platform.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Bulkhead and circuit breaker in front of one upstream.
+ * <p>
+ * At most {@code maxConcurrentCalls} requests are in flight; a caller waits up
+ * to {@code maxWait} for a slot and is then rejected, so a slow upstream holds
+ * a bounded number of request threads. A call keeps its slot until its
+ * response is closed, so reading a slowly streamed body counts against the
+ * bulkhead too. I/O errors and 5xx responses count as
+ * failures for the circuit breaker.
+ * <p>
+ * Metrics, all tagged with {@code upstream}: {@code http.client.upstream.calls}
+ * (timer, by outcome), {@code http.client.upstream.rejected} (by reason),
+ * {@code http.client.upstream.active}, {@code http.client.upstream.saturation}
+ * and {@code http.client.upstream.circuit.state} (0 closed, 1 open, 2 half-open).
+ */
+public class UpstreamGuard implements ClientHttpRequestInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamGuard.class);
+
+    private final String upstream;
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    private final Timer successTimer;
+    private final Timer serverErrorTimer;
+    private final Timer ioErrorTimer;
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+
+    public UpstreamGuard(String upstream, ApplicationProperties.Http.Upstream policy, MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.maxConcurrentCalls = policy.getMaxConcurrentCalls();
+        this.maxWaitNanos = policy.getMaxWait().toNanos();
+        this.bulkhead = new Semaphore(maxConcurrentCalls, true);
+        this.circuitBreaker = new CircuitBreaker(
+            policy.getFailureRateThreshold(),
+            policy.getSlidingWindowSize(),
+            policy.getMinimumNumberOfCalls(),
+            policy.getWaitDurationInOpenState()
+        );
+
+        this.successTimer = callTimer(meterRegistry, "success");
+        this.serverErrorTimer = callTimer(meterRegistry, "server_error");
+        this.ioErrorTimer = callTimer(meterRegistry, "io_error");
+        this.bulkheadRejections = rejectionCounter(meterRegistry, "bulkhead_full");
+        this.circuitRejections = rejectionCounter(meterRegistry, "circuit_open");
+        Gauge.builder("http.client.upstream.active", this, UpstreamGuard::activeCalls)
+            .tag("upstream", upstream)
+            .description("Requests in flight to the upstream")
+            .register(meterRegistry);
+        Gauge.builder("http.client.upstream.saturation", this, guard -> (double) guard.activeCalls() / guard.maxConcurrentCalls)
+            .tag("upstream", upstream)
+            .description("Share of the upstream bulkhead in use")
+            .register(meterRegistry);
+        Gauge.builder("http.client.upstream.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+            .tag("upstream", upstream)
+            .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!acquireSlot()) {
+            bulkheadRejections.increment();
+            throw new UpstreamUnavailableException(upstream, "too many concurrent calls");
+        }
+        boolean handedOver = false;
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                circuitRejections.increment();
+                throw new UpstreamUnavailableException(upstream, "circuit breaker is open");
+            }
+
+            long start = System.nanoTime();
+            ClientHttpResponse response;
+            try {
+                response = execution.execute(request, body);
+            } catch (IOException | RuntimeException e) {
+                ioErrorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                onFailure();
+                throw e;
+            }
+            if (response.getStatusCode().is5xxServerError()) {
+                serverErrorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                onFailure();
+            } else {
+                successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                circuitBreaker.onSuccess();
+            }
+            // The response frees the slot once it is closed
+            handedOver = true;
+            return new GuardedResponse(response);
+        } finally {
+            if (!handedOver) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void onFailure() {
+        CircuitBreaker.State previous = circuitBreaker.getState();
+        circuitBreaker.onFailure();
+        if (previous != CircuitBreaker.State.OPEN && circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+            log.warn("Circuit breaker for upstream '{}' is open", upstream);
+        }
+    }
+
+    private int activeCalls() {
+        return maxConcurrentCalls - bulkhead.availablePermits();
+    }
+
+    private Timer callTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("http.client.upstream.calls")
+            .tag("upstream", upstream)
+            .tag("outcome", outcome)
+            .description("Latency of calls to the upstream")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("http.client.upstream.rejected")
+            .tag("upstream", upstream)
+            .tag("reason", reason)
+            .description("Calls rejected before reaching the upstream")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The upstream response; holds the bulkhead slot of its call until it is
+     * closed, since its body is still streamed from the upstream.
+     */
+    private final class GuardedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private GuardedResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    bulkhead.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.satori.platform.service.http;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown when a call to an upstream is rejected before being sent, because its
+ * bulkhead is full or its circuit breaker is open.
+ */
+public class UpstreamUnavailableException extends RestClientException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamUnavailableException(String upstream, String reason) {
+        super("Upstream '" + upstream + "' unavailable: " + reason);
+    }
+}
@@ -19,6 +19,7 @@ import com.satori.platform.web.rest.errors.BadRequestAlertException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -58,7 +59,7 @@ public class OAuth2ServiceImpl implements OAuth2Service {
             UserRepository userRepository,
             UserService userService,
             OAuth2TokenEncryption tokenEncryption,
-            RestTemplate restTemplate,
+            @Qualifier("oauth2RestTemplate") RestTemplate restTemplate,
             ObjectMapper objectMapper,
             OAuth2TokenService oauth2TokenService) {
         this.oauth2Properties = oauth2Properties;
@@ -12,6 +12,7 @@ import com.satori.platform.service.util.OAuth2TokenEncryption;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -59,7 +60,7 @@ public class OAuth2TokenServiceImpl implements OAuth2TokenService {
             OAuth2AccountRepository oauth2AccountRepository,
             OAuth2TokenEncryption tokenEncryption,
             OAuth2Properties oauth2Properties,
-            RestTemplate restTemplate,
+            @Qualifier("oauth2RestTemplate") RestTemplate restTemplate,
             ObjectMapper objectMapper) {
         this.oauth2AccountRepository = oauth2AccountRepository;
         this.tokenEncryption = tokenEncryption;
@@ -0,0 +1,58 @@
+package com.satori.platform.service.mail;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Spaces sends to the same recipient domain at a fixed rate, so a bulk send
+ * does not trip the rate limits of large providers. Each call reserves the
+ * next free slot of its domain; different domains do not wait for each other.
+ */
+public class DomainThrottle {
+
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Long> nextSlots = new ConcurrentHashMap<>();
+
+    /**
+     * @param messagesPerSecond the rate per domain, zero or less for no limit
+     */
+    public DomainThrottle(double messagesPerSecond) {
+        this(messagesPerSecond, System::nanoTime);
+    }
+
+    DomainThrottle(double messagesPerSecond, LongSupplier nanoClock) {
+        this.intervalNanos = messagesPerSecond > 0 ? (long) (1_000_000_000L / messagesPerSecond) : 0;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Reserve the next send slot of a domain.
+     *
+     * @param domain the recipient domain
+     * @return the nanoseconds to wait before sending
+     */
+    public long reserve(String domain) {
+        if (intervalNanos == 0) {
+            return 0;
+        }
+
+        long now = nanoClock.getAsLong();
+        long[] wait = new long[1];
+        nextSlots.compute(domain, (d, next) -> {
+            long slot = next == null ? now : Math.max(next, now);
+            wait[0] = slot - now;
+            return slot + intervalNanos;
+        });
+        return wait[0];
+    }
+
+    /**
+     * Forget domains whose slots are all in the past.
+     */
+    public void purge() {
+        long now = nanoClock.getAsLong();
+        nextSlots.values().removeIf(next -> next <= now);
+    }
+}
@@ -0,0 +1,26 @@
+package com.satori.platform.service.mail;
+
+/**
+ * The outcome of sending one {@link OutgoingMail}.
+ *
+ * @param mail    the mail
+ * @param outcome the outcome
+ * @param reason  the server's reply or the error for failures, null otherwise
+ */
+public record MailSendResult(OutgoingMail mail, Outcome outcome, String reason) {
+    public enum Outcome {
+        SENT,
+        /**
+         * Worth retrying later: 4xx replies, lost connections, timeouts.
+         */
+        TRANSIENT_FAILURE,
+        /**
+         * Rejected for good: 5xx replies and invalid addresses.
+         */
+        PERMANENT_FAILURE,
+    }
+
+    public static MailSendResult sent(OutgoingMail mail) {
+        return new MailSendResult(mail, Outcome.SENT, null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.satori.platform.service.mail;
+
+import java.util.Locale;
+
+/**
+ * One email of a batch.
+ *
+ * @param id      the caller's reference, such as a notification delivery ID
+ * @param to      the recipient address
+ * @param subject the subject
+ * @param body    the body
+ * @param html    whether the body is HTML
+ */
+public record OutgoingMail(Long id, String to, String subject, String body, boolean html) {
+    /**
+     * @return the lower-cased domain of the recipient, or an empty string for
+     *         an address without one
+     */
+    public String domain() {
+        int at = to == null ? -1 : to.lastIndexOf('@');
+        return at < 0 ? "" : to.substring(at + 1).trim().toLowerCase(Locale.ROOT);
+    }
+}
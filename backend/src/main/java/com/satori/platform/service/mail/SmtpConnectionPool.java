@@ -0,0 +1,225 @@
+package com.satori.platform.service.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of connected, authenticated SMTP transports.
+ * <p>
+ * A connection is reused for up to {@code maxMessagesPerConnection} messages,
+ * which saves the TCP, TLS and AUTH round trips of a fresh connection per
+ * message. Connections idle for longer than {@code maxIdle} are closed by
+ * {@link #evictIdle()}; a connection that has been idle for a while is checked
+ * with NOOP before reuse. Thread-safe.
+ */
+public class SmtpConnectionPool implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+    private static final long VALIDATE_AFTER_IDLE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final Session session;
+    private final String protocol;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final int maxMessagesPerConnection;
+    private final long maxIdleNanos;
+    private final Duration borrowTimeout;
+
+    private final Semaphore permits;
+    private final Deque<Connection> idle = new ArrayDeque<>();
+    private final AtomicLong opened = new AtomicLong();
+    private volatile boolean closed;
+
+    public SmtpConnectionPool(
+        Session session,
+        String protocol,
+        String host,
+        int port,
+        String username,
+        String password,
+        int maxConnections,
+        int maxMessagesPerConnection,
+        Duration maxIdle,
+        Duration borrowTimeout
+    ) {
+        this.session = session;
+        this.protocol = protocol;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.borrowTimeout = borrowTimeout;
+        this.permits = new Semaphore(Math.max(1, maxConnections), true);
+    }
+
+    /**
+     * Borrow a connection, opening one if no idle connection is usable. Every
+     * borrowed connection must be handed back with {@link #release}.
+     *
+     * @return a connected transport
+     * @throws MessagingException if no connection could be opened in time
+     */
+    public Connection borrow() throws MessagingException {
+        if (closed) {
+            throw new MessagingException("SMTP connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        }
+
+        try {
+            Connection connection;
+            while ((connection = pollIdle()) != null) {
+                if (connection.isUsable()) {
+                    return connection;
+                }
+                connection.close();
+            }
+            return open();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Hand a borrowed connection back.
+     *
+     * @param connection the connection
+     * @param reusable   false after a connection-level error, to close it
+     */
+    public void release(Connection connection, boolean reusable) {
+        try {
+            if (reusable && !closed && connection.sent < maxMessagesPerConnection) {
+                connection.lastUsed = System.nanoTime();
+                synchronized (idle) {
+                    idle.push(connection);
+                }
+            } else {
+                connection.close();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * @param connection a borrowed connection
+     * @return whether the connection has sent as many messages as a connection
+     *         may, so it should be released and a new one borrowed
+     */
+    public boolean isSpent(Connection connection) {
+        return connection.sent >= maxMessagesPerConnection;
+    }
+
+    /**
+     * Close the connections that have been idle for too long.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        List<Connection> expired = new ArrayList<>();
+        synchronized (idle) {
+            idle.removeIf(connection -> {
+                if (now - connection.lastUsed > maxIdleNanos) {
+                    expired.add(connection);
+                    return true;
+                }
+                return false;
+            });
+        }
+        expired.forEach(Connection::close);
+    }
+
+    /**
+     * @return the number of connections opened since the pool was created
+     */
+    public long getOpenedConnections() {
+        return opened.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        List<Connection> connections;
+        synchronized (idle) {
+            connections = new ArrayList<>(idle);
+            idle.clear();
+        }
+        connections.forEach(Connection::close);
+    }
+
+    private Connection pollIdle() {
+        synchronized (idle) {
+            return idle.poll();
+        }
+    }
+
+    private Connection open() throws MessagingException {
+        Transport transport = session.getTransport(protocol);
+        transport.connect(host, port, username, password);
+        opened.incrementAndGet();
+        LOG.debug("Opened SMTP connection to {}:{}", host, port);
+        return new Connection(transport);
+    }
+
+    /**
+     * A pooled transport and the number of messages sent through it.
+     */
+    public static final class Connection {
+
+        private final Transport transport;
+        private int sent;
+        private long lastUsed = System.nanoTime();
+
+        private Connection(Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * @param message the message, sent to all its recipients
+         * @throws MessagingException on rejection or connection failure
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            sent++;
+            transport.sendMessage(message, message.getAllRecipients());
+        }
+
+        private boolean isUsable() {
+            if (System.nanoTime() - lastUsed < VALIDATE_AFTER_IDLE_NANOS) {
+                return true;
+            }
+            // Sends NOOP, which catches connections the server has dropped
+            return transport.isConnected();
+        }
+
+        private void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                LOG.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+}
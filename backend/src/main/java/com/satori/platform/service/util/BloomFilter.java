@@ -0,0 +1,77 @@
+package com.satori.platform.service.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal Bloom filter over strings.
+ * <p>
+ * {@link #mightContain(String)} never returns {@code false} for a value that was
+ * {@link #put(String) put}, and returns {@code true} for an absent value with
+ * roughly the false positive probability given at creation. Not thread-safe.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    private BloomFilter(long bitCount, int hashFunctions) {
+        this.bits = new long[(int) ((bitCount + 63) / 64)];
+        this.bitCount = (long) bits.length * 64;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Create a filter sized for the expected number of values.
+     *
+     * @param expectedInsertions        the expected number of values
+     * @param falsePositiveProbability the wanted false positive probability, in (0, 1)
+     * @return an empty filter
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(Math.max(64, m), k);
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + (long) i * hash2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + (long) i * hash2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a followed by the MurmurHash3 finalizer to spread the bits.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
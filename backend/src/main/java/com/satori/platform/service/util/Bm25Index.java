@@ -0,0 +1,216 @@
+package com.satori.platform.service.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory BM25 index over character n-grams.
+ * <p>
+ * Japanese text has no word separators, so runs of kana and kanji are indexed
+ * as overlapping character bigrams (a single character stays a unigram), and
+ * runs of Latin letters or digits as lower-cased words. A grammar-point query
+ * such as {@code 〜てしまう} then matches every document containing
+ * {@code てしまう}, which embeddings alone tend to miss. Thread-safe.
+ */
+public final class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+    private final Map<String, Integer> documentLengths = new HashMap<>();
+    private final Map<String, List<String>> documentTerms = new HashMap<>();
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Add or replace a document.
+     *
+     * @param id   the document ID
+     * @param text the document text
+     */
+    public void put(String id, String text) {
+        List<String> terms = tokenize(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequency));
+            documentLengths.put(id, terms.size());
+            documentTerms.put(id, new ArrayList<>(frequencies.keySet()));
+            totalLength += terms.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id the document ID to remove, ignored if absent
+     */
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every document.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentLengths.clear();
+            documentTerms.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the best matching documents.
+     *
+     * @param query  the query text
+     * @param limit  the maximum number of results
+     * @param filter accepts the document IDs that may be returned
+     * @return the matches, best first
+     */
+    public List<Match> search(String query, int limit, Predicate<String> filter) {
+        Map<String, Integer> queryTerms = new HashMap<>();
+        tokenize(query).forEach(term -> queryTerms.merge(term, 1, Integer::sum));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documentLengths.size();
+            double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+            for (Map.Entry<String, Integer> queryTerm : queryTerms.entrySet()) {
+                Map<String, Integer> documents = postings.get(queryTerm.getKey());
+                if (documents == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - documents.size() + 0.5) / (documents.size() + 0.5));
+                for (Map.Entry<String, Integer> posting : documents.entrySet()) {
+                    if (!filter.test(posting.getKey())) {
+                        continue;
+                    }
+                    double frequency = posting.getValue();
+                    double norm = K1 * (1 - B + B * documentLengths.get(posting.getKey()) / averageLength);
+                    double score = idf * frequency * (K1 + 1) / (frequency + norm) * queryTerm.getValue();
+                    scores.merge(posting.getKey(), score, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(a.score(), b.score()));
+        scores.forEach((id, score) -> {
+            best.offer(new Match(id, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        });
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return matches;
+    }
+
+    private void removeInternal(String id) {
+        List<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<String, Integer> documents = postings.get(term);
+            documents.remove(id);
+            if (documents.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= documentLengths.remove(id);
+    }
+
+    /**
+     * Split text into bigrams of CJK runs and lower-cased words of other letter
+     * or digit runs; everything else separates terms.
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            int codePoint = text.codePointAt(i);
+            if (isCjk(codePoint)) {
+                int start = i;
+                while (i < length && isCjk(text.codePointAt(i))) {
+                    i += Character.charCount(text.codePointAt(i));
+                }
+                addBigrams(text.substring(start, i), terms);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int start = i;
+                while (i < length && Character.isLetterOrDigit(text.codePointAt(i)) && !isCjk(text.codePointAt(i))) {
+                    i += Character.charCount(text.codePointAt(i));
+                }
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+        return terms;
+    }
+
+    private static void addBigrams(String run, List<String> terms) {
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1) {
+            terms.add(run);
+            return;
+        }
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            terms.add(new String(codePoints, i, 2));
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA
+            || script == Character.UnicodeScript.HAN
+            || codePoint == 'ー';
+    }
+
+    /**
+     * A matching document and its BM25 score.
+     */
+    public record Match(String id, double score) {}
+}
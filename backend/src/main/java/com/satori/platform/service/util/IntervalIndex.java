@@ -0,0 +1,144 @@
+package com.satori.platform.service.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable index of half-open intervals {@code [start, end)} answering overlap
+ * queries in {@code O(log n + k)}.
+ * <p>
+ * Entries are sorted by start and a segment tree keeps the maximum end of every
+ * range, so a query only descends into subtrees that can still contain an
+ * interval ending after the query start.
+ *
+ * @param <T> the type of the indexed values
+ */
+public final class IntervalIndex<T> {
+
+    private final Object[] values;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd;
+
+    private IntervalIndex(Object[] values, long[] starts, long[] ends) {
+        this.values = values;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnd = new long[Math.max(1, 4 * values.length)];
+        if (values.length > 0) {
+            build(1, 0, values.length - 1);
+        }
+    }
+
+    /**
+     * Build an index over the given values.
+     *
+     * @param values the values to index
+     * @param start  extracts the inclusive start of a value
+     * @param end    extracts the exclusive end of a value
+     * @param <T>    the type of the indexed values
+     * @return the index
+     */
+    public static <T> IntervalIndex<T> of(Collection<T> values, ToLongFunction<T> start, ToLongFunction<T> end) {
+        List<T> sorted = new ArrayList<>(values);
+        sorted.sort(Comparator.comparingLong(start));
+
+        Object[] array = new Object[sorted.size()];
+        long[] starts = new long[sorted.size()];
+        long[] ends = new long[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            T value = sorted.get(i);
+            array[i] = value;
+            starts[i] = start.applyAsLong(value);
+            ends[i] = end.applyAsLong(value);
+        }
+        return new IntervalIndex<>(array, starts, ends);
+    }
+
+    /**
+     * @return an index without entries
+     */
+    public static <T> IntervalIndex<T> empty() {
+        return new IntervalIndex<>(new Object[0], new long[0], new long[0]);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Find every indexed value overlapping {@code [start, end)}, ordered by start.
+     *
+     * @param start the inclusive start of the query
+     * @param end   the exclusive end of the query
+     * @return the overlapping values
+     */
+    public List<T> overlapping(long start, long end) {
+        List<T> result = new ArrayList<>();
+        int last = firstStartAtOrAfter(end) - 1;
+        if (last >= 0) {
+            collect(1, 0, values.length - 1, last, start, result);
+        }
+        return result;
+    }
+
+    /**
+     * @param start the inclusive start of the query
+     * @param end   the exclusive end of the query
+     * @return whether any indexed value overlaps {@code [start, end)}
+     */
+    public boolean hasOverlap(long start, long end) {
+        int last = firstStartAtOrAfter(end) - 1;
+        return last >= 0 && anyEndAfter(1, 0, values.length - 1, last, start);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(int node, int lo, int hi, int last, long start, List<T> result) {
+        if (lo > last || maxEnd[node] <= start) {
+            return;
+        }
+        if (lo == hi) {
+            result.add((T) values[lo]);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        collect(2 * node, lo, mid, last, start, result);
+        collect(2 * node + 1, mid + 1, hi, last, start, result);
+    }
+
+    private boolean anyEndAfter(int node, int lo, int hi, int last, long start) {
+        if (lo > last || maxEnd[node] <= start) {
+            return false;
+        }
+        if (hi <= last) {
+            return true;
+        }
+        int mid = (lo + hi) >>> 1;
+        return anyEndAfter(2 * node, lo, mid, last, start) || anyEndAfter(2 * node + 1, mid + 1, hi, last, start);
+    }
+
+    private int firstStartAtOrAfter(long value) {
+        int index = Arrays.binarySearch(starts, value);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && starts[index - 1] == value) {
+            index--;
+        }
+        return index;
+    }
+
+    private long build(int node, int lo, int hi) {
+        if (lo == hi) {
+            maxEnd[node] = ends[lo];
+        } else {
+            int mid = (lo + hi) >>> 1;
+            maxEnd[node] = Math.max(build(2 * node, lo, mid), build(2 * node + 1, mid + 1, hi));
+        }
+        return maxEnd[node];
+    }
+}
@@ -0,0 +1,110 @@
+package com.satori.platform.service.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Text with {@code {{name}}} placeholders, parsed once into literal and
+ * variable segments so that merging values is a single pass over the segments.
+ * <p>
+ * Notification bodies are rendered once per locale with the recipient-specific
+ * values left as placeholders, then merged per recipient at send time. Unknown
+ * variables merge as empty text. Text that is not part of the template, such
+ * as user-authored titles, goes through {@link #escape(String)} so that it
+ * cannot add placeholders. Immutable and thread-safe.
+ */
+public final class PlaceholderTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final String LITERAL_OPEN = "{";
+
+    private final List<String> literals;
+    private final List<String> variables;
+    private final int literalLength;
+
+    private PlaceholderTemplate(List<String> literals, List<String> variables) {
+        this.literals = literals;
+        this.variables = variables;
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * @param name the variable name
+     * @return the placeholder to render in place of the variable
+     */
+    public static String placeholder(String name) {
+        return OPEN + name + CLOSE;
+    }
+
+    /**
+     * @param text text to render into a template as is, may be null
+     * @return the text with every {@code {} written as a placeholder that
+     *         merges back to {@code {}
+     */
+    public static String escape(String text) {
+        return text == null ? null : text.replace(LITERAL_OPEN, placeholder(LITERAL_OPEN));
+    }
+
+    /**
+     * @param source the text with placeholders, may be null
+     * @return the parsed template
+     */
+    public static PlaceholderTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        if (source == null) {
+            literals.add("");
+            return new PlaceholderTemplate(literals, variables);
+        }
+
+        StringBuilder literal = new StringBuilder();
+        int from = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, from);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literals.add(literal.append(source, from, source.length()).toString());
+                return new PlaceholderTemplate(literals, variables);
+            }
+            literal.append(source, from, open);
+            String variable = source.substring(open + OPEN.length(), close).trim();
+            if (LITERAL_OPEN.equals(variable)) {
+                literal.append(LITERAL_OPEN);
+            } else {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                variables.add(variable);
+            }
+            from = close + CLOSE.length();
+        }
+    }
+
+    /**
+     * @param values     the variable values
+     * @param escapeHtml whether to HTML-escape the values, for HTML bodies
+     * @return the text with every placeholder replaced
+     */
+    public String merge(Map<String, String> values, boolean escapeHtml) {
+        StringBuilder merged = new StringBuilder(literalLength + variables.size() * 16);
+        for (int i = 0; i < variables.size(); i++) {
+            merged.append(literals.get(i));
+            String value = values.get(variables.get(i));
+            if (value != null) {
+                merged.append(escapeHtml ? HtmlUtils.htmlEscape(value) : value);
+            }
+        }
+        return merged.append(literals.get(variables.size())).toString();
+    }
+
+    /**
+     * @return the names of the variables, in order of first use
+     */
+    public Set<String> variables() {
+        return new LinkedHashSet<>(variables);
+    }
+}
@@ -0,0 +1,55 @@
+package com.satori.platform.service.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reciprocal rank fusion of several rankings.
+ * <p>
+ * Every ranking contributes {@code 1 / (k + rank)} to each item it contains,
+ * with ranks starting at 1. Only ranks matter, so rankings with incomparable
+ * scores (cosine similarity, BM25) can be merged without normalization.
+ */
+public final class ReciprocalRankFusion {
+
+    /**
+     * The constant from the original paper; larger values flatten the
+     * advantage of the top ranks.
+     */
+    public static final int DEFAULT_K = 60;
+
+    private ReciprocalRankFusion() {}
+
+    /**
+     * @param rankings the rankings to merge, best first
+     * @param k        the rank offset
+     * @return the fused scores, best first
+     */
+    public static LinkedHashMap<String, Double> fuse(List<List<String>> rankings, int k) {
+        Map<String, Double> scores = new HashMap<>();
+        for (List<String> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                scores.merge(ranking.get(rank), 1.0 / (k + rank + 1), Double::sum);
+            }
+        }
+
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(scores.entrySet());
+        entries.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        LinkedHashMap<String, Double> fused = new LinkedHashMap<>();
+        entries.forEach(entry -> fused.put(entry.getKey(), entry.getValue()));
+        return fused;
+    }
+
+    /**
+     * @param rankings the number of fused rankings
+     * @param k        the rank offset
+     * @return the score of an item ranked first everywhere, to scale fused
+     *         scores to {@code [0, 1]}
+     */
+    public static double maxScore(int rankings, int k) {
+        return (double) rankings / (k + 1);
+    }
+}
@@ -0,0 +1,99 @@
+package com.satori.platform.service.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into overlapping chunks for embedding.
+ * <p>
+ * Chunks end at the last sentence boundary (Japanese or Latin punctuation, or
+ * a line break) inside the window when there is one in its second half, and
+ * the next chunk starts at the first sentence boundary inside the overlap. So
+ * chunk boundaries follow sentences, and an edit in one paragraph leaves the
+ * chunks of the other paragraphs unchanged.
+ */
+public final class TextChunker {
+
+    private final int maxChars;
+    private final int overlapChars;
+
+    /**
+     * @param maxChars     the maximum length of a chunk
+     * @param overlapChars how much of the previous chunk the next one repeats, at
+     *                     most half of {@code maxChars}
+     */
+    public TextChunker(int maxChars, int overlapChars) {
+        if (maxChars <= 0 || overlapChars < 0 || overlapChars > maxChars / 2) {
+            throw new IllegalArgumentException("Invalid chunk size " + maxChars + " with overlap " + overlapChars);
+        }
+        this.maxChars = maxChars;
+        this.overlapChars = overlapChars;
+    }
+
+    /**
+     * @param text the text to split, may be null
+     * @return the non-blank chunks, in order
+     */
+    public List<String> chunk(String text) {
+        List<String> chunks = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return chunks;
+        }
+
+        int length = text.length();
+        int start = 0;
+        while (start < length) {
+            int end = Math.min(length, start + maxChars);
+            if (end < length) {
+                int boundary = lastBoundary(text, start + maxChars / 2, end);
+                if (boundary > 0) {
+                    end = boundary;
+                }
+            }
+
+            String chunk = text.substring(start, end).strip();
+            if (!chunk.isEmpty()) {
+                chunks.add(chunk);
+            }
+            if (end >= length) {
+                break;
+            }
+
+            int next = end - overlapChars;
+            int boundary = firstBoundary(text, next, end);
+            start = Math.max(start + 1, boundary > 0 ? boundary : next);
+        }
+        return chunks;
+    }
+
+    /**
+     * @return the index just after the last boundary in {@code [from, to)}, or -1
+     */
+    private static int lastBoundary(String text, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (isBoundary(text.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index just after the first boundary in {@code [from, to)}, or -1
+     */
+    private static int firstBoundary(String text, int from, int to) {
+        for (int i = from; i < to - 1; i++) {
+            if (isBoundary(text.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBoundary(char c) {
+        return switch (c) {
+            case '。', '！', '？', '．', '.', '!', '?', '\n' -> true;
+            default -> false;
+        };
+    }
+}
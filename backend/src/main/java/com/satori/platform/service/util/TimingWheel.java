@@ -0,0 +1,149 @@
+package com.satori.platform.service.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: schedules values for a deadline in {@code O(1)}
+ * and expires them in {@code O(1)} per tick, however many are pending.
+ * <p>
+ * Level {@code l} has {@code wheelSize} slots of {@code tickMillis * wheelSize^l}
+ * milliseconds each. A value lands on the lowest level whose span covers its
+ * deadline and moves down a level whenever the wheel above turns over, so it
+ * expires in the first tick that starts at or after its deadline, never
+ * before it. Deadlines beyond the top level wait in
+ * an overflow list. Not thread-safe.
+ *
+ * @param <T> the type of the scheduled values
+ */
+public final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final ArrayDeque<Entry<T>>[][] levels;
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private final List<Entry<T>> ready = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis the resolution of the wheel
+     * @param wheelSize  the slots per level, rounded up to a power of two
+     * @param levels     the number of levels
+     * @param nowMillis  the current time
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public TimingWheel(long tickMillis, int wheelSize, int levels, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = 32 - Integer.numberOfLeadingZeros(wheelSize - 1);
+        this.mask = (1 << bits) - 1;
+        this.levels = new ArrayDeque[levels][1 << bits];
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Schedule a value. A deadline at or before the start of the current tick
+     * expires on the next {@link #advance}.
+     *
+     * @param value          the value
+     * @param deadlineMillis the epoch millisecond to expire it at
+     */
+    public void schedule(T value, long deadlineMillis) {
+        place(new Entry<>(value, Math.ceilDiv(deadlineMillis, tickMillis)));
+        size++;
+    }
+
+    /**
+     * Move the wheel to {@code nowMillis} and hand every value whose deadline
+     * has passed to {@code expired}, earliest tick first.
+     *
+     * @param nowMillis the current time
+     * @param expired   receives the expired values
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        drainReady(expired);
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Higher levels first, so values cascading two levels reach level 0 in this tick
+            for (int level = levels.length - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            ArrayDeque<Entry<T>> slot = levels[0][(int) (currentTick & mask)];
+            if (slot != null) {
+                ready.addAll(slot);
+                slot.clear();
+            }
+            drainReady(expired);
+        }
+    }
+
+    /**
+     * @return the number of scheduled values that have not expired yet
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the epoch millisecond of the current tick
+     */
+    public long currentMillis() {
+        return currentTick * tickMillis;
+    }
+
+    private void cascade(int level) {
+        ArrayDeque<Entry<T>> slot = levels[level][(int) ((currentTick >> (bits * level)) & mask)];
+        if (slot != null && !slot.isEmpty()) {
+            List<Entry<T>> entries = new ArrayList<>(slot);
+            slot.clear();
+            entries.forEach(this::place);
+        }
+        if (level == levels.length - 1 && !overflow.isEmpty()) {
+            List<Entry<T>> entries = new ArrayList<>(overflow);
+            overflow.clear();
+            entries.forEach(this::place);
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.tick <= currentTick) {
+            ready.add(entry);
+            return;
+        }
+        for (int level = 0; level < levels.length; level++) {
+            int shift = bits * level;
+            if ((entry.tick >> shift) - (currentTick >> shift) <= mask) {
+                int index = (int) ((entry.tick >> shift) & mask);
+                if (levels[level][index] == null) {
+                    levels[level][index] = new ArrayDeque<>();
+                }
+                levels[level][index].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private void drainReady(Consumer<T> expired) {
+        if (ready.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> entries = new ArrayList<>(ready);
+        ready.clear();
+        size -= entries.size();
+        entries.forEach(entry -> expired.accept(entry.value));
+    }
+
+    private record Entry<T>(T value, long tick) {
+    }
+}
@@ -2,13 +2,18 @@ package com.satori.platform.web.rest;
 
 import com.satori.platform.domain.enumeration.DifficultyLevel;
 import com.satori.platform.service.AIPracticeTestService;
+import com.satori.platform.service.PracticeTestJobService;
 import com.satori.platform.service.dto.*;
+import com.satori.platform.service.exception.AIServiceException;
 import com.satori.platform.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import tech.jhipster.web.util.ResponseUtil;
 
 import jakarta.validation.Valid;
 import java.net.URI;
@@ -31,8 +36,63 @@ public class AIPracticeTestResource {
 
     private final AIPracticeTestService aiPracticeTestService;
 
-    public AIPracticeTestResource(AIPracticeTestService aiPracticeTestService) {
+    private final PracticeTestJobService practiceTestJobService;
+
+    public AIPracticeTestResource(AIPracticeTestService aiPracticeTestService,
+            PracticeTestJobService practiceTestJobService) {
         this.aiPracticeTestService = aiPracticeTestService;
+        this.practiceTestJobService = practiceTestJobService;
+    }
+
+    /**
+     * {@code POST  /ai-practice-tests/jobs} : Submit an AI practice test
+     * generation job. A request for the same student and course or lesson as a
+     * job still in progress returns that job.
+     *
+     * @param request the practice test generation request
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and
+     *         with body the job, or with status {@code 503 (Service Unavailable)}
+     *         if the job queue is full.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<PracticeTestJobDTO> submitPracticeTestJob(@Valid @RequestBody AIPracticeTestRequestDTO request)
+            throws URISyntaxException {
+        log.debug("REST request to submit AI practice test job : {}", request);
+
+        if (request.getStudentId() == null) {
+            throw new BadRequestAlertException("Student ID is required", ENTITY_NAME, "studentidnull");
+        }
+
+        if (request.getCourseId() == null && request.getLessonId() == null) {
+            throw new BadRequestAlertException("Either course ID or lesson ID must be provided", ENTITY_NAME,
+                    "missingcontext");
+        }
+
+        PracticeTestJobDTO job;
+        try {
+            job = practiceTestJobService.submit(request);
+        } catch (AIServiceException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+
+        return ResponseEntity.accepted()
+                .location(new URI("/api/ai-practice-tests/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * {@code GET  /ai-practice-tests/jobs/:jobId} : Poll an AI practice test
+     * generation job.
+     *
+     * @param jobId the job ID
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with
+     *         body the job, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<PracticeTestJobDTO> getPracticeTestJob(@PathVariable String jobId) {
+        log.debug("REST request to get AI practice test job : {}", jobId);
+        return ResponseUtil.wrapOrNotFound(practiceTestJobService.getJob(jobId));
     }
 
     /**
@@ -11,6 +11,7 @@ import jakarta.validation.Valid;
 import java.security.Principal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -93,6 +94,7 @@ public class AuthenticateController {
 
         // @formatter:off
         JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
+            .id(UUID.randomUUID().toString())
             .issuedAt(now)
             .expiresAt(validity)
             .subject(authentication.getName())
@@ -1,20 +1,32 @@
 package com.satori.platform.web.rest;
 
+import com.satori.platform.service.CalendarFeedTokenService;
 import com.satori.platform.service.CalendarService;
 import com.satori.platform.service.dto.*;
 import com.satori.platform.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * REST controller for managing calendar functionality.
@@ -27,13 +39,20 @@ public class CalendarResource {
 
     private static final String ENTITY_NAME = "calendar";
 
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
+    private static final long FEED_MAX_AGE_MINUTES = 15;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CalendarService calendarService;
 
-    public CalendarResource(CalendarService calendarService) {
+    private final CalendarFeedTokenService calendarFeedTokenService;
+
+    public CalendarResource(CalendarService calendarService, CalendarFeedTokenService calendarFeedTokenService) {
         this.calendarService = calendarService;
+        this.calendarFeedTokenService = calendarFeedTokenService;
     }
 
     /**
@@ -127,6 +146,41 @@ public class CalendarResource {
         return ResponseEntity.ok().body(resolution);
     }
 
+    /**
+     * GET /api/calendar/free-slots/{userId} : Find the best free slots of a user
+     * across a week.
+     *
+     * @param userId          the user ID
+     * @param weekStart       the first day of the week (optional, defaults to
+     *                        current date)
+     * @param durationMinutes the length of the wanted slot (default 60)
+     * @param limit           the maximum number of slots (default 5)
+     * @return the ResponseEntity with status 200 (OK) and the list of free slots
+     */
+    @GetMapping("/free-slots/{userId}")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<List<ConflictResolutionDTO.TimeSlotSuggestionDTO>> getFreeSlots(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Instant weekStart,
+            @RequestParam(defaultValue = "60") int durationMinutes,
+            @RequestParam(defaultValue = "5") int limit) {
+
+        LOG.debug("REST request to find free slots for user: {}", userId);
+
+        if (weekStart == null) {
+            weekStart = Instant.now().truncatedTo(ChronoUnit.DAYS);
+        }
+        if (durationMinutes < 1 || durationMinutes > 600) {
+            throw new BadRequestAlertException("Duration must be between 1 and 600 minutes", ENTITY_NAME,
+                    "invalidDuration");
+        }
+        if (limit < 1 || limit > 50) {
+            throw new BadRequestAlertException("Limit must be between 1 and 50", ENTITY_NAME, "invalidLimit");
+        }
+
+        return ResponseEntity.ok().body(calendarService.findWeeklyFreeSlots(userId, weekStart, durationMinutes, limit));
+    }
+
     /**
      * POST /api/calendar/notifications/{userId} : Create notification triggers for
      * upcoming classes.
@@ -150,11 +204,11 @@ public class CalendarResource {
      * @param startDate the start date (optional, defaults to current date)
      * @param endDate   the end date (optional, defaults to 90 days from start)
      * @param format    the export format (ICS, GOOGLE, OUTLOOK)
-     * @return the ResponseEntity with calendar export data
+     * @return the ResponseEntity with calendar export data streamed as the body
      */
     @GetMapping("/export/{userId}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER') or hasRole('ADMIN')")
-    public ResponseEntity<String> exportCalendar(
+    public ResponseEntity<StreamingResponseBody> exportCalendar(
             @PathVariable Long userId,
             @RequestParam(required = false) Instant startDate,
             @RequestParam(required = false) Instant endDate,
@@ -173,15 +227,111 @@ public class CalendarResource {
             throw new BadRequestAlertException("Start date must be before end date", ENTITY_NAME, "invalidDateRange");
         }
 
-        CalendarExportDTO exportData = calendarService.exportCalendar(userId, startDate, endDate, format);
+        CalendarExportDTO exportData;
+        try {
+            exportData = calendarService.describeExport(userId, format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidFormat");
+        }
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType(exportData.getMimeType()));
+        headers.setContentType(MediaType.parseMediaType(exportData.getMimeType() + ";charset=UTF-8"));
         headers.setContentDispositionFormData("attachment", exportData.getFilename());
 
+        Instant exportStart = startDate;
+        Instant exportEnd = endDate;
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            calendarService.writeCalendarExport(userId, exportStart, exportEnd, format, writer);
+        };
+
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(exportData.getContent());
+                .body(body);
+    }
+
+    /**
+     * GET /api/calendar/feed/{userId} : ICS feed of a user, for the signed-in
+     * app. Calendar clients subscribe to the URL from
+     * {@link #getCalendarFeedSubscription} instead.
+     * <p>
+     * Supports conditional requests with {@code If-None-Match} and
+     * {@code If-Modified-Since}, answering {@code 304 Not Modified} from the
+     * cached feed when nothing changed since the client's last poll.
+     *
+     * @param userId  the user ID
+     * @param request the current request, used for conditional checks
+     * @return the ResponseEntity with status 200 (OK) and the ICS feed, or status
+     *         304 (Not Modified)
+     */
+    @GetMapping("/feed/{userId}")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<String> getCalendarFeed(@PathVariable Long userId, WebRequest request) {
+        LOG.debug("REST request to get calendar feed for user: {}", userId);
+        calendarFeedTokenService.checkCurrentUserOrAdmin(userId);
+        return feedResponse(userId, request);
+    }
+
+    /**
+     * GET /api/calendar/feed/{userId}/subscription : Get the subscription URL
+     * of the current user's feed, which carries a per-user token so calendar
+     * clients can poll it without signing in.
+     *
+     * @param userId the user ID
+     * @return the ResponseEntity with status 200 (OK) and the URL in body
+     */
+    @GetMapping("/feed/{userId}/subscription")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, String>> getCalendarFeedSubscription(@PathVariable Long userId) {
+        LOG.debug("REST request to get calendar feed subscription for user: {}", userId);
+
+        String token = calendarFeedTokenService.getTokenForCurrentUser(userId);
+        String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/calendar/feed/{userId}/calendar.ics")
+                .queryParam("token", token)
+                .buildAndExpand(userId)
+                .toUriString();
+        return ResponseEntity.ok(Map.of("url", url));
+    }
+
+    /**
+     * GET /api/calendar/feed/{userId}/calendar.ics : Subscribable ICS feed of a
+     * user, authorized by the token in its URL rather than a bearer token.
+     *
+     * @param userId  the user ID
+     * @param token   the feed token of the user
+     * @param request the current request, used for conditional checks
+     * @return the ResponseEntity with status 200 (OK) and the ICS feed, status
+     *         304 (Not Modified), or status 404 (Not Found) for a wrong token
+     */
+    @GetMapping("/feed/{userId}/calendar.ics")
+    public ResponseEntity<String> getSubscribedCalendarFeed(@PathVariable Long userId, @RequestParam String token,
+            WebRequest request) {
+        LOG.debug("REST request to get subscribed calendar feed for user: {}", userId);
+        if (!calendarFeedTokenService.isValid(userId, token)) {
+            return ResponseEntity.notFound().build();
+        }
+        return feedResponse(userId, request);
+    }
+
+    private ResponseEntity<String> feedResponse(Long userId, WebRequest request) {
+        CalendarFeedDTO feed = calendarService.getCalendarFeed(userId);
+        CacheControl cacheControl = CacheControl.maxAge(FEED_MAX_AGE_MINUTES, TimeUnit.MINUTES).cachePrivate();
+
+        if (request.checkNotModified(feed.getEtag(), feed.getLastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(feed.getEtag())
+                    .lastModified(feed.getLastModified())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .eTag(feed.getEtag())
+                .lastModified(feed.getLastModified())
+                .cacheControl(cacheControl)
+                .body(feed.getContent());
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.satori.platform.web.rest;
 
 import com.satori.platform.domain.User;
+import com.satori.platform.security.PrincipalCache;
 import com.satori.platform.service.AuthenticationAuditService;
 import com.satori.platform.service.UserService;
 import com.satori.platform.service.UserSessionService;
@@ -35,12 +36,14 @@ public class EnhancedAuthResource {
     private final UserService userService;
     private final UserSessionService sessionService;
     private final AuthenticationAuditService auditService;
+    private final PrincipalCache principalCache;
 
     public EnhancedAuthResource(UserService userService, UserSessionService sessionService,
-            AuthenticationAuditService auditService) {
+            AuthenticationAuditService auditService, PrincipalCache principalCache) {
         this.userService = userService;
         this.sessionService = sessionService;
         this.auditService = auditService;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -115,6 +118,19 @@ public class EnhancedAuthResource {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * POST /auth/logout : Log out the current token. The client discards the
+     * JWT; the server stops serving the principal cached for it.
+     */
+    @PostMapping("/logout")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    public ResponseEntity<Void> logout(HttpServletRequest request) {
+        String login = getCurrentUserLogin();
+        principalCache.evictCurrentToken();
+        auditService.logLogout(login, request.getRemoteAddr(), request.getHeader("User-Agent"));
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * GET /auth/sessions : Get active sessions for current user.
      */
@@ -4,9 +4,8 @@ import com.satori.platform.service.FileManagementService;
 import com.satori.platform.service.dto.FileMetaDataDTO;
 import com.satori.platform.service.exception.FileUploadException;
 import com.satori.platform.service.exception.InsufficientPermissionException;
-import com.satori.platform.security.SecurityUtils;
-import com.satori.platform.repository.UserProfileRepository;
-import com.satori.platform.domain.UserProfile;
+import com.satori.platform.security.PrincipalCache;
+import com.satori.platform.security.ResolvedPrincipal;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -41,13 +40,13 @@ public class FileManagementResource {
     private String applicationName;
 
     private final FileManagementService fileManagementService;
-    private final UserProfileRepository userProfileRepository;
+    private final PrincipalCache principalCache;
 
     public FileManagementResource(
             FileManagementService fileManagementService,
-            UserProfileRepository userProfileRepository) {
+            PrincipalCache principalCache) {
         this.fileManagementService = fileManagementService;
-        this.userProfileRepository = userProfileRepository;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -201,12 +200,12 @@ public class FileManagementResource {
      * Get current user ID from security context
      */
     private Long getCurrentUserId() {
-        String currentUserLogin = SecurityUtils.getCurrentUserLogin()
+        ResolvedPrincipal principal = principalCache.getCurrentPrincipal()
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated"));
 
-        UserProfile userProfile = userProfileRepository.findByUsername(currentUserLogin)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User profile not found"));
-
-        return userProfile.getId();
+        if (principal.userProfileId() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User profile not found");
+        }
+        return principal.userProfileId();
     }
 }
@@ -4,11 +4,16 @@ import com.satori.platform.repository.GiftCodeRepository;
 import com.satori.platform.service.GiftCodeService;
 import com.satori.platform.service.dto.GiftCodeDTO;
 import com.satori.platform.service.dto.GiftCodeRedemptionDTO;
+import com.satori.platform.service.exception.GiftCodeException;
 import com.satori.platform.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -18,9 +23,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -37,6 +44,10 @@ public class GiftCodeResource {
 
     private static final String ENTITY_NAME = "giftCode";
 
+    private static final int MAX_POOL_SIZE = 100_000;
+
+    private static final String POOL_PREFIX_PATTERN = "[A-Za-z0-9]{0,12}";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -229,6 +240,56 @@ public class GiftCodeResource {
                 .body(giftCodeDTO);
     }
 
+    /**
+     * {@code POST  /gift-codes/generate/bulk} : Generate a pool of gift codes for
+     * a promotion campaign.
+     *
+     * @param courseId        the course ID
+     * @param count           the number of codes to generate
+     * @param validityDays    number of days the codes should be valid
+     * @param maxUses         maximum number of uses per code (optional)
+     * @param createdByUserId the user creating the codes
+     * @param prefix          an optional alphanumeric prefix of up to 12 characters
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         generated codes as a CSV attachment.
+     */
+    @PostMapping("/generate/bulk")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_TEACHER')")
+    public ResponseEntity<StreamingResponseBody> generateGiftCodePool(
+            @RequestParam Long courseId,
+            @RequestParam int count,
+            @RequestParam(defaultValue = "30") Integer validityDays,
+            @RequestParam(required = false) Integer maxUses,
+            @RequestParam Long createdByUserId,
+            @RequestParam(required = false) String prefix) {
+        log.debug("REST request to generate a pool of {} GiftCodes for course: {}", count, courseId);
+        if (count < 1 || count > MAX_POOL_SIZE) {
+            throw new BadRequestAlertException("Pool size must be between 1 and " + MAX_POOL_SIZE, ENTITY_NAME,
+                    "poolsizeinvalid");
+        }
+        if (prefix != null && !prefix.trim().matches(POOL_PREFIX_PATTERN)) {
+            throw new BadRequestAlertException("Prefix must be up to 12 letters or digits", ENTITY_NAME,
+                    "prefixinvalid");
+        }
+        // Validated up front: once the body streams, the response is already committed
+        try {
+            giftCodeService.validateCodePool(courseId, createdByUserId);
+        } catch (GiftCodeException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "idnotfound");
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+        headers.setContentDispositionFormData("attachment", "gift-codes-course-" + courseId + ".csv");
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            giftCodeService.generateCodePool(courseId, count, validityDays, maxUses, createdByUserId, prefix, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
     /**
      * {@code POST  /gift-codes/redeem} : Redeem a gift code for student enrollment.
      *
@@ -1,8 +1,10 @@
 package com.satori.platform.web.rest;
 
 import com.satori.platform.repository.QuizRepository;
+import com.satori.platform.service.QuizLiveStatisticsService;
 import com.satori.platform.service.QuizService;
 import com.satori.platform.service.dto.QuizDTO;
+import com.satori.platform.service.dto.QuizLiveStatisticsDTO;
 import com.satori.platform.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -17,8 +19,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -42,9 +47,13 @@ public class QuizResource {
 
     private final QuizRepository quizRepository;
 
-    public QuizResource(QuizService quizService, QuizRepository quizRepository) {
+    private final QuizLiveStatisticsService quizLiveStatisticsService;
+
+    public QuizResource(QuizService quizService, QuizRepository quizRepository,
+            QuizLiveStatisticsService quizLiveStatisticsService) {
         this.quizService = quizService;
         this.quizRepository = quizRepository;
+        this.quizLiveStatisticsService = quizLiveStatisticsService;
     }
 
     /**
@@ -171,6 +180,42 @@ public class QuizResource {
         return ResponseUtil.wrapOrNotFound(quizDTO);
     }
 
+    /**
+     * {@code GET  /quizzes/:id/live-statistics} : get the live results of the "id" quiz.
+     * The results are aggregated by the instance serving the request, from the events it
+     * handled, and may differ between instances; see {@link QuizLiveStatisticsDTO}.
+     *
+     * @param id the id of the quiz.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the statistics.
+     */
+    @GetMapping("/{id}/live-statistics")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_TEACHER')")
+    public ResponseEntity<QuizLiveStatisticsDTO> getQuizLiveStatistics(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get live statistics of Quiz : {}", id);
+        if (!quizRepository.existsById(id)) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        return ResponseEntity.ok(quizLiveStatisticsService.getStatistics(id));
+    }
+
+    /**
+     * {@code GET  /quizzes/:id/live-statistics/stream} : stream the live results of the "id" quiz
+     * as server-sent events, sent whenever they change. As for {@code /live-statistics}, the
+     * results are those of the instance serving the stream.
+     *
+     * @param id the id of the quiz.
+     * @return the event stream of the statistics.
+     */
+    @GetMapping(value = "/{id}/live-statistics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_TEACHER')")
+    public SseEmitter streamQuizLiveStatistics(@PathVariable("id") Long id) {
+        LOG.debug("REST request to stream live statistics of Quiz : {}", id);
+        if (!quizRepository.existsById(id)) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        return quizLiveStatisticsService.subscribe(id);
+    }
+
     /**
      * {@code DELETE  /quizzes/:id} : delete the "id" quiz.
      *
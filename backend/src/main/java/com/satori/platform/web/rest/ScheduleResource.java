@@ -2,6 +2,7 @@ package com.satori.platform.web.rest;
 
 import com.satori.platform.repository.ScheduleRepository;
 import com.satori.platform.service.ScheduleService;
+import com.satori.platform.service.dto.RecurringConflictDTO;
 import com.satori.platform.service.dto.ScheduleDTO;
 import com.satori.platform.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
@@ -66,6 +67,33 @@ public class ScheduleResource {
             .body(scheduleDTO);
     }
 
+    /**
+     * {@code POST  /schedules/conflicts/recurring} : Check every occurrence of a recurring schedule for conflicts.
+     *
+     * @param scheduleDTO the first occurrence of the recurring schedule.
+     * @param occurrences the number of occurrences to check.
+     * @param intervalDays the number of days between two occurrences.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of conflicting occurrences in body.
+     */
+    @PostMapping("/conflicts/recurring")
+    public ResponseEntity<List<RecurringConflictDTO>> checkRecurringConflicts(
+        @RequestBody ScheduleDTO scheduleDTO,
+        @RequestParam(defaultValue = "15") int occurrences,
+        @RequestParam(defaultValue = "7") int intervalDays
+    ) {
+        LOG.debug("REST request to check recurring conflicts for Schedule : {}", scheduleDTO);
+        if (scheduleDTO.getStartTime() == null || scheduleDTO.getEndTime() == null) {
+            throw new BadRequestAlertException("Start time and end time are required", ENTITY_NAME, "missingTimeData");
+        }
+        if (scheduleDTO.getCourse() == null || scheduleDTO.getCourse().getId() == null) {
+            throw new BadRequestAlertException("Course is required", ENTITY_NAME, "missingCourse");
+        }
+        if (occurrences < 1 || occurrences > 366 || intervalDays < 1) {
+            throw new BadRequestAlertException("Invalid recurrence", ENTITY_NAME, "invalidRecurrence");
+        }
+        return ResponseEntity.ok().body(scheduleService.checkRecurringScheduleConflicts(scheduleDTO, occurrences, intervalDays));
+    }
+
     /**
      * {@code PUT  /schedules/:id} : Updates an existing schedule.
      *
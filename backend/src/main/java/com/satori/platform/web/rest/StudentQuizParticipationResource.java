@@ -1,10 +1,13 @@
 package com.satori.platform.web.rest;
 
+import com.satori.platform.service.QuizSessionChannelService;
 import com.satori.platform.service.StudentQuizService;
 import com.satori.platform.service.dto.*;
 import com.satori.platform.web.rest.errors.BadRequestAlertException;
+import jakarta.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +15,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -35,8 +42,12 @@ public class StudentQuizParticipationResource {
 
     private final StudentQuizService studentQuizService;
 
-    public StudentQuizParticipationResource(StudentQuizService studentQuizService) {
+    private final QuizSessionChannelService quizSessionChannelService;
+
+    public StudentQuizParticipationResource(StudentQuizService studentQuizService,
+            QuizSessionChannelService quizSessionChannelService) {
         this.studentQuizService = studentQuizService;
+        this.quizSessionChannelService = quizSessionChannelService;
     }
 
     /**
@@ -95,6 +106,93 @@ public class StudentQuizParticipationResource {
         }));
     }
 
+    /**
+     * {@code GET /session/{studentQuizId}/questions} : Get the questions of a
+     * quiz session, tagged with the version of the question set so clients can
+     * cache them and revalidate with {@code If-None-Match}.
+     *
+     * @param studentQuizId the student quiz ID
+     * @param webRequest    the request, for its conditional headers
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         questions in body, or {@code 304 (Not Modified)} if the client's
+     *         copy is current
+     */
+    @GetMapping("/session/{studentQuizId}/questions")
+    public ResponseEntity<List<QuizQuestionDTO>> getQuizSessionQuestions(
+            @PathVariable Long studentQuizId,
+            WebRequest webRequest) {
+        LOG.debug("REST request to get questions of quiz session: {}", studentQuizId);
+
+        String eTag = '"' + studentQuizService.getQuestionSetVersion(studentQuizId) + '"';
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(studentQuizService.getQuizSessionQuestions(studentQuizId));
+    }
+
+    /**
+     * {@code GET /session/{studentQuizId}/delta} : Get the compact state of a
+     * quiz session.
+     *
+     * @param studentQuizId the student quiz ID
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         session state in body
+     */
+    @GetMapping("/session/{studentQuizId}/delta")
+    public ResponseEntity<QuizSessionDeltaDTO> getQuizSessionDelta(@PathVariable Long studentQuizId) {
+        LOG.debug("REST request to get state of quiz session: {}", studentQuizId);
+        return ResponseEntity.ok(studentQuizService.getQuizSessionDelta(studentQuizId));
+    }
+
+    /**
+     * {@code POST /session/{studentQuizId}/answer} : Submit an answer and get
+     * the compact session state back.
+     *
+     * @param studentQuizId  the student quiz ID
+     * @param quizQuestionId the quiz question ID
+     * @param answer         the student's answer
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         session state in body
+     */
+    @PostMapping("/session/{studentQuizId}/answer")
+    public ResponseEntity<QuizSessionDeltaDTO> submitAnswerDelta(
+            @PathVariable Long studentQuizId,
+            @RequestParam Long quizQuestionId,
+            @RequestParam String answer) {
+        LOG.debug("REST request to submit answer for studentQuiz: {} and question: {}", studentQuizId, quizQuestionId);
+
+        QuizSessionDeltaDTO result = studentQuizService.submitAnswerDelta(studentQuizId, quizQuestionId, answer);
+        return ResponseEntity.ok().body(result);
+    }
+
+    /**
+     * {@code POST /session/{studentQuizId}/pause} : Pause a quiz attempt and get
+     * the compact session state back.
+     *
+     * @param studentQuizId the student quiz ID
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         session state in body
+     */
+    @PostMapping("/session/{studentQuizId}/pause")
+    public ResponseEntity<QuizSessionDeltaDTO> pauseQuizAttemptDelta(@PathVariable Long studentQuizId) {
+        LOG.debug("REST request to pause quiz attempt: {}", studentQuizId);
+        return ResponseEntity.ok(studentQuizService.pauseQuizAttemptDelta(studentQuizId));
+    }
+
+    /**
+     * {@code POST /session/{studentQuizId}/resume} : Resume a paused quiz
+     * attempt and get the compact session state back.
+     *
+     * @param studentQuizId the student quiz ID
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         session state in body
+     */
+    @PostMapping("/session/{studentQuizId}/resume")
+    public ResponseEntity<QuizSessionDeltaDTO> resumeQuizAttemptDelta(@PathVariable Long studentQuizId) {
+        LOG.debug("REST request to resume quiz attempt: {}", studentQuizId);
+        return ResponseEntity.ok(studentQuizService.resumeQuizAttemptDelta(studentQuizId));
+    }
+
     /**
      * {@code POST  /answer} : Submit an answer for a quiz question.
      *
@@ -229,4 +327,54 @@ public class StudentQuizParticipationResource {
         Optional<QuizSessionDTO> result = studentQuizService.getCurrentQuizSession(studentId, quizId);
         return ResponseUtil.wrapOrNotFound(result);
     }
-}
\ No newline at end of file
+
+    /**
+     * {@code GET /channel/{studentQuizId}} : Open the server-sent events channel
+     * of a quiz attempt, which pushes the remaining time, pauses, resumes,
+     * announcements, answer acknowledgements and the submission.
+     *
+     * @param studentQuizId the student quiz ID
+     * @return the event stream of the attempt
+     */
+    @GetMapping(value = "/channel/{studentQuizId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter openChannel(@PathVariable Long studentQuizId) {
+        LOG.debug("REST request to open the session channel of quiz attempt: {}", studentQuizId);
+        return quizSessionChannelService.subscribe(studentQuizId);
+    }
+
+    /**
+     * {@code POST /channel/{studentQuizId}/answers} : Send an answer over the
+     * session channel; the acknowledgement, or the reason it was rejected, is
+     * also pushed on the channel.
+     *
+     * @param studentQuizId the student quiz ID
+     * @param answer        the answer
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and
+     *         the pushed event in body
+     */
+    @PostMapping("/channel/{studentQuizId}/answers")
+    public ResponseEntity<QuizChannelEventDTO> sendChannelAnswer(
+            @PathVariable Long studentQuizId,
+            @Valid @RequestBody QuizChannelAnswerDTO answer) {
+        LOG.debug("REST request to send answer over the channel of quiz attempt: {}", studentQuizId);
+
+        QuizChannelEventDTO result = quizSessionChannelService.answer(studentQuizId, answer);
+        return ResponseEntity.accepted().body(result);
+    }
+
+    /**
+     * {@code POST /channel/quiz/{quizId}/announcements} : Push a message to every
+     * open attempt of a quiz.
+     *
+     * @param quizId  the quiz ID
+     * @param message the message
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         number of attempts reached in body
+     */
+    @PostMapping("/channel/quiz/{quizId}/announcements")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_TEACHER')")
+    public ResponseEntity<Integer> announce(@PathVariable Long quizId, @RequestParam String message) {
+        LOG.debug("REST request to announce to attempts of quiz: {}", quizId);
+        return ResponseEntity.ok(quizSessionChannelService.announce(quizId, message));
+    }
+}
@@ -0,0 +1,89 @@
+package com.satori.platform.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.function.Supplier;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class TracingSettingsTest {
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void samplesNothingOrEverythingAtTheBounds() {
+        TracingSettings settings = new TracingSettings(0);
+        assertThat(settings.sample()).isFalse();
+
+        settings.setSampleRate(1);
+        assertThat(settings.sample()).isTrue();
+
+        assertThatThrownBy(() -> settings.setSampleRate(1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void tracesSwitchedOnMethodsAndClasses() {
+        TracingSettings settings = new TracingSettings(0);
+        JoinPoint submitAnswer = call("submitAnswer");
+        JoinPoint startQuiz = call("startQuiz");
+        assertThat(settings.isTraced(submitAnswer)).isFalse();
+
+        settings.traceMethod("TracingSettingsTest.submitAnswer");
+        assertThat(settings.isTraced(submitAnswer)).isTrue();
+        assertThat(settings.isTraced(startQuiz)).isFalse();
+
+        settings.traceMethod("TracingSettingsTest");
+        assertThat(settings.isTraced(startQuiz)).isTrue();
+    }
+
+    @Test
+    void tracesSwitchedOnUsers() {
+        TracingSettings settings = new TracingSettings(0);
+        settings.traceUser("student1");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("student1", "secret"));
+        assertThat(settings.isTraced(call("submitAnswer"))).isTrue();
+
+        settings.untraceUser("student1");
+        assertThat(settings.isTraced(call("submitAnswer"))).isFalse();
+    }
+
+    @Test
+    void namesInheritedMethodsByTheProxiedInterface() {
+        ProxyFactory proxyFactory = new ProxyFactory((NamedSupplier) () -> "quiz");
+        proxyFactory.addInterface(NamedSupplier.class);
+        JoinPoint get = call(Supplier.class, "get");
+        when(get.getThis()).thenReturn(proxyFactory.getProxy());
+
+        assertThat(LoggingAspect.componentType(get)).isEqualTo(NamedSupplier.class);
+
+        TracingSettings settings = new TracingSettings(0);
+        settings.traceMethod("NamedSupplier.get");
+        assertThat(settings.isTraced(get)).isTrue();
+    }
+
+    private static JoinPoint call(String method) {
+        return call(TracingSettingsTest.class, method);
+    }
+
+    private static JoinPoint call(Class<?> declaringType, String method) {
+        Signature signature = mock(Signature.class);
+        when(signature.getDeclaringType()).thenReturn(declaringType);
+        when(signature.getName()).thenReturn(method);
+        JoinPoint joinPoint = mock(JoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        return joinPoint;
+    }
+
+    interface NamedSupplier extends Supplier<String> {}
+}
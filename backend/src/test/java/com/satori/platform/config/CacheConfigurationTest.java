@@ -0,0 +1,92 @@
+package com.satori.platform.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.satori.platform.domain.Flashcard;
+import com.satori.platform.domain.Quiz;
+import com.satori.platform.domain.StudentProgress;
+import java.time.Duration;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+class CacheConfigurationTest {
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        jHipsterProperties.getCache().getEhcache().setTimeToLiveSeconds(3600);
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region flashcards = new ApplicationProperties.Cache.Region();
+        flashcards.setMaxEntries(5000L);
+        flashcards.setOffHeapSize(DataSize.ofMegabytes(2));
+        flashcards.setTimeToLive(Duration.ofHours(6));
+        applicationProperties.getCache().getRegions().put("Flashcard", flashcards);
+        ApplicationProperties.Cache.Region questions = new ApplicationProperties.Cache.Region();
+        questions.setMaxEntries(2000L);
+        applicationProperties.getCache().getRegions().put(Quiz.class.getName() + ".questions", questions);
+
+        cacheManager = Caching.getCachingProvider().getCacheManager();
+        new CacheConfiguration(jHipsterProperties, applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void shouldApplyTieredPolicyGivenRelativeToDomainPackage() {
+        SizedResourcePool heap = poolOf(Flashcard.class.getName(), ResourceType.Core.HEAP);
+        SizedResourcePool offHeap = poolOf(Flashcard.class.getName(), ResourceType.Core.OFFHEAP);
+
+        assertThat(heap.getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(heap.getSize()).isEqualTo(5000L);
+        assertThat(offHeap.getUnit()).isEqualTo(MemoryUnit.MB);
+        assertThat(offHeap.getSize()).isEqualTo(2L);
+
+        Cache<Object, Object> cache = cacheManager.getCache(Flashcard.class.getName());
+        cache.put(1L, "flashcard");
+        assertThat(cache.get(1L)).isEqualTo("flashcard");
+    }
+
+    @Test
+    void shouldApplyEntryPolicyGivenByFullName() {
+        SizedResourcePool heap = poolOf(Quiz.class.getName() + ".questions", ResourceType.Core.HEAP);
+
+        assertThat(heap.getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(heap.getSize()).isEqualTo(2000L);
+    }
+
+    @Test
+    void shouldFallBackToDefaultsForUnconfiguredRegions() {
+        SizedResourcePool heap = poolOf(StudentProgress.class.getName(), ResourceType.Core.HEAP);
+
+        assertThat(heap.getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(heap.getSize()).isEqualTo(100L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SizedResourcePool poolOf(String cacheName, ResourceType<SizedResourcePool> resourceType) {
+        Eh107Configuration<Object, Object> eh107Configuration = cacheManager
+            .getCache(cacheName)
+            .getConfiguration(Eh107Configuration.class);
+        CacheRuntimeConfiguration<Object, Object> configuration = eh107Configuration.unwrap(CacheRuntimeConfiguration.class);
+        return configuration.getResourcePools().getPoolForResource(resourceType);
+    }
+}
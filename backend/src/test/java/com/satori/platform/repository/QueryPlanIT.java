@@ -0,0 +1,433 @@
+package com.satori.platform.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.satori.platform.IntegrationTest;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Query-plan regression suite: runs every {@link Query} of the repositories
+ * against seeded tables, EXPLAINs the SQL that reached the driver and fails on
+ * a full scan of a table that grows with usage.
+ * <p>
+ * Every query must reach the database: one the database rejects, or one that
+ * sends no SELECT, fails the suite as well. A query that legitimately scans (a
+ * paged listing without a filter, a nightly report) is listed in
+ * {@link #ALLOWED_SCANS} with a reason.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = "spring.datasource.hikari.data-source-properties.queryInterceptors=com.satori.platform.repository.QueryPlanRecorder"
+)
+class QueryPlanIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryPlanIT.class);
+
+    private static final int SEED_ROWS = 5000;
+
+    /**
+     * Tables that grow with users and activity; a full scan of one of these
+     * fails the suite. Reference tables stay small and are not checked.
+     */
+    private static final List<String> LARGE_TABLES = List.of(
+        "jhi_user",
+        "user_profile",
+        "student_profile",
+        "user_session",
+        "notification_delivery",
+        "notification_preference",
+        "student_quiz",
+        "student_progress",
+        "flashcard_session",
+        "quiz_question",
+        "schedule"
+    );
+
+    /**
+     * Queries allowed to scan a large table, as {@code Repository.method} to
+     * the reason.
+     */
+    private static final Map<String, String> ALLOWED_SCANS = Map.of();
+
+    private static final Pattern TABLE_ALIAS = Pattern.compile(
+        "\\b(?:from|join)\\s+`?(\\w+)`?(?:\\s+as)?\\s+`?(\\w+)`?",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Set<String> SQL_KEYWORDS = Set.of(
+        "where",
+        "join",
+        "left",
+        "right",
+        "inner",
+        "outer",
+        "cross",
+        "on",
+        "group",
+        "order",
+        "limit",
+        "union"
+    );
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, Long> seededAbove = new HashMap<>();
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET SESSION cte_max_recursion_depth = " + (SEED_ROWS + 1));
+            jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 0");
+            try {
+                for (String table : LARGE_TABLES) {
+                    seedTable(table);
+                }
+            } finally {
+                jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+        });
+        for (String table : seededAbove.keySet()) {
+            jdbcTemplate.queryForList("ANALYZE TABLE " + table);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 0");
+            try {
+                seededAbove.forEach((table, maxId) -> jdbcTemplate.update("DELETE FROM " + table + " WHERE id > ?", maxId));
+            } finally {
+                jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+        });
+        seededAbove.clear();
+    }
+
+    @Test
+    void repositoryQueriesDoNotScanLargeTables() {
+        Map<String, Method> queries = queryMethods();
+        List<String> violations = new ArrayList<>();
+        int checked = 0;
+
+        for (Map.Entry<String, Method> query : queries.entrySet()) {
+            String name = query.getKey();
+            Method method = query.getValue();
+            Object[] arguments = arguments(method);
+            if (arguments == null) {
+                violations.add(name + " was not run: no sample value for its parameters");
+                continue;
+            }
+
+            Recording recording = record(applicationContext.getBean(method.getDeclaringClass()), method, arguments, name);
+            if (recording.failure() != null) {
+                violations.add(name + " failed: " + recording.failure());
+                continue;
+            }
+            if (recording.statements().isEmpty()) {
+                violations.add(name + " sent no SELECT");
+                continue;
+            }
+            for (String sql : recording.statements()) {
+                checked++;
+                if (!ALLOWED_SCANS.containsKey(name)) {
+                    fullScans(sql).forEach(table -> violations.add(name + " scans " + table + ": " + sql));
+                }
+            }
+        }
+
+        LOG.info("Checked the plans of {} statements of {} queries", checked, queries.size());
+        assertThat(queries).as("repository queries").isNotEmpty();
+        assertThat(queries.keySet()).as("queries allowed to scan").containsAll(ALLOWED_SCANS.keySet());
+        assertThat(violations).as("queries failing or doing full scans of large tables").isEmpty();
+    }
+
+    /**
+     * @return the {@link Query} methods that read, of every repository
+     *         interface in this package, by {@code Repository.method}
+     */
+    private static Map<String, Method> queryMethods() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+
+        Map<String, Method> queries = new TreeMap<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(QueryPlanIT.class.getPackageName())) {
+            Class<?> repositoryInterface = ClassUtils.resolveClassName(
+                Objects.requireNonNull(candidate.getBeanClassName()),
+                QueryPlanIT.class.getClassLoader()
+            );
+            if (!repositoryInterface.getPackageName().equals(QueryPlanIT.class.getPackageName())) {
+                continue;
+            }
+            for (Method method : repositoryInterface.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Query.class) && !method.isAnnotationPresent(Modifying.class)) {
+                    queries.put(repositoryInterface.getSimpleName() + "." + method.getName(), method);
+                }
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Run a query in a rolled-back transaction and return the SELECTs it sent.
+     * Failures after the SQL was sent, such as mapping seeded rows, do not
+     * matter for the plan; an error from the database does.
+     */
+    private Recording record(Object repository, Method method, Object[] arguments, String name) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Recording recording = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            QueryPlanRecorder.start();
+            Throwable failure = null;
+            try {
+                Object result = method.invoke(repository, arguments);
+                if (result instanceof Stream<?> stream) {
+                    try (stream) {
+                        stream.findFirst();
+                    }
+                }
+            } catch (InvocationTargetException e) {
+                failure = e.getTargetException();
+            } catch (IllegalAccessException | RuntimeException e) {
+                failure = e;
+            }
+            List<String> statements = QueryPlanRecorder.stop();
+            if (failure == null) {
+                return new Recording(statements, null);
+            }
+            LOG.debug("{} failed: {}", name, failure.getMessage());
+            boolean rejectedByDatabase = ExceptionUtils.indexOfType(failure, SQLException.class) >= 0;
+            return new Recording(statements, rejectedByDatabase || statements.isEmpty() ? failure.toString() : null);
+        });
+        return Objects.requireNonNull(recording);
+    }
+
+    /**
+     * @return the large tables that the plan of a statement reads in full
+     */
+    private List<String> fullScans(String sql) {
+        Map<String, String> tablesByAlias = new HashMap<>();
+        Matcher matcher = TABLE_ALIAS.matcher(sql);
+        while (matcher.find()) {
+            String table = matcher.group(1).toLowerCase(Locale.ROOT);
+            String alias = matcher.group(2).toLowerCase(Locale.ROOT);
+            tablesByAlias.put(SQL_KEYWORDS.contains(alias) ? table : alias, table);
+        }
+
+        List<String> scans = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + sql)) {
+            Object alias = row.get("table");
+            if (alias == null || !"ALL".equals(row.get("type"))) {
+                continue;
+            }
+            String table = tablesByAlias.getOrDefault(alias.toString().toLowerCase(Locale.ROOT), alias.toString());
+            if (LARGE_TABLES.contains(table)) {
+                scans.add(table);
+            }
+        }
+        return scans;
+    }
+
+    /**
+     * Fill a table with {@link #SEED_ROWS} generated rows so the optimizer sees
+     * realistic cardinalities. Foreign keys spread over 500 parents.
+     */
+    private void seedTable(String table) {
+        List<Map<String, Object>> columns = jdbcTemplate.queryForList(
+            "SELECT column_name, data_type, character_maximum_length, is_nullable, extra FROM information_schema.columns " +
+            "WHERE table_schema = database() AND table_name = ? ORDER BY ordinal_position",
+            table
+        );
+        if (columns.isEmpty()) {
+            return;
+        }
+
+        List<String> names = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (Map<String, Object> column : columns) {
+            String name = column.get("column_name").toString();
+            if (column.get("extra").toString().contains("auto_increment")) {
+                continue;
+            }
+            String value = sampleValue(name, column.get("data_type").toString(), column.get("character_maximum_length"));
+            if (value == null) {
+                if ("YES".equals(column.get("is_nullable"))) {
+                    continue;
+                }
+                LOG.warn("Not seeding {}: no sample value for {}", table, name);
+                return;
+            }
+            names.add("`" + name + "`");
+            values.add(value);
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        seededAbove.put(table, maxId);
+        jdbcTemplate.update(
+            "INSERT IGNORE INTO " + table + " (" + String.join(", ", names) + ") " +
+            "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + SEED_ROWS + ") " +
+            "SELECT " + String.join(", ", values) + " FROM seq"
+        );
+    }
+
+    private static String sampleValue(String column, String dataType, Object maxLength) {
+        return switch (dataType) {
+            case "bigint", "int", "smallint", "mediumint" -> column.endsWith("_id") ? "1 + n % 500" : "n % 100";
+            case "tinyint", "bit" -> "n % 2";
+            case "decimal", "double", "float" -> "n % 100";
+            case "varchar", "char" -> "LEFT(CONCAT('seed-', n), " + maxLength + ")";
+            case "text", "mediumtext", "longtext", "tinytext" -> "'seed'";
+            case "datetime", "timestamp" -> "NOW() - INTERVAL n MINUTE";
+            case "date" -> "CURDATE() - INTERVAL n % 365 DAY";
+            case "time" -> "'09:00:00'";
+            case "json" -> "'{}'";
+            default -> null;
+        };
+    }
+
+    /**
+     * @return sample arguments for a query method, or null when a parameter
+     *         type is not supported
+     */
+    private Object[] arguments(Method method) {
+        Object[] arguments = new Object[method.getParameterCount()];
+        for (int i = 0; i < arguments.length; i++) {
+            ResolvableType type = ResolvableType.forMethodParameter(new MethodParameter(method, i));
+            arguments[i] = sample(type);
+            if (arguments[i] == null) {
+                return null;
+            }
+        }
+        return arguments;
+    }
+
+    private Object sample(ResolvableType type) {
+        Class<?> raw = type.toClass();
+        if (raw == Long.class || raw == long.class) {
+            return 1L;
+        }
+        if (raw == Integer.class || raw == int.class) {
+            return 1;
+        }
+        if (raw == Double.class || raw == double.class) {
+            return 50.0;
+        }
+        if (raw == Boolean.class || raw == boolean.class) {
+            return Boolean.TRUE;
+        }
+        if (raw == String.class) {
+            return "probe";
+        }
+        if (raw == BigDecimal.class) {
+            return BigDecimal.TEN;
+        }
+        if (raw == UUID.class) {
+            return UUID.randomUUID();
+        }
+        if (raw == Instant.class) {
+            return Instant.now();
+        }
+        if (raw == ZonedDateTime.class) {
+            return ZonedDateTime.now();
+        }
+        if (raw == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (raw == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (raw == LocalTime.class) {
+            return LocalTime.NOON;
+        }
+        if (raw.isEnum()) {
+            return raw.getEnumConstants()[0];
+        }
+        if (Pageable.class.isAssignableFrom(raw)) {
+            return PageRequest.of(0, 20);
+        }
+        if (raw == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            Object element = sample(type.asCollection().getGeneric(0));
+            if (element == null) {
+                return null;
+            }
+            return Set.class.isAssignableFrom(raw) ? Set.of(element) : List.of(element);
+        }
+        if (raw.isAnnotationPresent(Entity.class)) {
+            // Only the identifier is bound, so an uninitialized reference is enough
+            return entityManager.getReference(raw, 1L);
+        }
+        return null;
+    }
+
+    /**
+     * The SELECTs a query sent, and why it failed if that matters for the
+     * suite.
+     */
+    private record Recording(List<String> statements, String failure) {}
+}
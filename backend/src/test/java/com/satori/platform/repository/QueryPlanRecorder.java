@@ -0,0 +1,75 @@
+package com.satori.platform.repository;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Connector/J interceptor that records the SELECT statements sent by the
+ * current thread while recording is on. Client-side prepared statements reach
+ * the interceptor with their parameters inlined, so the recorded SQL can be
+ * passed to EXPLAIN as is.
+ */
+public class QueryPlanRecorder implements QueryInterceptor {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    /**
+     * Start recording the statements of the current thread.
+     */
+    static void start() {
+        RECORDED.set(new ArrayList<>());
+    }
+
+    /**
+     * @return the statements recorded since {@link #start()}; recording stops
+     */
+    static List<String> stop() {
+        List<String> recorded = RECORDED.get();
+        RECORDED.remove();
+        return recorded != null ? recorded : List.of();
+    }
+
+    @Override
+    public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        List<String> recorded = RECORDED.get();
+        if (recorded != null && sql != null) {
+            String statement = sql.get();
+            if (statement != null && statement.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+                recorded.add(statement);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {}
+
+    @Override
+    public <T extends Resultset> T postProcess(
+        Supplier<String> sql,
+        Query interceptedQuery,
+        T originalResultSet,
+        ServerSession serverSession
+    ) {
+        return null;
+    }
+}
@@ -0,0 +1,146 @@
+package com.satori.platform.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.domain.StudentProfile;
+import com.satori.platform.domain.User;
+import com.satori.platform.domain.UserProfile;
+import com.satori.platform.repository.UserProfileRepository;
+import com.satori.platform.repository.UserRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Test class for the {@link PrincipalCache}.
+ */
+class PrincipalCacheUnitTest {
+
+    private UserRepository userRepository;
+
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        UserProfileRepository userProfileRepository = mock(UserProfileRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        User user = new User();
+        user.setId(1L);
+        user.setLogin("student1");
+        when(userRepository.findOneWithAuthoritiesByLogin("student1")).thenReturn(Optional.of(user));
+        StudentProfile studentProfile = new StudentProfile();
+        studentProfile.setId(3L);
+        UserProfile profile = new UserProfile();
+        profile.setId(2L);
+        profile.setStudentProfile(studentProfile);
+        when(userProfileRepository.findByUsername("student1")).thenReturn(Optional.of(profile));
+
+        principalCache = new PrincipalCache(
+            userRepository,
+            userProfileRepository,
+            new ConcurrentMapCacheManager(PrincipalCache.CACHE_NAME),
+            transactionManager,
+            Duration.ofMinutes(5)
+        );
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void resolvesThePrincipalOncePerToken() {
+        authenticate("token-1");
+
+        ResolvedPrincipal principal = principalCache.getCurrentPrincipal().orElseThrow();
+        principalCache.getCurrentPrincipal();
+
+        assertThat(principal.userId()).isEqualTo(1L);
+        assertThat(principal.userProfileId()).isEqualTo(2L);
+        assertThat(principal.studentProfileId()).isEqualTo(3L);
+        assertThat(principal.authorities()).containsExactly(AuthoritiesConstants.USER);
+        verify(userRepository, times(1)).findOneWithAuthoritiesByLogin("student1");
+
+        authenticate("token-2");
+        principalCache.getCurrentPrincipal();
+        verify(userRepository, times(2)).findOneWithAuthoritiesByLogin("student1");
+    }
+
+    @Test
+    void resolvesAgainAfterTheUserIsEvicted() {
+        authenticate("token-1");
+        principalCache.getCurrentPrincipal();
+
+        principalCache.evictUser("student1");
+        principalCache.getCurrentPrincipal();
+
+        verify(userRepository, times(2)).findOneWithAuthoritiesByLogin("student1");
+    }
+
+    @Test
+    void evictsAgainAfterCommit() {
+        authenticate("token-1");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            principalCache.evictUser("student1");
+            // A concurrent request resolves the user before the change commits
+            principalCache.getCurrentPrincipal();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        principalCache.getCurrentPrincipal();
+
+        verify(userRepository, times(2)).findOneWithAuthoritiesByLogin("student1");
+    }
+
+    @Test
+    void resolvesAgainAfterLogout() {
+        authenticate("token-1");
+        principalCache.getCurrentPrincipal();
+
+        principalCache.evictCurrentToken();
+        principalCache.getCurrentPrincipal();
+
+        verify(userRepository, times(2)).findOneWithAuthoritiesByLogin("student1");
+    }
+
+    @Test
+    void returnsNothingWithoutAuthentication() {
+        assertThat(principalCache.getCurrentPrincipal()).isEmpty();
+    }
+
+    private static void authenticate(String tokenId) {
+        Jwt jwt = Jwt.withTokenValue("token")
+            .header("alg", "HS512")
+            .jti(tokenId)
+            .subject("student1")
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(60))
+            .build();
+        SecurityContextHolder.getContext()
+            .setAuthentication(new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))));
+    }
+}
@@ -0,0 +1,99 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.domain.enumeration.DifficultyLevel;
+import com.satori.platform.service.dto.AIGeneratedQuestionDTO;
+import com.satori.platform.service.dto.AIQuestionGenerationRequestDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AIGenerationCacheTest {
+
+    private GeminiEmbeddingService embeddingService;
+
+    private AIGenerationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        embeddingService = mock(GeminiEmbeddingService.class);
+        cache = new AIGenerationCache(embeddingService, new SimpleMeterRegistry(), true, 100, Duration.ofHours(1), 0.95);
+    }
+
+    @Test
+    void exactLevelIgnoresWhitespaceAndCase() {
+        AIGenerationCache.Lookup miss = cache.lookup(request(1L, 10L), "Generate 5 questions\n about  Hiragana");
+        assertThat(miss.isHit()).isFalse();
+        cache.put(miss, List.of(question("あ")));
+
+        AIGenerationCache.Lookup hit = cache.lookup(request(1L, 10L), "generate 5 questions about hiragana ");
+
+        assertThat(hit.isHit()).isTrue();
+        assertThat(hit.getQuestions()).extracting(AIGeneratedQuestionDTO::getContent).containsExactly("あ");
+    }
+
+    @Test
+    void semanticLevelReusesSimilarPromptWithinSameScope() {
+        when(embeddingService.isConfigured()).thenReturn(true);
+        when(embeddingService.generateEmbedding(anyString())).thenAnswer(invocation ->
+            ((String) invocation.getArgument(0)).contains("weak: particles") ? List.of(1.0, 0.0, 0.01) : List.of(1.0, 0.0, 0.0)
+        );
+
+        cache.put(cache.lookup(request(1L, 10L), "hiragana prompt"), List.of(question("あ")));
+
+        assertThat(cache.lookup(request(1L, 10L), "hiragana prompt weak: particles").isHit()).isTrue();
+        assertThat(cache.lookup(request(1L, 11L), "hiragana prompt weak: particles").isHit()).isFalse();
+    }
+
+    @Test
+    void courseEvictionDropsGenerationsOfTheCourse() {
+        cache.put(cache.lookup(request(1L, 10L), "lesson 10 prompt"), List.of(question("あ")));
+        cache.put(cache.lookup(request(2L, 20L), "lesson 20 prompt"), List.of(question("い")));
+
+        cache.evictCourse(1L);
+
+        assertThat(cache.lookup(request(1L, 10L), "lesson 10 prompt").isHit()).isFalse();
+        assertThat(cache.lookup(request(2L, 20L), "lesson 20 prompt").isHit()).isTrue();
+    }
+
+    @Test
+    void callersCannotChangeCachedQuestions() {
+        AIGeneratedQuestionDTO generated = question("あ");
+        cache.put(cache.lookup(request(1L, 10L), "prompt"), List.of(generated));
+        generated.setContent("changed by the generator");
+
+        AIGenerationCache.Lookup hit = cache.lookup(request(1L, 10L), "prompt");
+        hit.getQuestions().get(0).setContent("changed by the caller");
+
+        assertThat(cache.lookup(request(1L, 10L), "prompt").getQuestions()).extracting(AIGeneratedQuestionDTO::getContent).containsExactly("あ");
+    }
+
+    @Test
+    void expiredGenerationsAreNotReused() {
+        cache = new AIGenerationCache(embeddingService, new SimpleMeterRegistry(), true, 100, Duration.ofMillis(-1), 0.95);
+        cache.put(cache.lookup(request(1L, 10L), "prompt"), List.of(question("あ")));
+
+        assertThat(cache.lookup(request(1L, 10L), "prompt").isHit()).isFalse();
+    }
+
+    private static AIQuestionGenerationRequestDTO request(Long courseId, Long lessonId) {
+        AIQuestionGenerationRequestDTO request = new AIQuestionGenerationRequestDTO();
+        request.setCourseId(courseId);
+        request.setLessonId(lessonId);
+        request.setQuestionCount(5);
+        request.setDifficultyLevel(DifficultyLevel.EASY);
+        return request;
+    }
+
+    private static AIGeneratedQuestionDTO question(String content) {
+        AIGeneratedQuestionDTO question = new AIGeneratedQuestionDTO();
+        question.setContent(content);
+        return question;
+    }
+}
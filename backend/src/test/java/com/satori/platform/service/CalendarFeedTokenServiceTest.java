@@ -0,0 +1,22 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.satori.platform.repository.UserProfileRepository;
+import org.junit.jupiter.api.Test;
+
+class CalendarFeedTokenServiceTest {
+
+    private final CalendarFeedTokenService tokenService = new CalendarFeedTokenService(mock(UserProfileRepository.class), "secret");
+
+    @Test
+    void acceptsOnlyTheTokenOfTheFeedsUser() {
+        String token = tokenService.tokenFor(1L);
+
+        assertThat(tokenService.isValid(1L, token)).isTrue();
+        assertThat(tokenService.isValid(2L, token)).isFalse();
+        assertThat(tokenService.isValid(1L, null)).isFalse();
+        assertThat(new CalendarFeedTokenService(mock(UserProfileRepository.class), "rotated").isValid(1L, token)).isFalse();
+    }
+}
@@ -0,0 +1,130 @@
+package com.satori.platform.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal local SMTP stand-in for mail transport tests. Recipients starting
+ * with {@code bounce} are rejected with 550 and those starting with
+ * {@code busy} with 451; each new connection waits {@code handshakeDelayMillis}
+ * before its greeting, standing in for TCP, TLS and AUTH round trips.
+ */
+class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long handshakeDelayMillis;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean closed;
+
+    FakeSmtpServer(long handshakeDelayMillis) throws IOException {
+        this.handshakeDelayMillis = handshakeDelayMillis;
+        this.serverSocket = new ServerSocket(0, 100, InetAddress.getLoopbackAddress());
+        executor.submit(this::accept);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * @return the recipients of every accepted message
+     */
+    List<String> getDelivered() {
+        return delivered;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                executor.submit(() -> handle(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (
+            socket;
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)
+        ) {
+            Thread.sleep(handshakeDelayMillis);
+            reply(out, "220 localhost ESMTP");
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("MAIL FROM")) {
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO")) {
+                    String address = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+                    if (address.startsWith("bounce")) {
+                        reply(out, "550 5.1.1 User unknown");
+                    } else if (address.startsWith("busy")) {
+                        reply(out, "451 4.3.0 Try again later");
+                    } else {
+                        recipients.add(address);
+                        reply(out, "250 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        // Discard the message
+                    }
+                    delivered.addAll(recipients);
+                    recipients.clear();
+                    reply(out, "250 OK queued");
+                } else if (command.equals("RSET") || command.equals("NOOP")) {
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "500 Unknown command");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reply(PrintWriter out, String reply) {
+        out.print(reply + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,217 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.satori.platform.IntegrationTest;
+import com.satori.platform.domain.Course;
+import com.satori.platform.domain.CourseClass;
+import com.satori.platform.domain.GiftCode;
+import com.satori.platform.domain.StudentProfile;
+import com.satori.platform.domain.UserProfile;
+import com.satori.platform.domain.enumeration.Role;
+import com.satori.platform.repository.CourseClassRepository;
+import com.satori.platform.repository.CourseRepository;
+import com.satori.platform.repository.GiftCodeRepository;
+import com.satori.platform.repository.StudentProfileRepository;
+import com.satori.platform.repository.UserProfileRepository;
+import com.satori.platform.service.dto.GiftCodeRedemptionDTO;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Load test harness for {@link GiftCodeService#redeemGiftCode(String, Long)}: many
+ * students redeem the same code concurrently against limited seats and uses.
+ */
+@IntegrationTest
+class GiftCodeRedemptionLoadIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GiftCodeRedemptionLoadIT.class);
+
+    private static final int STUDENTS = 60;
+    private static final int THREADS = 16;
+    private static final int CLASS_CAPACITY = 10;
+    private static final int MAX_USES = 25;
+
+    @Autowired
+    private GiftCodeService giftCodeService;
+
+    @Autowired
+    private GiftCodeRepository giftCodeRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseClassRepository courseClassRepository;
+
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    private Course course;
+
+    private final List<CourseClass> courseClasses = new ArrayList<>();
+
+    private final List<UserProfile> students = new ArrayList<>();
+
+    private GiftCode giftCode;
+
+    @BeforeEach
+    void init() {
+        course = courseRepository.saveAndFlush(new Course().title("Load test course").courseCode("LOAD-" + System.nanoTime()));
+
+        for (int i = 0; i < 2; i++) {
+            courseClasses.add(
+                courseClassRepository.saveAndFlush(
+                    new CourseClass()
+                        .code("LOAD-CLASS-" + i + "-" + System.nanoTime())
+                        .name("Load test class " + i)
+                        .startDate(Instant.now().plus(i, ChronoUnit.DAYS))
+                        .endDate(Instant.now().plus(90, ChronoUnit.DAYS))
+                        .capacity(CLASS_CAPACITY)
+                        .course(course)
+                )
+            );
+        }
+
+        for (int i = 0; i < STUDENTS; i++) {
+            StudentProfile studentProfile = studentProfileRepository.saveAndFlush(new StudentProfile().studentId("LOAD" + i));
+            students.add(
+                userProfileRepository.saveAndFlush(
+                    new UserProfile()
+                        .username("load_student_" + i)
+                        .passwordHash("AAAAAAAAAA")
+                        .email("load_student_" + i + "@localhost")
+                        .fullName("Load Student " + i)
+                        .role(Role.HOC_VIEN)
+                        .studentProfile(studentProfile)
+                )
+            );
+        }
+
+        giftCode = giftCodeRepository.saveAndFlush(
+            new GiftCode()
+                .code("LOAD" + (System.nanoTime() % 100_000_000))
+                .expiryDate(LocalDateTime.now().plusDays(1))
+                .active(true)
+                .maxUses(MAX_USES)
+                .currentUses(0)
+                .createdDate(LocalDateTime.now())
+                .course(course)
+        );
+    }
+
+    @AfterEach
+    void cleanup() {
+        giftCodeRepository.delete(giftCode);
+        courseClassRepository.deleteAll(courseClasses);
+        students.forEach(student -> {
+            StudentProfile studentProfile = student.getStudentProfile();
+            userProfileRepository.delete(student);
+            studentProfileRepository.delete(studentProfile);
+        });
+        courseRepository.delete(course);
+    }
+
+    @Test
+    void concurrentRedemptionsNeverOverbookSeatsOrUses() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<GiftCodeRedemptionDTO>> futures = new ArrayList<>();
+        for (UserProfile student : students) {
+            futures.add(
+                executor.submit(() -> {
+                    start.await();
+                    return giftCodeService.redeemGiftCode(giftCode.getCode(), student.getId());
+                })
+            );
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        int successes = 0;
+        int failures = 0;
+        for (Future<GiftCodeRedemptionDTO> future : futures) {
+            try {
+                if (Boolean.TRUE.equals(future.get().getSuccess())) {
+                    successes++;
+                } else {
+                    failures++;
+                }
+            } catch (Exception e) {
+                // Lock timeouts surface as exceptions; they must not leak seats or uses
+                failures++;
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        executor.shutdown();
+
+        LOG.info(
+            "Redeemed {} of {} codes ({} rejected) in {} ms, {} redemptions/s",
+            successes,
+            STUDENTS,
+            failures,
+            elapsedMillis,
+            STUDENTS * 1000L / Math.max(1, elapsedMillis)
+        );
+
+        int enrolled = 0;
+        for (CourseClass courseClass : courseClasses) {
+            int seatsTaken = courseClassRepository.countStudentsById(courseClass.getId());
+            assertThat(seatsTaken).isLessThanOrEqualTo(CLASS_CAPACITY);
+            enrolled += seatsTaken;
+        }
+        int totalSeats = CLASS_CAPACITY * courseClasses.size();
+        assertThat(successes).isEqualTo(enrolled);
+        assertThat(successes).isLessThanOrEqualTo(Math.min(MAX_USES, totalSeats));
+        assertThat(giftCodeRepository.findById(giftCode.getId()).orElseThrow().getCurrentUses()).isEqualTo(successes);
+    }
+
+    @Test
+    void concurrentRedemptionsBySameStudentEnrollOnce() throws Exception {
+        UserProfile student = students.get(0);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<GiftCodeRedemptionDTO>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(
+                executor.submit(() -> {
+                    start.await();
+                    return giftCodeService.redeemGiftCode(giftCode.getCode(), student.getId());
+                })
+            );
+        }
+
+        start.countDown();
+        int successes = 0;
+        for (Future<GiftCodeRedemptionDTO> future : futures) {
+            if (Boolean.TRUE.equals(future.get().getSuccess())) {
+                successes++;
+            }
+        }
+        executor.shutdown();
+
+        int enrolled = 0;
+        for (CourseClass courseClass : courseClasses) {
+            enrolled += courseClassRepository.countStudentsById(courseClass.getId());
+        }
+        assertThat(successes).isEqualTo(1);
+        assertThat(enrolled).isEqualTo(1);
+        assertThat(giftCodeRepository.findById(giftCode.getId()).orElseThrow().getCurrentUses()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,152 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.satori.platform.service.dto.RAGContentResultDTO;
+import com.satori.platform.service.util.Bm25Index;
+import com.satori.platform.service.util.ReciprocalRankFusion;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recall and latency of the lexical half of hybrid retrieval over a fixed
+ * corpus of grammar points.
+ * <p>
+ * How much embeddings add can only be measured with the embedding API, so the
+ * vector side here is a random ranking that carries no information. Fusing
+ * with it must not bury what BM25 finds, which is what hybrid retrieval relies
+ * on for exact grammar points. The ANN search itself, with its
+ * {@code probes}/{@code ef_search} settings, is covered by
+ * {@link PostgreSQLVectorServiceTest}.
+ */
+class HybridRetrievalBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(HybridRetrievalBenchmarkTest.class);
+
+    private static final int TOP_K = 5;
+
+    private static final int RANDOM_RANKINGS = 200;
+
+    private static final Bm25Index index = new Bm25Index();
+
+    private static final List<String> documentIds = new ArrayList<>();
+
+    private static final List<FixtureQuery> queries = new ArrayList<>();
+
+    @BeforeAll
+    static void loadFixture() throws IOException {
+        try (InputStream in = HybridRetrievalBenchmarkTest.class.getResourceAsStream("/rag/grammar-retrieval-fixture.json")) {
+            JsonNode fixture = new ObjectMapper().readTree(in);
+            for (JsonNode document : fixture.get("documents")) {
+                documentIds.add(document.get("id").asText());
+                index.put(document.get("id").asText(), document.get("title").asText() + "\n" + document.get("content").asText());
+            }
+            for (JsonNode query : fixture.get("queries")) {
+                queries.add(new FixtureQuery(query.get("query").asText(), texts(query.get("relevant"))));
+            }
+        }
+    }
+
+    @Test
+    void lexicalSearchRecallsGrammarPoints() {
+        double lexical = 0;
+        for (FixtureQuery query : queries) {
+            lexical += recall(lexical(query), query);
+        }
+        lexical /= queries.size();
+        log.info("lexical recall@{} over {} queries: {}", TOP_K, queries.size(), lexical);
+
+        assertThat(lexical).isGreaterThanOrEqualTo(0.8);
+    }
+
+    @Test
+    void fusionKeepsLexicalMatchesAgainstAnUninformativeVectorRanking() {
+        Random random = new Random(42);
+        double lexical = 0;
+        double vector = 0;
+        double hybrid = 0;
+        for (int i = 0; i < RANDOM_RANKINGS; i++) {
+            for (FixtureQuery query : queries) {
+                List<RAGContentResultDTO> lexicalRanking = lexical(query);
+                List<RAGContentResultDTO> vectorRanking = randomRanking(random);
+                lexical += recall(lexicalRanking, query);
+                vector += recall(vectorRanking, query);
+                hybrid += recall(
+                    RAGContentRetrievalService.fuse(List.of(vectorRanking, lexicalRanking), TOP_K, ReciprocalRankFusion.DEFAULT_K),
+                    query
+                );
+            }
+        }
+        int runs = RANDOM_RANKINGS * queries.size();
+        lexical /= runs;
+        vector /= runs;
+        hybrid /= runs;
+        log.info("recall@{} with random vector rankings: lexical={}, vector={}, hybrid={}", TOP_K, lexical, vector, hybrid);
+
+        assertThat(hybrid).isGreaterThan(vector).isGreaterThanOrEqualTo(lexical - 0.1);
+    }
+
+    @Test
+    void lexicalSearchAndFusionAddLittleLatency() {
+        int iterations = 2000;
+        long[] nanos = new long[iterations];
+        Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            FixtureQuery query = queries.get(i % queries.size());
+            List<RAGContentResultDTO> vectorRanking = randomRanking(random);
+            long start = System.nanoTime();
+            RAGContentRetrievalService.fuse(List.of(vectorRanking, lexical(query)), TOP_K, ReciprocalRankFusion.DEFAULT_K);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long p50 = nanos[iterations / 2];
+        long p95 = nanos[iterations * 95 / 100];
+        log.info("lexical search + fusion latency: p50={}us, p95={}us", p50 / 1000, p95 / 1000);
+
+        assertThat(p95).isLessThan(50_000_000L);
+    }
+
+    private static List<RAGContentResultDTO> lexical(FixtureQuery query) {
+        return index.search(query.query(), TOP_K * 3, id -> true).stream().map(match -> result(match.id(), match.score())).toList();
+    }
+
+    private static List<RAGContentResultDTO> randomRanking(Random random) {
+        List<String> ids = new ArrayList<>(documentIds);
+        Collections.shuffle(ids, random);
+        return ids.stream().limit(TOP_K * 3).map(id -> result(id, 0)).toList();
+    }
+
+    private static double recall(List<RAGContentResultDTO> ranking, FixtureQuery query) {
+        Set<String> found = new HashSet<>();
+        ranking.stream().limit(TOP_K).forEach(result -> found.add(result.getContentId()));
+        return (double) query.relevant().stream().filter(found::contains).count() / query.relevant().size();
+    }
+
+    private static RAGContentResultDTO result(String id, double score) {
+        RAGContentResultDTO result = new RAGContentResultDTO();
+        result.setContentId(id);
+        result.setRelevanceScore(score);
+        return result;
+    }
+
+    private static List<String> texts(JsonNode array) {
+        List<String> texts = new ArrayList<>();
+        array.forEach(node -> texts.add(node.asText()));
+        return texts;
+    }
+
+    private record FixtureQuery(String query, List<String> relevant) {}
+}
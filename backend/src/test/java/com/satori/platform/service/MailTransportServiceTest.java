@@ -0,0 +1,160 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.satori.platform.service.mail.MailSendResult;
+import com.satori.platform.service.mail.MailSendResult.Outcome;
+import com.satori.platform.service.mail.OutgoingMail;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import tech.jhipster.config.JHipsterProperties;
+
+class MailTransportServiceTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailTransportServiceTest.class);
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void sendsABatchOverPooledConnections() throws Exception {
+        FakeSmtpServer server = server(0);
+        MailTransportService service = service(server, 4);
+
+        List<MailSendResult> results = service.sendBatch(mails(40, "student%d@example.com"));
+
+        assertThat(results).hasSize(40).allSatisfy(result -> assertThat(result.outcome()).isEqualTo(Outcome.SENT));
+        assertThat(server.getDelivered()).hasSize(40);
+        assertThat(server.getConnections()).isLessThanOrEqualTo(4);
+
+        service.sendBatch(mails(10, "again%d@example.com"));
+        assertThat(server.getConnections()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void reportsBouncesAndTransientFailuresWithoutDroppingTheConnection() throws Exception {
+        FakeSmtpServer server = server(0);
+        MailTransportService service = service(server, 1);
+
+        List<MailSendResult> results = service.sendBatch(
+            List.of(mail(1L, "bounce@example.com"), mail(2L, "busy@example.org"), mail(3L, "student@example.net"))
+        );
+
+        assertThat(results).extracting(MailSendResult::outcome).containsExactly(
+            Outcome.PERMANENT_FAILURE,
+            Outcome.TRANSIENT_FAILURE,
+            Outcome.SENT
+        );
+        assertThat(results.get(0).reason()).contains("550");
+        assertThat(server.getDelivered()).containsExactly("student@example.net");
+        assertThat(server.getConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectsWithinABatchOnceAConnectionReachesItsMessageLimit() throws Exception {
+        FakeSmtpServer server = server(0);
+        MailTransportService service = service(server, 1, 5);
+
+        List<MailSendResult> results = service.sendBatch(mails(12, "student%d@example.com"));
+
+        assertThat(results).allSatisfy(result -> assertThat(result.outcome()).isEqualTo(Outcome.SENT));
+        assertThat(server.getDelivered()).hasSize(12);
+        assertThat(server.getConnections()).isEqualTo(3);
+    }
+
+    @Test
+    void pooledBatchOutpacesAConnectionPerMessage() throws Exception {
+        int messages = 60;
+        FakeSmtpServer server = server(20);
+
+        JavaMailSenderImpl perMessageSender = sender(server);
+        long start = System.nanoTime();
+        for (OutgoingMail mail : mails(messages, "single%d@example.com")) {
+            perMessageSender.send(message -> {
+                message.setFrom("noreply@localhost");
+                message.setRecipients(jakarta.mail.Message.RecipientType.TO, mail.to());
+                message.setSubject(mail.subject());
+                message.setText(mail.body());
+            });
+        }
+        Duration perMessage = Duration.ofNanos(System.nanoTime() - start);
+        int perMessageConnections = server.getConnections();
+
+        MailTransportService service = service(server, 4);
+        start = System.nanoTime();
+        List<MailSendResult> results = service.sendBatch(mails(messages, "pooled%d@example.com"));
+        Duration pooled = Duration.ofNanos(System.nanoTime() - start);
+
+        LOG.info(
+            "{} emails: one connection each {} ms ({} connections), pooled {} ms ({} connections)",
+            messages,
+            perMessage.toMillis(),
+            perMessageConnections,
+            pooled.toMillis(),
+            server.getConnections() - perMessageConnections
+        );
+        assertThat(results).allSatisfy(result -> assertThat(result.outcome()).isEqualTo(Outcome.SENT));
+        assertThat(perMessageConnections).isEqualTo(messages);
+        assertThat(server.getConnections() - perMessageConnections).isLessThanOrEqualTo(4);
+        assertThat(pooled).isLessThan(perMessage);
+    }
+
+    private FakeSmtpServer server(long handshakeDelayMillis) throws Exception {
+        FakeSmtpServer server = new FakeSmtpServer(handshakeDelayMillis);
+        resources.add(server);
+        return server;
+    }
+
+    private MailTransportService service(FakeSmtpServer server, int maxConnections) {
+        return service(server, maxConnections, 100);
+    }
+
+    private MailTransportService service(FakeSmtpServer server, int maxConnections, int maxMessagesPerConnection) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setFrom("noreply@localhost");
+        MailTransportService service = new MailTransportService(
+            sender(server),
+            jHipsterProperties,
+            maxConnections,
+            maxMessagesPerConnection,
+            Duration.ofMinutes(1),
+            Duration.ofSeconds(10),
+            0
+        );
+        resources.add(0, service::shutdown);
+        return service;
+    }
+
+    private static JavaMailSenderImpl sender(FakeSmtpServer server) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(server.getPort());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "5000");
+        properties.put("mail.smtp.timeout", "5000");
+        sender.setJavaMailProperties(properties);
+        return sender;
+    }
+
+    private static List<OutgoingMail> mails(int count, String addressPattern) {
+        return IntStream.range(0, count).mapToObj(i -> mail((long) i, String.format(addressPattern, i))).toList();
+    }
+
+    private static OutgoingMail mail(Long id, String to) {
+        return new OutgoingMail(id, to, "Lesson updated", "<p>New content</p>", true);
+    }
+}
@@ -0,0 +1,108 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.satori.platform.domain.NotificationContent;
+import com.satori.platform.domain.NotificationDelivery;
+import com.satori.platform.domain.enumeration.NotificationType;
+import com.satori.platform.repository.NotificationContentRepository;
+import com.satori.platform.service.NotificationContentService.RenderedNotification;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class NotificationContentServiceTest {
+
+    private NotificationContentRepository notificationContentRepository;
+
+    private NotificationContentService notificationContentService;
+
+    @BeforeEach
+    void setUp() {
+        notificationContentRepository = mock(NotificationContentRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        notificationContentService = new NotificationContentService(
+            notificationContentRepository,
+            new ObjectMapper(),
+            transactionManager,
+            16
+        );
+    }
+
+    @Test
+    void storesIdenticalContentOnce() {
+        NotificationContent stored = new NotificationContent("hash", NotificationType.CONTENT_UPDATE, "EMAIL", "en", "Subject", "Body");
+        when(notificationContentRepository.findFirstByContentHash(anyString())).thenReturn(Optional.empty(), Optional.of(stored));
+        when(notificationContentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        notificationContentService.share(NotificationType.CONTENT_UPDATE, "EMAIL", "en", "Subject", "Body");
+        NotificationContent second = notificationContentService.share(NotificationType.CONTENT_UPDATE, "EMAIL", "en", "Subject", "Body");
+
+        assertThat(second).isSameAs(stored);
+        verify(notificationContentRepository, times(1)).save(any());
+    }
+
+    @Test
+    void fallsBackToContentStoredConcurrently() {
+        NotificationContent stored = new NotificationContent("hash", NotificationType.CONTENT_UPDATE, "EMAIL", "en", "Subject", "Body");
+        when(notificationContentRepository.findFirstByContentHash(anyString())).thenReturn(Optional.empty(), Optional.of(stored));
+        when(notificationContentRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate content_hash"));
+
+        NotificationContent shared = notificationContentService.share(NotificationType.CONTENT_UPDATE, "EMAIL", "en", "Subject", "Body");
+
+        assertThat(shared).isSameAs(stored);
+    }
+
+    @Test
+    void mergesRecipientVariablesAtSendTimeAndParsesTheContentOnce() {
+        NotificationContent stored = new NotificationContent(
+            "hash",
+            NotificationType.COURSE_ANNOUNCEMENT,
+            "EMAIL",
+            "en",
+            "News for {{fullName}}",
+            "<p>Dear {{fullName}}</p>"
+        );
+        stored.setId(7L);
+        when(notificationContentRepository.findById(7L)).thenReturn(Optional.of(stored));
+
+        RenderedNotification first = notificationContentService.render(delivery(Map.of("fullName", "Aoi & Ren")));
+        RenderedNotification second = notificationContentService.render(delivery(Map.of("fullName", "Ken")));
+
+        assertThat(first.subject()).isEqualTo("News for Aoi & Ren");
+        assertThat(first.body()).isEqualTo("<p>Dear Aoi &amp; Ren</p>");
+        assertThat(second.body()).isEqualTo("<p>Dear Ken</p>");
+        verify(notificationContentRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void sendsInlineContentAsStored() {
+        NotificationDelivery delivery = new NotificationDelivery(1L, "a@b.c", NotificationType.SYSTEM_NOTIFICATION, "EMAIL", "Hi", "Body");
+
+        RenderedNotification rendered = notificationContentService.render(delivery);
+
+        assertThat(rendered.subject()).isEqualTo("Hi");
+        assertThat(rendered.body()).isEqualTo("Body");
+        verify(notificationContentRepository, never()).findById(any());
+    }
+
+    private NotificationDelivery delivery(Map<String, String> variables) {
+        NotificationDelivery delivery = new NotificationDelivery(1L, "a@b.c", NotificationType.COURSE_ANNOUNCEMENT, "EMAIL", null, null);
+        delivery.setContentId(7L);
+        delivery.setVariables(notificationContentService.writeVariables(variables));
+        return delivery;
+    }
+}
@@ -0,0 +1,114 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.satori.platform.domain.NotificationDelivery;
+import com.satori.platform.domain.enumeration.DeliveryStatus;
+import com.satori.platform.domain.enumeration.NotificationType;
+import com.satori.platform.repository.NotificationDeliveryRepository;
+import com.satori.platform.service.NotificationContentService.RenderedNotification;
+import com.satori.platform.service.mail.MailSendResult;
+import com.satori.platform.service.mail.OutgoingMail;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class NotificationDeliveryServiceTest {
+
+    private NotificationDeliveryRepository notificationDeliveryRepository;
+    private MailTransportService mailTransportService;
+    private NotificationContentService notificationContentService;
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationDeliveryService notificationDeliveryService;
+
+    @BeforeEach
+    void setUp() {
+        notificationDeliveryRepository = mock(NotificationDeliveryRepository.class);
+        mailTransportService = mock(MailTransportService.class);
+        notificationContentService = mock(NotificationContentService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        notificationDeliveryService = new NotificationDeliveryService(
+            notificationDeliveryRepository,
+            mailTransportService,
+            mock(PushNotificationService.class),
+            notificationContentService,
+            mock(NotificationTemplateService.class),
+            new ObjectMapper(),
+            mock(ApplicationEventPublisher.class),
+            transactionManager
+        );
+        ReflectionTestUtils.setField(notificationDeliveryService, "batchSize", 50);
+        ReflectionTestUtils.setField(notificationDeliveryService, "claimLeaseMinutes", 15);
+    }
+
+    @Test
+    void sendsClaimedEmailsBetweenTransactions() {
+        NotificationDelivery delivery = new NotificationDelivery(1L, "aoi@example.com", NotificationType.CONTENT_UPDATE, "EMAIL", "Subject", "Body");
+        delivery.setId(5L);
+        delivery.setStatus(DeliveryStatus.PENDING);
+        when(notificationDeliveryRepository.findPendingNotifications(eq(DeliveryStatus.PENDING), any())).thenReturn(List.of(delivery));
+        when(notificationDeliveryRepository.claim(eq(5L), eq(DeliveryStatus.PENDING), eq(DeliveryStatus.PROCESSING), any())).thenReturn(1);
+        when(notificationDeliveryRepository.findAllById(List.of(5L))).thenReturn(List.of(delivery));
+        when(notificationContentService.render(delivery)).thenReturn(new RenderedNotification("Subject", "Body"));
+        when(mailTransportService.sendBatch(anyList())).thenAnswer(invocation -> {
+            List<OutgoingMail> mails = invocation.getArgument(0);
+            return mails.stream().map(MailSendResult::sent).toList();
+        });
+
+        notificationDeliveryService.processPendingNotifications();
+
+        InOrder order = inOrder(transactionManager, notificationDeliveryRepository, mailTransportService);
+        order.verify(notificationDeliveryRepository).claim(eq(5L), eq(DeliveryStatus.PENDING), eq(DeliveryStatus.PROCESSING), any());
+        order.verify(transactionManager).commit(any());
+        order.verify(mailTransportService).sendBatch(anyList());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(notificationDeliveryRepository).saveAll(List.of(delivery));
+        order.verify(transactionManager).commit(any());
+        assertThat(delivery.getStatus()).isEqualTo(DeliveryStatus.SENT);
+    }
+
+    @Test
+    void releasesClaimsLeftBehindByACrashBetweenClaimAndSend() {
+        NotificationDelivery delivery = new NotificationDelivery(1L, "aoi@example.com", NotificationType.CONTENT_UPDATE, "EMAIL", "Subject", "Body");
+        delivery.setId(5L);
+        delivery.setStatus(DeliveryStatus.PENDING);
+        when(notificationDeliveryRepository.findPendingNotifications(eq(DeliveryStatus.PENDING), any())).thenReturn(List.of(delivery));
+        when(notificationDeliveryRepository.claim(eq(5L), eq(DeliveryStatus.PENDING), eq(DeliveryStatus.PROCESSING), any())).thenReturn(1);
+        when(notificationDeliveryRepository.findAllById(List.of(5L))).thenReturn(List.of(delivery));
+        when(notificationContentService.render(delivery)).thenReturn(new RenderedNotification("Subject", "Body"));
+        when(mailTransportService.sendBatch(anyList())).thenThrow(new IllegalStateException("mail server went away"));
+
+        notificationDeliveryService.processPendingNotifications();
+
+        // The claim is committed and no outcome is recorded
+        verify(notificationDeliveryRepository).claim(eq(5L), eq(DeliveryStatus.PENDING), eq(DeliveryStatus.PROCESSING), any());
+        verify(notificationDeliveryRepository, never()).saveAll(anyList());
+
+        Instant before = Instant.now();
+        notificationDeliveryService.releaseExpiredClaims();
+
+        ArgumentCaptor<Instant> claimedBefore = ArgumentCaptor.forClass(Instant.class);
+        verify(notificationDeliveryRepository).releaseClaims(eq(DeliveryStatus.PROCESSING), eq(DeliveryStatus.PENDING), claimedBefore.capture());
+        verify(notificationDeliveryRepository).releaseScheduledClaims(eq(DeliveryStatus.PROCESSING), eq(DeliveryStatus.SCHEDULED), eq(claimedBefore.getValue()));
+        assertThat(claimedBefore.getValue()).isBetween(before.minus(Duration.ofMinutes(15)), Instant.now().minus(Duration.ofMinutes(15)));
+    }
+}
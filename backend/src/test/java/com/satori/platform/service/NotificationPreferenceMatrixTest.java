@@ -0,0 +1,101 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.domain.NotificationPreference;
+import com.satori.platform.domain.UserProfile;
+import com.satori.platform.domain.enumeration.NotificationType;
+import com.satori.platform.repository.NotificationPreferenceRepository;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationPreferenceMatrixTest {
+
+    private NotificationPreferenceRepository notificationPreferenceRepository;
+
+    private NotificationPreferenceMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        notificationPreferenceRepository = mock(NotificationPreferenceRepository.class);
+        matrix = new NotificationPreferenceMatrix(notificationPreferenceRepository);
+    }
+
+    @Test
+    void loadsAFanOutInOneQueryAndAnswersFromMemory() {
+        when(notificationPreferenceRepository.findByUserProfileIdIn(anyCollection())).thenReturn(
+            List.of(preference(1L, NotificationType.QUIZ_REMINDER, false, null, null))
+        );
+
+        matrix.preload(List.of(1L, 2L, 3L));
+
+        assertThat(matrix.isEnabled(1L, NotificationType.QUIZ_REMINDER)).isFalse();
+        assertThat(matrix.isEnabled(1L, NotificationType.CONTENT_UPDATE)).isTrue();
+        assertThat(matrix.isEnabled(2L, NotificationType.QUIZ_REMINDER)).isTrue();
+        assertThat(matrix.isWithinPreferredTime(3L, NotificationType.QUIZ_REMINDER, Instant.now())).isTrue();
+        verify(notificationPreferenceRepository, times(1)).findByUserProfileIdIn(anyCollection());
+    }
+
+    @Test
+    void checksThePreferredTimeInTheUsersZone() {
+        when(notificationPreferenceRepository.findByUserProfileIdIn(anyCollection())).thenReturn(
+            List.of(preference(1L, NotificationType.SCHEDULE_REMINDER, true, LocalTime.of(9, 0), "Asia/Ho_Chi_Minh"))
+        );
+
+        // 02:30 UTC is 09:30 in Ho Chi Minh City
+        assertThat(matrix.isWithinPreferredTime(1L, NotificationType.SCHEDULE_REMINDER, Instant.parse("2026-10-19T02:30:00Z"))).isTrue();
+        assertThat(matrix.isWithinPreferredTime(1L, NotificationType.SCHEDULE_REMINDER, Instant.parse("2026-10-19T09:00:00Z"))).isFalse();
+        assertThat(matrix.isWithinPreferredTime(1L, NotificationType.CONTENT_UPDATE, Instant.parse("2026-10-19T09:00:00Z"))).isTrue();
+    }
+
+    @Test
+    void reloadsAUserAfterEviction() {
+        when(notificationPreferenceRepository.findByUserProfileIdIn(anyCollection())).thenReturn(
+            List.of(),
+            List.of(preference(1L, NotificationType.CONTENT_UPDATE, false, null, null))
+        );
+
+        assertThat(matrix.isEnabled(1L, NotificationType.CONTENT_UPDATE)).isTrue();
+        matrix.evict(1L);
+
+        assertThat(matrix.isEnabled(1L, NotificationType.CONTENT_UPDATE)).isFalse();
+        verify(notificationPreferenceRepository, times(2)).findByUserProfileIdIn(anyCollection());
+    }
+
+    @Test
+    void fallsBackToTheSystemZoneForInvalidTimezones() {
+        when(notificationPreferenceRepository.findByUserProfileIdIn(anyCollection())).thenReturn(
+            List.of(preference(1L, NotificationType.QUIZ_REMINDER, true, LocalTime.NOON, "Not/AZone"))
+        );
+
+        matrix.isWithinPreferredTime(1L, NotificationType.QUIZ_REMINDER, Instant.now());
+
+        assertThat(matrix.isEnabled(1L, NotificationType.QUIZ_REMINDER)).isTrue();
+    }
+
+    private static NotificationPreference preference(
+        Long userProfileId,
+        NotificationType type,
+        boolean enabled,
+        LocalTime preferredTime,
+        String timezone
+    ) {
+        UserProfile userProfile = new UserProfile();
+        userProfile.setId(userProfileId);
+        NotificationPreference preference = new NotificationPreference();
+        preference.setUserProfile(userProfile);
+        preference.setNotificationType(type);
+        preference.setEnabled(enabled);
+        preference.setPreferredTime(preferredTime);
+        preference.setTimezone(timezone);
+        return preference;
+    }
+}
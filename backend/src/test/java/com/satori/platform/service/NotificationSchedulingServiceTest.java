@@ -0,0 +1,82 @@
+package com.satori.platform.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.domain.PlannedReminder;
+import com.satori.platform.domain.enumeration.ReminderKind;
+import com.satori.platform.repository.PlannedReminderRepository;
+import com.satori.platform.repository.QuizRepository;
+import com.satori.platform.repository.ScheduleRepository;
+import com.satori.platform.repository.UserProfileRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class NotificationSchedulingServiceTest {
+
+    private QuizRepository quizRepository;
+    private PlannedReminderRepository plannedReminderRepository;
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationSchedulingService schedulingService;
+
+    @BeforeEach
+    void setUp() {
+        quizRepository = mock(QuizRepository.class);
+        plannedReminderRepository = mock(PlannedReminderRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        schedulingService = new NotificationSchedulingService(
+            mock(NotificationService.class),
+            mock(ScheduleRepository.class),
+            quizRepository,
+            mock(UserProfileRepository.class),
+            plannedReminderRepository,
+            mock(ReminderPlanner.class),
+            mock(NotificationPreferenceMatrix.class),
+            transactionManager
+        );
+        ReflectionTestUtils.setField(schedulingService, "batchSize", 500);
+    }
+
+    @Test
+    void rollsBackOnlyTheReminderThatFailedToFire() {
+        PlannedReminder failing = reminder(1L, 10L);
+        PlannedReminder next = reminder(2L, 20L);
+        when(plannedReminderRepository.findDue(any(), any())).thenReturn(List.of(failing, next));
+        when(plannedReminderRepository.claim(any(), any())).thenReturn(1);
+        when(quizRepository.findById(10L)).thenThrow(new IllegalStateException("broken quiz"));
+        when(quizRepository.findById(20L)).thenReturn(Optional.empty());
+
+        schedulingService.fireDueReminders();
+
+        InOrder order = inOrder(plannedReminderRepository, quizRepository, transactionManager);
+        order.verify(plannedReminderRepository).claim(eq(1L), any());
+        order.verify(transactionManager).commit(any());
+        order.verify(quizRepository).findById(10L);
+        order.verify(transactionManager).rollback(any());
+        order.verify(plannedReminderRepository).claim(eq(2L), any());
+        order.verify(transactionManager).commit(any());
+        order.verify(quizRepository).findById(20L);
+        order.verify(transactionManager).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    private static PlannedReminder reminder(Long id, Long quizId) {
+        PlannedReminder reminder = new PlannedReminder(ReminderKind.QUIZ_DUE, quizId, Instant.now().minusSeconds(1));
+        reminder.setId(id);
+        return reminder;
+    }
+}
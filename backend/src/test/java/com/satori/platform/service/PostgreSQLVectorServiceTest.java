@@ -0,0 +1,75 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.service.dto.RAGContentRequestDTO;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class PostgreSQLVectorServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private PostgreSQLVectorService vectorService;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        vectorService = new PostgreSQLVectorService(mock(DataSource.class), transactionManager);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        ReflectionTestUtils.setField(vectorService, "vectorJdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(vectorService, "tableName", "content_embeddings");
+        ReflectionTestUtils.setField(vectorService, "indexType", "ivfflat");
+        ReflectionTestUtils.setField(vectorService, "defaultProbes", 10);
+        ReflectionTestUtils.setField(vectorService, "defaultEfSearch", 40);
+    }
+
+    @Test
+    void setsIvfflatProbesForTheSearch() {
+        RAGContentRequestDTO request = new RAGContentRequestDTO();
+        request.setProbes(25);
+
+        vectorService.searchSimilarContent(List.of(1.0, 0.0), request, 5);
+
+        verify(jdbcTemplate).execute("SET LOCAL ivfflat.probes = 25");
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void setsHnswEfSearchFromTheDefaults() {
+        ReflectionTestUtils.setField(vectorService, "indexType", "hnsw");
+
+        vectorService.searchSimilarContent(List.of(1.0, 0.0), new RAGContentRequestDTO(), 5);
+
+        verify(jdbcTemplate).execute("SET LOCAL hnsw.ef_search = 40");
+        verify(jdbcTemplate, never()).execute("SET LOCAL ivfflat.probes = 10");
+    }
+
+    @Test
+    void looksUpSimilaritiesByContentId() {
+        assertThat(vectorService.findSimilarities(List.of(1.0, 0.0), List.of())).isEmpty();
+
+        vectorService.findSimilarities(List.of(1.0, 0.0), List.of("a", "b"));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowCallbackHandler.class), eq("[1.0,0.0]"), eq("a"), eq("b"));
+        assertThat(sql.getValue()).contains("WHERE content_id IN (?, ?)");
+    }
+}
@@ -0,0 +1,157 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.domain.Lesson;
+import com.satori.platform.domain.PracticeQuestionPoolEntry;
+import com.satori.platform.domain.Question;
+import com.satori.platform.domain.enumeration.DifficultyLevel;
+import com.satori.platform.repository.LessonRepository;
+import com.satori.platform.repository.PracticeQuestionPoolEntryRepository;
+import com.satori.platform.repository.QuestionRepository;
+import com.satori.platform.service.dto.AIGeneratedQuestionDTO;
+import com.satori.platform.service.dto.AIQuestionGenerationRequestDTO;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class PracticeQuestionPoolServiceTest {
+
+    private static final Long LESSON_ID = 7L;
+
+    private PracticeQuestionPoolEntryRepository poolEntryRepository;
+
+    private QuestionRepository questionRepository;
+
+    private LessonRepository lessonRepository;
+
+    private AIContentAnalysisService aiContentAnalysisService;
+
+    private PracticeQuestionPoolService practiceQuestionPoolService;
+
+    @BeforeEach
+    void setUp() {
+        poolEntryRepository = mock(PracticeQuestionPoolEntryRepository.class);
+        questionRepository = mock(QuestionRepository.class);
+        lessonRepository = mock(LessonRepository.class);
+        aiContentAnalysisService = mock(AIContentAnalysisService.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        TransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+
+        practiceQuestionPoolService = new PracticeQuestionPoolService(
+            poolEntryRepository,
+            questionRepository,
+            lessonRepository,
+            aiContentAnalysisService,
+            transactionManager,
+            true,
+            20,
+            5,
+            10,
+            10
+        );
+    }
+
+    @Test
+    void takesDistinctQuestionsFromAFullEnoughPool() {
+        List<Long> ids = LongStream.rangeClosed(1, 8).boxed().toList();
+        when(poolEntryRepository.findQuestionIds(LESSON_ID, DifficultyLevel.MEDIUM)).thenReturn(ids);
+        when(questionRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Long> requested = invocation.getArgument(0);
+            return requested.stream().map(PracticeQuestionPoolServiceTest::question).toList();
+        });
+
+        List<Question> questions = practiceQuestionPoolService.take(LESSON_ID, DifficultyLevel.MEDIUM, 4);
+
+        assertThat(questions).hasSize(4).doesNotHaveDuplicates();
+        assertThat(questions).allSatisfy(question -> assertThat(ids).contains(question.getId()));
+    }
+
+    @Test
+    void returnsNothingAndSchedulesARefillWhenThePoolIsTooSmall() {
+        when(poolEntryRepository.findQuestionIds(LESSON_ID, DifficultyLevel.MEDIUM)).thenReturn(List.of(1L, 2L));
+        when(lessonRepository.findById(LESSON_ID)).thenReturn(Optional.empty());
+
+        assertThat(practiceQuestionPoolService.take(LESSON_ID, DifficultyLevel.MEDIUM, 4)).isEmpty();
+        verify(questionRepository, never()).findAllById(anyList());
+
+        practiceQuestionPoolService.refillPools();
+        verify(lessonRepository).findById(LESSON_ID);
+    }
+
+    @Test
+    void refillsEmptyPoolsFoundInTheDatabase() {
+        when(poolEntryRepository.findPoolsBelow(DifficultyLevel.HARD, 5)).thenReturn(List.<Object[]>of(new Object[] { LESSON_ID, 0L }));
+        when(lessonRepository.findById(LESSON_ID)).thenReturn(Optional.empty());
+
+        practiceQuestionPoolService.refillPools();
+
+        verify(lessonRepository).findById(LESSON_ID);
+    }
+
+    @Test
+    void refillStoresOnlyNewValidQuestions() {
+        Lesson lesson = new Lesson();
+        lesson.setId(LESSON_ID);
+        lesson.setTitle("Particles");
+        lesson.setContent("は marks the topic, が marks the subject.");
+        when(lessonRepository.findById(LESSON_ID)).thenReturn(Optional.of(lesson));
+        when(lessonRepository.getReferenceById(LESSON_ID)).thenReturn(lesson);
+        String existingHash = PracticeQuestionPoolService.contentHash("Which particle marks the topic?", "は");
+        when(poolEntryRepository.findContentHashes(LESSON_ID, DifficultyLevel.EASY)).thenReturn(List.of(existingHash));
+        when(questionRepository.save(any(Question.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(aiContentAnalysisService.generateQuestions(any())).thenReturn(
+            List.of(
+                generated("  which particle  MARKS the topic? ", "は"),
+                generated("Which particle marks the subject?", "が"),
+                generated("Which particle marks the subject?", "が"),
+                generated("", "を")
+            )
+        );
+
+        int added = practiceQuestionPoolService.refill(LESSON_ID, DifficultyLevel.EASY);
+
+        assertThat(added).isEqualTo(1);
+        verify(questionRepository, times(1)).save(any(Question.class));
+        ArgumentCaptor<PracticeQuestionPoolEntry> entry = ArgumentCaptor.forClass(PracticeQuestionPoolEntry.class);
+        verify(poolEntryRepository).save(entry.capture());
+        assertThat(entry.getValue().getQuestion().getContent()).isEqualTo("Which particle marks the subject?");
+        assertThat(entry.getValue().getDifficultyLevel()).isEqualTo(DifficultyLevel.EASY);
+
+        ArgumentCaptor<AIQuestionGenerationRequestDTO> request = ArgumentCaptor.forClass(AIQuestionGenerationRequestDTO.class);
+        verify(aiContentAnalysisService).generateQuestions(request.capture());
+        assertThat(request.getValue().getQuestionCount()).isEqualTo(10);
+        assertThat(request.getValue().getLessonId()).isEqualTo(LESSON_ID);
+        verify(poolEntryRepository).findRecentQuestionContents(eq(LESSON_ID), eq(DifficultyLevel.EASY), any());
+    }
+
+    private static Question question(Long id) {
+        Question question = new Question();
+        question.setId(id);
+        question.setContent("Question " + id);
+        return question;
+    }
+
+    private static AIGeneratedQuestionDTO generated(String content, String correctAnswer) {
+        AIGeneratedQuestionDTO question = new AIGeneratedQuestionDTO();
+        question.setContent(content);
+        question.setCorrectAnswer(correctAnswer);
+        question.setType("multiple_choice");
+        return question;
+    }
+}
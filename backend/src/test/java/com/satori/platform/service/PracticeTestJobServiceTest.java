@@ -0,0 +1,99 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.repository.UserProfileRepository;
+import com.satori.platform.service.dto.AIPracticeTestRequestDTO;
+import com.satori.platform.service.dto.PracticeTestJobDTO;
+import com.satori.platform.service.dto.QuizDTO;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PracticeTestJobServiceTest {
+
+    private AIPracticeTestService aiPracticeTestService;
+
+    private PracticeTestJobService practiceTestJobService;
+
+    @BeforeEach
+    void setUp() {
+        aiPracticeTestService = mock(AIPracticeTestService.class);
+        UserProfileRepository userProfileRepository = mock(UserProfileRepository.class);
+        when(userProfileRepository.findById(any())).thenReturn(Optional.empty());
+        practiceTestJobService = new PracticeTestJobService(
+            aiPracticeTestService,
+            userProfileRepository,
+            mock(PushNotificationService.class),
+            2,
+            10
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        practiceTestJobService.shutdown();
+    }
+
+    @Test
+    void coalescesRequestsForTheSameStudentAndLessonWhileInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        QuizDTO quiz = new QuizDTO();
+        quiz.setId(42L);
+        when(aiPracticeTestService.generatePracticeTest(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return quiz;
+        });
+
+        PracticeTestJobDTO first = practiceTestJobService.submit(lessonRequest(1L, 7L));
+        PracticeTestJobDTO second = practiceTestJobService.submit(lessonRequest(1L, 7L));
+        PracticeTestJobDTO otherStudent = practiceTestJobService.submit(lessonRequest(2L, 7L));
+
+        assertThat(second.getJobId()).isEqualTo(first.getJobId());
+        assertThat(otherStudent.getJobId()).isNotEqualTo(first.getJobId());
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> isFinished(first.getJobId()) && isFinished(otherStudent.getJobId()));
+
+        PracticeTestJobDTO completed = practiceTestJobService.getJob(first.getJobId()).orElseThrow();
+        assertThat(completed.getStatus()).isEqualTo(PracticeTestJobDTO.Status.COMPLETED);
+        assertThat(completed.getQuiz().getId()).isEqualTo(42L);
+        assertThat(completed.getCompletedAt()).isNotNull();
+        verify(aiPracticeTestService, times(2)).generatePracticeTest(any());
+    }
+
+    @Test
+    void recordsFailureAndAcceptsANewJobAfterwards() {
+        when(aiPracticeTestService.generatePracticeTest(any())).thenThrow(new IllegalStateException("boom"));
+
+        PracticeTestJobDTO job = practiceTestJobService.submit(lessonRequest(1L, 7L));
+        await().atMost(Duration.ofSeconds(5)).until(() -> isFinished(job.getJobId()));
+
+        PracticeTestJobDTO failed = practiceTestJobService.getJob(job.getJobId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(PracticeTestJobDTO.Status.FAILED);
+        assertThat(failed.getErrorMessage()).isEqualTo("boom");
+        assertThat(practiceTestJobService.submit(lessonRequest(1L, 7L)).getJobId()).isNotEqualTo(job.getJobId());
+    }
+
+    private boolean isFinished(String jobId) {
+        PracticeTestJobDTO.Status status = practiceTestJobService.getJob(jobId).orElseThrow().getStatus();
+        return status == PracticeTestJobDTO.Status.COMPLETED || status == PracticeTestJobDTO.Status.FAILED;
+    }
+
+    private static AIPracticeTestRequestDTO lessonRequest(Long studentId, Long lessonId) {
+        AIPracticeTestRequestDTO request = new AIPracticeTestRequestDTO();
+        request.setStudentId(studentId);
+        request.setLessonId(lessonId);
+        return request;
+    }
+}
@@ -0,0 +1,69 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.repository.QuizQuestionRepository;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class QuestionSetVersionCacheTest {
+
+    private final QuizQuestionRepository quizQuestionRepository = mock(QuizQuestionRepository.class);
+
+    private final QuestionSetVersionCache cache = new QuestionSetVersionCache(quizQuestionRepository, 100, Duration.ofMinutes(5));
+
+    @Test
+    void versionsTheQuestionSetByItsOrderAndContent() {
+        List<Object[]> questionSet = List.of(question(10L, 1, "A", "a"), question(20L, 2, "B", "b"));
+        List<Object[]> reordered = List.of(question(20L, 1, "B", "b"), question(10L, 2, "A", "a"));
+        List<Object[]> edited = List.of(question(10L, 1, "A", "a"), question(20L, 2, "B, corrected", "b"));
+        List<Object[]> newAnswer = List.of(question(10L, 1, "A", "a"), question(20L, 2, "B", "c"));
+
+        assertThat(QuestionSetVersionCache.questionSetVersion(1L, questionSet))
+            .startsWith("1-")
+            .isEqualTo(QuestionSetVersionCache.questionSetVersion(1L, List.of(question(10L, 1, "A", "a"), question(20L, 2, "B", "b"))))
+            .isNotEqualTo(QuestionSetVersionCache.questionSetVersion(1L, reordered))
+            .isNotEqualTo(QuestionSetVersionCache.questionSetVersion(1L, questionSet.subList(0, 1)))
+            .isNotEqualTo(QuestionSetVersionCache.questionSetVersion(1L, edited))
+            .isNotEqualTo(QuestionSetVersionCache.questionSetVersion(1L, newAnswer));
+    }
+
+    @Test
+    void readsTheQuestionSetOncePerQuizUntilItsQuestionsChange() {
+        List<Object[]> questionSet = List.<Object[]>of(question(10L, 1, "A", "a"));
+        List<Object[]> edited = List.<Object[]>of(question(10L, 1, "A, corrected", "a"));
+        when(quizQuestionRepository.findQuestionSetByQuizId(1L)).thenReturn(questionSet, edited);
+
+        String version = cache.get(1L);
+        assertThat(cache.get(1L)).isEqualTo(version);
+        verify(quizQuestionRepository, times(1)).findQuestionSetByQuizId(1L);
+
+        cache.evictQuiz(1L);
+        assertThat(cache.get(1L)).isNotEqualTo(version);
+        verify(quizQuestionRepository, times(2)).findQuestionSetByQuizId(1L);
+    }
+
+    @Test
+    void dropsEveryQuizWhenAQuestionChanges() {
+        when(quizQuestionRepository.findQuestionSetByQuizId(1L)).thenReturn(List.<Object[]>of(question(10L, 1, "A", "a")));
+        when(quizQuestionRepository.findQuestionSetByQuizId(2L)).thenReturn(List.<Object[]>of(question(20L, 1, "A", "a")));
+        cache.get(1L);
+        cache.get(2L);
+
+        cache.evictAll();
+        cache.get(1L);
+        cache.get(2L);
+
+        verify(quizQuestionRepository, times(2)).findQuestionSetByQuizId(1L);
+        verify(quizQuestionRepository, times(2)).findQuestionSetByQuizId(2L);
+    }
+
+    private static Object[] question(Long quizQuestionId, int position, String content, String correctAnswer) {
+        return new Object[] { quizQuestionId, position, quizQuestionId + 100, "MULTIPLE_CHOICE", content, null, null, correctAnswer, null };
+    }
+}
@@ -0,0 +1,155 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.repository.StudentQuizRepository;
+import com.satori.platform.service.event.QuizDeadlineChangedEvent;
+import com.satori.platform.service.event.QuizTimingChangedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class QuizDeadlineSchedulerTest {
+
+    private StudentQuizService studentQuizService;
+    private StudentQuizRepository studentQuizRepository;
+
+    private QuizDeadlineScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        studentQuizService = mock(StudentQuizService.class);
+        studentQuizRepository = mock(StudentQuizRepository.class);
+        scheduler = new QuizDeadlineScheduler(studentQuizService, studentQuizRepository, Duration.ofMillis(10), Duration.ofMinutes(15));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void submitsAllDueAttemptsInOnePass() {
+        Instant now = Instant.now();
+        List<Object[]> deadlines = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            deadlines.add(new Object[] { id, now.minusSeconds(1) });
+        }
+        deadlines.add(new Object[] { 1001L, now.plusSeconds(600) });
+        when(studentQuizRepository.findDeadlinesBefore(any())).thenReturn(deadlines);
+
+        scheduler.loadAhead();
+        scheduler.tick();
+
+        verify(studentQuizService, times(1)).submitExpiredAttempts(any());
+        assertThat(scheduler.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void submitsAStartedAttemptWithinATickOfItsDeadline() throws InterruptedException {
+        scheduler.onDeadlineChanged(new QuizDeadlineChangedEvent(1L, Instant.now().plusMillis(50), false));
+
+        scheduler.tick();
+        verify(studentQuizService, never()).submitExpiredAttempts(any());
+
+        Thread.sleep(80);
+        scheduler.tick();
+        verify(studentQuizService).submitExpiredAttempts(any());
+    }
+
+    @Test
+    void firesNoEarlierThanTheSubmitConditionHolds() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler = new QuizDeadlineScheduler(studentQuizService, studentQuizRepository, Duration.ofSeconds(1), Duration.ofMinutes(15));
+        Instant deadline = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusMillis(1_500);
+        // What submitExpired does for this attempt: deadline <= :now
+        when(studentQuizService.submitExpiredAttempts(any())).thenAnswer(invocation -> deadline.isAfter(invocation.getArgument(0)) ? List.of() : List.of(1L));
+        scheduler.onDeadlineChanged(new QuizDeadlineChangedEvent(1L, deadline, false));
+
+        // The tick that contains the deadline starts before it
+        sleepUntil(deadline.minusMillis(480));
+        scheduler.tick();
+        sleepUntil(deadline.plusMillis(520));
+        scheduler.tick();
+
+        ArgumentCaptor<Instant> now = ArgumentCaptor.forClass(Instant.class);
+        verify(studentQuizService, times(1)).submitExpiredAttempts(now.capture());
+        assertThat(now.getValue()).isAfterOrEqualTo(deadline);
+    }
+
+    @Test
+    void submitsAtTheNewCloseTimeWhenAQuizClosesEarly() throws InterruptedException {
+        Instant closes = Instant.now().plusMillis(50);
+        when(studentQuizService.recomputeDeadlines(7L)).thenReturn(1);
+        when(studentQuizRepository.findDeadlinesByQuizIdBefore(eq(7L), any())).thenReturn(List.<Object[]>of(new Object[] { 1L, closes }));
+
+        scheduler.onQuizTimingChanged(new QuizTimingChangedEvent(7L, null, closes));
+        scheduler.tick();
+        verify(studentQuizService, never()).submitExpiredAttempts(any());
+
+        sleepUntil(closes.plusMillis(30));
+        scheduler.tick();
+        verify(studentQuizService).submitExpiredAttempts(any());
+    }
+
+    @Test
+    void submitsAtTheNewCloseTimeWhenAQuizStaysOpenLonger() throws InterruptedException {
+        Instant start = Instant.now();
+        AtomicReference<Instant> deadline = new AtomicReference<>(start.plusMillis(50));
+        List<Instant> submitted = new ArrayList<>();
+        // What submitExpired does for this attempt: deadline <= :now
+        when(studentQuizService.submitExpiredAttempts(any())).thenAnswer(invocation -> {
+            Instant now = invocation.getArgument(0);
+            if (deadline.get().isAfter(now)) {
+                return List.of();
+            }
+            submitted.add(now);
+            return List.of(1L);
+        });
+        when(studentQuizService.recomputeDeadlines(7L)).thenAnswer(invocation -> {
+            deadline.set(start.plusMillis(200));
+            return 1;
+        });
+        when(studentQuizRepository.findDeadlinesByQuizIdBefore(eq(7L), any())).thenAnswer(invocation ->
+            List.<Object[]>of(new Object[] { 1L, deadline.get() })
+        );
+        scheduler.onDeadlineChanged(new QuizDeadlineChangedEvent(1L, deadline.get(), false));
+
+        scheduler.onQuizTimingChanged(new QuizTimingChangedEvent(7L, null, start.plusMillis(200)));
+        sleepUntil(start.plusMillis(80));
+        scheduler.tick();
+        sleepUntil(start.plusMillis(230));
+        scheduler.tick();
+
+        assertThat(submitted).hasSize(1);
+        assertThat(submitted.get(0)).isAfterOrEqualTo(start.plusMillis(200));
+    }
+
+    @Test
+    void leavesDeadlinesBeyondTheLookAheadToTheNextLoad() {
+        scheduler.onDeadlineChanged(new QuizDeadlineChangedEvent(1L, Instant.now().plus(Duration.ofHours(1)), false));
+
+        assertThat(scheduler.getPendingCount()).isZero();
+    }
+
+    private static void sleepUntil(Instant instant) throws InterruptedException {
+        long millis = Duration.between(Instant.now(), instant).toMillis();
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.satori.platform.domain.QuizStatisticsSnapshot;
+import com.satori.platform.repository.QuizStatisticsSnapshotRepository;
+import com.satori.platform.repository.StudentQuizRepository;
+import com.satori.platform.repository.StudentQuizResponseRepository;
+import com.satori.platform.service.QuizLiveStatisticsService.Answer;
+import com.satori.platform.service.QuizLiveStatisticsService.Standing;
+import com.satori.platform.service.dto.QuizLiveStatisticsDTO;
+import com.satori.platform.service.event.QuizAnswerSubmittedEvent;
+import com.satori.platform.service.event.QuizAttemptsSubmittedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class QuizLiveStatisticsServiceTest {
+
+    private StudentQuizRepository studentQuizRepository;
+    private StudentQuizResponseRepository studentQuizResponseRepository;
+    private QuizStatisticsSnapshotRepository quizStatisticsSnapshotRepository;
+    private ObjectMapper objectMapper;
+
+    private QuizLiveStatisticsService statisticsService;
+
+    @BeforeEach
+    void setUp() {
+        studentQuizRepository = mock(StudentQuizRepository.class);
+        studentQuizResponseRepository = mock(StudentQuizResponseRepository.class);
+        quizStatisticsSnapshotRepository = mock(QuizStatisticsSnapshotRepository.class);
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        when(quizStatisticsSnapshotRepository.findByQuizId(any())).thenReturn(Optional.empty());
+        statisticsService = new QuizLiveStatisticsService(studentQuizRepository, studentQuizResponseRepository,
+            quizStatisticsSnapshotRepository, objectMapper, 2, 60000, Duration.ofHours(3));
+    }
+
+    @Test
+    void ranksAttemptsAndCountsEachSubmissionOnce() {
+        QuizLiveStatisticsService.Aggregate aggregate = new QuizLiveStatisticsService.Aggregate();
+        aggregate.standing(new Standing(1L, 11L, 3, null, false));
+        aggregate.standing(new Standing(2L, 12L, 5, null, false));
+        aggregate.standing(new Standing(3L, 13L, 4, null, false));
+        aggregate.standing(new Standing(1L, 11L, 6, 100.0, true));
+        aggregate.standing(new Standing(1L, 11L, 6, 100.0, true));
+
+        QuizLiveStatisticsDTO statistics = aggregate.toDto(7L, 2);
+
+        assertThat(statistics.getStartedCount()).isEqualTo(3);
+        assertThat(statistics.getSubmittedCount()).isEqualTo(1);
+        assertThat(statistics.getBestScore()).isEqualTo(100.0);
+        assertThat(statistics.getScoreHistogram()[9]).isEqualTo(1);
+        assertThat(statistics.getLeaderboard())
+            .extracting(QuizLiveStatisticsDTO.LeaderboardEntry::getStudentQuizId)
+            .containsExactly(1L, 2L);
+        assertThat(QuizLiveStatisticsService.Aggregate.bucket(0.0)).isZero();
+        assertThat(QuizLiveStatisticsService.Aggregate.bucket(69.9)).isEqualTo(6);
+    }
+
+    @Test
+    void followsChangedAnswersAndIgnoresRepeatedOnes() {
+        QuizLiveStatisticsService.Aggregate aggregate = new QuizLiveStatisticsService.Aggregate();
+        aggregate.answer(new Answer(1L, 5L, false));
+        aggregate.answer(new Answer(2L, 5L, true));
+        aggregate.answer(new Answer(1L, 5L, true));
+        aggregate.answer(new Answer(1L, 5L, true));
+
+        QuizLiveStatisticsDTO.QuestionStatistics question = aggregate.toDto(7L, 10).getQuestions().get(0);
+
+        assertThat(question.getAnswered()).isEqualTo(2);
+        assertThat(question.getCorrect()).isEqualTo(2);
+        assertThat(question.getCorrectRate()).isEqualTo(100.0);
+    }
+
+    @Test
+    void seedsOnceAndThenFollowsEvents() {
+        when(studentQuizRepository.findStandingsByQuizId(7L)).thenReturn(
+            List.<Object[]>of(new Object[] { 1L, 7L, 11L, 1, null, false }, new Object[] { 2L, 7L, 12L, 2, null, false })
+        );
+        when(studentQuizResponseRepository.findCorrectnessByQuizId(7L)).thenReturn(
+            List.<Object[]>of(new Object[] { 1L, 5L, false }, new Object[] { 2L, 5L, true })
+        );
+        statisticsService.getStatistics(7L);
+
+        statisticsService.onAnswerSubmitted(new QuizAnswerSubmittedEvent(7L, 1L, 11L, 5L, true, 2));
+        // Quizzes nobody watches are not aggregated
+        statisticsService.onAnswerSubmitted(new QuizAnswerSubmittedEvent(8L, 9L, 19L, 6L, true, 1));
+        Instant submittedAt = Instant.now();
+        when(studentQuizRepository.findStandingsByIdIn(List.of(2L))).thenReturn(
+            List.<Object[]>of(new Object[] { 2L, 7L, 12L, 2, 40.0, true })
+        );
+        statisticsService.onAttemptsSubmitted(new QuizAttemptsSubmittedEvent(List.of(2L), submittedAt));
+
+        QuizLiveStatisticsDTO statistics = statisticsService.getStatistics(7L);
+        assertThat(statistics.getQuestions().get(0).getCorrect()).isEqualTo(2);
+        assertThat(statistics.getSubmittedCount()).isEqualTo(1);
+        assertThat(statistics.getAverageScore()).isEqualTo(40.0);
+        assertThat(statistics.getLeaderboard()).extracting(QuizLiveStatisticsDTO.LeaderboardEntry::getStudentQuizId).containsExactly(2L, 1L);
+        verify(studentQuizRepository, times(1)).findStandingsByQuizId(7L);
+        verify(studentQuizRepository, never()).findStandingsByQuizId(8L);
+        assertThat(statisticsService.getAggregatedQuizCount()).isEqualTo(1);
+    }
+
+    @Test
+    void countsEventsDuringSeedingOnce() {
+        when(studentQuizRepository.findStandingsByQuizId(7L)).thenReturn(List.<Object[]>of(new Object[] { 1L, 7L, 11L, 1, null, false }));
+        when(studentQuizResponseRepository.findCorrectnessByQuizId(7L)).thenAnswer(invocation -> {
+            // Committed before the seed was read, and again after
+            statisticsService.onAnswerSubmitted(new QuizAnswerSubmittedEvent(7L, 1L, 11L, 5L, true, 1));
+            statisticsService.onAnswerSubmitted(new QuizAnswerSubmittedEvent(7L, 2L, 12L, 5L, false, 0));
+            return List.<Object[]>of(new Object[] { 1L, 5L, true });
+        });
+
+        QuizLiveStatisticsDTO statistics = statisticsService.getStatistics(7L);
+
+        assertThat(statistics.getQuestions().get(0).getAnswered()).isEqualTo(2);
+        assertThat(statistics.getQuestions().get(0).getCorrect()).isEqualTo(1);
+        assertThat(statistics.getStartedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void seedsAgainAfterAFailedSeed() {
+        when(studentQuizRepository.findStandingsByQuizId(7L)).thenThrow(new IllegalStateException("down"))
+            .thenReturn(List.<Object[]>of(new Object[] { 1L, 7L, 11L, 1, null, false }));
+        when(studentQuizResponseRepository.findCorrectnessByQuizId(7L)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> statisticsService.getStatistics(7L)).isInstanceOf(IllegalStateException.class);
+        assertThat(statisticsService.getAggregatedQuizCount()).isZero();
+        assertThat(statisticsService.getStatistics(7L).getStartedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void writesSnapshotsAndServesFinishedQuizzesFromThem() throws Exception {
+        when(studentQuizRepository.findStandingsByQuizId(7L)).thenReturn(List.<Object[]>of(new Object[] { 1L, 7L, 11L, 4, 80.0, true }));
+        when(studentQuizResponseRepository.findCorrectnessByQuizId(7L)).thenReturn(List.of());
+        statisticsService.getStatistics(7L);
+
+        statisticsService.snapshot();
+
+        ArgumentCaptor<QuizStatisticsSnapshot> saved = ArgumentCaptor.forClass(QuizStatisticsSnapshot.class);
+        verify(quizStatisticsSnapshotRepository).save(saved.capture());
+        QuizStatisticsSnapshot snapshot = saved.getValue();
+        assertThat(objectMapper.readValue(snapshot.getPayload(), QuizLiveStatisticsDTO.class).getBestScore()).isEqualTo(80.0);
+
+        when(quizStatisticsSnapshotRepository.findByQuizId(7L)).thenReturn(Optional.of(snapshot));
+        when(studentQuizRepository.existsByQuizIdAndCompletedFalse(7L)).thenReturn(false);
+        when(studentQuizRepository.findLastEndTimeByQuizId(7L)).thenReturn(Optional.of(snapshot.getTakenAt().minusSeconds(60)));
+        QuizLiveStatisticsService restarted = new QuizLiveStatisticsService(studentQuizRepository, studentQuizResponseRepository,
+            quizStatisticsSnapshotRepository, objectMapper, 2, 60000, Duration.ofHours(3));
+
+        assertThat(restarted.getStatistics(7L).getBestScore()).isEqualTo(80.0);
+        verify(studentQuizRepository, times(1)).findStandingsByQuizId(7L);
+    }
+}
@@ -0,0 +1,118 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.domain.Quiz;
+import com.satori.platform.domain.QuizQuestion;
+import com.satori.platform.repository.QuizQuestionRepository;
+import com.satori.platform.service.mapper.QuizQuestionMapperImpl;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class QuizQuestionServiceTest {
+
+    private static final Long QUIZ_ID = 5L;
+
+    private QuizQuestionRepository quizQuestionRepository;
+
+    private QuizQuestionService quizQuestionService;
+
+    @BeforeEach
+    void setUp() {
+        quizQuestionRepository = mock(QuizQuestionRepository.class);
+        when(quizQuestionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        quizQuestionService = new QuizQuestionService(quizQuestionRepository, new QuizQuestionMapperImpl(), mock(QuestionSetVersionCache.class));
+    }
+
+    @Test
+    void movesIntoAGapByUpdatingOnlyTheMovedQuestion() {
+        givenPositions(1024, 2048, 3072, 4096);
+        QuizQuestion moved = givenQuestion(4L, 4096);
+
+        quizQuestionService.moveQuestionToPosition(4L, 2);
+
+        assertThat(moved.getPosition()).isEqualTo(1536);
+        verify(quizQuestionRepository, never()).updatePositions(any(), anyMap());
+    }
+
+    @Test
+    void renumbersTheQuizWithOneStatementWhenTheGapIsUsedUp() {
+        givenPositions(1, 2, 3);
+        QuizQuestion moved = givenQuestion(3L, 3);
+
+        quizQuestionService.moveQuestionToPosition(3L, 2);
+
+        Map<Long, Integer> renumbered = captureUpdate();
+        assertThat(renumbered).containsOnly(Map.entry(1L, 1024), Map.entry(2L, 3072));
+        assertThat(moved.getPosition()).isEqualTo(2048);
+    }
+
+    @Test
+    void reordersAllQuestionsWithOneStatement() {
+        givenPositions(1024, 2048, 3072);
+
+        quizQuestionService.reorderQuestions(QUIZ_ID, List.of(3L, 1L));
+
+        assertThat(captureUpdate()).containsOnly(Map.entry(3L, 1024), Map.entry(1L, 2048), Map.entry(2L, 3072));
+    }
+
+    @Test
+    void rejectsQuestionsOfAnotherQuiz() {
+        givenPositions(1024, 2048);
+
+        assertThatThrownBy(() -> quizQuestionService.reorderQuestions(QUIZ_ID, List.of(2L, 99L)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("99");
+        verify(quizQuestionRepository, never()).updatePositions(any(), anyMap());
+    }
+
+    @Test
+    void findsPositionsBetweenNeighbours() {
+        assertThat(QuizQuestionService.positionBetween(null, null)).isEqualTo(QuizQuestionService.POSITION_GAP);
+        assertThat(QuizQuestionService.positionBetween(null, 1)).isNull();
+        assertThat(QuizQuestionService.positionBetween(null, 1024)).isEqualTo(512);
+        assertThat(QuizQuestionService.positionBetween(1024, null)).isEqualTo(2048);
+        assertThat(QuizQuestionService.positionBetween(Integer.MAX_VALUE - 1, null)).isNull();
+        assertThat(QuizQuestionService.positionBetween(1024, 1025)).isNull();
+        assertThat(QuizQuestionService.positionBetween(1024, 1027)).isEqualTo(1025);
+    }
+
+    /**
+     * Questions 1..n of the quiz at the given positions.
+     */
+    private void givenPositions(int... positions) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < positions.length; i++) {
+            rows.add(new Object[] { (long) i + 1, positions[i] });
+        }
+        when(quizQuestionRepository.findPositionsByQuizId(QUIZ_ID)).thenReturn(rows);
+    }
+
+    private QuizQuestion givenQuestion(Long id, int position) {
+        QuizQuestion question = new QuizQuestion().position(position).quiz(new Quiz());
+        question.setId(id);
+        question.getQuiz().setId(QUIZ_ID);
+        when(quizQuestionRepository.findById(id)).thenReturn(Optional.of(question));
+        return question;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Integer> captureUpdate() {
+        ArgumentCaptor<Map<Long, Integer>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(quizQuestionRepository).updatePositions(eq(QUIZ_ID), captor.capture());
+        return captor.getValue();
+    }
+}
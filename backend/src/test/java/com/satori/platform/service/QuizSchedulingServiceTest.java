@@ -0,0 +1,101 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.repository.QuizRepository;
+import com.satori.platform.service.event.QuizTimingChangedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class QuizSchedulingServiceTest {
+
+    private QuizService quizService;
+    private QuizRepository quizRepository;
+
+    private QuizSchedulingService schedulingService;
+
+    @BeforeEach
+    void setUp() {
+        quizService = mock(QuizService.class);
+        quizRepository = mock(QuizRepository.class);
+        when(quizService.processAutomaticActivation(any())).thenReturn(List.of());
+        schedulingService = new QuizSchedulingService(quizService, quizRepository, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        schedulingService.shutdown();
+    }
+
+    @Test
+    void firesAtTheActivationInstant() {
+        Instant activation = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        when(quizRepository.findPendingActivations(any(), any())).thenReturn(List.<Object[]>of(new Object[] { 1L, activation }));
+        when(quizRepository.findPendingDeactivations(any())).thenReturn(List.<Object[]>of(new Object[] { 1L, activation.plusSeconds(3600) }));
+
+        schedulingService.reload();
+
+        assertThat(schedulingService.getArmedAt()).isEqualTo(activation);
+        ArgumentCaptor<Instant> firedAt = ArgumentCaptor.forClass(Instant.class);
+        verify(quizService, timeout(2000)).processAutomaticActivation(firedAt.capture());
+        assertThat(firedAt.getValue()).isAfterOrEqualTo(activation).isBefore(activation.plusMillis(250));
+        assertThat(schedulingService.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void firesOverdueTriggersAtOnce() {
+        when(quizRepository.findPendingActivations(any(), any())).thenReturn(List.<Object[]>of(new Object[] { 1L, Instant.now().minusSeconds(30) }));
+        when(quizRepository.findPendingDeactivations(any())).thenReturn(List.of());
+
+        schedulingService.reload();
+
+        verify(quizService, timeout(1000)).processAutomaticActivation(any());
+    }
+
+    @Test
+    void rearmsForAnEarlierSavedQuiz() {
+        Instant later = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1800);
+        Instant sooner = Instant.now().plusMillis(200);
+        schedulingService.onQuizTimingChanged(new QuizTimingChangedEvent(1L, later, null));
+        assertThat(schedulingService.getArmedAt()).isEqualTo(later);
+
+        schedulingService.onQuizTimingChanged(new QuizTimingChangedEvent(2L, sooner, Instant.now().plusSeconds(7200)));
+
+        // The deactivation is beyond the look-ahead window and left to a later reload
+        assertThat(schedulingService.getPendingCount()).isEqualTo(2);
+        verify(quizService, timeout(2000)).processAutomaticActivation(any());
+    }
+
+    @Test
+    void firesAtTheStoredSecondOfAFractionalActivation() {
+        // Stored to the second, the activation may be rounded up to the next one
+        Instant activation = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusMillis(1_500);
+        Instant stored = activation.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+
+        schedulingService.onQuizTimingChanged(new QuizTimingChangedEvent(1L, activation, null));
+
+        assertThat(schedulingService.getArmedAt()).isEqualTo(stored);
+        ArgumentCaptor<Instant> firedAt = ArgumentCaptor.forClass(Instant.class);
+        verify(quizService, timeout(3000)).processAutomaticActivation(firedAt.capture());
+        assertThat(firedAt.getValue()).isAfterOrEqualTo(stored);
+    }
+
+    @Test
+    void doesNotFireBeforeTheFirstTrigger() {
+        schedulingService.onQuizTimingChanged(new QuizTimingChangedEvent(1L, Instant.now().plusSeconds(60), null));
+
+        verify(quizService, after(300).never()).processAutomaticActivation(any());
+    }
+}
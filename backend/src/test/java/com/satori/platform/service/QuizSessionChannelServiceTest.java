@@ -0,0 +1,193 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.domain.Quiz;
+import com.satori.platform.domain.StudentQuiz;
+import com.satori.platform.repository.StudentQuizRepository;
+import com.satori.platform.service.dto.QuizChannelAnswerDTO;
+import com.satori.platform.service.dto.QuizChannelEventDTO;
+import com.satori.platform.service.dto.QuizChannelEventDTO.Type;
+import com.satori.platform.service.dto.StudentQuizResponseDTO;
+import com.satori.platform.service.event.QuizAttemptsSubmittedEvent;
+import com.satori.platform.service.exception.QuizTimeExpiredException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class QuizSessionChannelServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-19T09:10:00Z");
+
+    private StudentQuizRepository studentQuizRepository;
+    private StudentQuizService studentQuizService;
+
+    private QuizSessionChannelService channelService;
+
+    @BeforeEach
+    void setUp() {
+        studentQuizRepository = mock(StudentQuizRepository.class);
+        studentQuizService = mock(StudentQuizService.class);
+        channelService = new QuizSessionChannelService(studentQuizRepository, studentQuizService, Duration.ofHours(3), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channelService.shutdown();
+    }
+
+    @Test
+    void freezesTheRemainingTimeWhilePaused() {
+        QuizSessionChannelService.Channel channel = new QuizSessionChannelService.Channel(1L, 10L);
+        channel.update(new StudentQuiz().paused(false).deadline(NOW.plusSeconds(600)), NOW);
+
+        assertThat(channel.event(Type.TICK, NOW).getRemainingTimeSeconds()).isEqualTo(600);
+
+        channel.pause(NOW.plusSeconds(60));
+        QuizChannelEventDTO paused = channel.event(Type.TICK, NOW.plusSeconds(300));
+        assertThat(paused.getPaused()).isTrue();
+        assertThat(paused.getRemainingTimeSeconds()).isEqualTo(540);
+        assertThat(channel.isDue(NOW.plusSeconds(3600))).isFalse();
+
+        channel.resume(NOW.plusSeconds(840));
+        assertThat(channel.event(Type.TICK, NOW.plusSeconds(300)).getRemainingTimeSeconds()).isEqualTo(540);
+        assertThat(channel.isDue(NOW.plusSeconds(840))).isTrue();
+    }
+
+    @Test
+    void closesTheChannelsOfAttemptsSubmittedInBulk() {
+        Instant now = Instant.now();
+        open(1L, 10L, now.minusSeconds(1));
+        open(2L, 10L, now.plusSeconds(600));
+
+        channelService.onAttemptsSubmitted(new QuizAttemptsSubmittedEvent(List.of(1L), now));
+
+        assertThat(channelService.getOpenChannelCount()).isEqualTo(1);
+
+        channelService.onAttemptsSubmitted(new QuizAttemptsSubmittedEvent(2L, now));
+
+        assertThat(channelService.getOpenChannelCount()).isZero();
+    }
+
+    @Test
+    void acknowledgesAnswersWithTheClientSequence() {
+        open(1L, 10L, Instant.now().plusSeconds(600));
+        StudentQuizResponseDTO response = new StudentQuizResponseDTO();
+        response.setId(99L);
+        when(studentQuizService.submitAnswer(1L, 5L, "a")).thenReturn(response);
+        when(studentQuizService.submitAnswer(1L, 6L, "b")).thenThrow(new QuizTimeExpiredException("Quiz time has expired"));
+
+        QuizChannelEventDTO ack = channelService.answer(1L, answer(5L, "a", 7L));
+        QuizChannelEventDTO error = channelService.answer(1L, answer(6L, "b", 8L));
+
+        assertThat(ack.getType()).isEqualTo(Type.ACK);
+        assertThat(ack.getResponseId()).isEqualTo(99L);
+        assertThat(ack.getClientSeq()).isEqualTo(7L);
+        assertThat(error.getType()).isEqualTo(Type.ERROR);
+        assertThat(error.getMessage()).isEqualTo("Quiz time has expired");
+        assertThat(error.getClientSeq()).isEqualTo(8L);
+    }
+
+    @Test
+    void announcesOnlyToAttemptsOfTheQuiz() {
+        Instant deadline = Instant.now().plusSeconds(600);
+        open(1L, 10L, deadline);
+        open(2L, 10L, deadline);
+        open(3L, 11L, deadline);
+
+        assertThat(channelService.announce(10L, "Five minutes left")).isEqualTo(2);
+    }
+
+    @Test
+    void ticksOffTheSchedulerWithoutOneConnectionHoldingUpOthers() throws InterruptedException {
+        Instant deadline = Instant.now().plusSeconds(600);
+        open(1L, 10L, deadline);
+        open(2L, 10L, deadline);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch ticked = new CountDownLatch(2);
+        AtomicInteger blockedSends = new AtomicInteger();
+        emitters(1L).add(new TestEmitter(() -> {
+            blockedSends.incrementAndGet();
+            release.await();
+        }));
+        emitters(1L).add(new TestEmitter(() -> {
+            throw new IllegalStateException("Broken connection");
+        }));
+        emitters(1L).add(new TestEmitter(ticked::countDown));
+        emitters(2L).add(new TestEmitter(ticked::countDown));
+
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> channelService.tick());
+            assertThat(ticked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // The stuck connection skips ticks until its write returns
+            channelService.tick();
+            channelService.tick();
+            Thread.sleep(100);
+            assertThat(blockedSends.get()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SseEmitter> emitters(Long studentQuizId) {
+        Map<Long, Object> channels = (Map<Long, Object>) ReflectionTestUtils.getField(channelService, "channels");
+        return (List<SseEmitter>) ReflectionTestUtils.getField(channels.get(studentQuizId), "emitters");
+    }
+
+    private void open(Long studentQuizId, Long quizId, Instant deadline) {
+        Quiz quiz = new Quiz();
+        quiz.setId(quizId);
+        StudentQuiz attempt = new StudentQuiz().id(studentQuizId).quiz(quiz).completed(false).paused(false).deadline(deadline);
+        when(studentQuizRepository.findById(studentQuizId)).thenReturn(Optional.of(attempt));
+        channelService.subscribe(studentQuizId);
+    }
+
+    private interface Send {
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * An emitter whose writes run the given action, standing in for a client
+     * connection.
+     */
+    private static final class TestEmitter extends SseEmitter {
+
+        private final Send send;
+
+        TestEmitter(Send send) {
+            this.send = send;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                send.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static QuizChannelAnswerDTO answer(Long quizQuestionId, String answer, Long clientSeq) {
+        QuizChannelAnswerDTO dto = new QuizChannelAnswerDTO();
+        dto.setQuizQuestionId(quizQuestionId);
+        dto.setAnswer(answer);
+        dto.setClientSeq(clientSeq);
+        return dto;
+    }
+}
@@ -0,0 +1,76 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.service.dto.RAGContentRequestDTO;
+import com.satori.platform.service.dto.RAGContentResultDTO;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RAGContentRetrievalServiceTest {
+
+    private static final List<Double> EMBEDDING = List.of(1.0, 0.0);
+
+    private GeminiEmbeddingService geminiEmbeddingService;
+
+    private PostgreSQLVectorService postgreSQLVectorService;
+
+    private RAGLexicalIndexService ragLexicalIndexService;
+
+    private RAGContentRetrievalService retrievalService;
+
+    @BeforeEach
+    void setUp() {
+        geminiEmbeddingService = mock(GeminiEmbeddingService.class);
+        postgreSQLVectorService = mock(PostgreSQLVectorService.class);
+        ragLexicalIndexService = mock(RAGLexicalIndexService.class);
+        retrievalService = new RAGContentRetrievalService(geminiEmbeddingService, postgreSQLVectorService, ragLexicalIndexService);
+        ReflectionTestUtils.setField(retrievalService, "ragEnabled", true);
+        when(ragLexicalIndexService.search(any(), anyInt())).thenReturn(List.of(result("both"), result("close"), result("far")));
+    }
+
+    @Test
+    void holdsLexicalCandidatesToTheSimilarityThreshold() {
+        when(geminiEmbeddingService.generateEmbedding(anyString())).thenReturn(EMBEDDING);
+        when(postgreSQLVectorService.searchSimilarContent(any(), any(), anyInt())).thenReturn(List.of(result("both")));
+        when(postgreSQLVectorService.findSimilarities(EMBEDDING, List.of("close", "far"))).thenReturn(Map.of("close", 0.9, "far", 0.3));
+
+        List<RAGContentResultDTO> results = retrievalService.retrieveRelevantContent(request());
+
+        assertThat(results).extracting(RAGContentResultDTO::getContentId).containsExactly("both", "close");
+    }
+
+    @Test
+    void fallsBackToLexicalCandidatesWhenTheQueryCannotBeEmbedded() {
+        when(geminiEmbeddingService.generateEmbedding(anyString())).thenThrow(new IllegalStateException("quota exceeded"));
+
+        List<RAGContentResultDTO> results = retrievalService.retrieveRelevantContent(request());
+
+        assertThat(results).extracting(RAGContentResultDTO::getContentId).containsExactly("both", "close", "far");
+        verify(postgreSQLVectorService, never()).findSimilarities(any(), anyCollection());
+    }
+
+    private static RAGContentRequestDTO request() {
+        RAGContentRequestDTO request = new RAGContentRequestDTO();
+        request.setQuery("〜てしまう");
+        request.setSimilarityThreshold(0.7);
+        return request;
+    }
+
+    private static RAGContentResultDTO result(String id) {
+        RAGContentResultDTO result = new RAGContentResultDTO();
+        result.setContentId(id);
+        return result;
+    }
+}
@@ -0,0 +1,212 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.domain.Course;
+import com.satori.platform.domain.Lesson;
+import com.satori.platform.repository.FileMetaDataRepository;
+import com.satori.platform.repository.LessonRepository;
+import com.satori.platform.service.PostgreSQLVectorService.Chunk;
+import com.satori.platform.service.event.LessonContentChangedEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class RAGIndexingServiceTest {
+
+    private static final Long LESSON_ID = 3L;
+
+    private LessonRepository lessonRepository;
+
+    private GeminiEmbeddingService geminiEmbeddingService;
+
+    private PostgreSQLVectorService postgreSQLVectorService;
+
+    private RAGIndexingService ragIndexingService;
+
+    private final Map<String, String> indexedHashes = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        lessonRepository = mock(LessonRepository.class);
+        FileMetaDataRepository fileMetaDataRepository = mock(FileMetaDataRepository.class);
+        geminiEmbeddingService = mock(GeminiEmbeddingService.class);
+        postgreSQLVectorService = mock(PostgreSQLVectorService.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(fileMetaDataRepository.findByLessonId(any())).thenReturn(new ArrayList<>());
+        when(postgreSQLVectorService.findLessonChunkHashes(LESSON_ID)).thenReturn(indexedHashes);
+        when(geminiEmbeddingService.generateEmbeddings(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream().map(text -> List.of(1.0, 0.0)).toList();
+        });
+
+        ragIndexingService = new RAGIndexingService(
+            lessonRepository,
+            fileMetaDataRepository,
+            geminiEmbeddingService,
+            postgreSQLVectorService,
+            mock(RAGLexicalIndexService.class),
+            transactionManager,
+            true,
+            60,
+            10,
+            2,
+            1024,
+            2
+        );
+    }
+
+    @Test
+    void embedsEveryChunkOfANewLessonInBatches() {
+        givenLesson("文法のポイントです。".repeat(20));
+
+        ragIndexingService.indexLesson(LESSON_ID);
+
+        List<Chunk> upserted = captureUpserts();
+        assertThat(upserted).isNotEmpty();
+        assertThat(upserted).allSatisfy(chunk -> {
+            assertThat(chunk.contentId()).startsWith("lesson:3:body:");
+            assertThat(chunk.courseId()).isEqualTo(9L);
+            assertThat(chunk.embedding()).isNotNull();
+        });
+    }
+
+    @Test
+    void reembedsOnlyChangedChunksAndDeletesStaleOnes() {
+        givenLesson("文法のポイントです。".repeat(20));
+        ragIndexingService.indexLesson(LESSON_ID);
+        List<Chunk> firstRun = captureUpserts();
+        for (Chunk chunk : firstRun) {
+            indexedHashes.put(chunk.contentId(), chunk.contentHash());
+        }
+        indexedHashes.put("lesson:3:body:99", "stale");
+        clearInvocations(postgreSQLVectorService, geminiEmbeddingService);
+
+        givenLesson("変更された文です。" + "文法のポイントです。".repeat(19));
+        ragIndexingService.indexLesson(LESSON_ID);
+
+        List<Chunk> secondRun = captureUpserts();
+        assertThat(secondRun).isNotEmpty().hasSizeLessThan(firstRun.size());
+        assertThat(secondRun).allSatisfy(chunk -> assertThat(chunk.contentHash()).isNotEqualTo(indexedHashes.get(chunk.contentId())));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> deletes = ArgumentCaptor.forClass(Collection.class);
+        verify(postgreSQLVectorService).deleteContents(deletes.capture());
+        assertThat(deletes.getValue()).containsExactly("lesson:3:body:99");
+    }
+
+    @Test
+    void deletesTheChunksOfADeletedLesson() {
+        when(lessonRepository.findById(LESSON_ID)).thenReturn(Optional.empty());
+
+        ragIndexingService.indexLesson(LESSON_ID);
+
+        verify(postgreSQLVectorService).deleteLessonChunks(LESSON_ID);
+        verify(geminiEmbeddingService, never()).generateEmbeddings(anyList());
+    }
+
+    @Test
+    void coalescesRepeatedChangesIntoOneIndexRun() {
+        givenLesson("Short lesson.");
+        ragIndexingService.onLessonContentChanged(new LessonContentChangedEvent(LESSON_ID));
+        ragIndexingService.onLessonContentChanged(new LessonContentChangedEvent(LESSON_ID));
+
+        ragIndexingService.processPendingLessons();
+        ragIndexingService.processPendingLessons();
+
+        verify(postgreSQLVectorService, times(1)).findLessonChunkHashes(LESSON_ID);
+    }
+
+    @Test
+    void keepsTheKeysOfChunksAfterAnInsertion() {
+        givenLesson("文法のポイントです。".repeat(20));
+        ragIndexingService.indexLesson(LESSON_ID);
+        List<Chunk> firstRun = captureUpserts();
+        for (Chunk chunk : firstRun) {
+            indexedHashes.put(chunk.contentId(), chunk.contentHash());
+        }
+        clearInvocations(postgreSQLVectorService, geminiEmbeddingService);
+
+        givenLesson("文法のポイントです。".repeat(20) + "追加された文です。");
+        ragIndexingService.indexLesson(LESSON_ID);
+
+        assertThat(captureUpserts()).allSatisfy(chunk -> assertThat(indexedHashes).doesNotContainKey(chunk.contentId()));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> deletes = ArgumentCaptor.forClass(Collection.class);
+        verify(postgreSQLVectorService).deleteContents(deletes.capture());
+        assertThat(deletes.getValue()).hasSizeLessThan(firstRun.size());
+    }
+
+    @Test
+    void retriesAFailedLessonUpToTheRetryLimit() {
+        givenLesson("Short lesson.");
+        when(geminiEmbeddingService.generateEmbeddings(anyList())).thenThrow(new IllegalStateException("unavailable"));
+        ragIndexingService.onLessonContentChanged(new LessonContentChangedEvent(LESSON_ID));
+
+        ragIndexingService.processPendingLessons();
+        ragIndexingService.retryFailedLessons();
+        ragIndexingService.processPendingLessons();
+        ragIndexingService.retryFailedLessons();
+        ragIndexingService.processPendingLessons();
+
+        verify(postgreSQLVectorService, times(2)).findLessonChunkHashes(LESSON_ID);
+    }
+
+    @Test
+    void stopsRetryingOnceTheLessonIndexes() {
+        givenLesson("Short lesson.");
+        when(geminiEmbeddingService.generateEmbeddings(anyList()))
+            .thenThrow(new IllegalStateException("unavailable"))
+            .thenReturn(List.of(List.of(1.0, 0.0)));
+        ragIndexingService.onLessonContentChanged(new LessonContentChangedEvent(LESSON_ID));
+
+        ragIndexingService.processPendingLessons();
+        ragIndexingService.retryFailedLessons();
+        ragIndexingService.processPendingLessons();
+        ragIndexingService.retryFailedLessons();
+        ragIndexingService.processPendingLessons();
+
+        verify(postgreSQLVectorService, times(2)).findLessonChunkHashes(LESSON_ID);
+        verify(postgreSQLVectorService).upsertChunks(anyList());
+    }
+
+    private void givenLesson(String content) {
+        Course course = new Course();
+        course.setId(9L);
+        Lesson lesson = new Lesson();
+        lesson.setId(LESSON_ID);
+        lesson.setTitle("Grammar");
+        lesson.setContent(content);
+        lesson.setCourse(course);
+        when(lessonRepository.findById(LESSON_ID)).thenReturn(Optional.of(lesson));
+    }
+
+    private List<Chunk> captureUpserts() {
+        ArgumentCaptor<List<Chunk>> upserts = upsertCaptor();
+        verify(postgreSQLVectorService, atLeastOnce()).upsertChunks(upserts.capture());
+        return upserts.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Chunk>> upsertCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,132 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.domain.PlannedReminder;
+import com.satori.platform.domain.Schedule;
+import com.satori.platform.domain.enumeration.NotificationType;
+import com.satori.platform.domain.enumeration.ReminderKind;
+import com.satori.platform.repository.PlannedReminderRepository;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ReminderPlannerTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-19T08:00:00Z");
+
+    private PlannedReminderRepository plannedReminderRepository;
+
+    private NotificationPreferenceMatrix notificationPreferenceMatrix;
+
+    private ReminderPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        plannedReminderRepository = mock(PlannedReminderRepository.class);
+        notificationPreferenceMatrix = mock(NotificationPreferenceMatrix.class);
+        when(notificationPreferenceMatrix.nextPreferredTime(anyLong(), any(), any())).thenReturn(Optional.empty());
+        planner = new ReminderPlanner(plannedReminderRepository, notificationPreferenceMatrix, LocalTime.of(19, 0));
+    }
+
+    @Test
+    void plansEveryReminderOfAFarEvent() {
+        Instant start = NOW.plus(3, ChronoUnit.DAYS);
+
+        Map<ReminderKind, Instant> fireTimes = ReminderPlanner.fireTimes(start, ReminderPlanner.SCHEDULE_OFFSETS, NOW);
+
+        assertThat(fireTimes).containsExactly(
+            Map.entry(ReminderKind.SCHEDULE_TEACHER_DAY_BEFORE, start.minus(24, ChronoUnit.HOURS)),
+            Map.entry(ReminderKind.SCHEDULE_TEACHER_HOUR_BEFORE, start.minus(1, ChronoUnit.HOURS)),
+            Map.entry(ReminderKind.SCHEDULE_STUDENTS, start.minus(2, ChronoUnit.HOURS))
+        );
+    }
+
+    @Test
+    void catchesUpOnlyTheLastReminderBeforeAnEvent() {
+        Instant start = NOW.plus(90, ChronoUnit.MINUTES);
+
+        Map<ReminderKind, Instant> fireTimes = ReminderPlanner.fireTimes(start, ReminderPlanner.SCHEDULE_OFFSETS, NOW);
+
+        // The day-before reminder is skipped; the passed student reminder keeps its nominal time and fires at once
+        assertThat(fireTimes).containsOnlyKeys(ReminderKind.SCHEDULE_TEACHER_HOUR_BEFORE, ReminderKind.SCHEDULE_STUDENTS);
+        assertThat(fireTimes.get(ReminderKind.SCHEDULE_STUDENTS)).isEqualTo(start.minus(2, ChronoUnit.HOURS));
+        assertThat(ReminderPlanner.fireTimes(NOW.minusSeconds(1), ReminderPlanner.SCHEDULE_OFFSETS, NOW)).isEmpty();
+        assertThat(ReminderPlanner.fireTimes(null, ReminderPlanner.QUIZ_OFFSETS, NOW)).isEmpty();
+    }
+
+    @Test
+    void replansOnlyWhatChanged() {
+        Schedule schedule = new Schedule();
+        schedule.setId(7L);
+        schedule.setStartTime(Instant.now().plus(3, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS));
+        List<PlannedReminder> stored = new ArrayList<>();
+        for (ReminderKind kind : List.of(
+            ReminderKind.SCHEDULE_TEACHER_DAY_BEFORE,
+            ReminderKind.SCHEDULE_TEACHER_HOUR_BEFORE,
+            ReminderKind.SCHEDULE_STUDENTS
+        )) {
+            Instant fireAt = ReminderPlanner.fireTimes(schedule.getStartTime(), ReminderPlanner.SCHEDULE_OFFSETS, NOW).get(kind);
+            stored.add(new PlannedReminder(kind, 7L, fireAt));
+        }
+        when(plannedReminderRepository.findByKindInAndSourceId(anyCollection(), any())).thenReturn(stored);
+
+        planner.planSchedule(schedule);
+
+        assertSynced(List.of(), List.of());
+
+        // Moving the schedule replaces the unfired reminders and keeps the fired one as history
+        stored.get(0).setFiredAt(NOW);
+        schedule.setStartTime(schedule.getStartTime().plus(1, ChronoUnit.HOURS));
+        planner.planSchedule(schedule);
+
+        assertSynced(stored.subList(1, 3), List.of(ReminderKind.SCHEDULE_TEACHER_DAY_BEFORE, ReminderKind.SCHEDULE_TEACHER_HOUR_BEFORE, ReminderKind.SCHEDULE_STUDENTS));
+    }
+
+    @Test
+    void plansStudyRemindersAtThePreferredTime() {
+        Instant preferred = NOW.plus(2, ChronoUnit.HOURS);
+        when(notificationPreferenceMatrix.nextPreferredTime(1L, NotificationType.SYSTEM_NOTIFICATION, NOW)).thenReturn(Optional.of(preferred));
+        when(plannedReminderRepository.findByKindInAndSourceId(anyCollection(), any())).thenReturn(List.of());
+
+        planner.planStudyReminder(1L, NOW);
+
+        List<PlannedReminder> saved = lastSaved();
+        assertThat(saved).singleElement().satisfies(reminder -> {
+            assertThat(reminder.getKind()).isEqualTo(ReminderKind.DAILY_STUDY);
+            assertThat(reminder.getSourceId()).isEqualTo(1L);
+            assertThat(reminder.getFireAt()).isEqualTo(preferred);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertSynced(List<PlannedReminder> deleted, List<ReminderKind> inserted) {
+        ArgumentCaptor<Iterable<PlannedReminder>> deletes = ArgumentCaptor.forClass(Iterable.class);
+        verify(plannedReminderRepository, atLeastOnce()).deleteAll(deletes.capture());
+        assertThat(deletes.getValue()).containsExactlyInAnyOrderElementsOf(deleted);
+        assertThat(lastSaved()).extracting(PlannedReminder::getKind).containsExactlyInAnyOrderElementsOf(inserted);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PlannedReminder> lastSaved() {
+        ArgumentCaptor<Iterable<PlannedReminder>> saves = ArgumentCaptor.forClass(Iterable.class);
+        verify(plannedReminderRepository, atLeastOnce()).saveAll(saves.capture());
+        List<PlannedReminder> saved = new ArrayList<>();
+        saves.getValue().forEach(saved::add);
+        return saved;
+    }
+}
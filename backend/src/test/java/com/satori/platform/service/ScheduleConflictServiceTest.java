@@ -0,0 +1,47 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.domain.Schedule;
+import com.satori.platform.repository.ScheduleRepository;
+import com.satori.platform.service.ScheduleConflictService.ConflictScope;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ScheduleConflictServiceTest {
+
+    private final ScheduleRepository scheduleRepository = mock(ScheduleRepository.class);
+
+    private final ScheduleConflictService conflictService = new ScheduleConflictService(scheduleRepository);
+
+    @Test
+    void findsConflictsBeforeTheIndexedRange() {
+        Instant start = Instant.now().minus(3, ChronoUnit.DAYS);
+        Schedule workshop = schedule(1L, start, start.plus(2, ChronoUnit.DAYS));
+        Schedule upcoming = schedule(2L, Instant.now().plus(1, ChronoUnit.HOURS), Instant.now().plus(2, ChronoUnit.HOURS));
+        when(scheduleRepository.findByLocationAndEndTimeAfter(eq("room a"), any())).thenAnswer(invocation -> {
+            Instant from = invocation.getArgument(1);
+            return List.of(workshop, upcoming).stream().filter(schedule -> schedule.getEndTime().isAfter(from)).toList();
+        });
+
+        List<ConflictScope> scopes = List.of(ConflictScope.location(" Room A "));
+
+        assertThat(conflictService.findConflicts(scopes, start.plus(1, ChronoUnit.DAYS), start.plus(25, ChronoUnit.HOURS), null))
+            .containsExactly(1L);
+        assertThat(conflictService.findConflicts(scopes, upcoming.getStartTime(), upcoming.getEndTime(), null)).containsExactly(2L);
+    }
+
+    private static Schedule schedule(Long id, Instant start, Instant end) {
+        Schedule schedule = new Schedule();
+        schedule.setId(id);
+        schedule.setStartTime(start);
+        schedule.setEndTime(end);
+        return schedule;
+    }
+}
@@ -0,0 +1,117 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.satori.platform.domain.enumeration.DeliveryStatus;
+import com.satori.platform.repository.NotificationDeliveryRepository;
+import com.satori.platform.service.event.NotificationScheduledEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ScheduledNotificationDispatcherTest {
+
+    private NotificationDeliveryService notificationDeliveryService;
+    private NotificationDeliveryRepository notificationDeliveryRepository;
+
+    private ScheduledNotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        notificationDeliveryService = mock(NotificationDeliveryService.class);
+        notificationDeliveryRepository = mock(NotificationDeliveryRepository.class);
+        when(notificationDeliveryService.deliverDueScheduled(anyCollection())).thenReturn(List.of());
+        dispatcher = new ScheduledNotificationDispatcher(
+            notificationDeliveryService,
+            notificationDeliveryRepository,
+            Duration.ofMillis(10),
+            Duration.ofMinutes(15),
+            1,
+            10
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void deliversLoadedNotificationsOnceWhenDue() {
+        Instant now = Instant.now();
+        when(notificationDeliveryRepository.findScheduledDueBefore(any(DeliveryStatus.class), any(Instant.class))).thenReturn(
+            List.of(new Object[] { 1L, now.minusSeconds(30) }, new Object[] { 2L, now.plusSeconds(600) })
+        );
+
+        dispatcher.loadAhead();
+        dispatcher.loadAhead();
+        dispatcher.tick();
+
+        verify(notificationDeliveryService, timeout(1000)).deliverDueScheduled(List.of(1L));
+        assertThat(dispatcher.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheTickFreeWhileADeliveryIsSlow() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        when(notificationDeliveryService.deliverDueScheduled(anyCollection())).thenAnswer(invocation -> {
+            sending.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(notificationDeliveryRepository.findScheduledDueBefore(any(DeliveryStatus.class), any(Instant.class))).thenReturn(
+            List.<Object[]>of(new Object[] { 5L, Instant.now().minusSeconds(30) })
+        );
+        dispatcher.loadAhead();
+
+        long start = System.nanoTime();
+        dispatcher.tick();
+        long tickMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        sending.countDown();
+
+        assertThat(tickMillis).isLessThan(1000);
+        verify(notificationDeliveryService, timeout(1000)).deliverDueScheduled(List.of(5L));
+    }
+
+    @Test
+    void firesNewlyScheduledNotificationsOnceTheirStoredTimeHasPassed() throws InterruptedException {
+        // Stored to the second, the due time may be rounded up to 12:00:01
+        Instant scheduledAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusMillis(1_500);
+        dispatcher.onNotificationScheduled(new NotificationScheduledEvent(3L, scheduledAt));
+
+        sleepUntil(scheduledAt.plusMillis(20));
+        dispatcher.tick();
+        Thread.sleep(50);
+        verify(notificationDeliveryService, never()).deliverDueScheduled(anyCollection());
+
+        sleepUntil(scheduledAt.truncatedTo(ChronoUnit.SECONDS).plusMillis(1_020));
+        dispatcher.tick();
+        verify(notificationDeliveryService, timeout(1000)).deliverDueScheduled(List.of(3L));
+    }
+
+    @Test
+    void leavesNotificationsBeyondTheLookAheadToALaterLoad() {
+        dispatcher.onNotificationScheduled(new NotificationScheduledEvent(4L, Instant.now().plus(Duration.ofHours(2))));
+
+        assertThat(dispatcher.getPendingCount()).isZero();
+    }
+
+    private static void sleepUntil(Instant instant) throws InterruptedException {
+        long millis = Duration.between(Instant.now(), instant).toMillis();
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
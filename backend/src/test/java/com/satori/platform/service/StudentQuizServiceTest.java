@@ -0,0 +1,47 @@
+package com.satori.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.satori.platform.domain.Quiz;
+import com.satori.platform.domain.StudentQuiz;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class StudentQuizServiceTest {
+
+    private static final Instant START = Instant.parse("2026-10-19T09:00:00Z");
+
+    @Test
+    void extendsTheDeadlineByTheTimeSpentPaused() {
+        StudentQuiz attempt = attempt(new Quiz().timeLimitMinutes(30)).totalPauseDurationSeconds(120);
+
+        assertThat(StudentQuizService.computeDeadline(attempt)).isEqualTo(Instant.parse("2026-10-19T09:32:00Z"));
+    }
+
+    @Test
+    void endsTheAttemptWhenTheQuizCloses() {
+        Instant closes = Instant.parse("2026-10-19T09:20:00Z");
+
+        assertThat(StudentQuizService.computeDeadline(attempt(new Quiz().timeLimitMinutes(30).deactivationTime(closes)))).isEqualTo(closes);
+        assertThat(StudentQuizService.computeDeadline(attempt(new Quiz().deactivationTime(closes)))).isEqualTo(closes);
+        assertThat(StudentQuizService.computeDeadline(attempt(new Quiz()))).isNull();
+    }
+
+    @Test
+    void encodesAnsweredQuestionsInPositionOrder() {
+        List<Object[]> positions = List.of(new Object[] { 30L, 1 }, new Object[] { 10L, 2 }, new Object[] { 20L, 3 });
+
+        BitSet answered = StudentQuizService.answeredQuestions(positions, Set.of(20L, 30L, 99L));
+
+        assertThat(answered.stream()).containsExactly(0, 2);
+        assertThat(Base64.getEncoder().encodeToString(answered.toByteArray())).isEqualTo("BQ==");
+    }
+
+    private static StudentQuiz attempt(Quiz quiz) {
+        return new StudentQuiz().quiz(quiz).startTime(START).totalPauseDurationSeconds(0);
+    }
+}
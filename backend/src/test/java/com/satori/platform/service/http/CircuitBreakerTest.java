@@ -0,0 +1,84 @@
+package com.satori.platform.service.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker(50, 4, 4, Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    void staysClosedBelowMinimumNumberOfCalls() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+            circuitBreaker.onFailure();
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void forgetsOutcomesOutsideTheSlidingWindow() {
+        circuitBreaker.onFailure();
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onSuccess();
+        }
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void letsOneTrialCallThroughAfterOpenDuration() {
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+
+        circuitBreaker.onSuccess();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void reopensWhenTrialCallFails() {
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure();
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
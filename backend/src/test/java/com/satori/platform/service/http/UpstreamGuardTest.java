@@ -0,0 +1,107 @@
+package com.satori.platform.service.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.satori.platform.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+class UpstreamGuardTest {
+
+    private final HttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("http://upstream.test/"));
+
+    private MeterRegistry meterRegistry;
+
+    private UpstreamGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties.Http.Upstream policy = new ApplicationProperties.Http.Upstream();
+        policy.setMaxConcurrentCalls(1);
+        policy.setMaxWait(Duration.ZERO);
+        policy.setSlidingWindowSize(2);
+        policy.setMinimumNumberOfCalls(2);
+        policy.setFailureRateThreshold(100);
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new UpstreamGuard("test", policy, meterRegistry);
+    }
+
+    @Test
+    void opensCircuitAfterServerErrorsAndRejectsFurtherCalls() throws IOException {
+        ClientHttpRequestExecution failing = (req, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.BAD_GATEWAY);
+
+        guard.intercept(request, new byte[0], failing).close();
+        guard.intercept(request, new byte[0], failing).close();
+
+        assertThat(guard.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> guard.intercept(request, new byte[0], failing)).isInstanceOf(UpstreamUnavailableException.class);
+        assertThat(meterRegistry.get("http.client.upstream.rejected").tag("reason", "circuit_open").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("http.client.upstream.calls").tag("outcome", "server_error").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsCallsBeyondBulkheadSize() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ClientHttpRequestExecution slow = (req, body) -> {
+            inFlight.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> {
+                guard.intercept(request, new byte[0], slow).close();
+                return null;
+            });
+            assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(meterRegistry.get("http.client.upstream.saturation").gauge().value()).isEqualTo(1.0);
+
+            assertThatThrownBy(() -> guard.intercept(request, new byte[0], slow)).isInstanceOf(UpstreamUnavailableException.class);
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(meterRegistry.get("http.client.upstream.rejected").tag("reason", "bulkhead_full").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("http.client.upstream.active").gauge().value()).isZero();
+    }
+
+    @Test
+    void holdsTheSlotUntilTheResponseIsClosed() throws IOException {
+        ClientHttpRequestExecution ok = (req, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+
+        ClientHttpResponse response = guard.intercept(request, new byte[0], ok);
+        assertThatThrownBy(() -> guard.intercept(request, new byte[0], ok)).isInstanceOf(UpstreamUnavailableException.class);
+
+        response.close();
+        response.close();
+        assertThat(meterRegistry.get("http.client.upstream.active").gauge().value()).isZero();
+        guard.intercept(request, new byte[0], ok).close();
+        assertThat(meterRegistry.get("http.client.upstream.active").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,49 @@
+package com.satori.platform.service.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class DomainThrottleUnitTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void spacesSendsToTheSameDomain() {
+        DomainThrottle throttle = new DomainThrottle(10, clock::get);
+
+        assertThat(throttle.reserve("gmail.com")).isZero();
+        assertThat(throttle.reserve("gmail.com")).isEqualTo(100_000_000L);
+        assertThat(throttle.reserve("gmail.com")).isEqualTo(200_000_000L);
+    }
+
+    @Test
+    void doesNotDelayOtherDomains() {
+        DomainThrottle throttle = new DomainThrottle(10, clock::get);
+        throttle.reserve("gmail.com");
+        throttle.reserve("gmail.com");
+
+        assertThat(throttle.reserve("fpt.edu.vn")).isZero();
+    }
+
+    @Test
+    void freesSlotsAsTimePasses() {
+        DomainThrottle throttle = new DomainThrottle(10, clock::get);
+        throttle.reserve("gmail.com");
+        throttle.reserve("gmail.com");
+
+        clock.addAndGet(1_000_000_000L);
+        throttle.purge();
+
+        assertThat(throttle.reserve("gmail.com")).isZero();
+    }
+
+    @Test
+    void neverWaitsWithoutALimit() {
+        DomainThrottle throttle = new DomainThrottle(0, clock::get);
+
+        assertThat(throttle.reserve("gmail.com")).isZero();
+        assertThat(throttle.reserve("gmail.com")).isZero();
+    }
+}
@@ -0,0 +1,43 @@
+package com.satori.platform.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterUnitTest {
+
+    @Test
+    void neverReportsAnInsertedValueAsAbsent() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("CODE" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("CODE" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheRequestedRate() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("CODE" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("OTHER" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(0, 0.01);
+
+        assertThat(filter.mightContain("CODE")).isFalse();
+    }
+}
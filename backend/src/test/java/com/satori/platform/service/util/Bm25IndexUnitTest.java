@@ -0,0 +1,53 @@
+package com.satori.platform.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class Bm25IndexUnitTest {
+
+    @Test
+    void tokenizesJapaneseAsBigramsAndLatinAsWords() {
+        assertThat(Bm25Index.tokenize("〜てしまう")).containsExactly("てし", "しま", "まう");
+        assertThat(Bm25Index.tokenize("は")).containsExactly("は");
+        assertThat(Bm25Index.tokenize("JLPT N3の文法")).containsExactly("jlpt", "n3", "の文", "文法");
+    }
+
+    @Test
+    void ranksDocumentsContainingTheGrammarPointFirst() {
+        Bm25Index index = new Bm25Index();
+        index.put("shimau", "宿題を忘れてしまった。");
+        index.put("oku", "ビールを冷やしておく。");
+        index.put("chau", "「〜てしまう」の話し言葉の形。");
+
+        assertThat(index.search("〜てしまう", 10, id -> true))
+            .extracting(Bm25Index.Match::id)
+            .containsExactlyInAnyOrder("shimau", "chau");
+    }
+
+    @Test
+    void appliesTheFilterAndLimit() {
+        Bm25Index index = new Bm25Index();
+        index.put("a", "文法のポイント");
+        index.put("b", "文法の練習");
+        index.put("c", "文法の復習");
+
+        assertThat(index.search("文法", 10, id -> !id.equals("b"))).extracting(Bm25Index.Match::id).containsExactlyInAnyOrder("a", "c");
+        assertThat(index.search("文法", 1, id -> true)).hasSize(1);
+    }
+
+    @Test
+    void replacesAndRemovesDocuments() {
+        Bm25Index index = new Bm25Index();
+        index.put("a", "てしまう");
+        index.put("a", "ておく");
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("てしまう", 10, id -> true)).isEmpty();
+        assertThat(index.search("ておく", 10, id -> true)).extracting(Bm25Index.Match::id).containsExactly("a");
+
+        index.remove("a");
+        assertThat(index.size()).isZero();
+        assertThat(index.search("ておく", 10, id -> true)).isEmpty();
+    }
+}
@@ -0,0 +1,58 @@
+package com.satori.platform.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link IntervalIndex} utility class.
+ */
+class IntervalIndexUnitTest {
+
+    @Test
+    void testOverlappingIsHalfOpen() {
+        IntervalIndex<long[]> index = IntervalIndex.of(
+            List.of(new long[] { 10, 20 }, new long[] { 20, 30 }, new long[] { 5, 50 }),
+            interval -> interval[0],
+            interval -> interval[1]
+        );
+
+        assertThat(index.overlapping(20, 25)).extracting(interval -> interval[0]).containsExactly(5L, 20L);
+        assertThat(index.overlapping(0, 5)).isEmpty();
+        assertThat(index.overlapping(50, 60)).isEmpty();
+        assertThat(index.hasOverlap(19, 20)).isTrue();
+        assertThat(index.hasOverlap(50, 51)).isFalse();
+    }
+
+    @Test
+    void testEmptyIndex() {
+        IntervalIndex<long[]> index = IntervalIndex.empty();
+
+        assertThat(index.size()).isZero();
+        assertThat(index.overlapping(0, Long.MAX_VALUE)).isEmpty();
+        assertThat(index.hasOverlap(0, Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void testMatchesLinearScan() {
+        Random random = new Random(42);
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long start = random.nextInt(10_000);
+            intervals.add(new long[] { start, start + 1 + random.nextInt(200) });
+        }
+        IntervalIndex<long[]> index = IntervalIndex.of(intervals, interval -> interval[0], interval -> interval[1]);
+
+        for (int i = 0; i < 200; i++) {
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(300);
+            List<long[]> expected = intervals.stream().filter(interval -> interval[0] < end && interval[1] > start).toList();
+
+            assertThat(index.overlapping(start, end)).containsExactlyInAnyOrderElementsOf(expected);
+            assertThat(index.hasOverlap(start, end)).isEqualTo(!expected.isEmpty());
+        }
+    }
+}
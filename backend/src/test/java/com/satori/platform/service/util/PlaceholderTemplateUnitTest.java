@@ -0,0 +1,49 @@
+package com.satori.platform.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PlaceholderTemplateUnitTest {
+
+    @Test
+    void mergesEveryPlaceholder() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("<p>Dear {{fullName}}</p><p>{{ username }} / {{fullName}}</p>");
+
+        assertThat(template.variables()).containsExactly("fullName", "username");
+        assertThat(template.merge(Map.of("fullName", "Sato Aoi", "username", "aoi"), false)).isEqualTo(
+            "<p>Dear Sato Aoi</p><p>aoi / Sato Aoi</p>"
+        );
+    }
+
+    @Test
+    void escapesValuesForHtml() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("<p>{{fullName}}</p>");
+
+        assertThat(template.merge(Map.of("fullName", "<b>Aoi</b>"), true)).isEqualTo("<p>&lt;b&gt;Aoi&lt;/b&gt;</p>");
+        assertThat(template.merge(Map.of("fullName", "<b>Aoi</b>"), false)).isEqualTo("<p><b>Aoi</b></p>");
+    }
+
+    @Test
+    void leavesUnknownVariablesEmptyAndUnclosedBracesAlone() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("Hi {{missing}}, {{ not closed");
+
+        assertThat(template.merge(Map.of(), false)).isEqualTo("Hi , {{ not closed");
+    }
+
+    @Test
+    void mergesEscapedTextBackAsWritten() {
+        String title = "{{fullName}} {{ username }} {x}} {";
+        PlaceholderTemplate template = PlaceholderTemplate.compile("<p>" + PlaceholderTemplate.escape(title) + " / {{fullName}}</p>");
+
+        assertThat(template.variables()).containsExactly("fullName");
+        assertThat(template.merge(Map.of("fullName", "Aoi", "username", "aoi"), true)).isEqualTo("<p>" + title + " / Aoi</p>");
+        assertThat(PlaceholderTemplate.escape(null)).isNull();
+    }
+
+    @Test
+    void compilesNullToEmptyText() {
+        assertThat(PlaceholderTemplate.compile(null).merge(Map.of("a", "b"), false)).isEmpty();
+    }
+}
@@ -0,0 +1,26 @@
+package com.satori.platform.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ReciprocalRankFusionUnitTest {
+
+    @Test
+    void favoursItemsRankedWellInSeveralRankings() {
+        Map<String, Double> fused = ReciprocalRankFusion.fuse(List.of(List.of("a", "b", "c"), List.of("b", "c", "d")), 60);
+
+        assertThat(fused.keySet()).containsExactly("b", "c", "a", "d");
+        assertThat(fused.get("b")).isCloseTo(1.0 / 61 + 1.0 / 62, within(1e-12));
+    }
+
+    @Test
+    void scoresAnItemRankedFirstEverywhereAtTheMaximum() {
+        Map<String, Double> fused = ReciprocalRankFusion.fuse(List.of(List.of("a"), List.of("a")), 60);
+
+        assertThat(fused.get("a")).isCloseTo(ReciprocalRankFusion.maxScore(2, 60), within(1e-12));
+    }
+}
@@ -0,0 +1,59 @@
+package com.satori.platform.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TextChunkerUnitTest {
+
+    @Test
+    void keepsShortTextInOneChunk() {
+        assertThat(new TextChunker(100, 20).chunk("  短い文章です。 ")).containsExactly("短い文章です。");
+    }
+
+    @Test
+    void returnsNothingForBlankText() {
+        assertThat(new TextChunker(100, 20).chunk(null)).isEmpty();
+        assertThat(new TextChunker(100, 20).chunk(" \n ")).isEmpty();
+    }
+
+    @Test
+    void splitsAtSentenceBoundariesWithOverlap() {
+        String text = "これはペンです。".repeat(30);
+
+        List<String> chunks = new TextChunker(50, 10).chunk(text);
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        assertThat(chunks).allSatisfy(chunk -> {
+            assertThat(chunk.length()).isLessThanOrEqualTo(50);
+            assertThat(chunk).startsWith("これ").endsWith("。");
+        });
+        // Consecutive chunks share at least one sentence
+        for (int i = 1; i < chunks.size(); i++) {
+            String previous = chunks.get(i - 1);
+            assertThat(previous).endsWith(chunks.get(i).substring(0, 8));
+        }
+    }
+
+    @Test
+    void editingOneParagraphKeepsTheChunksOfLaterParagraphs() {
+        StringBuilder original = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            original.append("Sentence number ").append(i).append(" about particles.\n");
+        }
+        String edited = original.toString().replace("Sentence number 1 ", "Sentence number one, slightly longer now, ");
+        TextChunker chunker = new TextChunker(120, 40);
+
+        List<String> before = chunker.chunk(original.toString());
+        List<String> after = chunker.chunk(edited);
+
+        assertThat(after.get(after.size() - 1)).isEqualTo(before.get(before.size() - 1));
+    }
+
+    @Test
+    void rejectsAnOverlapLargerThanHalfTheChunk() {
+        assertThatThrownBy(() -> new TextChunker(100, 60)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
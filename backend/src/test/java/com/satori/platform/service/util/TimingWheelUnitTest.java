@@ -0,0 +1,104 @@
+package com.satori.platform.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelUnitTest {
+
+    private static final long START = 1_760_000_000_000L;
+
+    @Test
+    void expiresValuesInTheFirstTickAtOrAfterTheirDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 8, 3, START);
+        wheel.schedule("soon", START + 2_500);
+        wheel.schedule("later", START + 9_000);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(START + 2_000, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(START + 2_999, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(START + 3_000, expired::add);
+        assertThat(expired).containsExactly("soon");
+
+        wheel.advance(START + 8_999, expired::add);
+        assertThat(expired).containsExactly("soon");
+
+        wheel.advance(START + 9_000, expired::add);
+        assertThat(expired).containsExactly("soon", "later");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void neverExpiresValuesBeforeTheirDeadline() {
+        TimingWheel<Long> wheel = new TimingWheel<>(100, 8, 3, START);
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            long deadline = START + 1 + random.nextInt(20_000);
+            wheel.schedule(deadline, deadline);
+        }
+        List<Long> expired = new ArrayList<>();
+
+        for (long now = START; now <= START + 20_200; now += 1 + random.nextInt(150)) {
+            long at = now;
+            wheel.advance(now, deadline -> {
+                assertThat(deadline).isLessThanOrEqualTo(at).isGreaterThan(at - 250);
+                expired.add(deadline);
+            });
+        }
+
+        assertThat(expired).hasSize(500);
+    }
+
+    @Test
+    void expiresOverdueValuesOnTheNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 8, 2, START);
+        wheel.schedule("overdue", START - 60_000);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(START, expired::add);
+
+        assertThat(expired).containsExactly("overdue");
+    }
+
+    @Test
+    void cascadesValuesFromHigherLevelsAndOverflow() {
+        // Two levels of 4 slots span 16 ticks; later deadlines overflow
+        TimingWheel<Long> wheel = new TimingWheel<>(1000, 4, 2, START);
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            long deadline = START + 1_000 + random.nextInt(100) * 1_000L;
+            wheel.schedule(deadline, deadline);
+        }
+        List<Long> expired = new ArrayList<>();
+
+        for (long now = START; now <= START + 101_000; now += 1_000) {
+            long tick = now;
+            wheel.advance(now, deadline -> {
+                assertThat(deadline).isEqualTo(tick);
+                expired.add(deadline);
+            });
+        }
+
+        assertThat(expired).hasSize(200);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void catchesUpAfterALongPause() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 64, 3, START);
+        wheel.schedule("first", START + 5_000);
+        wheel.schedule("second", START + 300_000);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(START + 600_000, expired::add);
+
+        assertThat(expired).containsExactly("first", "second");
+    }
+}